@@ -0,0 +1,61 @@
+package com.phonicsfun.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Instrumented tests for GlyphAtlas drawing; these need a real Bitmap.
+ * Packing and lookup are covered on the JVM by GlyphAtlasLayoutTest.
+ */
+@RunWith(AndroidJUnit4.class)
+public class GlyphAtlasTest {
+
+    @Test
+    public void testCellIsBlittedToTheTarget() {
+        GlyphAtlas atlas = new GlyphAtlas(256);
+        int cell = fillCell(atlas, 'G', Color.RED);
+
+        assertEquals(Color.RED, blitCenter(atlas, cell));
+        atlas.release();
+    }
+
+    @Test
+    public void testResetErasesDroppedGlyphs() {
+        GlyphAtlas atlas = new GlyphAtlas(256);
+        for (int i = 0; i < 16; i++) {
+            fillCell(atlas, (char) ('A' + i), Color.RED);
+        }
+        int cell = atlas.allocate('Z', 1, 40, 64);
+        assertTrue(cell >= 0);
+        assertEquals(1, atlas.getResetCount());
+
+        // The new cell reuses space of a dropped glyph and must start out empty
+        assertEquals(Color.TRANSPARENT, blitCenter(atlas, cell));
+        atlas.release();
+    }
+
+    private static int fillCell(GlyphAtlas atlas, char symbol, int color) {
+        int cell = atlas.allocate(symbol, 1, 40, 64);
+        Paint paint = new Paint();
+        paint.setColor(color);
+        atlas.getCanvas().drawRect(new Rect(atlas.getCellBounds(cell)), paint);
+        return cell;
+    }
+
+    private static int blitCenter(GlyphAtlas atlas, int cell) {
+        Bitmap target = Bitmap.createBitmap(32, 32, Bitmap.Config.ARGB_8888);
+        atlas.draw(new Canvas(target), cell, new RectF(0, 0, 32, 32));
+        int pixel = target.getPixel(16, 16);
+        target.recycle();
+        return pixel;
+    }
+}
@@ -2,18 +2,23 @@ package com.phonicsfun.activities;
 
 import android.app.Activity;
 import android.content.Intent;
-import android.graphics.Canvas;
-import android.graphics.RectF;
 import android.os.Bundle;
 import android.view.View;
+import android.view.ViewGroup;
 import android.widget.Button;
 import android.widget.FrameLayout;
 import android.widget.TextView;
 
 import com.phonicsfun.R;
 import com.phonicsfun.core.AudioManager;
+import com.phonicsfun.core.ContentCatalogue;
+import com.phonicsfun.core.FrameMetricsMonitor;
 import com.phonicsfun.core.GameState;
-import com.phonicsfun.core.SymbolRenderer;
+import com.phonicsfun.core.GameSurfaceView;
+import com.phonicsfun.core.ProfileManager;
+import com.phonicsfun.core.RenderSnapshot;
+import com.phonicsfun.core.ReviewScheduler;
+import java.util.List;
 
 /**
  * GameplayActivity - Main game screen with letter/symbol gameplay
@@ -23,12 +28,14 @@ public class GameplayActivity extends Activity {
     
     private GameState gameState;
     private AudioManager audioManager;
-    private SymbolRenderer symbolRenderer;
     
     private char currentLetter;
     private int currentWordIndex = 0;
     private int score = 0;
     private String[] currentWords;
+    private ReviewScheduler reviews;
+    private String currentWord;
+    private boolean hintShown;
     
     // UI Components
     private Button backButton;
@@ -41,6 +48,7 @@ public class GameplayActivity extends Activity {
     private TextView scoreValueText;
     private TextView gameStatusText;
     private FrameLayout gameCanvas;
+    private GameSurfaceView gameView;
     
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -51,10 +59,9 @@ public class GameplayActivity extends Activity {
         Intent intent = getIntent();
         currentLetter = intent.getCharExtra("letter", 'G');
         
-        // Initialize core components
-        gameState = GameState.getInstance();
-        audioManager = new AudioManager(this);
-        symbolRenderer = new SymbolRenderer(this);
+        // Initialize core components; sounds already loaded by the shared audio manager are reused
+        gameState = GameState.getInstance(this);
+        audioManager = gameState.getAudioManager();
         
         // Initialize UI
         initializeUI();
@@ -83,6 +90,18 @@ public class GameplayActivity extends Activity {
         scoreValueText = findViewById(R.id.score_value);
         gameStatusText = findViewById(R.id.game_status);
         gameCanvas = findViewById(R.id.game_canvas);
+        
+        // Play field renders on its own thread; buttons stay on the UI thread
+        gameView = new GameSurfaceView(this);
+        gameView.setBackgroundLayer(getDrawable(R.drawable.space_background));
+        gameView.setSizeListener(new GameSurfaceView.SizeListener() {
+            @Override
+            public void onPlayFieldSizeChanged(int width, int height) {
+                publishScene(width, height);
+            }
+        });
+        gameCanvas.addView(gameView, new FrameLayout.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
     }
     
     /**
@@ -130,10 +149,36 @@ public class GameplayActivity extends Activity {
      * Initialize game for current letter
      */
     private void initializeGame() {
-        currentWords = symbolRenderer.getWordsForSymbol(currentLetter);
+        List<GameState.WordMessage> words = gameState.getWordMessagesForLetter(String.valueOf(currentLetter));
+        currentWords = new String[words.size()];
+        for (int i = 0; i < currentWords.length; i++) {
+            currentWords[i] = words.get(i).getWord();
+        }
         currentWordIndex = 0;
         score = 0;
         
+        // Word order comes from the learner's spaced-repetition state
+        reviews = ProfileManager.getInstance(this).getActiveProfile().getReviewScheduler();
+        for (String word : currentWords) {
+            reviews.add(currentLetter, word);
+        }
+        currentWord = reviews.next(currentLetter, null);
+        hintShown = false;
+        
+        // Pick up a round of this letter that was interrupted, e.g. by process death
+        String savedLetter = gameState.getCurrentLetter();
+        GameState.GameStatus status = gameState.getGameStatus();
+        if ((status == GameState.GameStatus.ACTIVE || status == GameState.GameStatus.PAUSED)
+                && gameState.getCurrentWord() != null
+                && savedLetter != null && savedLetter.length() == 1 && savedLetter.charAt(0) == currentLetter
+                && gameState.getCurrentWordIndex() < currentWords.length) {
+            currentWordIndex = gameState.getCurrentWordIndex();
+            currentWord = gameState.getCurrentWord();
+            score = currentWordIndex * 10;
+            gameState.resumeGame();
+        }
+        gameState.setRound(String.valueOf(currentLetter), currentWordIndex, currentWord);
+        
         // Play phoneme sound for the letter
         audioManager.playPhoneme(currentLetter);
     }
@@ -155,11 +200,25 @@ public class GameplayActivity extends Activity {
         
         // Update game status
         if (currentWordIndex < currentWords.length) {
-            String currentWord = currentWords[currentWordIndex];
             gameStatusText.setText(currentLetter + " is for " + currentWord);
         } else {
             gameStatusText.setText(getString(R.string.game_completed));
         }
+        
+        publishScene(gameView.getWidth(), gameView.getHeight());
+    }
+    
+    /**
+     * Hand the current play field to the render thread
+     */
+    private void publishScene(int width, int height) {
+        if (width <= 0 || height <= 0) return;
+        
+        RenderSnapshot scene = gameView.beginSnapshot();
+        scene.addSymbol(currentLetter, width / 2f, height / 2f, Math.min(width, height) / 2f, 1);
+        // The letter fills the field, so a new scene repaints everything
+        gameView.getDirtyRegion().markAll();
+        gameView.publishSnapshot();
     }
     
     /**
@@ -167,7 +226,6 @@ public class GameplayActivity extends Activity {
      */
     private void playCurrentWordAudio() {
         if (currentWordIndex < currentWords.length) {
-            String currentWord = currentWords[currentWordIndex];
             audioManager.playVoice(currentWord);
         }
     }
@@ -177,8 +235,8 @@ public class GameplayActivity extends Activity {
      */
     private void showHint() {
         if (currentWordIndex < currentWords.length) {
-            String currentWord = currentWords[currentWordIndex];
             gameStatusText.setText("Hint: " + currentWord + " starts with " + currentLetter);
+            hintShown = true;
         }
     }
     
@@ -186,9 +244,17 @@ public class GameplayActivity extends Activity {
      * Move to next word
      */
     private void nextWord() {
+        // Needing a hint counts as a miss, so the word comes back sooner
+        if (currentWord != null) {
+            reviews.review(currentLetter, currentWord, !hintShown, System.currentTimeMillis());
+        }
+        hintShown = false;
+        
         if (currentWordIndex < currentWords.length - 1) {
             currentWordIndex++;
+            currentWord = reviews.next(currentLetter, currentWord);
             score += 10; // Add points for completing word
+            gameState.setRound(String.valueOf(currentLetter), currentWordIndex, currentWord);
             updateGameDisplay();
             
             // Play audio for new word
@@ -196,6 +262,7 @@ public class GameplayActivity extends Activity {
         } else {
             // Game completed for this letter
             gameState.markLetterCompleted(currentLetter);
+            gameState.setGameStatus(GameState.GameStatus.COMPLETED);
             audioManager.playCelebration();
             
             // Show completion message
@@ -206,30 +273,10 @@ public class GameplayActivity extends Activity {
         }
     }
     
-    /**
-     * Custom game view for rendering symbols
-     */
-    private class GameView extends View {
-        
-        public GameView(android.content.Context context) {
-            super(context);
-        }
-        
-        @Override
-        protected void onDraw(Canvas canvas) {
-            super.onDraw(canvas);
-            
-            // Create bounds for symbol rendering
-            RectF bounds = new RectF(0, 0, getWidth(), getHeight());
-            
-            // Render current letter using SymbolRenderer
-            symbolRenderer.renderSymbol(canvas, currentLetter, bounds, 1);
-        }
-    }
-    
     @Override
     protected void onResume() {
         super.onResume();
+        FrameMetricsMonitor.getInstance().attach(this);
         // Resume audio playback if needed
         audioManager.resume();
     }
@@ -237,14 +284,29 @@ public class GameplayActivity extends Activity {
     @Override
     protected void onPause() {
         super.onPause();
+        FrameMetricsMonitor.getInstance().detach(this);
         // Pause audio playback
         audioManager.pause();
+        // Last point we are sure to run before the process may be killed
+        gameState.saveSnapshot();
+    }
+    
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        gameState.getBitmapCache().trimMemory(level);
+        ContentCatalogue.getInstance(this).trimMemory(level);
+        ProfileManager.getInstance(this).trimMemory(level);
     }
     
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        // Clean up resources
-        audioManager.release();
+        // Audio is shared and kept for the next screen
+        if (isFinishing()) {
+            // Left on purpose, so there is no round to resume
+            gameState.resetGame();
+            gameState.saveSnapshot();
+        }
     }
 }
\ No newline at end of file
@@ -30,7 +30,7 @@ public class LevelSelectActivity extends Activity {
         setContentView(R.layout.activity_level_select);
         
         // Initialize game state
-        gameState = GameState.getInstance();
+        gameState = GameState.getInstance(this);
         
         // Initialize UI components
         initializeUI();
@@ -123,4 +123,11 @@ public class LevelSelectActivity extends Activity {
         // Update progress when returning from gameplay
         updateProgressDisplay();
     }
+    
+    @Override
+    protected void onPause() {
+        super.onPause();
+        gameState.setCurrentScreen(GameState.Screen.LEVEL_SELECT);
+        gameState.saveSnapshot();
+    }
 }
\ No newline at end of file
@@ -1,9 +1,9 @@
 package com.phonicsfun.activities;
 
 import android.app.Activity;
-import android.content.SharedPreferences;
 import android.os.Bundle;
 import android.view.View;
+import android.widget.AdapterView;
 import android.widget.ArrayAdapter;
 import android.widget.Button;
 import android.widget.RadioButton;
@@ -15,19 +15,27 @@ import android.widget.TextView;
 
 import com.phonicsfun.R;
 import com.phonicsfun.core.AudioManager;
+import com.phonicsfun.core.LearnerProfile;
+import com.phonicsfun.core.ProfileManager;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * SettingsActivity - Game settings and preferences
  */
 public class SettingsActivity extends Activity {
     private static final String TAG = "SettingsActivity";
-    private static final String PREFS_NAME = "PhonicsGamePrefs";
     
     private AudioManager audioManager;
-    private SharedPreferences sharedPreferences;
+    private ProfileManager profiles;
+    private LearnerProfile profile;
+    // Learner ids in spinner order
+    private final List<String> learnerIds = new ArrayList<>();
     
     // UI Components
     private Button backButton;
+    private Spinner learnerSpinner;
+    private Button addLearnerButton;
     private Spinner voiceTemplateSpinner;
     private Button voicePreviewButton;
     private SeekBar audioVolumeSeekBar;
@@ -45,7 +53,10 @@ public class SettingsActivity extends Activity {
         
         // Initialize components
         audioManager = new AudioManager(this);
-        sharedPreferences = getSharedPreferences(PREFS_NAME, MODE_PRIVATE);
+        // Voice preview falls back to TextToSpeech, so start the engine now
+        audioManager.initializeSpeech();
+        profiles = ProfileManager.getInstance(this);
+        profile = profiles.getActiveProfile();
         
         // Initialize UI
         initializeUI();
@@ -62,6 +73,8 @@ public class SettingsActivity extends Activity {
      */
     private void initializeUI() {
         backButton = findViewById(R.id.back_button);
+        learnerSpinner = findViewById(R.id.learner_spinner);
+        addLearnerButton = findViewById(R.id.add_learner_button);
         voiceTemplateSpinner = findViewById(R.id.voice_template_spinner);
         voicePreviewButton = findViewById(R.id.voice_preview_button);
         audioVolumeSeekBar = findViewById(R.id.audio_volume_seekbar);
@@ -72,6 +85,8 @@ public class SettingsActivity extends Activity {
         resetProgressButton = findViewById(R.id.reset_progress_button);
         appVersionText = findViewById(R.id.app_version);
         
+        showLearners();
+        
         // Set up voice template spinner
         ArrayAdapter<CharSequence> voiceAdapter = ArrayAdapter.createFromResource(
                 this, R.array.voice_templates, android.R.layout.simple_spinner_item);
@@ -100,6 +115,23 @@ public class SettingsActivity extends Activity {
             }
         });
         
+        learnerSpinner.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
+            @Override
+            public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
+                switchLearner(learnerIds.get(position));
+            }
+            
+            @Override
+            public void onNothingSelected(AdapterView<?> parent) {}
+        });
+        
+        addLearnerButton.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View v) {
+                addLearner();
+            }
+        });
+        
         voicePreviewButton.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View v) {
@@ -155,11 +187,48 @@ public class SettingsActivity extends Activity {
     }
     
     /**
-     * Load current settings from preferences
+     * Fill the learner spinner and select the active learner
+     */
+    private void showLearners() {
+        learnerIds.clear();
+        learnerIds.addAll(profiles.getProfileIds());
+        List<String> names = new ArrayList<>();
+        for (String id : learnerIds) {
+            names.add(profiles.getProfileName(id));
+        }
+        ArrayAdapter<String> learnerAdapter = new ArrayAdapter<>(
+                this, android.R.layout.simple_spinner_item, names);
+        learnerAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+        learnerSpinner.setAdapter(learnerAdapter);
+        learnerSpinner.setSelection(learnerIds.indexOf(profile.getId()));
+    }
+    
+    /**
+     * Keep the current learner's settings and show another learner's
+     */
+    private void switchLearner(String id) {
+        if (id.equals(profile.getId())) return;
+        saveSettings();
+        profiles.setActiveProfile(id);
+        profile = profiles.getActiveProfile();
+        loadSettings();
+    }
+    
+    /**
+     * Add a learner and make them the active one
+     */
+    private void addLearner() {
+        String id = profiles.createProfile(getString(R.string.learner_name, learnerIds.size() + 1));
+        switchLearner(id);
+        showLearners();
+    }
+    
+    /**
+     * Load the active learner's settings
      */
     private void loadSettings() {
         // Load voice template
-        int voiceTemplate = sharedPreferences.getInt("voice_template", 0);
+        int voiceTemplate = profile.getVoiceTemplate();
         voiceTemplateSpinner.setSelection(voiceTemplate);
         String[] voiceTemplates = {"american_female", "american_male", "british_female", "british_male"};
         if (voiceTemplate >= 0 && voiceTemplate < voiceTemplates.length) {
@@ -167,13 +236,13 @@ public class SettingsActivity extends Activity {
         }
         
         // Load audio volume
-        int audioVolume = sharedPreferences.getInt("audio_volume", 80);
+        int audioVolume = profile.getAudioVolume();
         audioVolumeSeekBar.setProgress(audioVolume);
         audioVolumeValue.setText(audioVolume + "%");
         audioManager.setVolume(audioVolume / 100.0f);
         
         // Load background music setting
-        boolean backgroundMusic = sharedPreferences.getBoolean("background_music", true);
+        boolean backgroundMusic = profile.isBackgroundMusic();
         backgroundMusicSwitch.setChecked(backgroundMusic);
         if (backgroundMusic) {
             audioManager.playBackgroundMusic();
@@ -182,7 +251,7 @@ public class SettingsActivity extends Activity {
         }
         
         // Load game speed
-        float gameSpeed = sharedPreferences.getFloat("game_speed", 1.0f);
+        float gameSpeed = profile.getGameSpeed();
         if (gameSpeed == 0.5f) {
             gameSpeedGroup.check(R.id.speed_slow);
         } else if (gameSpeed == 1.0f) {
@@ -192,33 +261,30 @@ public class SettingsActivity extends Activity {
         }
         
         // Load difficulty
-        int difficulty = sharedPreferences.getInt("difficulty", 1); // Default to normal
+        int difficulty = profile.getDifficulty(); // Default is normal
         difficultySpinner.setSelection(difficulty);
     }
     
     /**
-     * Save current settings to preferences
+     * Save current settings to the active learner's profile
      */
     private void saveSettings() {
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        
         // Save voice template
-        editor.putInt("voice_template", voiceTemplateSpinner.getSelectedItemPosition());
+        profile.setVoiceTemplate(voiceTemplateSpinner.getSelectedItemPosition());
         
         // Save audio volume
-        editor.putInt("audio_volume", audioVolumeSeekBar.getProgress());
+        profile.setAudioVolume(audioVolumeSeekBar.getProgress());
         
         // Save background music setting
-        editor.putBoolean("background_music", backgroundMusicSwitch.isChecked());
+        profile.setBackgroundMusic(backgroundMusicSwitch.isChecked());
         
         // Save game speed
-        float gameSpeed = getCurrentGameSpeed();
-        editor.putFloat("game_speed", gameSpeed);
+        profile.setGameSpeed(getCurrentGameSpeed());
         
         // Save difficulty
-        editor.putInt("difficulty", difficultySpinner.getSelectedItemPosition());
+        profile.setDifficulty(difficultySpinner.getSelectedItemPosition());
         
-        editor.apply();
+        profile.save();
     }
     
     /**
@@ -261,11 +327,7 @@ public class SettingsActivity extends Activity {
      * Reset game progress
      */
     private void resetGameProgress() {
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.remove("completed_letters");
-        editor.remove("scores");
-        editor.remove("progress");
-        editor.apply();
+        profiles.resetProgress(profile.getId());
         
         // Show confirmation (in a real app, you'd show a dialog)
         // For now, just a simple indicator
@@ -279,6 +341,12 @@ public class SettingsActivity extends Activity {
         }, 2000);
     }
     
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        profiles.trimMemory(level);
+    }
+    
     @Override
     protected void onDestroy() {
         super.onDestroy();
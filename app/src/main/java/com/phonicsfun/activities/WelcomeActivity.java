@@ -4,6 +4,7 @@ import android.app.Activity;
 import android.content.Intent;
 import android.os.Bundle;
 import android.view.View;
+import android.view.ViewGroup;
 import android.view.WindowManager;
 import android.widget.Button;
 import android.widget.TextView;
@@ -11,13 +12,15 @@ import android.animation.ObjectAnimator;
 import android.animation.AnimatorSet;
 import android.animation.ValueAnimator;
 import android.graphics.Color;
-import android.os.Handler;
 import android.widget.ImageView;
-import java.util.Random;
 
 import com.phonicsfun.R;
 import com.phonicsfun.core.GameState;
 import com.phonicsfun.core.EventManager;
+import com.phonicsfun.core.FrameMetricsMonitor;
+import com.phonicsfun.core.ParticleView;
+import com.phonicsfun.core.StartupOrchestrator;
+import com.phonicsfun.core.StartupOrchestrator.Stage;
 
 /**
  * WelcomeActivity - Main entry point for the Phonics Fun game
@@ -33,8 +36,9 @@ public class WelcomeActivity extends Activity {
     private Button startGameButton;
     private Button settingsButton;
     private ImageView backgroundView;
-    private Handler animationHandler;
-    private Random random;
+    private ParticleView particleView;
+    private StartupOrchestrator startup;
+    private boolean resumed = false;
     
     // Animation objects
     private AnimatorSet welcomeAnimations;
@@ -48,18 +52,29 @@ public class WelcomeActivity extends Activity {
         getWindow().setFlags(WindowManager.LayoutParams.FLAG_FULLSCREEN,
                 WindowManager.LayoutParams.FLAG_FULLSCREEN);
         
-        setContentView(R.layout.activity_welcome);
+        // Only game state is needed for the first frame; sound and words come after it
+        startup = new StartupOrchestrator()
+                .add(Stage.CRITICAL, "gameState", () -> gameState = GameState.getInstance(this))
+                .add(Stage.AFTER_FIRST_FRAME, "events", this::subscribeToEvents, "gameState")
+                .add(Stage.AFTER_FIRST_FRAME, "effects", () -> gameState.getAudioManager().loadEffects(), "gameState")
+                .add(Stage.AFTER_FIRST_FRAME, "words", () -> gameState.getWordCatalogue(), "gameState")
+                .add(Stage.IDLE, "music", this::startMusic, "effects")
+                .add(Stage.IDLE, "speech", () -> gameState.getAudioManager().initializeSpeech(), "effects");
+        startup.start();
         
-        // Initialize game state
-        gameState = new GameState(this);
+        setContentView(R.layout.activity_welcome);
         
         // Initialize UI components
         initializeViews();
         setupEventListeners();
         startWelcomeAnimations();
-        
-        // Start background music
-        gameState.getAudioManager().playBackgroundMusic();
+    }
+    
+    private void startMusic() {
+        gameState.getAudioManager().prepareMusic();
+        if (resumed) {
+            gameState.getAudioManager().playBackgroundMusic();
+        }
     }
     
     private void initializeViews() {
@@ -69,8 +84,10 @@ public class WelcomeActivity extends Activity {
         settingsButton = findViewById(R.id.settings_button);
         backgroundView = findViewById(R.id.background_view);
         
-        animationHandler = new Handler();
-        random = new Random();
+        // Stars and planets drawn in one view, just above the background image
+        particleView = new ParticleView(this);
+        ((ViewGroup) findViewById(R.id.welcome_container)).addView(particleView, 1,
+                new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
         
         // Set initial text
         titleText.setText("Welcome To");
@@ -91,8 +108,9 @@ public class WelcomeActivity extends Activity {
                 openSettings();
             }
         });
-        
-        // Subscribe to game events
+    }
+    
+    private void subscribeToEvents() {
         gameState.getEventManager().subscribe(EventManager.GameEvents.SETTINGS_CHANGED, 
             new EventManager.EventListener() {
                 @Override
@@ -109,11 +127,8 @@ public class WelcomeActivity extends Activity {
         // Create pulsating text animation
         createPulsatingTextAnimation();
         
-        // Create background star animation
-        createBackgroundAnimations();
-        
-        // Create floating planet animation
-        createFloatingPlanetAnimation();
+        // Twinkling stars and floating planets
+        particleView.start();
         
         // Start all animations
         if (welcomeAnimations != null) {
@@ -145,96 +160,6 @@ public class WelcomeActivity extends Activity {
         welcomeAnimations.playTogether(titlePulse, teacherScale, teacherScaleY, buttonBounce);
     }
     
-    private void createBackgroundAnimations() {
-        // Create twinkling star effect
-        animationHandler.postDelayed(new Runnable() {
-            @Override
-            public void run() {
-                if (animationsActive) {
-                    createTwinklingStars();
-                    animationHandler.postDelayed(this, 500);
-                }
-            }
-        }, 500);
-    }
-    
-    private void createTwinklingStars() {
-        // Create random twinkling effects across the screen
-        for (int i = 0; i < 3; i++) {
-            final ImageView star = new ImageView(this);
-            star.setImageResource(R.drawable.star);
-            star.setAlpha(0.0f);
-            
-            // Random position
-            float x = random.nextFloat() * getResources().getDisplayMetrics().widthPixels;
-            float y = random.nextFloat() * getResources().getDisplayMetrics().heightPixels;
-            
-            star.setX(x);
-            star.setY(y);
-            
-            // Add to layout
-            ((android.view.ViewGroup) findViewById(R.id.welcome_container)).addView(star);
-            
-            // Animate star
-            ObjectAnimator starTwinkle = ObjectAnimator.ofFloat(star, "alpha", 0.0f, 1.0f, 0.0f);
-            starTwinkle.setDuration(1000);
-            starTwinkle.start();
-            
-            // Remove star after animation
-            animationHandler.postDelayed(new Runnable() {
-                @Override
-                public void run() {
-                    ((android.view.ViewGroup) findViewById(R.id.welcome_container)).removeView(star);
-                }
-            }, 1000);
-        }
-    }
-    
-    private void createFloatingPlanetAnimation() {
-        // Create floating planets in the background
-        animationHandler.postDelayed(new Runnable() {
-            @Override
-            public void run() {
-                if (animationsActive && random.nextFloat() < 0.3f) {
-                    createFloatingPlanet();
-                }
-                if (animationsActive) {
-                    animationHandler.postDelayed(this, 2000);
-                }
-            }
-        }, 2000);
-    }
-    
-    private void createFloatingPlanet() {
-        final ImageView planet = new ImageView(this);
-        planet.setImageResource(R.drawable.planet_small);
-        planet.setAlpha(0.6f);
-        
-        // Random starting position (off-screen)
-        float startX = -200f;
-        float startY = random.nextFloat() * getResources().getDisplayMetrics().heightPixels;
-        float endX = getResources().getDisplayMetrics().widthPixels + 200f;
-        
-        planet.setX(startX);
-        planet.setY(startY);
-        
-        // Add to layout
-        ((android.view.ViewGroup) findViewById(R.id.welcome_container)).addView(planet);
-        
-        // Animate planet movement
-        ObjectAnimator planetMove = ObjectAnimator.ofFloat(planet, "x", startX, endX);
-        planetMove.setDuration(8000);
-        planetMove.start();
-        
-        // Remove planet after animation
-        animationHandler.postDelayed(new Runnable() {
-            @Override
-            public void run() {
-                ((android.view.ViewGroup) findViewById(R.id.welcome_container)).removeView(planet);
-            }
-        }, 8000);
-    }
-    
     private void startGame() {
         // Play button sound
         gameState.getAudioManager().playEffect("celebration");
@@ -274,22 +199,29 @@ public class WelcomeActivity extends Activity {
         if (welcomeAnimations != null && welcomeAnimations.isRunning()) {
             welcomeAnimations.cancel();
         }
-        animationHandler.removeCallbacksAndMessages(null);
+        particleView.stop();
     }
     
     @Override
     protected void onResume() {
         super.onResume();
+        FrameMetricsMonitor.getInstance().attach(this);
         if (!animationsActive) {
             startWelcomeAnimations();
         }
-        gameState.getAudioManager().playBackgroundMusic();
+        resumed = true;
+        // On a cold start the idle stage starts the music instead
+        if (startup.isStageDone(Stage.IDLE)) {
+            gameState.getAudioManager().playBackgroundMusic();
+        }
     }
     
     @Override
     protected void onPause() {
         super.onPause();
+        FrameMetricsMonitor.getInstance().detach(this);
         stopAnimations();
+        resumed = false;
         gameState.getAudioManager().pauseMusic();
     }
     
@@ -297,9 +229,11 @@ public class WelcomeActivity extends Activity {
     protected void onDestroy() {
         super.onDestroy();
         stopAnimations();
+        startup.cancel();
         if (gameState != null) {
             gameState.getEventManager().cleanup();
-            gameState.getAudioManager().cleanup();
+            // Other screens share the audio unless the app is closing
+            if (isFinishing()) gameState.releaseAudio();
         }
     }
 }
@@ -0,0 +1,211 @@
+package com.phonicsfun.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * AudioLatencyTracker - Per-sound request latency histograms
+ * Records which path served each request (SoundPool, mixer, not-yet-loaded
+ * sample, TTS) and how long it took, so slow keys can be pre-synthesized or pinned.
+ * Mixer and TTS latency run to the first audio; SoundPool has no start
+ * callback, so its latency only covers dispatch and the report says so.
+ */
+public final class AudioLatencyTracker {
+
+    /**
+     * How a playback request was served
+     */
+    public enum Path {
+        SOUNDPOOL("dispatch"),      // sample loaded; latency is the play() call only
+        MIXER("first_write"),       // latency runs until the clip's first frames reach the AudioTrack
+        NOT_LOADED("dispatch"),     // sample still decoding; nothing audible
+        TTS("speech_start");        // synthesized; latency is speak() to onStart
+
+        /** What the latency of this path measures, as named in the report */
+        public final String measure;
+
+        Path(String measure) {
+            this.measure = measure;
+        }
+    }
+
+    // Bucket i holds latencies in [2^(i-1), 2^i) microseconds; the last bucket is open-ended
+    static final int BUCKET_COUNT = 26;
+
+    // Utterances that never report back (engine died) are dropped past this
+    private static final int MAX_PENDING_UTTERANCES = 32;
+
+    private final Map<String, Histogram> histograms = new HashMap<>();
+    private final Map<String, PendingUtterance> pendingUtterances = new HashMap<>();
+
+    private static final class PendingUtterance {
+        final String key;
+        final long requestNanos;
+
+        PendingUtterance(String key, long requestNanos) {
+            this.key = key;
+            this.requestNanos = requestNanos;
+        }
+    }
+
+    /**
+     * Latency distribution for one (key, path) pair
+     */
+    public static final class Histogram {
+        private final String key;
+        private final Path path;
+        private final long[] buckets = new long[BUCKET_COUNT];
+        private long count;
+        private long totalMicros;
+        private long maxMicros;
+        private long lastRequestNanos;
+
+        Histogram(String key, Path path) {
+            this.key = key;
+            this.path = path;
+        }
+
+        Histogram(Histogram other) {
+            this(other.key, other.path);
+            System.arraycopy(other.buckets, 0, buckets, 0, BUCKET_COUNT);
+            count = other.count;
+            totalMicros = other.totalMicros;
+            maxMicros = other.maxMicros;
+            lastRequestNanos = other.lastRequestNanos;
+        }
+
+        void add(long micros, long requestNanos) {
+            buckets[bucketFor(micros)]++;
+            count++;
+            totalMicros += micros;
+            maxMicros = Math.max(maxMicros, micros);
+            lastRequestNanos = requestNanos;
+        }
+
+        public String getKey() { return key; }
+        public Path getPath() { return path; }
+        public long getCount() { return count; }
+        public long getMaxMicros() { return maxMicros; }
+        public long getLastRequestNanos() { return lastRequestNanos; }
+
+        public long getMeanMicros() {
+            return count > 0 ? totalMicros / count : 0;
+        }
+
+        /**
+         * Upper bound of the bucket containing the given percentile (0..100)
+         */
+        public long getPercentileMicros(double percentile) {
+            if (count == 0) return 0;
+            long rank = (long) Math.ceil(count * percentile / 100.0);
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                seen += buckets[i];
+                if (seen >= Math.max(1, rank)) {
+                    return Math.min(maxMicros, bucketUpperBound(i));
+                }
+            }
+            return maxMicros;
+        }
+    }
+
+    /**
+     * Record a request, timed from the request to the point its path measures
+     */
+    public synchronized void record(String key, Path path, long requestNanos, long servedNanos) {
+        histogramFor(key, path).add(Math.max(0, (servedNanos - requestNanos) / 1000), requestNanos);
+    }
+
+    /**
+     * Note a TTS request; the latency is recorded when the engine starts speaking
+     */
+    public synchronized void beginUtterance(String utteranceId, String key, long requestNanos) {
+        if (pendingUtterances.size() >= MAX_PENDING_UTTERANCES) {
+            pendingUtterances.clear();
+        }
+        pendingUtterances.put(utteranceId, new PendingUtterance(key, requestNanos));
+    }
+
+    /**
+     * Called from UtteranceProgressListener.onStart
+     */
+    public synchronized void utteranceStarted(String utteranceId, long startNanos) {
+        PendingUtterance pending = pendingUtterances.remove(utteranceId);
+        if (pending != null) {
+            record(pending.key, Path.TTS, pending.requestNanos, startNanos);
+        }
+    }
+
+    /**
+     * Forget an utterance that finished, failed or was flushed before starting
+     */
+    public synchronized void utteranceAbandoned(String utteranceId) {
+        pendingUtterances.remove(utteranceId);
+    }
+
+    /**
+     * Copy of a single histogram, or null when nothing was recorded
+     */
+    public synchronized Histogram getHistogram(String key, Path path) {
+        Histogram histogram = histograms.get(mapKey(key, path));
+        return histogram != null ? new Histogram(histogram) : null;
+    }
+
+    /**
+     * Copies of every histogram, sorted by key then path
+     */
+    public synchronized List<Histogram> getHistograms() {
+        List<String> keys = new ArrayList<>(histograms.keySet());
+        Collections.sort(keys);
+        List<Histogram> result = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            result.add(new Histogram(histograms.get(key)));
+        }
+        return result;
+    }
+
+    /**
+     * CSV export: key,path,measure,count,mean_us,p50_us,p90_us,p99_us,max_us
+     */
+    public String export() {
+        StringBuilder out = new StringBuilder("key,path,measure,count,mean_us,p50_us,p90_us,p99_us,max_us\n");
+        for (Histogram h : getHistograms()) {
+            out.append(String.format(Locale.US, "%s,%s,%s,%d,%d,%d,%d,%d,%d\n",
+                    h.key, h.path.name().toLowerCase(Locale.US), h.path.measure, h.count, h.getMeanMicros(),
+                    h.getPercentileMicros(50), h.getPercentileMicros(90), h.getPercentileMicros(99), h.maxMicros));
+        }
+        return out.toString();
+    }
+
+    public synchronized void reset() {
+        histograms.clear();
+        pendingUtterances.clear();
+    }
+
+    private Histogram histogramFor(String key, Path path) {
+        String mapKey = mapKey(key, path);
+        Histogram histogram = histograms.get(mapKey);
+        if (histogram == null) {
+            histogram = new Histogram(key, path);
+            histograms.put(mapKey, histogram);
+        }
+        return histogram;
+    }
+
+    private static String mapKey(String key, Path path) {
+        return key + "#" + path.ordinal();
+    }
+
+    static int bucketFor(long micros) {
+        int bucket = 64 - Long.numberOfLeadingZeros(micros);
+        return Math.min(bucket, BUCKET_COUNT - 1);
+    }
+
+    static long bucketUpperBound(int bucket) {
+        return bucket == BUCKET_COUNT - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+}
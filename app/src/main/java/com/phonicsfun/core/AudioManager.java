@@ -1,30 +1,76 @@
 package com.phonicsfun.core;
 
 import android.content.Context;
+import android.content.res.AssetFileDescriptor;
 import android.media.AudioAttributes;
 import android.media.MediaPlayer;
 import android.media.SoundPool;
+import android.os.SystemClock;
 import android.speech.tts.TextToSpeech;
+import android.speech.tts.UtteranceProgressListener;
 import android.util.Log;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * AudioManager - Handles all audio playback for the Phonics Fun game
  * Supports background music, sound effects, and voice audio
  * Android/Java implementation with SoundPool for low-latency effects
+ *
+ * Thread-safe: GameState plays sounds from GameLogicThread while activities
+ * call in from the main thread, so every public method holds the instance
+ * lock. Engine callbacks (TextToSpeech init) take the same lock.
  */
 public class AudioManager {
     private static final String TAG = "PhonicsAudioManager";
     private static final String DEFAULT_VOICE_TEMPLATE = "british_female";
+    private static final String[] DEFAULT_EFFECT_KEYS = {"celebration", "explosion", "phoneme_g"};
+    private static final int MIXER_MAX_VOICES = 16;
+    private static final String VOICE_PACK_ASSET = "audio/voices.pack";
     
     private Context context;
+    private final ContentCatalogue content;
     private SoundPool soundPool;
     private MediaPlayer backgroundMusicPlayer;
     private Map<String, Integer> soundMap;
-    private Map<String, Integer> voiceMap;
     private TextToSpeech textToSpeech;
+    // Bumped for every engine started, so init callbacks from a released engine are ignored
+    private int speechGeneration;
+    // Set once the engine's init callback succeeds; speak() fails before then
+    private boolean speechReady = false;
+    // Latest word asked for before the engine was ready, spoken from its init callback
+    private String pendingSpeechKey;
+    private String pendingSpeechLatencyKey;
+    private long pendingSpeechRequestNanos;
+    
+    // Effects, music and speech are loaded on first use or by the start-up stages
+    private boolean effectsLoaded = false;
+    private boolean musicPrepared = false;
+    
+    // Software mixer (PCM into one AudioTrack) for packed voices and, optionally, effects
+    private PcmMixer mixer;
+    private MixerTrack mixerTrack;
+    private boolean mixerFailed = false;
+    // Decoded effects; null unless effects are routed through the mixer
+    private Map<String, PcmClip> effectClips;
+    
+    // Packed voice audio (memory-mapped), the only source of recorded voices
+    private AudioPack voicePack;
+    private boolean voicePackChecked = false;
+    
+    // Admission control: per-class budgets, retrigger limits, voice-over-effect preemption
+    private final AudioScheduler scheduler = new AudioScheduler();
+    
+    // Request latency per sound key and path; see AudioLatencyTracker.Path for what each measures
+    private final AudioLatencyTracker latencyTracker = new AudioLatencyTracker();
+    private final Set<Integer> loadedSampleIds = Collections.newSetFromMap(new ConcurrentHashMap<Integer, Boolean>());
     
     private boolean isMuted = false;
     private float musicVolume = 0.5f;
@@ -39,10 +85,24 @@ public class AudioManager {
     
     public AudioManager(Context context) {
         this.context = context.getApplicationContext();
+        this.content = ContentCatalogue.getInstance(context);
+        initializeScheduler();
         initializeSoundPool();
         initializeAudioMaps();
-        loadDefaultSounds();
-        initializeTextToSpeech();
+    }
+    
+    private void initializeScheduler() {
+        // Celebrations overlap badly; explosions may repeat quickly but not every frame
+        scheduler.setMinRetriggerInterval("celebration", 400);
+        scheduler.setMinRetriggerInterval("explosion", 120);
+        scheduler.setPreemptionListener((streamId, priority) -> {
+            // Negative ids are software mixer handles, positive ones SoundPool streams
+            if (streamId < 0) {
+                if (mixer != null) mixer.stop(-streamId);
+            } else if (soundPool != null) {
+                soundPool.stop(streamId);
+            }
+        });
     }
     
     private void initializeSoundPool() {
@@ -55,32 +115,41 @@ public class AudioManager {
                 .setMaxStreams(10)
                 .setAudioAttributes(audioAttributes)
                 .build();
+        soundPool.setOnLoadCompleteListener((pool, sampleId, status) -> {
+            if (status == 0) loadedSampleIds.add(sampleId);
+        });
     }
     
     private void initializeAudioMaps() {
         soundMap = new HashMap<>();
-        voiceMap = new HashMap<>();
     }
     
-    private void loadDefaultSounds() {
+    /**
+     * Queue the default effects for decoding; does nothing after the first call
+     */
+    public synchronized void loadEffects() {
+        if (effectsLoaded || soundPool == null) return;
+        effectsLoaded = true;
         Log.d(TAG, "Loading default sound effects...");
         
         // Load sound effects
         try {
-            soundMap.put("celebration", soundPool.load(context, getResId("celebration", "raw"), 1));
-            soundMap.put("explosion", soundPool.load(context, getResId("explosion", "raw"), 1));
-            soundMap.put("phoneme_g", soundPool.load(context, getResId("phoneme_g", "raw"), 1));
+            for (String effectKey : DEFAULT_EFFECT_KEYS) {
+                soundMap.put(effectKey, soundPool.load(context, getResId(effectKey, "raw"), 1));
+            }
 
             Log.d(TAG, "Default sounds loaded successfully");
         } catch (IllegalStateException | IllegalArgumentException e) {
             Log.e(TAG, "Error loading default sounds: " + e.getMessage());
         }
-        
-        // Initialize background music
-        initializeBackgroundMusic();
     }
     
-    private void initializeBackgroundMusic() {
+    /**
+     * Create and prepare the music player; does nothing after the first call
+     */
+    public synchronized void prepareMusic() {
+        if (musicPrepared) return;
+        musicPrepared = true;
         try {
             backgroundMusicPlayer = MediaPlayer.create(context, getResId("background_music", "raw"));
             if (backgroundMusicPlayer != null) {
@@ -93,134 +162,155 @@ public class AudioManager {
         }
     }
     
-    public void loadLetterAssets(String letter) {
+    public synchronized void loadLetterAssets(String letter) {
         Log.d(TAG, "Loading audio assets for letter: " + letter);
         
-        // Load voice assets for the letter (only animate characters)
-        String[] words = getAnimateWordsForLetter(letter);
-        for (String word : words) {
-            String voiceKey = "voice_" + word;
-            try {
-                loadVoiceVariant(voiceKey, "american_male");
-                loadVoiceVariant(voiceKey, "american_female");
-                loadVoiceVariant(voiceKey, "british_male");
-                loadVoiceVariant(voiceKey, "british_female");
-
-                Log.d(TAG, "Loaded voice assets for word: " + word);
-            } catch (IllegalStateException | IllegalArgumentException e) {
-                Log.w(TAG, "Could not load voice asset for word: " + word + " - " + e.getMessage());
-            }
-        }
-    }
-
-    private void loadVoiceVariant(String voiceKey, String template) {
-        int resId = getVoiceResId(voiceKey, template);
-        if (resId != 0) {
-            voiceMap.put(voiceKey + "_" + template, soundPool.load(context, resId, 1));
-        } else {
-            Log.w(TAG, "Missing voice resource for " + voiceKey + " / " + template);
+        // Voices play straight from the mapped pack; map it and start the mixer
+        // now so the first word of the round is not held up
+        ContentEntry entry = content.get(letter);
+        if (entry == null) return;
+        AudioPack pack = getVoicePack();
+        if (pack == null || getMixer() == null) {
+            Log.w(TAG, "Packed voices unavailable, words for " + letter + " will use TextToSpeech");
+            return;
         }
-    }
-
-    private int getVoiceResId(String voiceKey, String template) {
-        int resId = getResId(voiceKey + "_" + template, "raw");
-        if (resId != 0) return resId;
-
-        resId = getResId(template + "_" + voiceKey, "raw");
-        if (resId != 0) return resId;
-
-        return getResId(voiceKey, "raw");
-    }
-    
-    private String[] getWordsForLetter(String letter) {
-        switch (letter.toUpperCase()) {
-            case "G":
-                return new String[]{"grape", "goat", "gold", "girl", "grandpa"};
-            case "A":
-                return new String[]{"apple", "ant"};
-            case "B":
-                return new String[]{"ball", "bat"};
-            default:
-                return new String[]{};
-        }
-    }
-    
-    private String[] getAnimateWordsForLetter(String letter) {
-        // Load every in-game word so pronunciation is available for gameplay and previews
-        switch (letter.toUpperCase()) {
-            case "G":
-                return new String[]{"grape", "goat", "gold", "girl", "grandpa"};
-            case "A":
-                return new String[]{"apple", "ant"};
-            case "B":
-                return new String[]{"ball", "bat"};
-            default:
-                return new String[]{};
+        for (int i = 0; i < entry.getWordCount(); i++) {
+            String voiceKey = entry.getSoundKey(i);
+            if (!pack.contains(voiceKey.substring("voice_".length()), currentVoiceTemplate)) {
+                Log.w(TAG, "No packed voice for " + voiceKey + " / " + currentVoiceTemplate + ", TextToSpeech will say it");
+            }
         }
     }
     
-    public void playEffect(String soundKey) {
+    public synchronized void playEffect(String soundKey) {
         if (isMuted || !mediumPriorityEnabled) return;
+        long requestNanos = System.nanoTime();
+        loadEffects();
+        
+        PcmClip clip = effectClips != null ? effectClips.get(soundKey) : null;
+        if (clip != null) {
+            PcmMixer output = getMixer();
+            if (output != null) {
+                int ticket = scheduler.request(soundKey, AudioScheduler.Priority.MEDIUM, SystemClock.uptimeMillis());
+                if (ticket == AudioScheduler.REJECTED) return;
+                int handle = output.play(clip, soundKey, effectsVolume,
+                        AudioScheduler.Priority.MEDIUM.soundPoolPriority, requestNanos);
+                scheduler.attachStream(ticket, -handle);
+                Log.d(TAG, "Mixing effect: " + soundKey);
+                return;
+            }
+        }
         
         Integer soundId = soundMap.get(soundKey);
-        if (soundId != null) {
-            soundPool.play(soundId, effectsVolume, effectsVolume, 1, 0, 1.0f);
+        if (soundId != null && !loadedSampleIds.contains(soundId)) {
+            latencyTracker.record(soundKey, AudioLatencyTracker.Path.NOT_LOADED, requestNanos, System.nanoTime());
+            Log.w(TAG, "Effect not loaded yet: " + soundKey);
+        } else if (soundId != null) {
+            int ticket = scheduler.request(soundKey, AudioScheduler.Priority.MEDIUM, SystemClock.uptimeMillis());
+            if (ticket == AudioScheduler.REJECTED) {
+                Log.d(TAG, "Effect rate-limited: " + soundKey);
+                return;
+            }
+            int streamId = soundPool.play(soundId, effectsVolume, effectsVolume,
+                    AudioScheduler.Priority.MEDIUM.soundPoolPriority, 0, 1.0f);
+            scheduler.attachStream(ticket, streamId);
+            latencyTracker.record(soundKey, AudioLatencyTracker.Path.SOUNDPOOL, requestNanos, System.nanoTime());
             Log.d(TAG, "Playing effect: " + soundKey);
         } else {
             Log.w(TAG, "Sound effect not found: " + soundKey);
         }
     }
     
-    public void playVoice(String voiceKey, String voiceTemplate) {
+    public synchronized void playVoice(String voiceKey, String voiceTemplate) {
         if (isMuted || !highPriorityEnabled) return;
+        long requestNanos = System.nanoTime();
         
         String normalizedVoiceKey = voiceKey.startsWith("voice_") ? voiceKey : "voice_" + voiceKey;
         String normalizedTemplate = (voiceTemplate == null || voiceTemplate.trim().isEmpty())
                 ? currentVoiceTemplate
                 : normalizeTemplateId(voiceTemplate);
         String fullVoiceKey = normalizedVoiceKey + "_" + normalizedTemplate;
-        Integer soundId = voiceMap.get(fullVoiceKey);
         
-        if (soundId != null) {
-            soundPool.play(soundId, voiceVolume, voiceVolume, 1, 0, 1.0f);
-            Log.d(TAG, "Playing voice: " + fullVoiceKey);
-        } else {
-            Log.w(TAG, "Voice not found: " + fullVoiceKey + ". Falling back to TextToSpeech.");
-            speakWithTts(voiceKey);
+        if (playPackedVoice(normalizedVoiceKey, normalizedTemplate, fullVoiceKey, requestNanos)) {
+            return;
         }
+        
+        Log.w(TAG, "Voice not packed: " + fullVoiceKey + ". Falling back to TextToSpeech.");
+        speakWithTts(voiceKey, fullVoiceKey, requestNanos);
     }
 
-    public void playVoice(String voiceKey) {
+    public synchronized void playVoice(String voiceKey) {
         playVoice(voiceKey, currentVoiceTemplate);
     }
 
-    public void setVoiceTemplate(String voiceTemplate) {
+    private boolean playPackedVoice(String voiceKey, String template, String fullVoiceKey, long requestNanos) {
+        AudioPack pack = getVoicePack();
+        if (pack == null) return false;
+        
+        int entry = pack.find(voiceKey.substring("voice_".length()), template);
+        if (entry < 0) return false;
+        PcmMixer output = getMixer();
+        if (output == null) return false;
+        
+        PcmClip clip = pack.getClip(entry);
+        scheduler.setExpectedDuration(fullVoiceKey, clip.getDurationMillis());
+        int ticket = scheduler.request(fullVoiceKey, AudioScheduler.Priority.HIGH, SystemClock.uptimeMillis());
+        if (ticket != AudioScheduler.REJECTED) {
+            int handle = output.play(clip, fullVoiceKey, voiceVolume,
+                    AudioScheduler.Priority.HIGH.soundPoolPriority, requestNanos);
+            scheduler.attachStream(ticket, -handle);
+            Log.d(TAG, "Playing packed voice: " + fullVoiceKey);
+        }
+        return true;
+    }
+
+    /**
+     * Map the voice pack asset on first use. The asset must be stored
+     * uncompressed (see noCompress in app/build.gradle) to be mappable.
+     */
+    private AudioPack getVoicePack() {
+        if (voicePackChecked) return voicePack;
+        voicePackChecked = true;
+        
+        try (AssetFileDescriptor afd = context.getAssets().openFd(VOICE_PACK_ASSET);
+             FileInputStream in = afd.createInputStream()) {
+            voicePack = AudioPack.map(in.getChannel(), afd.getStartOffset(), afd.getLength());
+            Log.d(TAG, "Mapped voice pack with " + voicePack.getEntryCount() + " entries");
+        } catch (IOException e) {
+            Log.w(TAG, "No voice pack available, voices will use TextToSpeech: " + e.getMessage());
+        }
+        return voicePack;
+    }
+
+    public synchronized void setVoiceTemplate(String voiceTemplate) {
         if (voiceTemplate == null || voiceTemplate.trim().isEmpty()) return;
         this.currentVoiceTemplate = normalizeTemplateId(voiceTemplate);
         Log.d(TAG, "Voice template set to: " + currentVoiceTemplate);
         updateTtsLanguage();
     }
 
-    public String getVoiceTemplate() {
+    public synchronized String getVoiceTemplate() {
         return currentVoiceTemplate;
     }
 
-    public void setVolume(float volume) {
+    public synchronized void setVolume(float volume) {
         setMusicVolume(volume);
         setEffectsVolume(volume);
         setVoiceVolume(volume);
     }
 
-    public void stopBackgroundMusic() {
+    public synchronized void stopBackgroundMusic() {
         stopMusic();
     }
 
-    public void release() {
+    public synchronized void release() {
         cleanup();
     }
     
-    public void playBackgroundMusic() {
-        if (isMuted || !lowPriorityEnabled || backgroundMusicPlayer == null) return;
+    public synchronized void playBackgroundMusic() {
+        if (isMuted || !lowPriorityEnabled) return;
+        prepareMusic();
+        if (backgroundMusicPlayer == null) return;
 
         try {
             if (!backgroundMusicPlayer.isPlaying()) {
@@ -232,28 +322,28 @@ public class AudioManager {
         }
     }
     
-    public void pauseMusic() {
+    public synchronized void pauseMusic() {
         if (backgroundMusicPlayer != null && backgroundMusicPlayer.isPlaying()) {
             backgroundMusicPlayer.pause();
             Log.d(TAG, "Background music paused");
         }
     }
     
-    public void resumeMusic() {
+    public synchronized void resumeMusic() {
         if (backgroundMusicPlayer != null && !backgroundMusicPlayer.isPlaying()) {
             backgroundMusicPlayer.start();
             Log.d(TAG, "Background music resumed");
         }
     }
     
-    public void stopMusic() {
+    public synchronized void stopMusic() {
         if (backgroundMusicPlayer != null && backgroundMusicPlayer.isPlaying()) {
             backgroundMusicPlayer.stop();
             Log.d(TAG, "Background music stopped");
         }
     }
     
-    public void setMuted(boolean muted) {
+    public synchronized void setMuted(boolean muted) {
         this.isMuted = muted;
         if (muted) {
             pauseMusic();
@@ -263,7 +353,7 @@ public class AudioManager {
         Log.d(TAG, "Audio muted: " + muted);
     }
     
-    public void setMusicVolume(float volume) {
+    public synchronized void setMusicVolume(float volume) {
         this.musicVolume = Math.max(0.0f, Math.min(1.0f, volume));
         if (backgroundMusicPlayer != null) {
             backgroundMusicPlayer.setVolume(musicVolume, musicVolume);
@@ -271,17 +361,17 @@ public class AudioManager {
         Log.d(TAG, "Music volume set to: " + musicVolume);
     }
     
-    public void setEffectsVolume(float volume) {
+    public synchronized void setEffectsVolume(float volume) {
         this.effectsVolume = Math.max(0.0f, Math.min(1.0f, volume));
         Log.d(TAG, "Effects volume set to: " + effectsVolume);
     }
     
-    public void setVoiceVolume(float volume) {
+    public synchronized void setVoiceVolume(float volume) {
         this.voiceVolume = Math.max(0.0f, Math.min(1.0f, volume));
         Log.d(TAG, "Voice volume set to: " + voiceVolume);
     }
     
-    public void setAudioPriority(String priority, boolean enabled) {
+    public synchronized void setAudioPriority(String priority, boolean enabled) {
         switch (priority.toLowerCase()) {
             case "high":
                 highPriorityEnabled = enabled;
@@ -301,25 +391,133 @@ public class AudioManager {
         Log.d(TAG, "Audio priority " + priority + " set to: " + enabled);
     }
 
-    public void playPhoneme(char letter) {
+    /**
+     * Route effects through the software mixer instead of SoundPool.
+     * Effects are decoded to PCM once when enabled; any effect that cannot be
+     * decoded (e.g. non-WAV resources) keeps playing through SoundPool.
+     * Packed voices use the mixer either way.
+     */
+    public synchronized void setSoftwareMixerEnabled(boolean enabled) {
+        if (enabled == (effectClips != null)) return;
+        
+        if (!enabled) {
+            scheduler.releaseAll(AudioScheduler.Priority.MEDIUM);
+            effectClips = null;
+            Log.d(TAG, "Software effect mixing disabled");
+            return;
+        }
+        
+        PcmMixer output = getMixer();
+        if (output == null) {
+            Log.w(TAG, "Software mixer unavailable, effects stay on SoundPool");
+            return;
+        }
+        Map<String, PcmClip> clips = new HashMap<>();
+        for (String effectKey : DEFAULT_EFFECT_KEYS) {
+            PcmClip clip = decodeRawClip(effectKey, output.getSampleRate());
+            if (clip != null) {
+                clips.put(effectKey, clip);
+                scheduler.setExpectedDuration(effectKey, clip.getDurationMillis());
+            }
+        }
+        effectClips = clips;
+        Log.d(TAG, "Software effect mixing enabled with " + clips.size() + " decoded effects");
+    }
+    
+    public synchronized boolean isSoftwareMixerEnabled() {
+        return effectClips != null && mixer != null && mixerTrack.isRunning();
+    }
+    
+    /**
+     * The software mixer, started on first use. Returns null when the device
+     * has no usable output track; a mixer whose track has failed is torn down,
+     * so effects go back to SoundPool and voices to TextToSpeech.
+     */
+    private PcmMixer getMixer() {
+        if (mixer != null) {
+            if (mixerTrack.isRunning()) return mixer;
+            Log.w(TAG, "Software mixer output failed, falling back");
+            releaseMixer();
+            mixerFailed = true;
+        }
+        if (mixerFailed) return null;
+        
+        PcmMixer created = new PcmMixer(MixerTrack.getNativeSampleRate(), MIXER_MAX_VOICES);
+        // Mixer latency runs to the first write of the sound's frames, on the mixer thread
+        created.setStartListener((key, requestNanos, writtenNanos) ->
+                latencyTracker.record(key, AudioLatencyTracker.Path.MIXER, requestNanos, writtenNanos));
+        MixerTrack track = new MixerTrack(created);
+        track.start();
+        if (!track.isRunning()) {
+            Log.w(TAG, "Software mixer unavailable");
+            mixerFailed = true;
+            return null;
+        }
+        mixerTrack = track;
+        mixer = created;
+        return mixer;
+    }
+    
+    private PcmClip decodeRawClip(String resName, int sampleRate) {
+        int resId = getResId(resName, "raw");
+        if (resId == 0) return null;
+        
+        try (InputStream in = context.getResources().openRawResource(resId)) {
+            return WavDecoder.decode(in, sampleRate);
+        } catch (IOException e) {
+            Log.w(TAG, "Could not decode " + resName + " for mixer: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    private void releaseMixer() {
+        scheduler.releaseAll(AudioScheduler.Priority.HIGH);
+        scheduler.releaseAll(AudioScheduler.Priority.MEDIUM);
+        if (mixerTrack != null) {
+            mixerTrack.release();
+            mixerTrack = null;
+        }
+        if (mixer != null) {
+            mixer.stopAll();
+            mixer = null;
+        }
+    }
+
+    /**
+     * Admission control used by playEffect/playVoice; exposed for tuning budgets
+     */
+    public synchronized AudioScheduler getScheduler() {
+        return scheduler;
+    }
+    
+    public synchronized AudioLatencyTracker getLatencyTracker() {
+        return latencyTracker;
+    }
+
+    public synchronized void playPhoneme(char letter) {
         String soundKey = "phoneme_" + String.valueOf(letter).toLowerCase();
         playEffect(soundKey);
     }
 
-    public void playCelebration() {
+    public synchronized void playCelebration() {
         playEffect("celebration");
     }
 
-    public void resume() {
+    public synchronized void resume() {
         resumeMusic();
     }
 
-    public void pause() {
+    public synchronized void pause() {
         pauseMusic();
     }
     
-    public void cleanup() {
+    public synchronized void cleanup() {
         Log.d(TAG, "Cleaning up audio resources...");
+        Log.d(TAG, "Audio latency report:\n" + latencyTracker.export());
+        
+        releaseMixer();
+        mixerFailed = false;
+        effectClips = null;
         
         if (soundPool != null) {
             soundPool.release();
@@ -336,21 +534,82 @@ public class AudioManager {
             textToSpeech.shutdown();
             textToSpeech = null;
         }
+        speechReady = false;
+        pendingSpeechKey = null;
+        effectsLoaded = false;
+        musicPrepared = false;
         
         soundMap.clear();
-        voiceMap.clear();
+        loadedSampleIds.clear();
+        
+        if (voicePack != null) {
+            voicePack.close();
+            voicePack = null;
+        }
+        voicePackChecked = false;
     }
 
-    private void initializeTextToSpeech() {
+    /**
+     * Start binding the TextToSpeech engine; does nothing once started. The
+     * engine is usable a moment later, when its init callback arrives.
+     */
+    public synchronized void initializeSpeech() {
+        if (textToSpeech != null) return;
         Log.d(TAG, "Initializing TextToSpeech engine...");
-        textToSpeech = new TextToSpeech(context, status -> {
-            if (status == TextToSpeech.SUCCESS) {
-                Log.d(TAG, "TextToSpeech engine initialized successfully");
-                updateTtsLanguage();
-            } else {
-                Log.e(TAG, "Failed to initialize TextToSpeech engine");
+        final int generation = ++speechGeneration;
+        textToSpeech = new TextToSpeech(context, status -> onSpeechReady(generation, status));
+    }
+
+    private synchronized void onSpeechReady(int generation, int status) {
+        if (generation != speechGeneration) return;
+        if (status == TextToSpeech.SUCCESS) {
+            Log.d(TAG, "TextToSpeech engine initialized successfully");
+            updateTtsLanguage();
+            if (textToSpeech == null) return;
+            speechReady = true;
+            textToSpeech.setOnUtteranceProgressListener(new UtteranceProgressListener() {
+                @Override
+                public void onStart(String utteranceId) {
+                    latencyTracker.utteranceStarted(utteranceId, System.nanoTime());
+                }
+
+                @Override
+                public void onDone(String utteranceId) {
+                    latencyTracker.utteranceAbandoned(utteranceId);
+                }
+
+                // Still abstract, so it must be overridden; current engines report through onError(String, int)
+                @SuppressWarnings("deprecation")
+                @Override
+                public void onError(String utteranceId) {
+                    latencyTracker.utteranceAbandoned(utteranceId);
+                }
+
+                @Override
+                public void onError(String utteranceId, int errorCode) {
+                    latencyTracker.utteranceAbandoned(utteranceId);
+                }
+
+                @Override
+                public void onStop(String utteranceId, boolean interrupted) {
+                    latencyTracker.utteranceAbandoned(utteranceId);
+                }
+            });
+            if (pendingSpeechKey != null) {
+                String voiceKey = pendingSpeechKey;
+                pendingSpeechKey = null;
+                // Keep the original request time so the latency includes the wait
+                speakWithTts(voiceKey, pendingSpeechLatencyKey, pendingSpeechRequestNanos);
             }
-        });
+        } else {
+            Log.e(TAG, "Failed to initialize TextToSpeech engine");
+            // Let go of the dead engine so the next word binds a new one
+            if (textToSpeech != null) {
+                textToSpeech.shutdown();
+                textToSpeech = null;
+            }
+            pendingSpeechKey = null;
+        }
     }
 
     private void updateTtsLanguage() {
@@ -364,8 +623,17 @@ public class AudioManager {
         }
     }
 
-    private void speakWithTts(String voiceKey) {
-        if (textToSpeech == null || isMuted || !highPriorityEnabled) return;
+    private void speakWithTts(String voiceKey, String latencyKey, long requestNanos) {
+        if (isMuted || !highPriorityEnabled) return;
+        if (!speechReady) {
+            // Engine not bound yet; only the latest word is kept, as QUEUE_FLUSH would
+            initializeSpeech();
+            pendingSpeechKey = voiceKey;
+            pendingSpeechLatencyKey = latencyKey;
+            pendingSpeechRequestNanos = requestNanos;
+            Log.d(TAG, "TextToSpeech still starting, queued: " + voiceKey);
+            return;
+        }
         
         // Clean up key (e.g., "voice_grape" -> "grape")
         String word = voiceKey.replace("voice_", "").replace("voice-", "");
@@ -383,7 +651,9 @@ public class AudioManager {
         }
         
         Log.d(TAG, "Speaking via TTS: " + textToSpeak);
-        textToSpeech.speak(textToSpeak, TextToSpeech.QUEUE_FLUSH, null, "phonics_fun_tts_" + System.currentTimeMillis());
+        String utteranceId = "phonics_fun_tts_" + requestNanos;
+        latencyTracker.beginUtterance(utteranceId, latencyKey, requestNanos);
+        textToSpeech.speak(textToSpeak, TextToSpeech.QUEUE_FLUSH, null, utteranceId);
     }
     
     private int getResId(String resName, String resType) {
@@ -398,11 +668,11 @@ public class AudioManager {
     }
     
     // Getters
-    public boolean isMuted() { return isMuted; }
-    public float getMusicVolume() { return musicVolume; }
-    public float getEffectsVolume() { return effectsVolume; }
-    public float getVoiceVolume() { return voiceVolume; }
-    public boolean isHighPriorityEnabled() { return highPriorityEnabled; }
-    public boolean isMediumPriorityEnabled() { return mediumPriorityEnabled; }
-    public boolean isLowPriorityEnabled() { return lowPriorityEnabled; }
+    public synchronized boolean isMuted() { return isMuted; }
+    public synchronized float getMusicVolume() { return musicVolume; }
+    public synchronized float getEffectsVolume() { return effectsVolume; }
+    public synchronized float getVoiceVolume() { return voiceVolume; }
+    public synchronized boolean isHighPriorityEnabled() { return highPriorityEnabled; }
+    public synchronized boolean isMediumPriorityEnabled() { return mediumPriorityEnabled; }
+    public synchronized boolean isLowPriorityEnabled() { return lowPriorityEnabled; }
 }
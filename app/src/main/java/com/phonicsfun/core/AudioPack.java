@@ -0,0 +1,351 @@
+package com.phonicsfun.core;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * AudioPack - Single-file container of decoded voice audio
+ * Replaces loose per-word WAV files with one memory-mapped pack. A lookup is a
+ * binary search over a hashed (word, template) index plus a buffer slice, so
+ * PCM entries play without copying. Written at build time by the tools module.
+ *
+ * Layout (little-endian):
+ *   header   magic "PFAP", u16 version, u16 reserved, u32 entry count
+ *   index    32-byte records sorted by key hash:
+ *            u64 hash, u32 name offset, u16 name length, u8 format, u8 reserved,
+ *            u32 sample rate, u32 frame count, u32 data offset, u32 data length
+ *   names    UTF-8 "word/template" keys
+ *   payloads PCM16 or IMA ADPCM, each aligned to 4 bytes
+ */
+public final class AudioPack implements Closeable {
+    public static final int MAGIC = 0x50414650; // "PFAP"
+    public static final int VERSION = 1;
+
+    public static final int FORMAT_PCM16 = 1;
+    public static final int FORMAT_IMA_ADPCM = 2;
+
+    private static final int HEADER_BYTES = 12;
+    private static final int RECORD_BYTES = 32;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final ByteBuffer buffer;
+    private final int entryCount;
+    private final long[] hashes;
+    private final PcmClip[] clipCache;
+
+    private AudioPack(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not an audio pack");
+        }
+        int version = buffer.getShort(4) & 0xFFFF;
+        if (version != VERSION) {
+            throw new IOException("Unsupported audio pack version: " + version);
+        }
+        this.entryCount = buffer.getInt(8);
+        if (entryCount < 0 || HEADER_BYTES + (long) entryCount * RECORD_BYTES > buffer.limit()) {
+            throw new IOException("Corrupt audio pack index");
+        }
+
+        // Copy the hash column out once so probes stay on the Java heap
+        this.hashes = new long[entryCount];
+        for (int i = 0; i < entryCount; i++) {
+            hashes[i] = buffer.getLong(recordOffset(i));
+        }
+        this.clipCache = new PcmClip[entryCount];
+    }
+
+    /**
+     * Map a whole pack file read-only
+     */
+    public static AudioPack open(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            return map(raf.getChannel(), 0, raf.length());
+        }
+    }
+
+    /**
+     * Map a pack stored inside a larger file, e.g. an uncompressed APK asset.
+     * The mapping stays valid after the channel is closed.
+     */
+    public static AudioPack map(FileChannel channel, long offset, long length) throws IOException {
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        return new AudioPack(mapped);
+    }
+
+    /**
+     * Wrap an in-memory pack (tests and tools)
+     */
+    public static AudioPack wrap(ByteBuffer buffer) throws IOException {
+        return new AudioPack(buffer.slice());
+    }
+
+    /**
+     * Find an entry.
+     *
+     * @return the entry index, or -1 when the pack has no such voice
+     */
+    public int find(String word, String template) {
+        long hash = hash(word, template);
+        int low = 0;
+        int high = entryCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (hashes[mid] < hash) {
+                low = mid + 1;
+            } else if (hashes[mid] > hash) {
+                high = mid - 1;
+            } else {
+                // Walk the run of equal hashes and confirm the name
+                int first = mid;
+                while (first > 0 && hashes[first - 1] == hash) first--;
+                for (int i = first; i < entryCount && hashes[i] == hash; i++) {
+                    if (nameEquals(i, word, template)) return i;
+                }
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    public boolean contains(String word, String template) {
+        return find(word, template) >= 0;
+    }
+
+    /**
+     * Decoded clip for an entry. PCM16 entries are zero-copy views of the
+     * mapped pack; ADPCM entries are decoded once and cached.
+     */
+    public synchronized PcmClip getClip(int entry) {
+        PcmClip clip = clipCache[entry];
+        if (clip != null) return clip;
+
+        int record = recordOffset(entry);
+        int format = buffer.get(record + 14) & 0xFF;
+        int sampleRate = buffer.getInt(record + 16);
+        int frames = buffer.getInt(record + 20);
+        int dataOffset = buffer.getInt(record + 24);
+        int dataLength = buffer.getInt(record + 28);
+
+        ByteBuffer payload = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        payload.limit(dataOffset + dataLength).position(dataOffset);
+        payload = payload.slice().order(ByteOrder.LITTLE_ENDIAN);
+
+        switch (format) {
+            case FORMAT_PCM16:
+                clip = new PcmClip(payload.asShortBuffer(), sampleRate);
+                break;
+            case FORMAT_IMA_ADPCM:
+                clip = new PcmClip(ImaAdpcm.decode(payload, frames), sampleRate);
+                break;
+            default:
+                throw new IllegalStateException("Unknown audio pack format " + format + " for entry " + getName(entry));
+        }
+        clipCache[entry] = clip;
+        return clip;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    public String getName(int entry) {
+        int record = recordOffset(entry);
+        int offset = buffer.getInt(record + 8);
+        int length = buffer.getShort(record + 12) & 0xFFFF;
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(offset + i);
+        }
+        return new String(bytes, UTF_8);
+    }
+
+    public int getFormat(int entry) {
+        return buffer.get(recordOffset(entry) + 14) & 0xFF;
+    }
+
+    /**
+     * Drop cached decoded ADPCM clips; mapped PCM costs nothing to keep
+     */
+    public synchronized void trimMemory() {
+        for (int i = 0; i < entryCount; i++) {
+            if (clipCache[i] != null && getFormat(i) != FORMAT_PCM16) {
+                clipCache[i] = null;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        // Mapped buffers are released by the GC; just drop decoded copies
+        trimMemory();
+    }
+
+    private boolean nameEquals(int entry, String word, String template) {
+        int record = recordOffset(entry);
+        int offset = buffer.getInt(record + 8);
+        int length = buffer.getShort(record + 12) & 0xFFFF;
+        if (length != word.length() + 1 + template.length()) return false;
+        for (int i = 0; i < word.length(); i++) {
+            if (buffer.get(offset + i) != (byte) word.charAt(i)) return false;
+        }
+        if (buffer.get(offset + word.length()) != '/') return false;
+        int templateStart = offset + word.length() + 1;
+        for (int i = 0; i < template.length(); i++) {
+            if (buffer.get(templateStart + i) != (byte) template.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private static int recordOffset(int entry) {
+        return HEADER_BYTES + entry * RECORD_BYTES;
+    }
+
+    /**
+     * 64-bit FNV-1a over "word/template", computed without concatenating
+     */
+    public static long hash(String word, String template) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < word.length(); i++) {
+            hash = (hash ^ word.charAt(i)) * 0x100000001b3L;
+        }
+        hash = (hash ^ '/') * 0x100000001b3L;
+        for (int i = 0; i < template.length(); i++) {
+            hash = (hash ^ template.charAt(i)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Builds pack files. Keys must be ASCII; templates use the
+     * underscore form AudioManager normalizes to (e.g. "british_female").
+     */
+    public static final class Writer {
+        private final List<PendingEntry> entries = new ArrayList<>();
+
+        private static final class PendingEntry {
+            final String word;
+            final String template;
+            final long hash;
+            final int format;
+            final int sampleRate;
+            final int frames;
+            final byte[] data;
+
+            PendingEntry(String word, String template, int format, int sampleRate, int frames, byte[] data) {
+                this.word = word;
+                this.template = template;
+                this.hash = hash(word, template);
+                this.format = format;
+                this.sampleRate = sampleRate;
+                this.frames = frames;
+                this.data = data;
+            }
+        }
+
+        public Writer add(String word, String template, short[] samples, int sampleRate, int format) {
+            for (int i = 0; i < word.length(); i++) {
+                if (word.charAt(i) > 0x7F) throw new IllegalArgumentException("Pack keys must be ASCII: " + word);
+            }
+            for (int i = 0; i < template.length(); i++) {
+                if (template.charAt(i) > 0x7F) throw new IllegalArgumentException("Pack keys must be ASCII: " + template);
+            }
+            byte[] data;
+            switch (format) {
+                case FORMAT_PCM16:
+                    data = new byte[samples.length * 2];
+                    ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN).asShortBuffer().put(samples);
+                    break;
+                case FORMAT_IMA_ADPCM:
+                    data = ImaAdpcm.encode(samples);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown audio pack format: " + format);
+            }
+            entries.add(new PendingEntry(word, template, format, sampleRate, samples.length, data));
+            return this;
+        }
+
+        public int size() {
+            return entries.size();
+        }
+
+        public void writeTo(File file) throws IOException {
+            try (OutputStream out = new FileOutputStream(file)) {
+                writeTo(out);
+            }
+        }
+
+        public void writeTo(OutputStream out) throws IOException {
+            List<PendingEntry> sorted = new ArrayList<>(entries);
+            Collections.sort(sorted, new Comparator<PendingEntry>() {
+                @Override
+                public int compare(PendingEntry a, PendingEntry b) {
+                    return Long.compare(a.hash, b.hash);
+                }
+            });
+
+            byte[][] names = new byte[sorted.size()][];
+            int namesBytes = 0;
+            for (int i = 0; i < sorted.size(); i++) {
+                names[i] = (sorted.get(i).word + "/" + sorted.get(i).template).getBytes(UTF_8);
+                namesBytes += names[i].length;
+            }
+
+            int nameStart = HEADER_BYTES + sorted.size() * RECORD_BYTES;
+            int dataStart = align(nameStart + namesBytes);
+            int total = dataStart;
+            for (PendingEntry entry : sorted) {
+                total = align(total + entry.data.length);
+            }
+
+            ByteBuffer pack = ByteBuffer.allocate(total).order(ByteOrder.LITTLE_ENDIAN);
+            pack.putInt(MAGIC).putShort((short) VERSION).putShort((short) 0).putInt(sorted.size());
+
+            int nameOffset = nameStart;
+            int dataOffset = dataStart;
+            for (int i = 0; i < sorted.size(); i++) {
+                PendingEntry entry = sorted.get(i);
+                pack.putLong(entry.hash)
+                        .putInt(nameOffset)
+                        .putShort((short) names[i].length)
+                        .put((byte) entry.format)
+                        .put((byte) 0)
+                        .putInt(entry.sampleRate)
+                        .putInt(entry.frames)
+                        .putInt(dataOffset)
+                        .putInt(entry.data.length);
+                nameOffset += names[i].length;
+                dataOffset = align(dataOffset + entry.data.length);
+            }
+
+            for (byte[] name : names) {
+                pack.put(name);
+            }
+            dataOffset = dataStart;
+            for (PendingEntry entry : sorted) {
+                pack.position(dataOffset);
+                pack.put(entry.data);
+                dataOffset = align(dataOffset + entry.data.length);
+            }
+            out.write(pack.array());
+        }
+
+        private static int align(int offset) {
+            return (offset + 3) & ~3;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.phonicsfun.core;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * AudioScheduler - Admission control for sound playback by priority class
+ * Each class gets a concurrency budget, each sound a minimum retrigger interval,
+ * and voice prompts preempt effects. Pure Java; callers pass the clock in.
+ */
+public class AudioScheduler {
+
+    /**
+     * Priority classes, matching AudioManager's high/medium/low switches
+     */
+    public enum Priority {
+        HIGH(3),    // voice prompts
+        MEDIUM(2),  // sound effects
+        LOW(1);     // ambient / background
+
+        /** Value passed to SoundPool.play so its own stealing agrees with ours */
+        public final int soundPoolPriority;
+
+        Priority(int soundPoolPriority) {
+            this.soundPoolPriority = soundPoolPriority;
+        }
+    }
+
+    /**
+     * Notified when an admitted play must be stopped to make room
+     */
+    public interface PreemptionListener {
+        void onPreempt(int streamId, Priority priority);
+    }
+
+    /** Returned by {@link #request} when a play is not admitted */
+    public static final int REJECTED = 0;
+
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final int PRIORITY_COUNT = PRIORITIES.length;
+    private static final int MAX_BUDGET = 16;
+
+    // Per-class configuration
+    private final int[] budgets = new int[PRIORITY_COUNT];
+    private final long[] defaultRetriggerMs = new long[PRIORITY_COUNT];
+    private final long[] defaultDurationMs = new long[PRIORITY_COUNT];
+    private final boolean[] stealWhenFull = new boolean[PRIORITY_COUNT];
+    private int duckedEffectBudget = 1;
+
+    // Active plays per class, MAX_BUDGET slots each; ticket 0 marks a free slot
+    private final int[][] tickets = new int[PRIORITY_COUNT][MAX_BUDGET];
+    private final int[][] streamIds = new int[PRIORITY_COUNT][MAX_BUDGET];
+    private final long[][] startTimes = new long[PRIORITY_COUNT][MAX_BUDGET];
+    private final long[][] endTimes = new long[PRIORITY_COUNT][MAX_BUDGET];
+
+    private final Map<String, long[]> lastTriggerTimes = new HashMap<>();
+    private final Map<String, Long> retriggerOverrides = new HashMap<>();
+    private final Map<String, Long> durationOverrides = new HashMap<>();
+
+    private PreemptionListener preemptionListener;
+    private int nextTicket = 1;
+    private int droppedCount;
+
+    public AudioScheduler() {
+        configure(Priority.HIGH, 2, 0, 2500, true);
+        configure(Priority.MEDIUM, 4, 80, 1500, false);
+        configure(Priority.LOW, 1, 0, 0, false);
+    }
+
+    /**
+     * Set the concurrency budget, default retrigger interval and default play
+     * length for a class. When {@code stealWhenFull} is set, a request for a
+     * full class replaces its oldest play instead of being dropped.
+     */
+    public synchronized void configure(Priority priority, int budget, long retriggerMs, long durationMs, boolean stealWhenFull) {
+        int index = priority.ordinal();
+        budgets[index] = Math.max(0, Math.min(MAX_BUDGET, budget));
+        defaultRetriggerMs[index] = Math.max(0, retriggerMs);
+        defaultDurationMs[index] = Math.max(0, durationMs);
+        this.stealWhenFull[index] = stealWhenFull;
+    }
+
+    /**
+     * Effect budget while a voice prompt is playing
+     */
+    public synchronized void setDuckedEffectBudget(int budget) {
+        this.duckedEffectBudget = Math.max(0, Math.min(MAX_BUDGET, budget));
+    }
+
+    public synchronized void setMinRetriggerInterval(String key, long intervalMs) {
+        retriggerOverrides.put(key, Math.max(0, intervalMs));
+    }
+
+    /**
+     * Expected play length for a key; a slot is considered busy until then
+     */
+    public synchronized void setExpectedDuration(String key, long durationMs) {
+        durationOverrides.put(key, Math.max(0, durationMs));
+    }
+
+    public void setPreemptionListener(PreemptionListener listener) {
+        this.preemptionListener = listener;
+    }
+
+    /**
+     * Ask to start a play.
+     *
+     * @return a ticket to pass to {@link #attachStream}, or {@link #REJECTED}
+     */
+    public synchronized int request(String key, Priority priority, long nowMs) {
+        int cls = priority.ordinal();
+        expire(nowMs);
+
+        long[] lastTrigger = lastTriggerTimes.get(key);
+        Long retriggerOverride = retriggerOverrides.get(key);
+        long retriggerMs = retriggerOverride != null ? retriggerOverride : defaultRetriggerMs[cls];
+        if (lastTrigger != null && retriggerMs > 0 && nowMs - lastTrigger[0] < retriggerMs) {
+            droppedCount++;
+            return REJECTED;
+        }
+
+        if (priority == Priority.HIGH) {
+            // Voice prompts must be heard: clear effects before speaking
+            preemptAll(Priority.MEDIUM);
+        }
+
+        int slot = findFreeSlot(cls, effectiveBudget(cls));
+        if (slot < 0) {
+            if (!stealWhenFull[cls] || (slot = findOldestSlot(cls)) < 0) {
+                droppedCount++;
+                return REJECTED;
+            }
+            preempt(cls, slot);
+        }
+
+        Long durationOverride = durationOverrides.get(key);
+        long durationMs = durationOverride != null ? durationOverride : defaultDurationMs[cls];
+        int ticket = nextTicket++;
+        if (nextTicket <= 0) nextTicket = 1;
+        tickets[cls][slot] = ticket;
+        streamIds[cls][slot] = 0;
+        startTimes[cls][slot] = nowMs;
+        endTimes[cls][slot] = durationMs > 0 ? nowMs + durationMs : Long.MAX_VALUE;
+
+        if (lastTrigger == null) {
+            lastTrigger = new long[1];
+            lastTriggerTimes.put(key, lastTrigger);
+        }
+        lastTrigger[0] = nowMs;
+        return ticket;
+    }
+
+    /**
+     * Record the stream started for a ticket so it can be preempted later.
+     * A failed start (streamId 0) releases the slot.
+     */
+    public synchronized void attachStream(int ticket, int streamId) {
+        if (ticket == REJECTED) return;
+        for (int cls = 0; cls < PRIORITY_COUNT; cls++) {
+            for (int slot = 0; slot < MAX_BUDGET; slot++) {
+                if (tickets[cls][slot] == ticket) {
+                    if (streamId == 0) {
+                        tickets[cls][slot] = 0;
+                    } else {
+                        streamIds[cls][slot] = streamId;
+                    }
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Forget a play that finished or was stopped by the caller
+     */
+    public synchronized void release(int ticket) {
+        attachStream(ticket, 0);
+    }
+
+    public synchronized void releaseAll(Priority priority) {
+        int[] classTickets = tickets[priority.ordinal()];
+        for (int slot = 0; slot < MAX_BUDGET; slot++) {
+            classTickets[slot] = 0;
+        }
+    }
+
+    public synchronized int getActiveCount(Priority priority, long nowMs) {
+        expire(nowMs);
+        int count = 0;
+        for (int ticket : tickets[priority.ordinal()]) {
+            if (ticket != 0) count++;
+        }
+        return count;
+    }
+
+    public synchronized int getDroppedCount() {
+        return droppedCount;
+    }
+
+    private int effectiveBudget(int cls) {
+        if (cls == Priority.MEDIUM.ordinal() && hasActive(Priority.HIGH.ordinal())) {
+            return Math.min(budgets[cls], duckedEffectBudget);
+        }
+        return budgets[cls];
+    }
+
+    private void expire(long nowMs) {
+        for (int cls = 0; cls < PRIORITY_COUNT; cls++) {
+            for (int slot = 0; slot < MAX_BUDGET; slot++) {
+                if (tickets[cls][slot] != 0 && endTimes[cls][slot] <= nowMs) {
+                    tickets[cls][slot] = 0;
+                }
+            }
+        }
+    }
+
+    private boolean hasActive(int cls) {
+        for (int ticket : tickets[cls]) {
+            if (ticket != 0) return true;
+        }
+        return false;
+    }
+
+    private int findFreeSlot(int cls, int budget) {
+        int used = 0;
+        int free = -1;
+        for (int slot = 0; slot < MAX_BUDGET; slot++) {
+            if (tickets[cls][slot] != 0) {
+                used++;
+            } else if (free < 0) {
+                free = slot;
+            }
+        }
+        return used < budget ? free : -1;
+    }
+
+    private int findOldestSlot(int cls) {
+        int oldest = -1;
+        for (int slot = 0; slot < MAX_BUDGET; slot++) {
+            if (tickets[cls][slot] != 0 && (oldest < 0 || startTimes[cls][slot] < startTimes[cls][oldest])) {
+                oldest = slot;
+            }
+        }
+        return oldest;
+    }
+
+    private void preemptAll(Priority priority) {
+        int cls = priority.ordinal();
+        for (int slot = 0; slot < MAX_BUDGET; slot++) {
+            if (tickets[cls][slot] != 0) {
+                preempt(cls, slot);
+            }
+        }
+    }
+
+    private void preempt(int cls, int slot) {
+        int streamId = streamIds[cls][slot];
+        tickets[cls][slot] = 0;
+        streamIds[cls][slot] = 0;
+        if (streamId != 0 && preemptionListener != null) {
+            preemptionListener.onPreempt(streamId, PRIORITIES[cls]);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.phonicsfun.core;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.util.Log;
+import android.util.LruCache;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BitmapCache - Drawables decoded at display size, kept in a byte-bounded LRU
+ * Keyed by (resource, size bucket). Decodes are subsampled with inSampleSize
+ * and written into evicted bitmaps through inBitmap instead of new allocations.
+ * Every bitmap from get() must be given back with release() once it is no
+ * longer drawn; an evicted bitmap is only reused after its last release.
+ */
+public class BitmapCache {
+    private static final String TAG = "PhonicsBitmapCache";
+
+    // Size buckets are powers of two from 32 px to 4096 px
+    static final int MIN_BUCKET = 5;
+    static final int MAX_BUCKET = 12;
+
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private final Context context;
+    private final Resources resources;
+    private final LruCache<Long, Bitmap> cache;
+    private final Map<Integer, int[]> bounds = new HashMap<>();
+
+    // Bitmaps handed out by get() and not yet released
+    private final LeaseTracker<Bitmap> leases = new LeaseTracker<>();
+
+    // Evicted, released bitmaps available as inBitmap targets, bounded by reusePoolBytes
+    private final List<Bitmap> reusePool = new ArrayList<>();
+    private final int reusePoolBytes;
+    private int reusePoolSize;
+
+    /**
+     * @param maxBytes upper bound on decoded pixels held by the cache
+     */
+    public BitmapCache(Context context, int maxBytes) {
+        this.context = context;
+        this.resources = context.getResources();
+        this.reusePoolBytes = maxBytes / 4;
+        this.cache = new LruCache<Long, Bitmap>(maxBytes) {
+            @Override
+            protected int sizeOf(Long key, Bitmap bitmap) {
+                return bitmap.getAllocationByteCount();
+            }
+
+            @Override
+            protected void entryRemoved(boolean evicted, Long key, Bitmap oldValue, Bitmap newValue) {
+                // A bitmap still being drawn waits for its last release
+                if (leases.retire(oldValue)) offerForReuse(oldValue);
+            }
+        };
+    }
+
+    /**
+     * Default budget: an eighth of the heap, which fits several clipart images at planet size
+     */
+    public BitmapCache(Context context) {
+        this(context, (int) Math.min(Integer.MAX_VALUE, Runtime.getRuntime().maxMemory() / 8));
+    }
+
+    /**
+     * Drawable decoded no smaller than its size bucket allows, or null if it
+     * can't be decoded. Pass a non-null result to {@link #release} when done.
+     */
+    public Bitmap get(int resId, int targetWidth, int targetHeight) {
+        int bucket = sizeBucket(Math.max(targetWidth, targetHeight));
+        Long key = key(resId, bucket);
+        Bitmap bitmap = cache.get(key);
+        if (bitmap == null || bitmap.isRecycled()) {
+            bitmap = decode(resId, 1 << bucket);
+            if (bitmap == null) return null;
+            cache.put(key, bitmap);
+        }
+        leases.acquire(bitmap);
+        return bitmap;
+    }
+
+    /**
+     * Stop holding a bitmap from {@link #get}; it must not be drawn afterwards
+     */
+    public void release(Bitmap bitmap) {
+        if (bitmap != null && leases.release(bitmap)) {
+            offerForReuse(bitmap);
+        }
+    }
+
+    /**
+     * Clipart for a word (drawable "<word>_clipart"), or null if the word has
+     * none. Pass a non-null result to {@link #release} when done.
+     */
+    public Bitmap getClipart(String word, int sizePx) {
+        int resId = resources.getIdentifier(word + "_clipart", "drawable", context.getPackageName());
+        return resId != 0 ? get(resId, sizePx, sizePx) : null;
+    }
+
+    /**
+     * Release memory in response to ComponentCallbacks2.onTrimMemory
+     */
+    public void trimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE) {
+            clear();
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            cache.trimToSize(cache.maxSize() / 2);
+            clearReusePool();
+        }
+    }
+
+    public void clear() {
+        cache.evictAll();
+        clearReusePool();
+    }
+
+    public int getSizeBytes() {
+        return cache.size();
+    }
+
+    private Bitmap decode(int resId, int targetSize) {
+        int[] size = getBounds(resId);
+        if (size == null) return null;
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        // Skip density scaling: an unqualified drawable would otherwise be
+        // upscaled to the screen density before it is subsampled
+        options.inScaled = false;
+        options.inMutable = true;
+        options.inSampleSize = calculateInSampleSize(size[0], size[1], targetSize, targetSize);
+        int sampledWidth = (size[0] + options.inSampleSize - 1) / options.inSampleSize;
+        int sampledHeight = (size[1] + options.inSampleSize - 1) / options.inSampleSize;
+        options.inBitmap = takeReusable(sampledWidth * sampledHeight * BYTES_PER_PIXEL);
+
+        try {
+            return BitmapFactory.decodeResource(resources, resId, options);
+        } catch (IllegalArgumentException e) {
+            // The reuse candidate was rejected; decode into a fresh bitmap
+            Log.w(TAG, "inBitmap rejected for " + resId + ": " + e.getMessage());
+            options.inBitmap = null;
+            return BitmapFactory.decodeResource(resources, resId, options);
+        }
+    }
+
+    private synchronized int[] getBounds(int resId) {
+        int[] size = bounds.get(resId);
+        if (size == null) {
+            BitmapFactory.Options options = new BitmapFactory.Options();
+            options.inJustDecodeBounds = true;
+            options.inScaled = false;
+            BitmapFactory.decodeResource(resources, resId, options);
+            if (options.outWidth <= 0 || options.outHeight <= 0) {
+                Log.w(TAG, "Not a bitmap resource: " + resId);
+                return null;
+            }
+            size = new int[]{options.outWidth, options.outHeight};
+            bounds.put(resId, size);
+        }
+        return size;
+    }
+
+    private synchronized void offerForReuse(Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled() || !bitmap.isMutable()) return;
+        int bytes = bitmap.getAllocationByteCount();
+        if (bytes > reusePoolBytes) return;
+        while (reusePoolSize + bytes > reusePoolBytes && !reusePool.isEmpty()) {
+            Bitmap dropped = reusePool.remove(0);
+            reusePoolSize -= dropped.getAllocationByteCount();
+        }
+        reusePool.add(bitmap);
+        reusePoolSize += bytes;
+    }
+
+    /**
+     * Smallest pooled bitmap that can hold the given number of bytes
+     */
+    private synchronized Bitmap takeReusable(int bytes) {
+        int best = -1;
+        for (int i = 0; i < reusePool.size(); i++) {
+            int candidate = reusePool.get(i).getAllocationByteCount();
+            if (candidate >= bytes && (best < 0 || candidate < reusePool.get(best).getAllocationByteCount())) {
+                best = i;
+            }
+        }
+        if (best < 0) return null;
+        Bitmap bitmap = reusePool.remove(best);
+        reusePoolSize -= bitmap.getAllocationByteCount();
+        return bitmap;
+    }
+
+    private synchronized void clearReusePool() {
+        reusePool.clear();
+        reusePoolSize = 0;
+    }
+
+    /**
+     * Largest power-of-two sample size that keeps both sides at least the requested size
+     */
+    static int calculateInSampleSize(int width, int height, int reqWidth, int reqHeight) {
+        int sampleSize = 1;
+        while (width / (sampleSize * 2) >= reqWidth && height / (sampleSize * 2) >= reqHeight) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    /**
+     * Bucket b covers sizes up to 2^b pixels
+     */
+    static int sizeBucket(int sizePx) {
+        int bucket = 32 - Integer.numberOfLeadingZeros(Math.max(1, sizePx) - 1);
+        return Math.max(MIN_BUCKET, Math.min(MAX_BUCKET, bucket));
+    }
+
+    static long key(int resId, int bucket) {
+        return ((long) resId << 8) | bucket;
+    }
+}
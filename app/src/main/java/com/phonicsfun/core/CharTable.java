@@ -0,0 +1,142 @@
+package com.phonicsfun.core;
+
+import java.util.Arrays;
+
+/**
+ * CharTable - Map from char to value without boxing
+ * Latin-1 keys index an array directly; the rest of Unicode goes to a
+ * small open-addressing table with linear probing.
+ */
+public class CharTable<V> {
+    private static final int DIRECT_SIZE = 256;
+    private static final char FREE = 0;
+
+    private final Object[] direct = new Object[DIRECT_SIZE];
+    private int directCount;
+
+    // Fallback for chars >= 256; FREE (0) never collides since 0 is a direct key
+    private char[] keys = new char[16];
+    private Object[] values = new Object[16];
+    private int hashedCount;
+
+    @SuppressWarnings("unchecked")
+    public V get(char key) {
+        if (key < DIRECT_SIZE) {
+            return (V) direct[key];
+        }
+        int mask = keys.length - 1;
+        for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+            if (keys[i] == key) return (V) values[i];
+            if (keys[i] == FREE) return null;
+        }
+    }
+
+    public boolean containsKey(char key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Store a value; a null value removes the key
+     */
+    public void put(char key, V value) {
+        if (value == null) {
+            remove(key);
+            return;
+        }
+        if (key < DIRECT_SIZE) {
+            if (direct[key] == null) directCount++;
+            direct[key] = value;
+            return;
+        }
+        if ((hashedCount + 1) * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+        while (keys[i] != FREE && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if (keys[i] == FREE) hashedCount++;
+        keys[i] = key;
+        values[i] = value;
+    }
+
+    public void remove(char key) {
+        if (key < DIRECT_SIZE) {
+            if (direct[key] != null) directCount--;
+            direct[key] = null;
+            return;
+        }
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+        while (keys[i] != key) {
+            if (keys[i] == FREE) return;
+            i = (i + 1) & mask;
+        }
+        keys[i] = FREE;
+        values[i] = null;
+        hashedCount--;
+        // Re-insert the rest of the probe run so lookups do not stop early
+        for (int j = (i + 1) & mask; keys[j] != FREE; j = (j + 1) & mask) {
+            char movedKey = keys[j];
+            Object movedValue = values[j];
+            keys[j] = FREE;
+            values[j] = null;
+            hashedCount--;
+            insertHashed(movedKey, movedValue);
+        }
+    }
+
+    public int size() {
+        return directCount + hashedCount;
+    }
+
+    /**
+     * All keys, Latin-1 ones in ascending order first
+     */
+    public char[] keys() {
+        char[] result = new char[size()];
+        int n = 0;
+        for (int c = 0; c < DIRECT_SIZE; c++) {
+            if (direct[c] != null) result[n++] = (char) c;
+        }
+        for (char key : keys) {
+            if (key != FREE) result[n++] = key;
+        }
+        return result;
+    }
+
+    public void clear() {
+        Arrays.fill(direct, null);
+        Arrays.fill(keys, FREE);
+        Arrays.fill(values, null);
+        directCount = 0;
+        hashedCount = 0;
+    }
+
+    private void insertHashed(char key, Object value) {
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+        while (keys[i] != FREE) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        hashedCount++;
+    }
+
+    private void rehash(int capacity) {
+        char[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new char[capacity];
+        values = new Object[capacity];
+        hashedCount = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) insertHashed(oldKeys[i], oldValues[i]);
+        }
+    }
+
+    private static int slot(char key, int mask) {
+        return (key * 0x9E3779B1) >>> 16 & mask;
+    }
+}
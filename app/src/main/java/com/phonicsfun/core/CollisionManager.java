@@ -2,6 +2,7 @@ package com.phonicsfun.core;
 
 import android.graphics.RectF;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -14,6 +15,9 @@ public class CollisionManager {
     private List<CollisionObject> collisionObjects;
     private List<CollisionListener> collisionListeners;
     
+    // Receives old and new bounds of every moved, added or removed object
+    private DirtyRegion dirtyRegion;
+    
     public CollisionManager() {
         collisionObjects = new ArrayList<>();
         collisionListeners = new ArrayList<>();
@@ -35,6 +39,7 @@ public class CollisionManager {
         public RectF bounds;
         public boolean isActive;
         public Object userData;
+        DirtyRegion dirtyRegion;
         
         public CollisionObject(String id, String type, RectF bounds) {
             this.id = id;
@@ -49,13 +54,26 @@ public class CollisionManager {
         }
         
         public void updateBounds(float x, float y, float width, float height) {
+            markDirty();
             bounds.set(x, y, x + width, y + height);
+            markDirty();
         }
         
         public void updatePosition(float x, float y) {
             float width = bounds.width();
             float height = bounds.height();
+            markDirty();
             bounds.set(x, y, x + width, y + height);
+            markDirty();
+        }
+        
+        /**
+         * Report the current bounds as needing a redraw
+         */
+        public void markDirty() {
+            if (dirtyRegion != null) {
+                dirtyRegion.add(bounds.left, bounds.top, bounds.right, bounds.bottom);
+            }
         }
         
         public float getCenterX() {
@@ -121,6 +139,8 @@ public class CollisionManager {
     public void registerObject(CollisionObject obj) {
         if (!collisionObjects.contains(obj)) {
             collisionObjects.add(obj);
+            obj.dirtyRegion = dirtyRegion;
+            obj.markDirty();
         }
     }
     
@@ -128,7 +148,28 @@ public class CollisionManager {
      * Unregister a collision object
      */
     public void unregisterObject(CollisionObject obj) {
-        collisionObjects.remove(obj);
+        if (collisionObjects.remove(obj)) {
+            obj.markDirty();
+            obj.dirtyRegion = null;
+        }
+    }
+    
+    /**
+     * Track damage from object movement for partial redraws; null stops
+     * tracking. Call on the logic thread, like any other change to the objects.
+     */
+    public void setDirtyRegion(DirtyRegion region) {
+        this.dirtyRegion = region;
+        for (CollisionObject obj : collisionObjects) {
+            obj.dirtyRegion = region;
+        }
+        if (region != null) {
+            region.markAll();
+        }
+    }
+    
+    public DirtyRegion getDirtyRegion() {
+        return dirtyRegion;
     }
     
     /**
@@ -270,14 +311,28 @@ public class CollisionManager {
      * Remove all inactive objects
      */
     public void cleanupInactiveObjects() {
-        collisionObjects.removeIf(obj -> !obj.isActive);
+        Iterator<CollisionObject> iterator = collisionObjects.iterator();
+        while (iterator.hasNext()) {
+            CollisionObject obj = iterator.next();
+            if (!obj.isActive) {
+                obj.markDirty();
+                obj.dirtyRegion = null;
+                iterator.remove();
+            }
+        }
     }
     
     /**
      * Clear all collision objects
      */
     public void clearAllObjects() {
+        for (CollisionObject obj : collisionObjects) {
+            obj.dirtyRegion = null;
+        }
         collisionObjects.clear();
+        if (dirtyRegion != null) {
+            dirtyRegion.markAll();
+        }
     }
     
     /**
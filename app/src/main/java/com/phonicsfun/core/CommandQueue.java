@@ -0,0 +1,61 @@
+package com.phonicsfun.core;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * CommandQueue - Lock-free multi-producer, single-consumer queue of commands
+ * Any thread may offer; only one thread may poll. Offering is one atomic
+ * swap of the tail, so producers never block each other or the consumer.
+ * Commands come out in the order their offers linearised.
+ */
+public final class CommandQueue {
+    private static final class Node {
+        Runnable command;
+        volatile Node next;
+
+        Node(Runnable command) {
+            this.command = command;
+        }
+    }
+
+    private final AtomicReference<Node> tail;
+    // Consumer only; a spent node whose next is the oldest queued command
+    private Node head;
+
+    public CommandQueue() {
+        Node stub = new Node(null);
+        head = stub;
+        tail = new AtomicReference<>(stub);
+    }
+
+    /**
+     * Producer, any thread
+     */
+    public void offer(Runnable command) {
+        if (command == null) throw new NullPointerException("command");
+        Node node = new Node(command);
+        Node previous = tail.getAndSet(node);
+        // Until this store lands the consumer sees the queue as ending at previous.
+        // A full volatile write, so a sleeping consumer is always woken afterwards.
+        previous.next = node;
+    }
+
+    /**
+     * Consumer only: the oldest command, or null if none is visible yet
+     */
+    public Runnable poll() {
+        Node next = head.next;
+        if (next == null) return null;
+        Runnable command = next.command;
+        next.command = null;
+        head = next;
+        return command;
+    }
+
+    /**
+     * Consumer only. A command whose offer is still in flight may not be seen.
+     */
+    public boolean isEmpty() {
+        return head.next == null;
+    }
+}
@@ -0,0 +1,244 @@
+package com.phonicsfun.core;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.util.Log;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.SoftReference;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ContentCatalogue - Symbols, colours and word lists for every letter, digraph and language
+ * One shared instance serves GameState, AudioManager and SymbolRenderer.
+ * Backed by the mapped content pack when the build produced one, otherwise by
+ * content/catalogue.json. Either way only an index is built up front; an entry
+ * is materialised the first time it is asked for and is softly held, so it can
+ * be dropped under memory pressure and rebuilt later.
+ */
+public final class ContentCatalogue {
+    private static final String TAG = "PhonicsContent";
+    public static final String ASSET_PATH = "content/catalogue.json";
+    public static final String PACK_ASSET_PATH = "content/content.pack";
+    public static final String DEFAULT_LANGUAGE = "en";
+
+    private static ContentCatalogue instance;
+
+    private final ContentPack pack;
+    private final ContentSource source;
+    private String language = DEFAULT_LANGUAGE;
+
+    // JSON backend, filled on first use: document text and each key's value range in it
+    private String document;
+    private final Map<String, int[]> index = new HashMap<>();
+
+    private final Map<String, SoftReference<ContentEntry>> entries = new HashMap<>();
+
+    /**
+     * Catalogue over a JSON document
+     */
+    public ContentCatalogue(ContentSource source) {
+        this.pack = null;
+        this.source = source;
+    }
+
+    /**
+     * Catalogue over a content pack
+     */
+    public ContentCatalogue(ContentPack pack) {
+        this.pack = pack;
+        this.source = null;
+    }
+
+    /**
+     * Shared catalogue read from the app's assets. The pack must be stored
+     * uncompressed (see noCompress in app/build.gradle) to be mappable.
+     */
+    public static synchronized ContentCatalogue getInstance(Context context) {
+        if (instance == null) {
+            final Context appContext = context.getApplicationContext();
+            try (AssetFileDescriptor afd = appContext.getAssets().openFd(PACK_ASSET_PATH);
+                 FileInputStream in = afd.createInputStream()) {
+                ContentPack pack = ContentPack.map(in.getChannel(), afd.getStartOffset(), afd.getLength());
+                instance = new ContentCatalogue(pack);
+                Log.d(TAG, "Mapped content pack with " + pack.getSectionCount() + " sections");
+            } catch (IOException e) {
+                Log.w(TAG, "No content pack available, reading " + ASSET_PATH + ": " + e.getMessage());
+                instance = new ContentCatalogue(new ContentSource() {
+                    @Override
+                    public InputStream open() throws IOException {
+                        return appContext.getAssets().open(ASSET_PATH);
+                    }
+                });
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Switch language. Only the pack carries more than one; a JSON catalogue
+     * serves its single language whatever is selected.
+     */
+    public synchronized void setLanguage(String language) {
+        if (language == null || language.equals(this.language)) return;
+        this.language = language;
+        entries.clear();
+    }
+
+    public synchronized String getLanguage() {
+        return language;
+    }
+
+    /**
+     * Entry for a letter, digraph or symbol, or null when the catalogue has none
+     */
+    public synchronized ContentEntry get(String key) {
+        SoftReference<ContentEntry> reference = entries.get(key);
+        ContentEntry entry = reference != null ? reference.get() : null;
+        if (entry != null) return entry;
+        entry = pack != null ? readPacked(key) : readJson(key);
+        if (entry != null) {
+            entries.put(key, new SoftReference<>(entry));
+        } else {
+            entries.remove(key);
+        }
+        return entry;
+    }
+
+    public ContentEntry get(char symbol) {
+        return get(String.valueOf(symbol));
+    }
+
+    public synchronized boolean contains(String key) {
+        if (pack != null) return pack.contains(language, key);
+        ensureIndexed();
+        return index.containsKey(key);
+    }
+
+    public boolean contains(char symbol) {
+        return contains(String.valueOf(symbol));
+    }
+
+    /**
+     * Every key in the current language (materialised or not)
+     */
+    public synchronized List<String> getKeys() {
+        if (pack != null) return pack.getKeys(language);
+        ensureIndexed();
+        return new ArrayList<>(index.keySet());
+    }
+
+    /**
+     * Single-character keys only; digraphs are left out
+     */
+    public char[] getSymbols() {
+        List<String> keys = getKeys();
+        StringBuilder symbols = new StringBuilder(keys.size());
+        for (String key : keys) {
+            if (key.length() == 1) symbols.append(key.charAt(0));
+        }
+        return symbols.toString().toCharArray();
+    }
+
+    /**
+     * Number of entries currently materialised
+     */
+    public synchronized int getParsedCount() {
+        int count = 0;
+        for (SoftReference<ContentEntry> reference : entries.values()) {
+            if (reference.get() != null) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Drop materialised entries; they are rebuilt from the index on next use
+     */
+    public synchronized void trimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            entries.clear();
+        }
+    }
+
+    private ContentEntry readPacked(String key) {
+        int section = pack.find(language, key);
+        if (section < 0) return null;
+        try {
+            return pack.read(section);
+        } catch (IndexOutOfBoundsException e) {
+            Log.e(TAG, "Corrupt content pack section for " + key + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private ContentEntry readJson(String key) {
+        ensureIndexed();
+        int[] range = index.get(key);
+        if (range == null) return null;
+        try {
+            return ContentEntry.fromJson(key, new JsonScanner(document, range[0], range[1]).readValue());
+        } catch (IllegalArgumentException | ClassCastException e) {
+            Log.e(TAG, "Bad catalogue entry for " + key + ": " + e.getMessage());
+            index.remove(key);
+            return null;
+        }
+    }
+
+    private void ensureIndexed() {
+        if (document != null) return;
+        try {
+            document = readAll(source);
+            buildIndex();
+        } catch (IOException e) {
+            Log.e(TAG, "Could not read content catalogue: " + e.getMessage());
+            document = "";
+        } catch (IllegalArgumentException e) {
+            Log.e(TAG, "Malformed content catalogue: " + e.getMessage());
+            index.clear();
+        }
+    }
+
+    /**
+     * Record where each key's value sits without parsing it
+     */
+    private void buildIndex() {
+        JsonScanner scanner = new JsonScanner(document);
+        scanner.beginObject();
+        String field;
+        while ((field = scanner.nextKey()) != null) {
+            if (!field.equals("symbols")) {
+                scanner.skipValue();
+                continue;
+            }
+            scanner.beginObject();
+            String key;
+            while ((key = scanner.nextKey()) != null) {
+                int start = scanner.position();
+                scanner.skipValue();
+                index.put(key, new int[]{start, scanner.position()});
+            }
+        }
+    }
+
+    private static String readAll(ContentSource source) throws IOException {
+        InputStream in = source.open();
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), Charset.forName("UTF-8"));
+        } finally {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.phonicsfun.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ContentEntry - One letter, digraph or symbol: display settings, words and asset references
+ * Immutable. Built from a catalogue JSON value or a content pack section.
+ */
+public final class ContentEntry {
+    static final int DEFAULT_COLOR = 0xFF757575;
+    static final int DEFAULT_BACKGROUND = 0xFF424242;
+    static final float DEFAULT_TEXT_SIZE = 48f;
+
+    private final String key;
+    private final int color;
+    private final int backgroundColor;
+    private final float textSize;
+    private final String[] words;
+    private final String[] soundKeys;
+    // Drawable names (e.g. "grape_clipart"); null where a word has no picture
+    private final String[] images;
+
+    ContentEntry(String key, int color, int backgroundColor, float textSize,
+                 String[] words, String[] soundKeys, String[] images) {
+        this.key = key;
+        this.color = color;
+        this.backgroundColor = backgroundColor;
+        this.textSize = textSize;
+        this.words = words;
+        this.soundKeys = soundKeys;
+        this.images = images;
+    }
+
+    /**
+     * Letter, digraph ("sh") or symbol this entry describes
+     */
+    public String getKey() { return key; }
+    public int getColor() { return color; }
+    public int getBackgroundColor() { return backgroundColor; }
+    public float getTextSize() { return textSize; }
+    public int getWordCount() { return words.length; }
+    public String getWord(int i) { return words[i]; }
+    public String getSoundKey(int i) { return soundKeys[i]; }
+    public String getImage(int i) { return images[i]; }
+
+    public String[] copyWords() {
+        return words.clone();
+    }
+
+    public String[] copySoundKeys() {
+        return soundKeys.clone();
+    }
+
+    /**
+     * Build from a parsed catalogue value:
+     * {"color": "#AARRGGBB", "background": ..., "textSize": 48, "words": [...]}
+     * where each word is "grape" or {"word": "grape", "voice": "voice_grape", "image": "grape_clipart"}
+     */
+    @SuppressWarnings("unchecked")
+    static ContentEntry fromJson(String key, Object value) {
+        Map<String, Object> object = (Map<String, Object>) value;
+        List<Object> list = object.containsKey("words")
+                ? (List<Object>) object.get("words") : Collections.emptyList();
+        List<String> words = new ArrayList<>(list.size());
+        List<String> soundKeys = new ArrayList<>(list.size());
+        List<String> images = new ArrayList<>(list.size());
+        for (Object item : list) {
+            if (item instanceof Map) {
+                Map<String, Object> wordObject = (Map<String, Object>) item;
+                String word = (String) wordObject.get("word");
+                String voice = (String) wordObject.get("voice");
+                if (word == null) throw new IllegalArgumentException("Word object without \"word\" in " + key);
+                words.add(word);
+                soundKeys.add(voice != null ? voice : "voice_" + word);
+                images.add((String) wordObject.get("image"));
+            } else {
+                words.add((String) item);
+                soundKeys.add("voice_" + item);
+                images.add(null);
+            }
+        }
+        return new ContentEntry(key,
+                parseColor(object.get("color"), DEFAULT_COLOR),
+                parseColor(object.get("background"), DEFAULT_BACKGROUND),
+                object.get("textSize") instanceof Double ? ((Double) object.get("textSize")).floatValue() : DEFAULT_TEXT_SIZE,
+                words.toArray(new String[0]),
+                soundKeys.toArray(new String[0]),
+                images.toArray(new String[0]));
+    }
+
+    /**
+     * "#RRGGBB" or "#AARRGGBB"
+     */
+    static int parseColor(Object value, int fallback) {
+        if (!(value instanceof String)) return fallback;
+        String text = (String) value;
+        if (!text.startsWith("#") || (text.length() != 7 && text.length() != 9)) return fallback;
+        try {
+            long color = Long.parseLong(text.substring(1), 16);
+            if (text.length() == 7) color |= 0xFF000000L;
+            return (int) color;
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+}
@@ -0,0 +1,376 @@
+package com.phonicsfun.core;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ContentPack - Sectioned, memory-mapped container of letter content
+ * One section per (language, key) so all letters, digraphs and languages can
+ * ship in one file. Opening reads only the table of contents; a section is
+ * decoded into a ContentEntry when it is asked for. Written at build time by
+ * the tools module from the catalogue JSON.
+ *
+ * Layout (little-endian):
+ *   header   magic "PFCP", u16 version, u16 reserved, u32 section count
+ *   toc      24-byte records sorted by key hash:
+ *            u64 hash, u32 name offset, u16 name length, u16 word count,
+ *            u32 data offset, u32 data length
+ *   names    UTF-8 "language/key" names
+ *   sections u32 color, u32 background, f32 text size, then per word three
+ *            u16-length-prefixed UTF-8 strings: word, voice key, image
+ *            (empty image = none); each section aligned to 4 bytes
+ */
+public final class ContentPack {
+    public static final int MAGIC = 0x50434650; // "PFCP"
+    public static final int VERSION = 1;
+
+    private static final int HEADER_BYTES = 12;
+    private static final int RECORD_BYTES = 24;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final ByteBuffer buffer;
+    private final int sectionCount;
+    private final long[] hashes;
+
+    private ContentPack(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a content pack");
+        }
+        int version = buffer.getShort(4) & 0xFFFF;
+        if (version != VERSION) {
+            throw new IOException("Unsupported content pack version: " + version);
+        }
+        this.sectionCount = buffer.getInt(8);
+        if (sectionCount < 0 || HEADER_BYTES + (long) sectionCount * RECORD_BYTES > buffer.limit()) {
+            throw new IOException("Corrupt content pack table of contents");
+        }
+
+        this.hashes = new long[sectionCount];
+        for (int i = 0; i < sectionCount; i++) {
+            hashes[i] = buffer.getLong(recordOffset(i));
+        }
+    }
+
+    /**
+     * Map a whole pack file read-only
+     */
+    public static ContentPack open(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            return map(raf.getChannel(), 0, raf.length());
+        }
+    }
+
+    /**
+     * Map a pack stored inside a larger file, e.g. an uncompressed APK asset.
+     * The mapping stays valid after the channel is closed.
+     */
+    public static ContentPack map(FileChannel channel, long offset, long length) throws IOException {
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        return new ContentPack(mapped);
+    }
+
+    /**
+     * Wrap an in-memory pack (tests and tools)
+     */
+    public static ContentPack wrap(ByteBuffer buffer) throws IOException {
+        return new ContentPack(buffer.slice());
+    }
+
+    /**
+     * Find a section.
+     *
+     * @return the section index, or -1 when the pack has no such key for the language
+     */
+    public int find(String language, String key) {
+        long hash = hash(language, key);
+        int low = 0;
+        int high = sectionCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (hashes[mid] < hash) {
+                low = mid + 1;
+            } else if (hashes[mid] > hash) {
+                high = mid - 1;
+            } else {
+                int first = mid;
+                while (first > 0 && hashes[first - 1] == hash) first--;
+                String name = language + "/" + key;
+                for (int i = first; i < sectionCount && hashes[i] == hash; i++) {
+                    if (name.equals(getName(i))) return i;
+                }
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    public boolean contains(String language, String key) {
+        return find(language, key) >= 0;
+    }
+
+    /**
+     * Decode one section. Touches only that section's bytes.
+     */
+    public ContentEntry read(int section) {
+        int record = recordOffset(section);
+        int wordCount = buffer.getShort(record + 14) & 0xFFFF;
+        int position = buffer.getInt(record + 16);
+        String name = getName(section);
+
+        int color = buffer.getInt(position);
+        int background = buffer.getInt(position + 4);
+        float textSize = buffer.getFloat(position + 8);
+        position += 12;
+
+        String[] words = new String[wordCount];
+        String[] soundKeys = new String[wordCount];
+        String[] images = new String[wordCount];
+        for (int i = 0; i < wordCount; i++) {
+            words[i] = readString(position);
+            position += 2 + (buffer.getShort(position) & 0xFFFF);
+            soundKeys[i] = readString(position);
+            position += 2 + (buffer.getShort(position) & 0xFFFF);
+            String image = readString(position);
+            position += 2 + (buffer.getShort(position) & 0xFFFF);
+            images[i] = image.isEmpty() ? null : image;
+        }
+        return new ContentEntry(name.substring(name.indexOf('/') + 1),
+                color, background, textSize, words, soundKeys, images);
+    }
+
+    public int getSectionCount() {
+        return sectionCount;
+    }
+
+    /**
+     * "language/key" name of a section
+     */
+    public String getName(int section) {
+        int record = recordOffset(section);
+        int offset = buffer.getInt(record + 8);
+        int length = buffer.getShort(record + 12) & 0xFFFF;
+        return decode(offset, length);
+    }
+
+    /**
+     * Keys present for a language, in table order
+     */
+    public List<String> getKeys(String language) {
+        String prefix = language + "/";
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < sectionCount; i++) {
+            String name = getName(i);
+            if (name.startsWith(prefix)) {
+                keys.add(name.substring(prefix.length()));
+            }
+        }
+        return keys;
+    }
+
+    private String readString(int position) {
+        int length = buffer.getShort(position) & 0xFFFF;
+        return decode(position + 2, length);
+    }
+
+    private String decode(int offset, int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(offset + i);
+        }
+        return new String(bytes, UTF_8);
+    }
+
+    private static int recordOffset(int section) {
+        return HEADER_BYTES + section * RECORD_BYTES;
+    }
+
+    /**
+     * 64-bit FNV-1a over "language/key", computed without concatenating
+     */
+    public static long hash(String language, String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < language.length(); i++) {
+            hash = (hash ^ language.charAt(i)) * 0x100000001b3L;
+        }
+        hash = (hash ^ '/') * 0x100000001b3L;
+        for (int i = 0; i < key.length(); i++) {
+            hash = (hash ^ key.charAt(i)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Builds pack files from ContentEntry values or catalogue JSON documents
+     */
+    public static final class Writer {
+        private final List<PendingSection> sections = new ArrayList<>();
+
+        private static final class PendingSection {
+            final String language;
+            final String key;
+            final long hash;
+            final ContentEntry entry;
+
+            PendingSection(String language, String key, ContentEntry entry) {
+                this.language = language;
+                this.key = key;
+                this.hash = hash(language, key);
+                this.entry = entry;
+            }
+        }
+
+        public Writer add(String language, ContentEntry entry) {
+            if (language.indexOf('/') >= 0) {
+                throw new IllegalArgumentException("Language may not contain '/': " + language);
+            }
+            for (PendingSection section : sections) {
+                if (section.language.equals(language) && section.key.equals(entry.getKey())) {
+                    throw new IllegalArgumentException("Duplicate content key " + language + "/" + entry.getKey());
+                }
+            }
+            sections.add(new PendingSection(language, entry.getKey(), entry));
+            return this;
+        }
+
+        /**
+         * Add every symbol of a catalogue document. The document's "language"
+         * field names the language; "en" when absent.
+         */
+        public Writer addJson(String json) {
+            JsonScanner scanner = new JsonScanner(json);
+            scanner.beginObject();
+            String language = "en";
+            Map<String, Object> symbols = null;
+            String field;
+            while ((field = scanner.nextKey()) != null) {
+                if (field.equals("language")) {
+                    language = (String) scanner.readValue();
+                } else if (field.equals("symbols")) {
+                    symbols = readSymbols(scanner);
+                } else {
+                    scanner.skipValue();
+                }
+            }
+            if (symbols != null) {
+                for (Map.Entry<String, Object> symbol : symbols.entrySet()) {
+                    add(language, ContentEntry.fromJson(symbol.getKey(), symbol.getValue()));
+                }
+            }
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Map<String, Object> readSymbols(JsonScanner scanner) {
+            return (Map<String, Object>) scanner.readValue();
+        }
+
+        public int size() {
+            return sections.size();
+        }
+
+        public void writeTo(File file) throws IOException {
+            try (OutputStream out = new FileOutputStream(file)) {
+                writeTo(out);
+            }
+        }
+
+        public void writeTo(OutputStream out) throws IOException {
+            List<PendingSection> sorted = new ArrayList<>(sections);
+            Collections.sort(sorted, new Comparator<PendingSection>() {
+                @Override
+                public int compare(PendingSection a, PendingSection b) {
+                    return Long.compare(a.hash, b.hash);
+                }
+            });
+
+            byte[][] names = new byte[sorted.size()][];
+            byte[][] bodies = new byte[sorted.size()][];
+            int namesBytes = 0;
+            for (int i = 0; i < sorted.size(); i++) {
+                PendingSection section = sorted.get(i);
+                names[i] = (section.language + "/" + section.key).getBytes(UTF_8);
+                bodies[i] = encode(section.entry);
+                namesBytes += names[i].length;
+            }
+
+            int nameStart = HEADER_BYTES + sorted.size() * RECORD_BYTES;
+            int dataStart = align(nameStart + namesBytes);
+            int total = dataStart;
+            for (byte[] body : bodies) {
+                total = align(total + body.length);
+            }
+
+            ByteBuffer pack = ByteBuffer.allocate(total).order(ByteOrder.LITTLE_ENDIAN);
+            pack.putInt(MAGIC).putShort((short) VERSION).putShort((short) 0).putInt(sorted.size());
+
+            int nameOffset = nameStart;
+            int dataOffset = dataStart;
+            for (int i = 0; i < sorted.size(); i++) {
+                pack.putLong(sorted.get(i).hash)
+                        .putInt(nameOffset)
+                        .putShort((short) names[i].length)
+                        .putShort((short) sorted.get(i).entry.getWordCount())
+                        .putInt(dataOffset)
+                        .putInt(bodies[i].length);
+                nameOffset += names[i].length;
+                dataOffset = align(dataOffset + bodies[i].length);
+            }
+
+            for (byte[] name : names) {
+                pack.put(name);
+            }
+            dataOffset = dataStart;
+            for (byte[] body : bodies) {
+                pack.position(dataOffset);
+                pack.put(body);
+                dataOffset = align(dataOffset + body.length);
+            }
+            out.write(pack.array());
+        }
+
+        private static byte[] encode(ContentEntry entry) {
+            if (entry.getWordCount() > 0xFFFF) {
+                throw new IllegalArgumentException("Too many words for " + entry.getKey());
+            }
+            byte[][] strings = new byte[entry.getWordCount() * 3][];
+            int length = 12;
+            for (int i = 0; i < entry.getWordCount(); i++) {
+                String image = entry.getImage(i);
+                strings[i * 3] = entry.getWord(i).getBytes(UTF_8);
+                strings[i * 3 + 1] = entry.getSoundKey(i).getBytes(UTF_8);
+                strings[i * 3 + 2] = (image != null ? image : "").getBytes(UTF_8);
+            }
+            for (byte[] string : strings) {
+                if (string.length > 0xFFFF) {
+                    throw new IllegalArgumentException("String too long in " + entry.getKey());
+                }
+                length += 2 + string.length;
+            }
+
+            ByteBuffer body = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+            body.putInt(entry.getColor()).putInt(entry.getBackgroundColor()).putFloat(entry.getTextSize());
+            for (byte[] string : strings) {
+                body.putShort((short) string.length).put(string);
+            }
+            return body.array();
+        }
+
+        private static int align(int offset) {
+            return (offset + 3) & ~3;
+        }
+    }
+}
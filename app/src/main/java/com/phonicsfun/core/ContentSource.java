@@ -0,0 +1,11 @@
+package com.phonicsfun.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * ContentSource - Where the content catalogue is read from (an asset in the app)
+ */
+public interface ContentSource {
+    InputStream open() throws IOException;
+}
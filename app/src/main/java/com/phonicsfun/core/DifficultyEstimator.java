@@ -0,0 +1,153 @@
+package com.phonicsfun.core;
+
+import java.util.Arrays;
+
+/**
+ * DifficultyEstimator - Per-letter running accuracy and reaction time
+ * Exponentially weighted, so recent answers count most and early mistakes
+ * fade out. Each update is O(1) and allocation-free once a letter has been
+ * seen. Skill maps smoothly onto speed, planet count and asteroid density.
+ */
+public final class DifficultyEstimator {
+    // Weight of the newest answer; about the last ten answers matter
+    static final float ALPHA = 0.2f;
+
+    static final float PRIOR_ACCURACY = 0.75f;
+    static final float PRIOR_REACTION_MILLIS = 2500f;
+
+    // Accuracy at or below FLOOR reads as no skill, at or above CEILING as full
+    static final float ACCURACY_FLOOR = 0.5f;
+    static final float ACCURACY_CEILING = 0.95f;
+    static final float FAST_REACTION_MILLIS = 800f;
+    static final float SLOW_REACTION_MILLIS = 4000f;
+    static final float REACTION_WEIGHT = 0.3f;
+
+    static final float MIN_SPEED = 0.8f;
+    static final float MAX_SPEED = 1.3f;
+    static final int MIN_PLANETS = 2;
+    static final int MAX_PLANETS = 5;
+    static final float MIN_ASTEROID_DENSITY = 0.1f;
+    static final float MAX_ASTEROID_DENSITY = 1.0f;
+
+    // Letter -> slot in the arrays below
+    private final CharTable<Integer> slots = new CharTable<>();
+    private float[] accuracy = new float[32];
+    private float[] reactionMillis = new float[32];
+    private int[] answers = new int[32];
+    private int[] timedAnswers = new int[32];
+    private int slotCount;
+
+    /**
+     * Fold in one answer. A negative reaction time means it was not measured.
+     */
+    public void record(char letter, boolean isCorrect, long reactionMillis) {
+        int slot = slotFor(letter);
+        // Until ALPHA takes over, weight answers equally so the prior fades fast
+        float weight = Math.max(ALPHA, 1f / (answers[slot] + 2));
+        accuracy[slot] += weight * ((isCorrect ? 1f : 0f) - accuracy[slot]);
+        answers[slot]++;
+        if (reactionMillis >= 0) {
+            float reactionWeight = Math.max(ALPHA, 1f / (timedAnswers[slot] + 2));
+            this.reactionMillis[slot] += reactionWeight * (reactionMillis - this.reactionMillis[slot]);
+            timedAnswers[slot]++;
+        }
+    }
+
+    public float getAccuracy(char letter) {
+        Integer slot = slots.get(letter);
+        return slot != null ? accuracy[slot] : PRIOR_ACCURACY;
+    }
+
+    public float getReactionMillis(char letter) {
+        Integer slot = slots.get(letter);
+        return slot != null ? reactionMillis[slot] : PRIOR_REACTION_MILLIS;
+    }
+
+    public int getAnswerCount(char letter) {
+        Integer slot = slots.get(letter);
+        return slot != null ? answers[slot] : 0;
+    }
+
+    /**
+     * Answers that came with a reaction time
+     */
+    public int getTimedAnswerCount(char letter) {
+        Integer slot = slots.get(letter);
+        return slot != null ? timedAnswers[slot] : 0;
+    }
+
+    /**
+     * Put back a letter's state as read from the getters, e.g. from a saved profile
+     */
+    public void restore(char letter, float accuracy, float reactionMillis, int answers, int timedAnswers) {
+        int slot = slotFor(letter);
+        this.accuracy[slot] = accuracy;
+        this.reactionMillis[slot] = reactionMillis;
+        this.answers[slot] = answers;
+        this.timedAnswers[slot] = timedAnswers;
+    }
+
+    /**
+     * 0 (struggling) to 1 (fast and accurate). Reaction time only counts once
+     * some answers were timed.
+     */
+    public float getSkill(char letter) {
+        Integer slot = slots.get(letter);
+        float acc = slot != null ? accuracy[slot] : PRIOR_ACCURACY;
+        float accuracyScore = clamp((acc - ACCURACY_FLOOR) / (ACCURACY_CEILING - ACCURACY_FLOOR));
+        if (slot == null || timedAnswers[slot] == 0) return accuracyScore;
+        float reactionScore = clamp((SLOW_REACTION_MILLIS - reactionMillis[slot])
+                / (SLOW_REACTION_MILLIS - FAST_REACTION_MILLIS));
+        return accuracyScore * (1f - REACTION_WEIGHT) + reactionScore * REACTION_WEIGHT;
+    }
+
+    public float getSpeedMultiplier(char letter) {
+        return lerp(MIN_SPEED, MAX_SPEED, getSkill(letter));
+    }
+
+    public int getPlanetCount(char letter) {
+        return Math.round(lerp(MIN_PLANETS, MAX_PLANETS, getSkill(letter)));
+    }
+
+    /**
+     * Share of the maximum asteroid spawn rate, 0 to 1
+     */
+    public float getAsteroidDensity(char letter) {
+        return lerp(MIN_ASTEROID_DENSITY, MAX_ASTEROID_DENSITY, getSkill(letter));
+    }
+
+    /**
+     * Forget every letter
+     */
+    public void reset() {
+        slots.clear();
+        slotCount = 0;
+    }
+
+    private int slotFor(char letter) {
+        Integer slot = slots.get(letter);
+        if (slot != null) return slot;
+        if (slotCount == accuracy.length) {
+            int capacity = slotCount * 2;
+            accuracy = Arrays.copyOf(accuracy, capacity);
+            reactionMillis = Arrays.copyOf(reactionMillis, capacity);
+            answers = Arrays.copyOf(answers, capacity);
+            timedAnswers = Arrays.copyOf(timedAnswers, capacity);
+        }
+        int index = slotCount++;
+        accuracy[index] = PRIOR_ACCURACY;
+        reactionMillis[index] = PRIOR_REACTION_MILLIS;
+        answers[index] = 0;
+        timedAnswers[index] = 0;
+        slots.put(letter, index);
+        return index;
+    }
+
+    private static float clamp(float value) {
+        return value < 0f ? 0f : value > 1f ? 1f : value;
+    }
+
+    private static float lerp(float from, float to, float t) {
+        return from + (to - from) * t;
+    }
+}
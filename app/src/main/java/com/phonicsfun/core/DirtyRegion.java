@@ -0,0 +1,196 @@
+package com.phonicsfun.core;
+
+/**
+ * DirtyRegion - Small set of damage rectangles for partial redraws
+ * Overlapping or nearby rectangles are merged as they arrive; once the set
+ * is full the cheapest pair is merged, so the count never exceeds MAX_RECTS.
+ * Methods are synchronized: the game thread adds, the render thread drains.
+ */
+public class DirtyRegion {
+    public static final int MAX_RECTS = 6;
+
+    // Merge when the union wastes less than this fraction over the two areas
+    private static final float MERGE_SLACK = 0.25f;
+
+    private final float[] left = new float[MAX_RECTS + 1];
+    private final float[] top = new float[MAX_RECTS + 1];
+    private final float[] right = new float[MAX_RECTS + 1];
+    private final float[] bottom = new float[MAX_RECTS + 1];
+    private int count;
+    private boolean full;
+    private float margin;
+
+    /**
+     * Grow every added rectangle by this much on each side (e.g. glow or antialiasing)
+     */
+    public synchronized void setMargin(float margin) {
+        this.margin = margin;
+    }
+
+    public synchronized void add(float l, float t, float r, float b) {
+        if (full || !(r > l) || !(b > t)) return;
+        int i = count++;
+        left[i] = l - margin;
+        top[i] = t - margin;
+        right[i] = r + margin;
+        bottom[i] = b + margin;
+        mergeCheap(i);
+        if (count > MAX_RECTS) {
+            mergeCheapestPair();
+        }
+    }
+
+    /**
+     * Damage everything, e.g. after a resize or scene change
+     */
+    public synchronized void markAll() {
+        full = true;
+        count = 0;
+    }
+
+    public synchronized boolean isFull() {
+        return full;
+    }
+
+    public synchronized boolean isEmpty() {
+        return !full && count == 0;
+    }
+
+    public synchronized int getCount() {
+        return count;
+    }
+
+    public synchronized float getLeft(int i) { return left[i]; }
+    public synchronized float getTop(int i) { return top[i]; }
+    public synchronized float getRight(int i) { return right[i]; }
+    public synchronized float getBottom(int i) { return bottom[i]; }
+
+    /**
+     * Whether a rectangle touches any damage
+     */
+    public synchronized boolean intersects(float l, float t, float r, float b) {
+        if (full) return true;
+        for (int i = 0; i < count; i++) {
+            if (l < right[i] && left[i] < r && t < bottom[i] && top[i] < b) return true;
+        }
+        return false;
+    }
+
+    public synchronized void clear() {
+        count = 0;
+        full = false;
+    }
+
+    /**
+     * Move all damage into another region (replacing its contents) and clear this one
+     */
+    public void drainTo(DirtyRegion target) {
+        synchronized (this) {
+            synchronized (target) {
+                target.count = count;
+                target.full = full;
+                System.arraycopy(left, 0, target.left, 0, count);
+                System.arraycopy(top, 0, target.top, 0, count);
+                System.arraycopy(right, 0, target.right, 0, count);
+                System.arraycopy(bottom, 0, target.bottom, 0, count);
+                count = 0;
+                full = false;
+            }
+        }
+    }
+
+    /**
+     * Add all damage to another region (merging with what it has) and clear this one
+     */
+    public void moveTo(DirtyRegion target) {
+        synchronized (this) {
+            if (full) {
+                target.markAll();
+            } else {
+                for (int i = 0; i < count; i++) {
+                    target.addExact(left[i], top[i], right[i], bottom[i]);
+                }
+            }
+            count = 0;
+            full = false;
+        }
+    }
+
+    /**
+     * Add without applying this region's margin (the rectangle already has one)
+     */
+    private synchronized void addExact(float l, float t, float r, float b) {
+        float savedMargin = margin;
+        margin = 0;
+        add(l, t, r, b);
+        margin = savedMargin;
+    }
+
+    /**
+     * Merge rectangle i with any rectangle it is cheap to combine with,
+     * repeating while merges keep happening
+     */
+    private void mergeCheap(int i) {
+        boolean merged = true;
+        while (merged) {
+            merged = false;
+            for (int j = 0; j < count; j++) {
+                if (j == i) continue;
+                if (unionArea(i, j) <= (area(i) + area(j)) * (1f + MERGE_SLACK)) {
+                    union(j, i);
+                    boolean mergedIsLast = j == count - 1;
+                    remove(i);
+                    // remove() moves the last rectangle into slot i
+                    i = mergedIsLast ? i : j;
+                    merged = true;
+                    break;
+                }
+            }
+        }
+    }
+
+    private void mergeCheapestPair() {
+        int bestA = 0;
+        int bestB = 1;
+        float bestCost = Float.MAX_VALUE;
+        for (int a = 0; a < count; a++) {
+            for (int b = a + 1; b < count; b++) {
+                float cost = unionArea(a, b) - area(a) - area(b);
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestA = a;
+                    bestB = b;
+                }
+            }
+        }
+        union(bestA, bestB);
+        remove(bestB);
+    }
+
+    /**
+     * Grow rectangle into to cover rectangle from
+     */
+    private void union(int into, int from) {
+        left[into] = Math.min(left[into], left[from]);
+        top[into] = Math.min(top[into], top[from]);
+        right[into] = Math.max(right[into], right[from]);
+        bottom[into] = Math.max(bottom[into], bottom[from]);
+    }
+
+    private void remove(int i) {
+        int last = --count;
+        left[i] = left[last];
+        top[i] = top[last];
+        right[i] = right[last];
+        bottom[i] = bottom[last];
+    }
+
+    private float area(int i) {
+        return (right[i] - left[i]) * (bottom[i] - top[i]);
+    }
+
+    private float unionArea(int a, int b) {
+        return (Math.max(right[a], right[b]) - Math.min(left[a], left[b]))
+                * (Math.max(bottom[a], bottom[b]) - Math.min(top[a], top[b]));
+    }
+}
@@ -0,0 +1,220 @@
+package com.phonicsfun.core;
+
+import android.app.Activity;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.util.Log;
+import android.view.Choreographer;
+import android.view.Display;
+import android.view.FrameMetrics;
+import android.view.Window;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * FrameMetricsMonitor - Frame-time and jank tracking for the resumed activity
+ * Vsync intervals come from a Choreographer.FrameCallback on the UI thread;
+ * on API 24+ Window.OnFrameMetricsAvailableListener adds measured render time.
+ * Reports use the field names of harness/mcp-perf.js.
+ */
+public final class FrameMetricsMonitor implements Choreographer.FrameCallback {
+    private static final String TAG = "PhonicsFrameMetrics";
+
+    // A frame is janky once it runs past one and a half vsync periods
+    private static final float JANK_FACTOR = 1.5f;
+    private static final float DEFAULT_REFRESH_RATE = 60f;
+
+    private static FrameMetricsMonitor instance;
+
+    private final Map<String, FrameStats> stats = new HashMap<>();
+
+    // Also read by the frame metrics thread
+    private volatile FrameStats current;
+
+    // UI thread only
+    private Activity activity;
+    private long lastFrameNanos;
+    private long jankNanos;
+    private float devicePixelRatio = 1f;
+
+    private Handler metricsHandler;
+    private Window.OnFrameMetricsAvailableListener metricsListener;
+
+    public static synchronized FrameMetricsMonitor getInstance() {
+        if (instance == null) {
+            instance = new FrameMetricsMonitor();
+        }
+        return instance;
+    }
+
+    /**
+     * Start measuring frames for an activity; call from onResume
+     */
+    public void attach(Activity activity) {
+        if (this.activity == activity) return;
+        if (this.activity != null) {
+            detach(this.activity);
+        }
+        this.activity = activity;
+        current = statsFor(activity.getClass().getSimpleName());
+        devicePixelRatio = activity.getResources().getDisplayMetrics().density;
+
+        Display display = getDisplay(activity);
+        float refreshRate = display != null ? display.getRefreshRate() : 0f;
+        if (refreshRate < 1f) {
+            refreshRate = DEFAULT_REFRESH_RATE;
+        }
+        jankNanos = (long) (JANK_FACTOR * 1_000_000_000L / refreshRate);
+
+        // The pause before resuming is not a frame
+        lastFrameNanos = 0;
+        Choreographer.getInstance().postFrameCallback(this);
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+            addFrameMetricsListener(activity.getWindow());
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Display getDisplay(Activity activity) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+            return activity.getDisplay();
+        }
+        return activity.getWindowManager().getDefaultDisplay();
+    }
+
+    /**
+     * Stop measuring; call from onPause
+     */
+    public void detach(Activity activity) {
+        if (this.activity != activity) return;
+        Choreographer.getInstance().removeFrameCallback(this);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N && metricsListener != null) {
+            try {
+                activity.getWindow().removeOnFrameMetricsAvailableListener(metricsListener);
+            } catch (IllegalArgumentException e) {
+                Log.w(TAG, "Frame metrics listener already removed");
+            }
+        }
+        Log.d(TAG, formatSummary(current));
+        this.activity = null;
+        current = null;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        FrameStats screenStats = current;
+        if (screenStats == null) return;
+        if (lastFrameNanos != 0) {
+            screenStats.recordFrame(frameTimeNanos - lastFrameNanos, jankNanos);
+        }
+        lastFrameNanos = frameTimeNanos;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    /**
+     * Copy of one screen's stats (e.g. "GameplayActivity"), or null if it was never shown
+     */
+    public synchronized FrameStats getStats(String screen) {
+        FrameStats screenStats = stats.get(screen);
+        return screenStats != null ? new FrameStats(screenStats) : null;
+    }
+
+    /**
+     * Copies of every screen's stats, sorted by screen name
+     */
+    public synchronized List<FrameStats> getAllStats() {
+        List<String> screens = new ArrayList<>(stats.keySet());
+        Collections.sort(screens);
+        List<FrameStats> result = new ArrayList<>(screens.size());
+        for (String screen : screens) {
+            result.add(new FrameStats(stats.get(screen)));
+        }
+        return result;
+    }
+
+    /**
+     * JSON report keyed by screen, with the web diagnostic's testResults fields
+     */
+    public String export() {
+        Runtime runtime = Runtime.getRuntime();
+        long total = runtime.totalMemory();
+        long used = total - runtime.freeMemory();
+        long limit = runtime.maxMemory();
+
+        StringBuilder out = new StringBuilder("{");
+        List<FrameStats> all = getAllStats();
+        for (int i = 0; i < all.size(); i++) {
+            if (i > 0) out.append(',');
+            out.append('"').append(all.get(i).getScreen()).append("\":");
+            out.append(formatReport(all.get(i), total, used, limit, devicePixelRatio));
+        }
+        return out.append('}').toString();
+    }
+
+    public synchronized void reset() {
+        for (FrameStats screenStats : stats.values()) {
+            screenStats.reset();
+        }
+    }
+
+    /**
+     * One screen as a JSON object; the Java heap stands in for the JS heap fields
+     */
+    static String formatReport(FrameStats s, long totalHeap, long usedHeap, long heapLimit, float devicePixelRatio) {
+        return String.format(Locale.US,
+                "{\"fps\":%d,\"avgFrameTime\":%.2f,\"gcPauses\":%d,\"longFrames\":%d,"
+                        + "\"memoryUsage\":{\"totalJSHeapSize\":%d,\"usedJSHeapSize\":%d,\"jsHeapSizeLimit\":%d},"
+                        + "\"cpuUtilization\":%d,\"renderTime\":%.2f,\"devicePixelRatio\":%.2f,"
+                        + "\"frameCount\":%d,\"jankyFrames\":%d,\"p50FrameTime\":%.0f,\"p90FrameTime\":%.0f,"
+                        + "\"p99FrameTime\":%.0f,\"maxFrameTime\":%.2f,\"renderTimeMeasured\":%b}",
+                s.getFps(), s.getAvgFrameTime(), s.getGcPauses(), s.getLongFrames(),
+                totalHeap, usedHeap, heapLimit,
+                s.getCpuUtilization(), s.getRenderTime(), devicePixelRatio,
+                s.getFrameCount(), s.getJankyFrames(), s.getPercentileFrameTime(50),
+                s.getPercentileFrameTime(90), s.getPercentileFrameTime(99), s.getMaxFrameTime(),
+                s.hasMeasuredRenderTime());
+    }
+
+    private static String formatSummary(FrameStats s) {
+        return String.format(Locale.US, "%s: %d frames, %d fps, avg %.1f ms, p99 %.0f ms, %d janky, %d long",
+                s.getScreen(), s.getFrameCount(), s.getFps(), s.getAvgFrameTime(),
+                s.getPercentileFrameTime(99), s.getJankyFrames(), s.getLongFrames());
+    }
+
+    private synchronized FrameStats statsFor(String screen) {
+        FrameStats screenStats = stats.get(screen);
+        if (screenStats == null) {
+            screenStats = new FrameStats(screen);
+            stats.put(screen, screenStats);
+        }
+        return screenStats;
+    }
+
+    private void addFrameMetricsListener(Window window) {
+        if (metricsListener == null) {
+            // Reports arrive off the UI thread so measuring adds no work there
+            HandlerThread metricsThread = new HandlerThread("PhonicsFrameMetrics");
+            metricsThread.start();
+            metricsHandler = new Handler(metricsThread.getLooper());
+            metricsListener = new Window.OnFrameMetricsAvailableListener() {
+                @Override
+                public void onFrameMetricsAvailable(Window w, FrameMetrics metrics, int dropCount) {
+                    FrameStats screenStats = current;
+                    if (screenStats == null || metrics.getMetric(FrameMetrics.FIRST_DRAW_FRAME) == 1) return;
+                    long renderNanos = metrics.getMetric(FrameMetrics.DRAW_DURATION)
+                            + metrics.getMetric(FrameMetrics.SYNC_DURATION)
+                            + metrics.getMetric(FrameMetrics.COMMAND_ISSUE_DURATION)
+                            + metrics.getMetric(FrameMetrics.SWAP_BUFFERS_DURATION);
+                    screenStats.recordRender(renderNanos, dropCount);
+                }
+            };
+        }
+        window.addOnFrameMetricsAvailableListener(metricsListener, metricsHandler);
+    }
+}
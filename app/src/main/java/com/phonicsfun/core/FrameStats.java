@@ -0,0 +1,164 @@
+package com.phonicsfun.core;
+
+import java.util.Arrays;
+
+/**
+ * FrameStats - Frame-time histogram and jank counters for one screen
+ * Thresholds and derived fields follow harness/mcp-perf.js so native and
+ * web diagnostics can be read side by side.
+ */
+public final class FrameStats {
+    // Same cut-offs as the web diagnostic
+    static final long LONG_FRAME_NANOS = 50_000_000L;
+    static final long GC_PAUSE_NANOS = 100_000_000L;
+    private static final float TARGET_FRAME_MS = 16.67f;
+    // The web diagnostic's allowance for script time when estimating render time
+    private static final float SCRIPT_ESTIMATE_MS = 5f;
+
+    // Bucket i holds frames of [i, i+1) ms; the last bucket is open-ended
+    static final int BUCKET_COUNT = 128;
+
+    private final String screen;
+    private final long[] buckets = new long[BUCKET_COUNT];
+    private long frameCount;
+    private long totalFrameNanos;
+    private long maxFrameNanos;
+    private long jankyFrames;
+    private long longFrames;
+    private long gcPauses;
+
+    // Filled only where Window.OnFrameMetricsAvailableListener exists (API 24+)
+    private long renderFrames;
+    private long totalRenderNanos;
+    private long droppedReports;
+
+    FrameStats(String screen) {
+        this.screen = screen;
+    }
+
+    FrameStats(FrameStats other) {
+        this(other.screen);
+        System.arraycopy(other.buckets, 0, buckets, 0, BUCKET_COUNT);
+        frameCount = other.frameCount;
+        totalFrameNanos = other.totalFrameNanos;
+        maxFrameNanos = other.maxFrameNanos;
+        jankyFrames = other.jankyFrames;
+        longFrames = other.longFrames;
+        gcPauses = other.gcPauses;
+        renderFrames = other.renderFrames;
+        totalRenderNanos = other.totalRenderNanos;
+        droppedReports = other.droppedReports;
+    }
+
+    /**
+     * Record the interval between two consecutive vsync callbacks
+     *
+     * @param jankNanos intervals longer than this missed at least one vsync
+     */
+    synchronized void recordFrame(long frameNanos, long jankNanos) {
+        if (frameNanos <= 0) return;
+        buckets[(int) Math.min(BUCKET_COUNT - 1, frameNanos / 1_000_000L)]++;
+        frameCount++;
+        totalFrameNanos += frameNanos;
+        maxFrameNanos = Math.max(maxFrameNanos, frameNanos);
+        if (frameNanos > jankNanos) jankyFrames++;
+        if (frameNanos > LONG_FRAME_NANOS) {
+            longFrames++;
+            // Long enough that the web diagnostic attributes it to GC
+            if (frameNanos > GC_PAUSE_NANOS) gcPauses++;
+        }
+    }
+
+    /**
+     * Record the UI thread and RenderThread work for one drawn frame
+     */
+    synchronized void recordRender(long renderNanos, int droppedSinceLast) {
+        renderFrames++;
+        totalRenderNanos += Math.max(0, renderNanos);
+        droppedReports += droppedSinceLast;
+    }
+
+    synchronized void reset() {
+        Arrays.fill(buckets, 0);
+        frameCount = 0;
+        totalFrameNanos = 0;
+        maxFrameNanos = 0;
+        jankyFrames = 0;
+        longFrames = 0;
+        gcPauses = 0;
+        renderFrames = 0;
+        totalRenderNanos = 0;
+        droppedReports = 0;
+    }
+
+    public String getScreen() { return screen; }
+    public synchronized long getFrameCount() { return frameCount; }
+    public synchronized long getJankyFrames() { return jankyFrames; }
+    public synchronized long getLongFrames() { return longFrames; }
+    public synchronized long getGcPauses() { return gcPauses; }
+    public synchronized long getDroppedReports() { return droppedReports; }
+
+    public synchronized float getMaxFrameTime() {
+        return maxFrameNanos / 1_000_000f;
+    }
+
+    /**
+     * Frames per second over the time the screen was measured
+     */
+    public synchronized int getFps() {
+        return totalFrameNanos > 0 ? Math.round(frameCount * 1_000_000_000f / totalFrameNanos) : 0;
+    }
+
+    /**
+     * Mean vsync-to-vsync interval in milliseconds
+     */
+    public synchronized float getAvgFrameTime() {
+        return frameCount > 0 ? totalFrameNanos / (frameCount * 1_000_000f) : 0f;
+    }
+
+    /**
+     * Share of the frame budget achieved, capped at 100 (the web diagnostic's estimate)
+     */
+    public synchronized int getCpuUtilization() {
+        float avg = getAvgFrameTime();
+        return avg > 0 ? Math.min(100, Math.round(TARGET_FRAME_MS / avg * 100f)) : 0;
+    }
+
+    /**
+     * Mean render time in milliseconds: measured when frame metrics are
+     * available, otherwise estimated the way the web diagnostic does
+     */
+    public synchronized float getRenderTime() {
+        if (renderFrames > 0) {
+            return totalRenderNanos / (renderFrames * 1_000_000f);
+        }
+        return Math.max(0f, getAvgFrameTime() - SCRIPT_ESTIMATE_MS);
+    }
+
+    public synchronized boolean hasMeasuredRenderTime() {
+        return renderFrames > 0;
+    }
+
+    /**
+     * Upper bound in milliseconds of the bucket containing the given percentile (0..100)
+     */
+    public synchronized float getPercentileFrameTime(double percentile) {
+        if (frameCount == 0) return 0f;
+        long rank = Math.max(1, (long) Math.ceil(frameCount * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT - 1; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return Math.min(getMaxFrameTime(), i + 1);
+            }
+        }
+        return getMaxFrameTime();
+    }
+
+    /**
+     * Copy of the millisecond histogram
+     */
+    public synchronized long[] getHistogram() {
+        return buckets.clone();
+    }
+}
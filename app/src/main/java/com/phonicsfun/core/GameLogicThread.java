@@ -0,0 +1,94 @@
+package com.phonicsfun.core;
+
+import android.util.Log;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * GameLogicThread - The one thread allowed to change game state
+ * Commands posted from any thread are run here in order. After each batch the
+ * batch listener runs, which is where the owner publishes a fresh read-only
+ * view. Parks while the queue is empty.
+ */
+public final class GameLogicThread extends Thread {
+    private static final String TAG = "PhonicsGameLogic";
+
+    private final CommandQueue commands = new CommandQueue();
+    private final Runnable afterBatch;
+
+    private volatile boolean waiting;
+    private volatile boolean quitting;
+
+    /**
+     * @param afterBatch run on this thread once the queue has drained, or null
+     */
+    public GameLogicThread(Runnable afterBatch) {
+        super("PhonicsGameLogic");
+        this.afterBatch = afterBatch;
+    }
+
+    /**
+     * Queue a command from any thread; never blocks
+     */
+    public void post(Runnable command) {
+        commands.offer(command);
+        if (waiting) LockSupport.unpark(this);
+    }
+
+    /**
+     * Run a command and wait until it and everything posted before it are done.
+     * Must not be called from this thread.
+     *
+     * @return false if the wait timed out
+     */
+    public boolean postAndWait(Runnable command, long timeoutMillis) throws InterruptedException {
+        if (isLogicThread()) throw new IllegalStateException("Would wait on itself");
+        final CountDownLatch done = new CountDownLatch(1);
+        post(command);
+        post(new Runnable() {
+            @Override
+            public void run() {
+                done.countDown();
+            }
+        });
+        return done.await(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isLogicThread() {
+        return Thread.currentThread() == this;
+    }
+
+    /**
+     * Stop once the commands already posted have run
+     */
+    public void quit() {
+        quitting = true;
+        LockSupport.unpark(this);
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            boolean ran = false;
+            Runnable command;
+            while ((command = commands.poll()) != null) {
+                ran = true;
+                try {
+                    command.run();
+                } catch (RuntimeException e) {
+                    // One bad command must not take the game down with it
+                    Log.e(TAG, "Game command failed", e);
+                }
+            }
+            if (ran && afterBatch != null) afterBatch.run();
+            if (quitting && commands.isEmpty()) return;
+
+            // Announce the wait before the last look, so a post either is seen
+            // here or sees waiting and unparks us
+            waiting = true;
+            if (commands.isEmpty() && !quitting) LockSupport.park(this);
+            waiting = false;
+        }
+    }
+}
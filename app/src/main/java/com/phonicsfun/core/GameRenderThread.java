@@ -0,0 +1,224 @@
+package com.phonicsfun.core;
+
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+import android.util.Log;
+import android.view.Choreographer;
+import android.view.SurfaceHolder;
+
+/**
+ * GameRenderThread - Draws snapshots into a Surface on its own looper thread
+ * Frames are paced by Choreographer vsync callbacks registered on this
+ * thread, so drawing never queues behind UI-thread input handling.
+ */
+public class GameRenderThread extends HandlerThread implements Choreographer.FrameCallback {
+    private static final String TAG = "PhonicsRenderThread";
+
+    /**
+     * Draws one snapshot; called on the render thread. Only the damaged
+     * area needs repainting; the rest of the canvas keeps the previous frame.
+     */
+    public interface FrameRenderer {
+        void renderFrame(Canvas canvas, RenderSnapshot snapshot, DirtyRegion damage, long frameTimeNanos);
+        
+        /**
+         * Time from locking the canvas to posting it, for quality feedback
+         */
+        void onFrameDrawn(long drawNanos);
+    }
+
+    private final SurfaceHolder holder;
+    private final SnapshotBuffer<RenderSnapshot> snapshots;
+    private final FrameRenderer renderer;
+    private final DirtyRegion pendingDamage;
+
+    // Render thread only
+    private final DirtyRegion frameDamage = new DirtyRegion();
+    private final Rect lockRect = new Rect();
+
+    private Handler handler;
+    private Choreographer choreographer;
+
+    // Render thread only
+    private boolean framePending;
+    private boolean surfaceReady;
+
+    private volatile boolean continuous;
+    private volatile boolean redrawRequested;
+    private volatile boolean partialRedraw;
+    private volatile int frameCount;
+
+    private final Runnable scheduleFrame = new Runnable() {
+        @Override
+        public void run() {
+            scheduleFrame();
+        }
+    };
+
+    public GameRenderThread(SurfaceHolder holder, SnapshotBuffer<RenderSnapshot> snapshots,
+                            DirtyRegion pendingDamage, FrameRenderer renderer) {
+        super("PhonicsRender", Process.THREAD_PRIORITY_DISPLAY);
+        this.holder = holder;
+        this.snapshots = snapshots;
+        this.pendingDamage = pendingDamage;
+        this.renderer = renderer;
+    }
+
+    /**
+     * Start the thread and wait until its looper can take frames
+     */
+    public void startRendering() {
+        start();
+        handler = new Handler(getLooper());
+        handler.post(new Runnable() {
+            @Override
+            public void run() {
+                // Choreographer instances are per looper; this one ticks on the render thread
+                choreographer = Choreographer.getInstance();
+                surfaceReady = true;
+                scheduleFrame();
+            }
+        });
+    }
+
+    /**
+     * Draw on every vsync rather than only after a new snapshot is published
+     */
+    public void setContinuous(boolean continuous) {
+        this.continuous = continuous;
+        requestRender();
+    }
+
+    /**
+     * Redraw only the damage reported to the shared DirtyRegion instead of the whole surface
+     */
+    public void setPartialRedraw(boolean partialRedraw) {
+        this.partialRedraw = partialRedraw;
+        requestRedraw();
+    }
+
+    /**
+     * Ask for a frame on the next vsync; safe from any thread
+     */
+    public void requestRender() {
+        Handler h = handler;
+        if (h != null) {
+            h.post(scheduleFrame);
+        }
+    }
+
+    /**
+     * Draw the current snapshot again even if nothing new was published (e.g. after a resize)
+     */
+    public void requestRedraw() {
+        redrawRequested = true;
+        requestRender();
+    }
+
+    /**
+     * Stop drawing and wait for the thread to exit. Call before the surface
+     * is destroyed returns, so no frame touches a dead surface.
+     */
+    public void stopRendering() {
+        Handler h = handler;
+        if (h == null) return;
+        h.post(new Runnable() {
+            @Override
+            public void run() {
+                surfaceReady = false;
+                if (choreographer != null) {
+                    choreographer.removeFrameCallback(GameRenderThread.this);
+                }
+                quit();
+            }
+        });
+        try {
+            join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Log.w(TAG, "Interrupted waiting for render thread");
+        }
+        handler = null;
+    }
+
+    private void unionDamage(Rect out) {
+        float left = Float.MAX_VALUE, top = Float.MAX_VALUE, right = -Float.MAX_VALUE, bottom = -Float.MAX_VALUE;
+        for (int i = 0; i < frameDamage.getCount(); i++) {
+            left = Math.min(left, frameDamage.getLeft(i));
+            top = Math.min(top, frameDamage.getTop(i));
+            right = Math.max(right, frameDamage.getRight(i));
+            bottom = Math.max(bottom, frameDamage.getBottom(i));
+        }
+        out.set((int) Math.floor(left), (int) Math.floor(top), (int) Math.ceil(right), (int) Math.ceil(bottom));
+    }
+
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    private void scheduleFrame() {
+        if (!surfaceReady || framePending || choreographer == null) return;
+        framePending = true;
+        choreographer.postFrameCallback(this);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        framePending = false;
+        if (!surfaceReady) return;
+
+        // Drain damage before taking the snapshot: damage published after this
+        // point stays pending and is drawn with the newer snapshot next frame
+        pendingDamage.drainTo(frameDamage);
+        if (continuous || redrawRequested || snapshots.hasFresh() || !frameDamage.isEmpty()) {
+            if (redrawRequested || !partialRedraw) {
+                frameDamage.markAll();
+            }
+            redrawRequested = false;
+            RenderSnapshot snapshot = snapshots.acquire();
+            if (!frameDamage.isEmpty()) {
+                drawFrame(snapshot, frameTimeNanos);
+            }
+        }
+        if (!pendingDamage.isEmpty()) {
+            // Damage reported while drawing; catch up on the next vsync
+            scheduleFrame();
+        }
+        if (continuous) {
+            scheduleFrame();
+        }
+    }
+
+    private void drawFrame(RenderSnapshot snapshot, long frameTimeNanos) {
+        Canvas canvas = null;
+        long startNanos = System.nanoTime();
+        try {
+            if (frameDamage.isFull()) {
+                canvas = holder.lockCanvas();
+            } else {
+                unionDamage(lockRect);
+                int left = lockRect.left, top = lockRect.top, right = lockRect.right, bottom = lockRect.bottom;
+                canvas = holder.lockCanvas(lockRect);
+                // The surface may widen the dirty rect (e.g. a new back buffer); repaint all of it
+                if (canvas != null && (lockRect.left < left || lockRect.top < top
+                        || lockRect.right > right || lockRect.bottom > bottom)) {
+                    frameDamage.clear();
+                    frameDamage.add(lockRect.left, lockRect.top, lockRect.right, lockRect.bottom);
+                }
+            }
+            if (canvas == null) return;
+            renderer.renderFrame(canvas, snapshot, frameDamage, frameTimeNanos);
+            frameCount++;
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            Log.w(TAG, "Surface unavailable: " + e.getMessage());
+        } finally {
+            if (canvas != null) {
+                holder.unlockCanvasAndPost(canvas);
+                renderer.onFrameDrawn(System.nanoTime() - startNanos);
+            }
+        }
+    }
+}
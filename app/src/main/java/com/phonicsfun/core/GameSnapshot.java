@@ -0,0 +1,359 @@
+package com.phonicsfun.core;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * GameSnapshot - Compact binary copy of the in-progress game
+ * Enough to put GameState back as it was after the process is killed:
+ * screen, status, letter, word position, hits, difficulty, settings and the
+ * live collision objects. Encoded and decoded in one pass over a byte array.
+ * Objects are held as plain ObjectState values, so encoding touches no
+ * android.graphics types; GameState converts them to and from CollisionObjects.
+ *
+ * Layout (little-endian):
+ *   header   magic "PFGS", u16 version, u16 object count, u64 saved-at millis
+ *   state    u8 screen, u8 status, u8 flags (muted, planets created),
+ *            u8 reserved, str letter, str word, i32 word index, i32 correct
+ *            hits, i32 total hits, i32 correct answers, i32 total answers,
+ *            f32 speed, i32 planets, f32 asteroid density, f32 music volume,
+ *            f32 effects volume
+ *   objects  u8 kind, u8 active, str id, str type, 4 x f32 bounds, then
+ *            planet: str letter, str word, u8 correct
+ *            asteroid: str letter, u8 correct
+ *            projectile: f32 vx, f32 vy, u64 created millis
+ *   str      u16 byte length + UTF-8; 0xFFFF for null
+ */
+public final class GameSnapshot {
+    public static final int MAGIC = 0x53474650; // "PFGS"
+    public static final int VERSION = 1;
+
+    static final int KIND_OBJECT = 0;
+    static final int KIND_PLANET = 1;
+    static final int KIND_ASTEROID = 2;
+    static final int KIND_PROJECTILE = 3;
+
+    // Saved-at time sits at bytes 8-15 of the header
+    private static final int SAVED_AT_OFFSET = 8;
+    private static final int SAVED_AT_BYTES = 8;
+    private static final int FLAG_MUTED = 1;
+    private static final int FLAG_PLANETS_CREATED = 2;
+    private static final int NULL_STRING = 0xFFFF;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    long savedAtMillis;
+    GameState.Screen screen = GameState.Screen.WELCOME;
+    GameState.GameStatus status = GameState.GameStatus.INACTIVE;
+    boolean muted;
+    boolean planetsCreated;
+    String currentLetter;
+    String currentWord;
+    int currentWordIndex;
+    int correctHits;
+    int totalHits;
+    int correctAnswers;
+    int totalAnswers;
+    float speedMultiplier;
+    int planetCount;
+    float asteroidDensity;
+    float musicVolume;
+    float effectsVolume;
+    final List<ObjectState> objects = new ArrayList<>();
+
+    /**
+     * One collision object as saved: kind, flags, names and bounds as four floats
+     */
+    static final class ObjectState {
+        int kind = KIND_OBJECT;
+        boolean active = true;
+        String id;
+        String type;
+        float left;
+        float top;
+        float right;
+        float bottom;
+        // Planet and asteroid
+        String letter;
+        boolean correct;
+        // Planet
+        String word;
+        // Projectile
+        float velocityX;
+        float velocityY;
+        long createdMillis;
+
+        static ObjectState of(CollisionManager.CollisionObject object) {
+            ObjectState state = new ObjectState();
+            state.kind = kindOf(object);
+            state.active = object.isActive;
+            state.id = object.id;
+            state.type = object.type;
+            state.left = object.bounds.left;
+            state.top = object.bounds.top;
+            state.right = object.bounds.right;
+            state.bottom = object.bounds.bottom;
+            if (object instanceof CollisionManager.Planet) {
+                CollisionManager.Planet planet = (CollisionManager.Planet) object;
+                state.letter = planet.letter;
+                state.word = planet.word;
+                state.correct = planet.isCorrect;
+            } else if (object instanceof CollisionManager.Asteroid) {
+                CollisionManager.Asteroid asteroid = (CollisionManager.Asteroid) object;
+                state.letter = asteroid.letter;
+                state.correct = asteroid.isCorrect;
+            } else if (object instanceof CollisionManager.Projectile) {
+                CollisionManager.Projectile projectile = (CollisionManager.Projectile) object;
+                state.velocityX = projectile.velocityX;
+                state.velocityY = projectile.velocityY;
+                state.createdMillis = projectile.creationTime;
+            }
+            return state;
+        }
+
+        CollisionManager.CollisionObject toCollisionObject() {
+            float width = right - left;
+            float height = bottom - top;
+            float centerX = (left + right) / 2f;
+            float centerY = (top + bottom) / 2f;
+            CollisionManager.CollisionObject object;
+            switch (kind) {
+                case KIND_PLANET:
+                    object = new CollisionManager.Planet(id, letter, word, correct, centerX, centerY, width / 2f);
+                    break;
+                case KIND_ASTEROID:
+                    object = new CollisionManager.Asteroid(id, letter, correct, centerX, centerY, width / 2f);
+                    break;
+                case KIND_PROJECTILE: {
+                    CollisionManager.Projectile projectile = new CollisionManager.Projectile(id,
+                            left, top, width, height, velocityX, velocityY);
+                    projectile.creationTime = createdMillis;
+                    object = projectile;
+                    break;
+                }
+                default:
+                    object = new CollisionManager.CollisionObject(id, type, left, top, width, height);
+            }
+            // Subclass constructors rebuild bounds from a centre; keep the saved ones exactly
+            object.bounds.set(left, top, right, bottom);
+            object.type = type;
+            object.isActive = active;
+            return object;
+        }
+    }
+
+    public byte[] encode() {
+        ByteBuffer out = ByteBuffer.allocate(256).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC).putShort((short) VERSION).putShort((short) objects.size()).putLong(savedAtMillis);
+        out.put((byte) screen.ordinal())
+                .put((byte) status.ordinal())
+                .put((byte) ((muted ? FLAG_MUTED : 0) | (planetsCreated ? FLAG_PLANETS_CREATED : 0)))
+                .put((byte) 0);
+        out = putString(out, currentLetter);
+        out = putString(out, currentWord);
+        out = ensure(out, 40);
+        out.putInt(currentWordIndex).putInt(correctHits).putInt(totalHits)
+                .putInt(correctAnswers).putInt(totalAnswers)
+                .putFloat(speedMultiplier).putInt(planetCount).putFloat(asteroidDensity)
+                .putFloat(musicVolume).putFloat(effectsVolume);
+
+        for (ObjectState object : objects) {
+            out = ensure(out, 2);
+            out.put((byte) object.kind).put((byte) (object.active ? 1 : 0));
+            out = putString(out, object.id);
+            out = putString(out, object.type);
+            out = ensure(out, 16);
+            out.putFloat(object.left).putFloat(object.top).putFloat(object.right).putFloat(object.bottom);
+            switch (object.kind) {
+                case KIND_PLANET:
+                    out = putString(out, object.letter);
+                    out = putString(out, object.word);
+                    out = ensure(out, 1);
+                    out.put((byte) (object.correct ? 1 : 0));
+                    break;
+                case KIND_ASTEROID:
+                    out = putString(out, object.letter);
+                    out = ensure(out, 1);
+                    out.put((byte) (object.correct ? 1 : 0));
+                    break;
+                case KIND_PROJECTILE:
+                    out = ensure(out, 16);
+                    out.putFloat(object.velocityX).putFloat(object.velocityY).putLong(object.createdMillis);
+                    break;
+                default:
+                    break;
+            }
+        }
+        byte[] bytes = new byte[out.position()];
+        out.flip();
+        out.get(bytes);
+        return bytes;
+    }
+
+    public static GameSnapshot decode(byte[] bytes) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            if (in.getInt() != MAGIC) throw new IOException("Not a game snapshot");
+            int version = in.getShort() & 0xFFFF;
+            if (version != VERSION) throw new IOException("Unsupported game snapshot version: " + version);
+            int objectCount = in.getShort() & 0xFFFF;
+
+            GameSnapshot snapshot = new GameSnapshot();
+            snapshot.savedAtMillis = in.getLong();
+            snapshot.screen = enumAt(GameState.Screen.values(), in.get());
+            snapshot.status = enumAt(GameState.GameStatus.values(), in.get());
+            int flags = in.get();
+            in.get();
+            snapshot.muted = (flags & FLAG_MUTED) != 0;
+            snapshot.planetsCreated = (flags & FLAG_PLANETS_CREATED) != 0;
+            snapshot.currentLetter = getString(in);
+            snapshot.currentWord = getString(in);
+            snapshot.currentWordIndex = in.getInt();
+            snapshot.correctHits = in.getInt();
+            snapshot.totalHits = in.getInt();
+            snapshot.correctAnswers = in.getInt();
+            snapshot.totalAnswers = in.getInt();
+            snapshot.speedMultiplier = in.getFloat();
+            snapshot.planetCount = in.getInt();
+            snapshot.asteroidDensity = in.getFloat();
+            snapshot.musicVolume = in.getFloat();
+            snapshot.effectsVolume = in.getFloat();
+
+            for (int i = 0; i < objectCount; i++) {
+                snapshot.objects.add(readObject(in));
+            }
+            return snapshot;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated game snapshot");
+        }
+    }
+
+    /**
+     * Whether two encoded snapshots hold the same game, ignoring when they were taken
+     */
+    static boolean sameState(byte[] a, byte[] b) {
+        if (a == null || b == null || a.length != b.length) return false;
+        for (int i = 0; i < a.length; i++) {
+            if (i >= SAVED_AT_OFFSET && i < SAVED_AT_OFFSET + SAVED_AT_BYTES) continue;
+            if (a[i] != b[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Whole snapshot file in a single read
+     */
+    static byte[] readBytes(File file) throws IOException {
+        long length = file.length();
+        if (length > Integer.MAX_VALUE) throw new IOException("Game snapshot too large");
+        byte[] bytes = new byte[(int) length];
+        try (InputStream in = new FileInputStream(file)) {
+            int offset = 0;
+            int read;
+            while (offset < bytes.length && (read = in.read(bytes, offset, bytes.length - offset)) != -1) {
+                offset += read;
+            }
+            if (offset < bytes.length) throw new IOException("Truncated game snapshot");
+        }
+        return bytes;
+    }
+
+    /**
+     * Replace the snapshot file; a crash mid-write leaves the previous one intact
+     */
+    static void write(File file, byte[] bytes) throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Could not create " + parent);
+        }
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            out.write(bytes);
+        }
+        if (!temp.renameTo(file)) throw new IOException("Could not replace " + file);
+    }
+
+    private static ObjectState readObject(ByteBuffer in) throws IOException {
+        ObjectState object = new ObjectState();
+        object.kind = in.get() & 0xFF;
+        object.active = in.get() != 0;
+        object.id = getString(in);
+        object.type = getString(in);
+        object.left = in.getFloat();
+        object.top = in.getFloat();
+        object.right = in.getFloat();
+        object.bottom = in.getFloat();
+        switch (object.kind) {
+            case KIND_OBJECT:
+                break;
+            case KIND_PLANET:
+                object.letter = getString(in);
+                object.word = getString(in);
+                object.correct = in.get() != 0;
+                break;
+            case KIND_ASTEROID:
+                object.letter = getString(in);
+                object.correct = in.get() != 0;
+                break;
+            case KIND_PROJECTILE:
+                object.velocityX = in.getFloat();
+                object.velocityY = in.getFloat();
+                object.createdMillis = in.getLong();
+                break;
+            default:
+                throw new IOException("Unknown collision object kind " + object.kind);
+        }
+        return object;
+    }
+
+    private static int kindOf(CollisionManager.CollisionObject object) {
+        if (object instanceof CollisionManager.Planet) return KIND_PLANET;
+        if (object instanceof CollisionManager.Asteroid) return KIND_ASTEROID;
+        if (object instanceof CollisionManager.Projectile) return KIND_PROJECTILE;
+        return KIND_OBJECT;
+    }
+
+    private static <E> E enumAt(E[] values, byte ordinal) throws IOException {
+        int index = ordinal & 0xFF;
+        if (index >= values.length) throw new IOException("Bad enum value " + index + " in game snapshot");
+        return values[index];
+    }
+
+    private static ByteBuffer putString(ByteBuffer out, String value) {
+        if (value == null) {
+            out = ensure(out, 2);
+            out.putShort((short) NULL_STRING);
+            return out;
+        }
+        byte[] bytes = value.getBytes(UTF_8);
+        if (bytes.length >= NULL_STRING) throw new IllegalArgumentException("String too long for snapshot");
+        out = ensure(out, 2 + bytes.length);
+        out.putShort((short) bytes.length).put(bytes);
+        return out;
+    }
+
+    private static String getString(ByteBuffer in) {
+        int length = in.getShort() & 0xFFFF;
+        if (length == NULL_STRING) return null;
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    private static ByteBuffer ensure(ByteBuffer out, int bytes) {
+        if (out.remaining() >= bytes) return out;
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(out.capacity() * 2, out.position() + bytes))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        out.flip();
+        grown.put(out);
+        return grown;
+    }
+}
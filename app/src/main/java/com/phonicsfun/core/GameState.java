@@ -2,6 +2,8 @@ package com.phonicsfun.core;
 
 import android.content.Context;
 import android.util.Log;
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -9,6 +11,9 @@ import java.util.List;
  * Phonics Fun - Game State Management
  * Educational game for learning phonics - Android/Java Implementation
  * Converted from JavaScript to Java for Android platform priority
+ *
+ * Every change runs as a command on the single GameLogicThread; getters read
+ * the latest immutable GameStateView, so any thread may call either.
  */
 public class GameState {
     private static final String TAG = "PhonicsGameState";
@@ -22,33 +27,73 @@ public class GameState {
         INACTIVE, ACTIVE, PAUSED, COMPLETED
     }
     
+    // Game fields below are owned by the logic thread
     private Screen currentScreen;
     private GameStatus gameStatus;
     private int correctHits;
     private int totalHits;
     private boolean planetsCreated;
     private List<String> allowedLetters;
-    private List<WordMessage> wordMessages;
+    // Words shown so far this round; which word comes next is up to the review scheduler
     private int currentWordIndex;
+    private String currentWord;
+    private String currentLetter;
+    
+    // Audio settings; written on the logic thread under componentLock
     private boolean isMuted;
     private float musicVolume;
     private float effectsVolume;
-    private String currentLetter;
     
-    // Adaptive difficulty states
+    // Adaptive difficulty states; lifetime counts are kept for the profile only
     private int correctAnswersCount;
     private int totalAnswersCount;
+    private final DifficultyEstimator difficultyEstimator = new DifficultyEstimator();
     private float difficultySpeedMultiplier;
     private int difficultyPlanetCount;
+    private float difficultyAsteroidDensity;
     
-    // Game components
+    // Game components; the lazy ones are created under componentLock
+    private final Object componentLock = new Object();
     private AudioManager audioManager;
+    private WordCatalogue wordCatalogue;
+    private BitmapCache bitmapCache;
     private EventManager eventManager;
     private CollisionManager collisionManager;
+    private ProfileManager profiles;
     private Context context;
     
-    public GameState(Context context) {
+    private final GameLogicThread logic;
+    private volatile GameStateView view;
+    private long viewVersion;
+    
+    // Learner whose game the fields hold; each learner has their own snapshot
+    private String learnerId;
+    // Bytes of the last snapshot queued for writing; an unchanged game is not rewritten
+    private byte[] lastSnapshot;
+    
+    private GameState(Context context) {
         this.context = context;
+        clearGame();
+        
+        initializeData();
+        initializeComponents();
+        restoreSnapshot();
+        
+        // Until the logic thread starts this thread is the only writer
+        publishView();
+        logic = new GameLogicThread(new Runnable() {
+            @Override
+            public void run() {
+                publishView();
+            }
+        });
+        logic.start();
+    }
+    
+    /**
+     * Fields of a learner with no saved game
+     */
+    private void clearGame() {
         this.currentScreen = Screen.WELCOME;
         this.gameStatus = GameStatus.INACTIVE;
         this.correctHits = 0;
@@ -64,13 +109,18 @@ public class GameState {
         this.totalAnswersCount = 0;
         this.difficultySpeedMultiplier = 1.0f;
         this.difficultyPlanetCount = 3;
-        
-        initializeData();
-        initializeComponents();
-        instance = this;
+        this.difficultyAsteroidDensity = 0.5f;
+        this.currentWord = null;
     }
-
-    public static GameState getInstance() {
+    
+    /**
+     * Shared game state. After process death the last saved snapshot is
+     * restored, so any screen can be the first one created.
+     */
+    public static synchronized GameState getInstance(Context context) {
+        if (instance == null) {
+            instance = new GameState(context.getApplicationContext());
+        }
         return instance;
     }
     
@@ -80,28 +130,135 @@ public class GameState {
         allowedLetters.add("G");
         allowedLetters.add("A");
         allowedLetters.add("B");
-        
-        // Initialize word messages
-        wordMessages = new ArrayList<>();
-        wordMessages.add(new WordMessage("G", "grape", "voice_grape"));
-        wordMessages.add(new WordMessage("G", "goat", "voice_goat"));
-        wordMessages.add(new WordMessage("G", "gold", "voice_gold"));
-        wordMessages.add(new WordMessage("G", "girl", "voice_girl"));
-        wordMessages.add(new WordMessage("G", "grandpa", "voice_grandpa"));
-        wordMessages.add(new WordMessage("A", "apple", "voice_apple"));
-        wordMessages.add(new WordMessage("A", "ant", "voice_ant"));
-        wordMessages.add(new WordMessage("B", "ball", "voice_ball"));
-        wordMessages.add(new WordMessage("B", "bat", "voice_bat"));
+    }
+    
+    /**
+     * Words of the allowed letters, parsed from the content catalogue on first use
+     */
+    public WordCatalogue getWordCatalogue() {
+        synchronized (componentLock) {
+            if (wordCatalogue == null) {
+                ContentCatalogue content = ContentCatalogue.getInstance(context);
+                List<WordMessage> wordMessages = new ArrayList<>();
+                for (String letter : allowedLetters) {
+                    ContentEntry entry = content.get(letter);
+                    if (entry == null) continue;
+                    for (int i = 0; i < entry.getWordCount(); i++) {
+                        wordMessages.add(new WordMessage(letter, entry.getWord(i), entry.getSoundKey(i)));
+                    }
+                }
+                wordCatalogue = new WordCatalogue(wordMessages);
+            }
+            return wordCatalogue;
+        }
     }
     
     private void initializeComponents() {
         Log.d(TAG, "Initializing Phonics Fun game components...");
-        this.audioManager = new AudioManager(context);
-        this.eventManager = new EventManager();
-        this.collisionManager = new CollisionManager();
+        // Events, collisions, audio, bitmaps and words are created on first use
+        this.profiles = ProfileManager.getInstance(context);
+        profiles.addProfileListener(new ProfileManager.ProfileListener() {
+            @Override
+            public void onProfileChanged(final LearnerProfile profile) {
+                post(new Runnable() {
+                    @Override
+                    public void run() {
+                        switchLearner(profile);
+                    }
+                });
+            }
+        });
+        LearnerProfile active = profiles.getActiveProfile();
+        learnerId = active.getId();
+        loadLearnerState(active);
     }
     
-    public void startGame(String letter) {
+    /**
+     * Logic thread: save the outgoing learner's game and bring in the new
+     * learner's. Their snapshot is read on the writer so it comes after any
+     * save of it still queued there.
+     */
+    private void switchLearner(LearnerProfile profile) {
+        if (profile.getId().equals(learnerId)) {
+            // Same learner with their progress reset; drop the old estimates
+            loadLearnerState(profile);
+            return;
+        }
+        doSaveSnapshot();
+        learnerId = profile.getId();
+        lastSnapshot = null;
+        clearGame();
+        if (collisionManager != null) collisionManager.clearAllObjects();
+        loadLearnerState(profile);
+        
+        final String id = learnerId;
+        final File file = profiles.snapshotFile(id);
+        profiles.getWriter().execute(new Runnable() {
+            @Override
+            public void run() {
+                if (!file.exists()) return;
+                try {
+                    final byte[] bytes = GameSnapshot.readBytes(file);
+                    final GameSnapshot snapshot = GameSnapshot.decode(bytes);
+                    post(new Runnable() {
+                        @Override
+                        public void run() {
+                            // Skip it if the learner changed again meanwhile
+                            if (!id.equals(learnerId)) return;
+                            applySnapshot(snapshot);
+                            lastSnapshot = bytes;
+                        }
+                    });
+                } catch (IOException e) {
+                    Log.e(TAG, "Could not restore game snapshot: " + e.getMessage());
+                }
+            }
+        });
+    }
+    
+    /**
+     * Pick up the active learner's answer counts and per-letter difficulty
+     */
+    private void loadLearnerState(LearnerProfile profile) {
+        correctAnswersCount = profile.getCorrectAnswers();
+        totalAnswersCount = profile.getTotalAnswers();
+        difficultyEstimator.reset();
+        profile.getProgress().restoreSkills(difficultyEstimator);
+        updateAdaptiveDifficulty();
+    }
+    
+    private void post(Runnable command) {
+        logic.post(command);
+    }
+    
+    /**
+     * Logic thread: make the current fields visible to readers
+     */
+    private void publishView() {
+        view = new GameStateView(++viewVersion, currentScreen, gameStatus,
+                currentLetter, currentWord, currentWordIndex,
+                correctHits, totalHits, planetsCreated,
+                isMuted, musicVolume, effectsVolume,
+                difficultySpeedMultiplier, difficultyPlanetCount, difficultyAsteroidDensity);
+    }
+    
+    /**
+     * Latest published state. Changes posted just before may not be in it yet.
+     */
+    public GameStateView getView() { return view; }
+    
+    public GameLogicThread getLogicThread() { return logic; }
+    
+    public void startGame(final String letter) {
+        post(new Runnable() {
+            @Override
+            public void run() {
+                doStartGame(letter);
+            }
+        });
+    }
+    
+    private void doStartGame(String letter) {
         Log.d(TAG, "Starting game with letter: " + letter);
         this.currentLetter = letter;
         this.correctHits = 0;
@@ -109,21 +266,25 @@ public class GameState {
         this.gameStatus = GameStatus.ACTIVE;
         this.currentScreen = Screen.GAMEPLAY;
         
+        updateAdaptiveDifficulty();
+        
+        // Queue the letter's words for review; ones the learner missed come first
+        ReviewScheduler reviews = profiles.getActiveProfile().getReviewScheduler();
+        char key = letter.charAt(0);
+        for (WordMessage word : getWordCatalogue().getWords(letter)) {
+            reviews.add(key, word.getWord());
+        }
+        currentWord = reviews.next(key, null);
+        
         // Load assets for the selected letter
-        audioManager.loadLetterAssets(letter);
+        getAudioManager().loadLetterAssets(letter);
         
         // Create planets for the letter
         createPlanetsForLetter(letter);
     }
     
     private void createPlanetsForLetter(String letter) {
-        // Filter word messages for the current letter
-        List<WordMessage> letterWords = new ArrayList<>();
-        for (WordMessage word : wordMessages) {
-            if (word.getLetter().equals(letter)) {
-                letterWords.add(word);
-            }
-        }
+        List<WordMessage> letterWords = getWordCatalogue().getWords(letter);
         
         // Create planets based on the words
         planetsCreated = true;
@@ -131,9 +292,37 @@ public class GameState {
     }
     
     public void registerHit(boolean isCorrect) {
+        registerHit(isCorrect, -1L);
+    }
+    
+    /**
+     * @param reactionMillis time from the word being presented to the hit, or -1 if unknown
+     */
+    public void registerHit(final boolean isCorrect, final long reactionMillis) {
+        post(new Runnable() {
+            @Override
+            public void run() {
+                doRegisterHit(isCorrect, reactionMillis);
+            }
+        });
+    }
+    
+    private void doRegisterHit(boolean isCorrect, long reactionMillis) {
         if (gameStatus != GameStatus.ACTIVE) return;
         
-        totalAnswersCount++;
+        // Counts live in the profile so a reset from settings is picked up
+        LearnerProfile profile = profiles.getActiveProfile();
+        correctAnswersCount = profile.getCorrectAnswers();
+        totalAnswersCount = profile.getTotalAnswers() + 1;
+        if (currentLetter != null && !currentLetter.isEmpty()) {
+            profile.getProgress().recordAttempt(currentLetter.charAt(0), isCorrect);
+            difficultyEstimator.record(currentLetter.charAt(0), isCorrect, reactionMillis);
+            profile.getProgress().saveSkill(currentLetter.charAt(0), difficultyEstimator);
+        }
+        if (currentWord != null && currentLetter != null && !currentLetter.isEmpty()) {
+            profile.getReviewScheduler().review(currentLetter.charAt(0), currentWord, isCorrect,
+                    System.currentTimeMillis());
+        }
         if (isCorrect) {
             correctAnswersCount++;
             correctHits++;
@@ -145,24 +334,35 @@ public class GameState {
         }
         
         updateAdaptiveDifficulty();
+        profile.setAnswerCounts(correctAnswersCount, totalAnswersCount);
+        profile.save();
         
         // Play appropriate sound
-        audioManager.playEffect(isCorrect ? "celebration" : "explosion");
+        getAudioManager().playEffect(isCorrect ? "celebration" : "explosion");
     }
     
     private void completeGame() {
         Log.d(TAG, "Game completed successfully!");
         gameStatus = GameStatus.COMPLETED;
-        audioManager.playEffect("celebration");
+        getAudioManager().playEffect("celebration");
         
-        // Return to level select after a delay
-        eventManager.scheduleEvent(() -> {
-            setCurrentScreen(Screen.LEVEL_SELECT);
-            resetGame();
-        }, 3000);
+        // Return to level select after a delay; the timer fires on the main thread
+        getEventManager().scheduleEvent(() -> post(() -> {
+            currentScreen = Screen.LEVEL_SELECT;
+            doResetGame();
+        }), 3000);
     }
     
     public void resetGame() {
+        post(new Runnable() {
+            @Override
+            public void run() {
+                doResetGame();
+            }
+        });
+    }
+    
+    private void doResetGame() {
         correctHits = 0;
         currentWordIndex = 0;
         gameStatus = GameStatus.INACTIVE;
@@ -170,92 +370,224 @@ public class GameState {
     }
     
     public void pauseGame() {
-        if (gameStatus == GameStatus.ACTIVE) {
-            gameStatus = GameStatus.PAUSED;
-            audioManager.pauseMusic();
-        }
+        post(new Runnable() {
+            @Override
+            public void run() {
+                if (gameStatus == GameStatus.ACTIVE) {
+                    gameStatus = GameStatus.PAUSED;
+                    synchronized (componentLock) {
+                        if (audioManager != null) audioManager.pauseMusic();
+                    }
+                }
+            }
+        });
     }
     
     public void resumeGame() {
-        if (gameStatus == GameStatus.PAUSED) {
-            gameStatus = GameStatus.ACTIVE;
-            audioManager.resumeMusic();
-        }
+        post(new Runnable() {
+            @Override
+            public void run() {
+                if (gameStatus == GameStatus.PAUSED) {
+                    gameStatus = GameStatus.ACTIVE;
+                    getAudioManager().resumeMusic();
+                }
+            }
+        });
     }
     
-    // Getters and setters
-    public Screen getCurrentScreen() { return currentScreen; }
-    public void setCurrentScreen(Screen screen) { this.currentScreen = screen; }
+    // Getters read the published view; setters post commands
+    public Screen getCurrentScreen() { return view.getScreen(); }
+    public void setCurrentScreen(final Screen screen) {
+        post(new Runnable() {
+            @Override
+            public void run() {
+                currentScreen = screen;
+            }
+        });
+    }
     
-    public GameStatus getGameStatus() { return gameStatus; }
-    public void setGameStatus(GameStatus status) { this.gameStatus = status; }
+    public GameStatus getGameStatus() { return view.getStatus(); }
+    public void setGameStatus(final GameStatus status) {
+        post(new Runnable() {
+            @Override
+            public void run() {
+                gameStatus = status;
+            }
+        });
+    }
     
-    public int getCorrectHits() { return correctHits; }
-    public int getTotalHits() { return totalHits; }
-    public float getProgress() { return (float) correctHits / totalHits; }
+    public int getCorrectHits() { return view.getCorrectHits(); }
+    public int getTotalHits() { return view.getTotalHits(); }
+    public float getProgress() { return view.getProgress(); }
     
-    public boolean isPlanetsCreated() { return planetsCreated; }
+    public boolean isPlanetsCreated() { return view.isPlanetsCreated(); }
     public List<String> getAllowedLetters() { return allowedLetters; }
-    public String getCurrentLetter() { return currentLetter; }
+    public String getCurrentLetter() { return view.getCurrentLetter(); }
+    
+    public boolean isMuted() { return view.isMuted(); }
+    public void setMuted(final boolean muted) {
+        post(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (componentLock) {
+                    isMuted = muted;
+                    if (audioManager != null) audioManager.setMuted(muted);
+                }
+            }
+        });
+    }
     
-    public boolean isMuted() { return isMuted; }
-    public void setMuted(boolean muted) { 
-        this.isMuted = muted;
-        audioManager.setMuted(muted);
+    public float getMusicVolume() { return view.getMusicVolume(); }
+    public void setMusicVolume(final float volume) {
+        post(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (componentLock) {
+                    musicVolume = volume;
+                    if (audioManager != null) audioManager.setMusicVolume(volume);
+                }
+            }
+        });
     }
     
-    public float getMusicVolume() { return musicVolume; }
-    public void setMusicVolume(float volume) { 
-        this.musicVolume = volume;
-        audioManager.setMusicVolume(volume);
+    public float getEffectsVolume() { return view.getEffectsVolume(); }
+    public void setEffectsVolume(final float volume) {
+        post(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (componentLock) {
+                    effectsVolume = volume;
+                    if (audioManager != null) audioManager.setEffectsVolume(volume);
+                }
+            }
+        });
     }
     
-    public float getEffectsVolume() { return effectsVolume; }
-    public void setEffectsVolume(float volume) { 
-        this.effectsVolume = volume;
-        audioManager.setEffectsVolume(volume);
+    /**
+     * Audio, created with the current mute and volume settings on first use
+     */
+    public AudioManager getAudioManager() {
+        synchronized (componentLock) {
+            if (audioManager == null) {
+                audioManager = new AudioManager(context);
+                audioManager.setMuted(isMuted);
+                audioManager.setMusicVolume(musicVolume);
+                audioManager.setEffectsVolume(effectsVolume);
+            }
+            return audioManager;
+        }
     }
     
-    public AudioManager getAudioManager() { return audioManager; }
-    public EventManager getEventManager() { return eventManager; }
-    public CollisionManager getCollisionManager() { return collisionManager; }
+    /**
+     * Free sound resources; the next getAudioManager() starts a fresh one
+     */
+    public void releaseAudio() {
+        synchronized (componentLock) {
+            if (audioManager != null) {
+                audioManager.cleanup();
+                audioManager = null;
+            }
+        }
+    }
     
-    public List<WordMessage> getWordMessagesForLetter(String letter) {
-        List<WordMessage> letterWords = new ArrayList<>();
-        for (WordMessage word : wordMessages) {
-            if (word.getLetter().equals(letter)) {
-                letterWords.add(word);
+    public EventManager getEventManager() {
+        synchronized (componentLock) {
+            if (eventManager == null) {
+                eventManager = new EventManager();
+            }
+            return eventManager;
+        }
+    }
+    
+    /**
+     * Collision objects belong to the logic thread; touch them from commands
+     */
+    public CollisionManager getCollisionManager() {
+        synchronized (componentLock) {
+            if (collisionManager == null) {
+                collisionManager = new CollisionManager();
+            }
+            return collisionManager;
+        }
+    }
+    
+    public BitmapCache getBitmapCache() {
+        synchronized (componentLock) {
+            if (bitmapCache == null) {
+                bitmapCache = new BitmapCache(context);
             }
+            return bitmapCache;
         }
-        return letterWords;
     }
     
+    public ProfileManager getProfileManager() { return profiles; }
+    
+    /**
+     * Progress of the learner playing now
+     */
+    public ProgressStore getProgressStore() { return profiles.getActiveProfile().getProgress(); }
+    
+    /**
+     * Words for a letter; the list is shared and unmodifiable
+     */
+    public List<WordMessage> getWordMessagesForLetter(String letter) {
+        return getWordCatalogue().getWords(letter);
+    }
+    
+    /**
+     * Word being asked now, or null once the round has shown as many words
+     * as the letter has
+     */
     public WordMessage getCurrentWordMessage() {
-        List<WordMessage> letterWords = getWordMessagesForLetter(currentLetter);
-        if (currentWordIndex < letterWords.size()) {
-            return letterWords.get(currentWordIndex);
+        GameStateView state = view;
+        List<WordMessage> letterWords = getWordCatalogue().getWords(state.getCurrentLetter());
+        if (state.getCurrentWord() == null || state.getCurrentWordIndex() >= letterWords.size()) return null;
+        for (WordMessage word : letterWords) {
+            if (word.getWord().equals(state.getCurrentWord())) return word;
         }
         return null;
     }
     
     public void nextWord() {
-        currentWordIndex++;
+        post(new Runnable() {
+            @Override
+            public void run() {
+                currentWordIndex++;
+                if (currentWord != null) {
+                    currentWord = profiles.getActiveProfile().getReviewScheduler()
+                            .next(currentLetter.charAt(0), currentWord);
+                }
+            }
+        });
+    }
+    
+    public String getCurrentWord() { return view.getCurrentWord(); }
+    public int getCurrentWordIndex() { return view.getCurrentWordIndex(); }
+    
+    /**
+     * Mirror the gameplay screen's position in the round so it survives process death
+     */
+    public void setRound(final String letter, final int wordIndex, final String word) {
+        post(new Runnable() {
+            @Override
+            public void run() {
+                currentLetter = letter;
+                currentWordIndex = wordIndex;
+                currentWord = word;
+                currentScreen = Screen.GAMEPLAY;
+                if (gameStatus == GameStatus.INACTIVE || gameStatus == GameStatus.COMPLETED) {
+                    gameStatus = GameStatus.ACTIVE;
+                }
+            }
+        });
     }
     
     public void markLetterCompleted(char letter) {
-        android.content.SharedPreferences prefs = context.getSharedPreferences("PhonicsGamePrefs", Context.MODE_PRIVATE);
-        String completedStr = prefs.getString("completed_letters", "");
-        String letterStr = String.valueOf(letter);
-        if (completedStr.indexOf(letterStr) == -1) {
-            completedStr += letterStr;
-            prefs.edit().putString("completed_letters", completedStr).apply();
-        }
+        getProgressStore().markCompleted(letter);
     }
-
+    
     public int getCompletedLettersCount() {
-        android.content.SharedPreferences prefs = context.getSharedPreferences("PhonicsGamePrefs", Context.MODE_PRIVATE);
-        String completedStr = prefs.getString("completed_letters", "");
-        return completedStr.length();
+        return getProgressStore().getCompletedCount();
     }
     
     /**
@@ -276,27 +608,128 @@ public class GameState {
         public String getWord() { return word; }
         public String getSoundKey() { return soundKey; }
     }
-
+    
+    /**
+     * Tune speed, planets and asteroids to the current letter's recent answers
+     */
     private void updateAdaptiveDifficulty() {
-        if (totalAnswersCount == 0) {
-            difficultySpeedMultiplier = 1.0f;
-            difficultyPlanetCount = 3;
-            return;
+        if (currentLetter == null || currentLetter.isEmpty()) return;
+        char letter = currentLetter.charAt(0);
+        difficultySpeedMultiplier = difficultyEstimator.getSpeedMultiplier(letter);
+        difficultyPlanetCount = difficultyEstimator.getPlanetCount(letter);
+        difficultyAsteroidDensity = difficultyEstimator.getAsteroidDensity(letter);
+    }
+    
+    public float getDifficultySpeedMultiplier() { return view.getSpeedMultiplier(); }
+    public int getDifficultyPlanetCount() { return view.getPlanetCount(); }
+    public float getDifficultyAsteroidDensity() { return view.getAsteroidDensity(); }
+    
+    /**
+     * Logic thread only; the estimator is not synchronized
+     */
+    public DifficultyEstimator getDifficultyEstimator() { return difficultyEstimator; }
+    
+    /**
+     * Queue the game for saving, called on pause. Nothing is written when the
+     * state is unchanged since the last save.
+     */
+    public void saveSnapshot() {
+        post(new Runnable() {
+            @Override
+            public void run() {
+                doSaveSnapshot();
+            }
+        });
+    }
+    
+    private void doSaveSnapshot() {
+        GameSnapshot snapshot = captureSnapshot();
+        snapshot.savedAtMillis = System.currentTimeMillis();
+        byte[] bytes = snapshot.encode();
+        if (GameSnapshot.sameState(bytes, lastSnapshot)) return;
+        lastSnapshot = bytes;
+        final byte[] toWrite = bytes;
+        final File file = profiles.snapshotFile(learnerId);
+        profiles.getWriter().execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    GameSnapshot.write(file, toWrite);
+                } catch (IOException e) {
+                    Log.e(TAG, "Could not save game snapshot: " + e.getMessage());
+                }
+            }
+        });
+    }
+    
+    /**
+     * Put back the last saved game, if any. Runs before the logic thread
+     * starts. Assets are not loaded here; they come in lazily when the
+     * restored screen asks for them.
+     */
+    private void restoreSnapshot() {
+        File file = profiles.snapshotFile(learnerId);
+        if (!file.exists()) return;
+        try {
+            byte[] bytes = GameSnapshot.readBytes(file);
+            applySnapshot(GameSnapshot.decode(bytes));
+            lastSnapshot = bytes;
+            Log.d(TAG, "Restored " + gameStatus + " game on " + currentScreen);
+        } catch (IOException e) {
+            Log.e(TAG, "Could not restore game snapshot: " + e.getMessage());
         }
-        
-        float accuracy = (float) correctAnswersCount / totalAnswersCount;
-        if (accuracy >= 0.85f) {
-            difficultySpeedMultiplier = 1.25f;
-            difficultyPlanetCount = 4;
-        } else if (accuracy <= 0.60f) {
-            difficultySpeedMultiplier = 0.8f;
-            difficultyPlanetCount = 2;
-        } else {
-            difficultySpeedMultiplier = 1.0f;
-            difficultyPlanetCount = 3;
+    }
+    
+    GameSnapshot captureSnapshot() {
+        GameSnapshot snapshot = new GameSnapshot();
+        snapshot.screen = currentScreen;
+        snapshot.status = gameStatus;
+        snapshot.muted = isMuted;
+        snapshot.planetsCreated = planetsCreated;
+        snapshot.currentLetter = currentLetter;
+        snapshot.currentWord = currentWord;
+        snapshot.currentWordIndex = currentWordIndex;
+        snapshot.correctHits = correctHits;
+        snapshot.totalHits = totalHits;
+        snapshot.correctAnswers = correctAnswersCount;
+        snapshot.totalAnswers = totalAnswersCount;
+        snapshot.speedMultiplier = difficultySpeedMultiplier;
+        snapshot.planetCount = difficultyPlanetCount;
+        snapshot.asteroidDensity = difficultyAsteroidDensity;
+        snapshot.musicVolume = musicVolume;
+        snapshot.effectsVolume = effectsVolume;
+        if (collisionManager != null) {
+            for (CollisionManager.CollisionObject object : collisionManager.getAllActiveObjects()) {
+                snapshot.objects.add(GameSnapshot.ObjectState.of(object));
+            }
+        }
+        return snapshot;
+    }
+    
+    void applySnapshot(GameSnapshot snapshot) {
+        currentScreen = snapshot.screen;
+        // A game that was running when the process died comes back paused
+        gameStatus = snapshot.status == GameStatus.ACTIVE ? GameStatus.PAUSED : snapshot.status;
+        isMuted = snapshot.muted;
+        planetsCreated = snapshot.planetsCreated;
+        currentLetter = snapshot.currentLetter;
+        currentWord = snapshot.currentWord;
+        currentWordIndex = snapshot.currentWordIndex;
+        correctHits = snapshot.correctHits;
+        totalHits = snapshot.totalHits;
+        correctAnswersCount = snapshot.correctAnswers;
+        totalAnswersCount = snapshot.totalAnswers;
+        difficultySpeedMultiplier = snapshot.speedMultiplier;
+        difficultyPlanetCount = snapshot.planetCount;
+        difficultyAsteroidDensity = snapshot.asteroidDensity;
+        musicVolume = snapshot.musicVolume;
+        effectsVolume = snapshot.effectsVolume;
+        if (!snapshot.objects.isEmpty()) {
+            CollisionManager collisions = getCollisionManager();
+            collisions.clearAllObjects();
+            for (GameSnapshot.ObjectState object : snapshot.objects) {
+                collisions.registerObject(object.toCollisionObject());
+            }
         }
     }
-
-    public float getDifficultySpeedMultiplier() { return difficultySpeedMultiplier; }
-    public int getDifficultyPlanetCount() { return difficultyPlanetCount; }
 }
@@ -0,0 +1,68 @@
+package com.phonicsfun.core;
+
+/**
+ * GameStateView - Immutable copy of GameState for readers on any thread
+ * Published by the logic thread after each batch of commands. Every value in
+ * one view comes from the same moment, so a reader never sees a half-applied
+ * change.
+ */
+public final class GameStateView {
+    private final long version;
+    private final GameState.Screen screen;
+    private final GameState.GameStatus status;
+    private final String currentLetter;
+    private final String currentWord;
+    private final int currentWordIndex;
+    private final int correctHits;
+    private final int totalHits;
+    private final boolean planetsCreated;
+    private final boolean muted;
+    private final float musicVolume;
+    private final float effectsVolume;
+    private final float speedMultiplier;
+    private final int planetCount;
+    private final float asteroidDensity;
+
+    GameStateView(long version, GameState.Screen screen, GameState.GameStatus status,
+                  String currentLetter, String currentWord, int currentWordIndex,
+                  int correctHits, int totalHits, boolean planetsCreated,
+                  boolean muted, float musicVolume, float effectsVolume,
+                  float speedMultiplier, int planetCount, float asteroidDensity) {
+        this.version = version;
+        this.screen = screen;
+        this.status = status;
+        this.currentLetter = currentLetter;
+        this.currentWord = currentWord;
+        this.currentWordIndex = currentWordIndex;
+        this.correctHits = correctHits;
+        this.totalHits = totalHits;
+        this.planetsCreated = planetsCreated;
+        this.muted = muted;
+        this.musicVolume = musicVolume;
+        this.effectsVolume = effectsVolume;
+        this.speedMultiplier = speedMultiplier;
+        this.planetCount = planetCount;
+        this.asteroidDensity = asteroidDensity;
+    }
+
+    /**
+     * Increases with every publish; equal versions hold equal state
+     */
+    public long getVersion() { return version; }
+
+    public GameState.Screen getScreen() { return screen; }
+    public GameState.GameStatus getStatus() { return status; }
+    public String getCurrentLetter() { return currentLetter; }
+    public String getCurrentWord() { return currentWord; }
+    public int getCurrentWordIndex() { return currentWordIndex; }
+    public int getCorrectHits() { return correctHits; }
+    public int getTotalHits() { return totalHits; }
+    public float getProgress() { return totalHits > 0 ? (float) correctHits / totalHits : 0f; }
+    public boolean isPlanetsCreated() { return planetsCreated; }
+    public boolean isMuted() { return muted; }
+    public float getMusicVolume() { return musicVolume; }
+    public float getEffectsVolume() { return effectsVolume; }
+    public float getSpeedMultiplier() { return speedMultiplier; }
+    public int getPlanetCount() { return planetCount; }
+    public float getAsteroidDensity() { return asteroidDensity; }
+}
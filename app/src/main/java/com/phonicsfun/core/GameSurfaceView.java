@@ -0,0 +1,263 @@
+package com.phonicsfun.core;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.PixelFormat;
+import android.graphics.PorterDuff;
+import android.graphics.drawable.Drawable;
+import android.view.SurfaceHolder;
+import android.view.SurfaceView;
+
+/**
+ * GameSurfaceView - Play field drawn off the UI thread
+ * Game code fills a RenderSnapshot and publishes it; a GameRenderThread picks
+ * up the newest one on each vsync and draws it with its own SymbolRenderer.
+ * Snapshots must be written from a single thread (normally the UI or logic thread).
+ * With partial redraw on, only areas reported to getDirtyRegion() are repainted.
+ */
+public class GameSurfaceView extends SurfaceView implements SurfaceHolder.Callback, GameRenderThread.FrameRenderer {
+    /**
+     * Told when the play field size changes so the scene can be laid out again
+     */
+    public interface SizeListener {
+        void onPlayFieldSizeChanged(int width, int height);
+    }
+
+    // Glow ring reaches radius + 7; one more pixel covers antialiasing
+    private static final float DAMAGE_MARGIN = 8f;
+
+    private final SymbolRenderer symbolRenderer;
+    private final SnapshotBuffer<RenderSnapshot> snapshots =
+            new SnapshotBuffer<>(new RenderSnapshot(), new RenderSnapshot(), new RenderSnapshot());
+
+    // Writer-side damage for the snapshot being built; moved to pendingDamage on publish
+    private final DirtyRegion damage = new DirtyRegion();
+    private final DirtyRegion pendingDamage = new DirtyRegion();
+
+    private GameRenderThread renderThread;
+    private SizeListener sizeListener;
+    private boolean continuous;
+    private boolean partialRedraw;
+    
+    // Level of detail from measured draw times (render thread only)
+    private final QualityController qualityController = new QualityController(QualityController.DEFAULT_BUDGET_NANOS);
+    private volatile boolean adaptiveQuality = true;
+
+    // Static background, rasterized once per surface size (render thread only)
+    private volatile Drawable backgroundDrawable;
+    private Bitmap backgroundLayer;
+    private Drawable layerSource;
+    private final RenderSnapshot visible = new RenderSnapshot();
+
+    public GameSurfaceView(Context context) {
+        super(context);
+        // Used only on the render thread, so it needs no locking
+        // The atlas is left to the quality ladder, which turns it on at ATLAS_ONLY
+        symbolRenderer = new SymbolRenderer(context);
+        // Translucent and above the window so the screen background shows through
+        setZOrderMediaOverlay(true);
+        getHolder().setFormat(PixelFormat.TRANSLUCENT);
+        getHolder().addCallback(this);
+        damage.setMargin(DAMAGE_MARGIN);
+        qualityController.setTierListener(new QualityController.TierListener() {
+            @Override
+            public void onTierChanged(QualityController.Tier tier) {
+                symbolRenderer.setQualityTier(tier);
+                // Repaint everything so the whole field shares one tier
+                if (renderThread != null) {
+                    renderThread.requestRedraw();
+                }
+            }
+        });
+    }
+
+    /**
+     * Writer: cleared snapshot to fill for the next frame
+     */
+    public RenderSnapshot beginSnapshot() {
+        RenderSnapshot snapshot = snapshots.getWriteBuffer();
+        snapshot.clear();
+        return snapshot;
+    }
+
+    /**
+     * Writer: hand the filled snapshot to the render thread
+     */
+    public void publishSnapshot() {
+        // Damage must be visible to the render thread no later than the snapshot
+        damage.moveTo(pendingDamage);
+        snapshots.publish();
+        GameRenderThread thread = renderThread;
+        if (thread != null) {
+            thread.requestRender();
+        }
+    }
+
+    /**
+     * Redraw on every vsync (animated scenes) instead of only on publish
+     */
+    public void setContinuous(boolean continuous) {
+        this.continuous = continuous;
+        if (renderThread != null) {
+            renderThread.setContinuous(continuous);
+        }
+    }
+
+    /**
+     * Writer-side damage; add rectangles for what the next snapshot changes
+     */
+    public DirtyRegion getDirtyRegion() {
+        return damage;
+    }
+
+    /**
+     * Repaint only reported damage instead of the whole play field each frame
+     */
+    public void setPartialRedrawEnabled(boolean enabled) {
+        this.partialRedraw = enabled;
+        if (renderThread != null) {
+            renderThread.setPartialRedraw(enabled);
+        }
+    }
+
+    /**
+     * Draw this behind the symbols from a cached bitmap layer. The surface
+     * becomes opaque, so the window no longer blends underneath it.
+     */
+    public void setBackgroundLayer(Drawable background) {
+        backgroundDrawable = background;
+        getHolder().setFormat(background != null ? PixelFormat.OPAQUE : PixelFormat.TRANSLUCENT);
+        if (renderThread != null) {
+            renderThread.requestRedraw();
+        }
+    }
+
+    /**
+     * Let measured draw times lower rendering quality on slow devices (on by default)
+     */
+    public void setAdaptiveQualityEnabled(boolean enabled) {
+        this.adaptiveQuality = enabled;
+        if (renderThread != null) {
+            renderThread.requestRedraw();
+        }
+    }
+    
+    /**
+     * Tier the play field is currently drawn with
+     */
+    public QualityController.Tier getQualityTier() {
+        return qualityController.getTier();
+    }
+    
+    public void setSizeListener(SizeListener listener) {
+        this.sizeListener = listener;
+    }
+
+    @Override
+    public void surfaceCreated(SurfaceHolder holder) {
+        renderThread = new GameRenderThread(holder, snapshots, pendingDamage, this);
+        renderThread.startRendering();
+        renderThread.setPartialRedraw(partialRedraw);
+        renderThread.setContinuous(continuous);
+    }
+
+    @Override
+    public void surfaceChanged(SurfaceHolder holder, int format, int width, int height) {
+        if (sizeListener != null) {
+            sizeListener.onPlayFieldSizeChanged(width, height);
+        }
+        if (renderThread != null) {
+            renderThread.requestRedraw();
+        }
+    }
+
+    @Override
+    public void surfaceDestroyed(SurfaceHolder holder) {
+        // The surface dies when this returns, so wait for the last frame
+        if (renderThread != null) {
+            renderThread.stopRendering();
+            renderThread = null;
+        }
+        symbolRenderer.release();
+        if (backgroundLayer != null) {
+            backgroundLayer.recycle();
+            backgroundLayer = null;
+        }
+    }
+
+    @Override
+    public void renderFrame(Canvas canvas, RenderSnapshot snapshot, DirtyRegion frameDamage, long frameTimeNanos) {
+        Bitmap layer = getBackgroundLayer(canvas.getWidth(), canvas.getHeight());
+        if (frameDamage.isFull()) {
+            drawBackground(canvas, snapshot, layer);
+            symbolRenderer.renderSymbols(canvas, snapshot.symbols, snapshot.centerX, snapshot.centerY,
+                    snapshot.radii, snapshot.levels, snapshot.count);
+            return;
+        }
+        
+        for (int r = 0; r < frameDamage.getCount(); r++) {
+            float left = frameDamage.getLeft(r);
+            float top = frameDamage.getTop(r);
+            float right = frameDamage.getRight(r);
+            float bottom = frameDamage.getBottom(r);
+            
+            // Only symbols touching this rectangle can change its pixels
+            visible.clear();
+            for (int i = 0; i < snapshot.count; i++) {
+                float extent = snapshot.radii[i] + DAMAGE_MARGIN;
+                if (snapshot.centerX[i] + extent > left && snapshot.centerX[i] - extent < right
+                        && snapshot.centerY[i] + extent > top && snapshot.centerY[i] - extent < bottom) {
+                    visible.addSymbol(snapshot.symbols[i], snapshot.centerX[i], snapshot.centerY[i],
+                            snapshot.radii[i], snapshot.levels[i]);
+                }
+            }
+            
+            int saveCount = canvas.save();
+            canvas.clipRect(left, top, right, bottom);
+            drawBackground(canvas, snapshot, layer);
+            symbolRenderer.renderSymbols(canvas, visible.symbols, visible.centerX, visible.centerY,
+                    visible.radii, visible.levels, visible.count);
+            canvas.restoreToCount(saveCount);
+        }
+    }
+    
+    @Override
+    public void onFrameDrawn(long drawNanos) {
+        if (adaptiveQuality) {
+            qualityController.onFrame(drawNanos);
+        } else if (qualityController.getTier() != QualityController.Tier.FULL) {
+            qualityController.reset();
+        }
+    }
+    
+    private void drawBackground(Canvas canvas, RenderSnapshot snapshot, Bitmap layer) {
+        if (layer != null) {
+            canvas.drawBitmap(layer, 0, 0, null);
+        } else {
+            // SRC so a transparent background still clears the previous frame
+            canvas.drawColor(snapshot.backgroundColor, PorterDuff.Mode.SRC);
+        }
+    }
+    
+    /**
+     * Cached rasterization of the background drawable at the surface size
+     */
+    private Bitmap getBackgroundLayer(int width, int height) {
+        Drawable source = backgroundDrawable;
+        if (source == null || width <= 0 || height <= 0) return null;
+        if (backgroundLayer != null && layerSource == source
+                && backgroundLayer.getWidth() == width && backgroundLayer.getHeight() == height) {
+            return backgroundLayer;
+        }
+        
+        if (backgroundLayer != null) {
+            backgroundLayer.recycle();
+        }
+        backgroundLayer = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        source.setBounds(0, 0, width, height);
+        source.draw(new Canvas(backgroundLayer));
+        layerSource = source;
+        return backgroundLayer;
+    }
+}
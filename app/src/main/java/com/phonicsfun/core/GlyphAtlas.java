@@ -0,0 +1,126 @@
+package com.phonicsfun.core;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.util.Log;
+
+/**
+ * GlyphAtlas - Shared bitmap of pre-rasterized symbols
+ * Each (symbol, level, size bucket) is drawn once into a cell of one large
+ * bitmap; later frames blit the cell with drawBitmap(src, dst) instead of
+ * re-rasterizing text and circles. Cell placement and lookup live in
+ * GlyphAtlasLayout.
+ */
+public class GlyphAtlas {
+    private static final String TAG = "PhonicsGlyphAtlas";
+
+    public static final int DEFAULT_ATLAS_SIZE = 1024;
+
+    private final GlyphAtlasLayout layout;
+
+    private Bitmap bitmap;
+    private Canvas canvas;
+    private final Paint blitPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final Rect srcRect = new Rect();
+
+    public GlyphAtlas() {
+        this(DEFAULT_ATLAS_SIZE);
+    }
+
+    public GlyphAtlas(int atlasSize) {
+        this.layout = new GlyphAtlasLayout(atlasSize);
+    }
+
+    /**
+     * Cached cell for a glyph, or -1
+     */
+    public int find(char symbol, int level, int bucket) {
+        return layout.find(symbol, level, bucket);
+    }
+
+    /**
+     * Reserve a square cell for a glyph. When the atlas is full every cell is
+     * dropped and packing starts over; returns -1 only if the cell can never fit.
+     * The caller draws into {@link #getCanvas()} inside {@link #getCellBounds(int)}.
+     */
+    public int allocate(char symbol, int level, int bucket, int size) {
+        int resets = layout.getResetCount();
+        int cell = layout.allocate(symbol, level, bucket, size);
+        if (layout.getResetCount() != resets) {
+            // Every cached glyph was dropped; their pixels must not show through new cells
+            if (bitmap != null) bitmap.eraseColor(0);
+            Log.d(TAG, "Atlas full, cleared (" + layout.getResetCount() + " resets)");
+        }
+        if (cell >= 0) ensureBitmap();
+        return cell;
+    }
+
+    /**
+     * Canvas over the whole atlas bitmap
+     */
+    public Canvas getCanvas() {
+        ensureBitmap();
+        return canvas;
+    }
+
+    /**
+     * Atlas-space bounds of a cell (shared instance, valid until the next call)
+     */
+    public Rect getCellBounds(int cell) {
+        int x = layout.getCellX(cell);
+        int y = layout.getCellY(cell);
+        int size = layout.getCellSize(cell);
+        srcRect.set(x, y, x + size, y + size);
+        return srcRect;
+    }
+
+    /**
+     * Blit a cell into a destination rectangle, scaling as needed
+     */
+    public void draw(Canvas target, int cell, RectF dst) {
+        target.drawBitmap(bitmap, getCellBounds(cell), dst, blitPaint);
+    }
+
+    /**
+     * Forget every cached glyph for a symbol; its cells stay unused until the next reset
+     */
+    public void invalidate(char symbol) {
+        layout.invalidate(symbol);
+    }
+
+    /**
+     * Drop every cell and clear the bitmap
+     */
+    public void clear() {
+        layout.clear();
+        if (bitmap != null) {
+            bitmap.eraseColor(0);
+        }
+    }
+
+    /**
+     * Free the bitmap; the atlas rebuilds lazily if used again
+     */
+    public void release() {
+        clear();
+        if (bitmap != null) {
+            bitmap.recycle();
+            bitmap = null;
+            canvas = null;
+        }
+    }
+
+    public int getCellCount() { return layout.getCellCount(); }
+    public int getResetCount() { return layout.getResetCount(); }
+
+    private void ensureBitmap() {
+        if (bitmap == null) {
+            int size = layout.getAtlasSize();
+            bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+            canvas = new Canvas(bitmap);
+        }
+    }
+}
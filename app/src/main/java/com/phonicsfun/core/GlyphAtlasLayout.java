@@ -0,0 +1,230 @@
+package com.phonicsfun.core;
+
+import java.util.Arrays;
+
+/**
+ * GlyphAtlasLayout - Cell bookkeeping for the glyph atlas
+ * Buckets symbol sizes, shelf-packs square cells into the atlas area and maps
+ * (symbol, level, size bucket) to a cell. Has no Android dependencies;
+ * GlyphAtlas owns the bitmap the cells are drawn into.
+ */
+public class GlyphAtlasLayout {
+    // Sizes are bucketed in steps of 2^(1/8) (~9%) so a blit never scales far
+    private static final double BUCKET_STEP_LOG = Math.log(2) / 8;
+    private static final int MAX_BUCKET = 127;
+
+    private final int atlasSize;
+    private final ShelfPacker packer;
+    private final KeyTable table = new KeyTable();
+
+    // Cell geometry, indexed by cell id
+    private int[] cellX = new int[64];
+    private int[] cellY = new int[64];
+    private int[] cellSize = new int[64];
+    private int cellCount;
+    private int resetCount;
+
+    public GlyphAtlasLayout(int atlasSize) {
+        this.atlasSize = atlasSize;
+        this.packer = new ShelfPacker(atlasSize, atlasSize);
+    }
+
+    /**
+     * Size bucket for a symbol diameter in pixels
+     */
+    public static int bucketFor(float diameter) {
+        if (diameter <= 1f) return 0;
+        int bucket = (int) Math.ceil(Math.log(diameter) / BUCKET_STEP_LOG - 1e-9);
+        return Math.min(bucket, MAX_BUCKET);
+    }
+
+    /**
+     * Diameter in pixels rendered for a bucket (never smaller than any diameter mapped to it)
+     */
+    public static int bucketDiameter(int bucket) {
+        return (int) Math.ceil(Math.exp(bucket * BUCKET_STEP_LOG) - 1e-9);
+    }
+
+    /**
+     * Cached cell for a glyph, or -1
+     */
+    public int find(char symbol, int level, int bucket) {
+        return table.get(key(symbol, level, bucket));
+    }
+
+    /**
+     * Reserve a square cell for a glyph. When the atlas is full every cell is
+     * dropped and packing starts over (see {@link #getResetCount()}); returns
+     * -1 only if the cell can never fit.
+     */
+    public int allocate(char symbol, int level, int bucket, int size) {
+        if (size > atlasSize / 2) return -1;
+        long position = packer.insert(size, size);
+        if (position < 0) {
+            clear();
+            resetCount++;
+            position = packer.insert(size, size);
+            if (position < 0) return -1;
+        }
+
+        int cell = cellCount++;
+        if (cell == cellX.length) {
+            cellX = grow(cellX);
+            cellY = grow(cellY);
+            cellSize = grow(cellSize);
+        }
+        cellX[cell] = (int) (position >>> 32);
+        cellY[cell] = (int) position;
+        cellSize[cell] = size;
+        table.put(key(symbol, level, bucket), cell);
+        return cell;
+    }
+
+    /**
+     * Forget every cached glyph for a symbol; its cells stay unused until the next reset
+     */
+    public void invalidate(char symbol) {
+        table.removeSymbol(symbol);
+    }
+
+    /**
+     * Drop every cell
+     */
+    public void clear() {
+        table.clear();
+        packer.reset();
+        cellCount = 0;
+    }
+
+    public int getCellX(int cell) { return cellX[cell]; }
+    public int getCellY(int cell) { return cellY[cell]; }
+    public int getCellSize(int cell) { return cellSize[cell]; }
+    public int getAtlasSize() { return atlasSize; }
+    public int getCellCount() { return table.size(); }
+    public int getResetCount() { return resetCount; }
+
+    private static long key(char symbol, int level, int bucket) {
+        return ((long) symbol << 32) | ((long) (level & 0xFFFF) << 16) | (bucket & 0xFFFF);
+    }
+
+    private static int[] grow(int[] array) {
+        int[] grown = new int[array.length * 2];
+        System.arraycopy(array, 0, grown, 0, array.length);
+        return grown;
+    }
+
+    /**
+     * Shelf (row) packing: cells fill a row left to right; a new row opens
+     * below the tallest cell of the previous one
+     */
+    static final class ShelfPacker {
+        private final int width;
+        private final int height;
+        private int shelfY;
+        private int shelfHeight;
+        private int cursorX;
+
+        ShelfPacker(int width, int height) {
+            this.width = width;
+            this.height = height;
+        }
+
+        /**
+         * @return (x << 32 | y) of the placed rectangle, or -1 if it does not fit
+         */
+        long insert(int w, int h) {
+            if (w > width || h > height) return -1;
+            if (cursorX + w > width) {
+                shelfY += shelfHeight;
+                shelfHeight = 0;
+                cursorX = 0;
+            }
+            if (shelfY + h > height) return -1;
+            long position = ((long) cursorX << 32) | shelfY;
+            cursorX += w;
+            shelfHeight = Math.max(shelfHeight, h);
+            return position;
+        }
+
+        void reset() {
+            shelfY = 0;
+            shelfHeight = 0;
+            cursorX = 0;
+        }
+    }
+
+    /**
+     * Open-addressing long -> cell map; avoids boxing on the per-frame lookup
+     */
+    static final class KeyTable {
+        private static final long EMPTY = -1L;
+
+        private long[] keys = newKeys(64);
+        private int[] values = new int[64];
+        private int size;
+
+        int get(long key) {
+            int mask = keys.length - 1;
+            for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+                if (keys[i] == key) return values[i];
+                if (keys[i] == EMPTY) return -1;
+            }
+        }
+
+        void put(long key, int value) {
+            if ((size + 1) * 2 > keys.length) {
+                rehash(keys.length * 2);
+            }
+            int mask = keys.length - 1;
+            int i = mix(key) & mask;
+            while (keys[i] != EMPTY && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (keys[i] == EMPTY) size++;
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        void removeSymbol(char symbol) {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = newKeys(oldKeys.length);
+            values = new int[oldKeys.length];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY && (char) (oldKeys[i] >>> 32) != symbol) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        void clear() {
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+        }
+
+        int size() { return size; }
+
+        private void rehash(int capacity) {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = newKeys(capacity);
+            values = new int[capacity];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) put(oldKeys[i], oldValues[i]);
+            }
+        }
+
+        private static long[] newKeys(int capacity) {
+            long[] keys = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            return keys;
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.phonicsfun.core;
+
+import java.nio.ByteBuffer;
+
+/**
+ * ImaAdpcm - 4-bit IMA ADPCM codec for mono 16-bit PCM
+ * Used by AudioPack to store speech at a quarter of its PCM size.
+ * Stream layout: 16-bit little-endian initial predictor, 1 byte step index,
+ * 1 reserved byte, then two samples per byte (low nibble first).
+ */
+public final class ImaAdpcm {
+    /** Bytes before the first nibble */
+    public static final int HEADER_BYTES = 4;
+
+    private static final int[] INDEX_TABLE = {
+        -1, -1, -1, -1, 2, 4, 6, 8,
+        -1, -1, -1, -1, 2, 4, 6, 8
+    };
+
+    private static final int[] STEP_TABLE = {
+        7, 8, 9, 10, 11, 12, 13, 14, 16, 17,
+        19, 21, 23, 25, 28, 31, 34, 37, 41, 45,
+        50, 55, 60, 66, 73, 80, 88, 97, 107, 118,
+        130, 143, 157, 173, 190, 209, 230, 253, 279, 307,
+        337, 371, 408, 449, 494, 544, 598, 658, 724, 796,
+        876, 963, 1060, 1166, 1282, 1411, 1552, 1707, 1878, 2066,
+        2272, 2499, 2749, 3024, 3327, 3660, 4026, 4428, 4871, 5358,
+        5894, 6484, 7132, 7845, 8630, 9493, 10442, 11487, 12635, 13899,
+        15289, 16818, 18500, 20350, 22385, 24623, 27086, 29794, 32767
+    };
+
+    private ImaAdpcm() {}
+
+    public static int encodedSize(int frames) {
+        return HEADER_BYTES + (frames + 1) / 2;
+    }
+
+    public static byte[] encode(short[] samples) {
+        byte[] out = new byte[encodedSize(samples.length)];
+        int predictor = samples.length > 0 ? samples[0] : 0;
+        int index = 0;
+        out[0] = (byte) predictor;
+        out[1] = (byte) (predictor >> 8);
+        out[2] = (byte) index;
+
+        for (int i = 0; i < samples.length; i++) {
+            int step = STEP_TABLE[index];
+            int diff = samples[i] - predictor;
+            int nibble = 0;
+            if (diff < 0) {
+                nibble = 8;
+                diff = -diff;
+            }
+            if (diff >= step) { nibble |= 4; diff -= step; }
+            if (diff >= step >> 1) { nibble |= 2; diff -= step >> 1; }
+            if (diff >= step >> 2) { nibble |= 1; }
+
+            // Track the decoder's reconstruction so errors do not accumulate
+            predictor = nextPredictor(predictor, step, nibble);
+            index = clampIndex(index + INDEX_TABLE[nibble]);
+
+            int byteIndex = HEADER_BYTES + (i >> 1);
+            out[byteIndex] |= (byte) ((i & 1) == 0 ? nibble : nibble << 4);
+        }
+        return out;
+    }
+
+    /**
+     * Decode {@code frames} samples from the buffer's current position
+     * without moving it.
+     */
+    public static short[] decode(ByteBuffer in, int frames) {
+        short[] out = new short[frames];
+        int base = in.position();
+        int predictor = (short) ((in.get(base) & 0xFF) | (in.get(base + 1) << 8));
+        int index = clampIndex(in.get(base + 2));
+
+        for (int i = 0; i < frames; i++) {
+            int packed = in.get(base + HEADER_BYTES + (i >> 1));
+            int nibble = (i & 1) == 0 ? packed & 0x0F : (packed >> 4) & 0x0F;
+            predictor = nextPredictor(predictor, STEP_TABLE[index], nibble);
+            index = clampIndex(index + INDEX_TABLE[nibble]);
+            out[i] = (short) predictor;
+        }
+        return out;
+    }
+
+    private static int nextPredictor(int predictor, int step, int nibble) {
+        int diff = step >> 3;
+        if ((nibble & 4) != 0) diff += step;
+        if ((nibble & 2) != 0) diff += step >> 1;
+        if ((nibble & 1) != 0) diff += step >> 2;
+        predictor += (nibble & 8) != 0 ? -diff : diff;
+        return Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, predictor));
+    }
+
+    private static int clampIndex(int index) {
+        return Math.max(0, Math.min(STEP_TABLE.length - 1, index));
+    }
+}
@@ -0,0 +1,217 @@
+package com.phonicsfun.core;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JsonScanner - Minimal JSON reader over a char range
+ * Can skip a value without building it, so callers index a document cheaply
+ * and parse only the parts they need. Objects become LinkedHashMaps, arrays
+ * ArrayLists, numbers Doubles.
+ */
+final class JsonScanner {
+    private final String text;
+    private final int end;
+    private int pos;
+
+    JsonScanner(String text) {
+        this(text, 0, text.length());
+    }
+
+    JsonScanner(String text, int start, int end) {
+        this.text = text;
+        this.pos = start;
+        this.end = end;
+    }
+
+    int position() {
+        return pos;
+    }
+
+    /**
+     * Parse the next value
+     */
+    Object readValue() {
+        skipWhitespace();
+        char c = peek();
+        switch (c) {
+            case '{':
+                return readObject();
+            case '[':
+                return readArray();
+            case '"':
+                return readString();
+            case 't':
+                expectWord("true");
+                return Boolean.TRUE;
+            case 'f':
+                expectWord("false");
+                return Boolean.FALSE;
+            case 'n':
+                expectWord("null");
+                return null;
+            default:
+                return readNumber();
+        }
+    }
+
+    /**
+     * Move past the next value without building it
+     */
+    void skipValue() {
+        skipWhitespace();
+        char c = peek();
+        if (c == '"') {
+            skipString();
+        } else if (c == '{' || c == '[') {
+            int depth = 0;
+            do {
+                c = peek();
+                if (c == '"') {
+                    skipString();
+                    continue;
+                }
+                if (c == '{' || c == '[') depth++;
+                else if (c == '}' || c == ']') depth--;
+                pos++;
+            } while (depth > 0);
+        } else {
+            while (pos < end && ",}] \t\r\n".indexOf(text.charAt(pos)) < 0) pos++;
+        }
+    }
+
+    /**
+     * Consume the opening brace of an object
+     */
+    void beginObject() {
+        expect('{');
+    }
+
+    /**
+     * Next key in the current object (consuming the colon), or null at the closing brace
+     */
+    String nextKey() {
+        skipWhitespace();
+        if (peek() == ',') {
+            pos++;
+            skipWhitespace();
+        }
+        if (peek() == '}') {
+            pos++;
+            return null;
+        }
+        String key = readString();
+        expect(':');
+        return key;
+    }
+
+    private Map<String, Object> readObject() {
+        Map<String, Object> object = new LinkedHashMap<>();
+        beginObject();
+        String key;
+        while ((key = nextKey()) != null) {
+            object.put(key, readValue());
+        }
+        return object;
+    }
+
+    private List<Object> readArray() {
+        List<Object> array = new ArrayList<>();
+        expect('[');
+        while (true) {
+            skipWhitespace();
+            if (peek() == ']') {
+                pos++;
+                return array;
+            }
+            if (!array.isEmpty()) {
+                expect(',');
+            }
+            array.add(readValue());
+        }
+    }
+
+    private String readString() {
+        expect('"');
+        StringBuilder out = null;
+        int runStart = pos;
+        while (true) {
+            char c = peek();
+            if (c == '"') {
+                String tail = text.substring(runStart, pos);
+                pos++;
+                return out == null ? tail : out.append(tail).toString();
+            }
+            if (c == '\\') {
+                if (out == null) out = new StringBuilder();
+                out.append(text, runStart, pos);
+                pos++;
+                char escaped = peek();
+                pos++;
+                switch (escaped) {
+                    case 'n': out.append('\n'); break;
+                    case 't': out.append('\t'); break;
+                    case 'r': out.append('\r'); break;
+                    case 'b': out.append('\b'); break;
+                    case 'f': out.append('\f'); break;
+                    case 'u':
+                        if (pos + 4 > end) throw error("Truncated escape");
+                        out.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        pos += 4;
+                        break;
+                    default: out.append(escaped); break;
+                }
+                runStart = pos;
+                continue;
+            }
+            pos++;
+        }
+    }
+
+    private void skipString() {
+        expect('"');
+        while (true) {
+            char c = peek();
+            pos++;
+            if (c == '\\') pos++;
+            else if (c == '"') return;
+        }
+    }
+
+    private Double readNumber() {
+        int start = pos;
+        while (pos < end && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0) pos++;
+        if (start == pos) throw error("Unexpected character");
+        try {
+            return Double.valueOf(text.substring(start, pos));
+        } catch (NumberFormatException e) {
+            throw error("Bad number");
+        }
+    }
+
+    private void expectWord(String word) {
+        if (!text.startsWith(word, pos) || pos + word.length() > end) throw error("Expected " + word);
+        pos += word.length();
+    }
+
+    private void expect(char c) {
+        skipWhitespace();
+        if (peek() != c) throw error("Expected '" + c + "'");
+        pos++;
+    }
+
+    private char peek() {
+        if (pos >= end) throw error("Unexpected end of input");
+        return text.charAt(pos);
+    }
+
+    private void skipWhitespace() {
+        while (pos < end && Character.isWhitespace(text.charAt(pos))) pos++;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at offset " + pos);
+    }
+}
@@ -0,0 +1,212 @@
+package com.phonicsfun.core;
+
+import android.util.Log;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.Executor;
+
+/**
+ * LearnerProfile - One child's settings, adaptive-difficulty counts, progress and reviews
+ * Settings live in a fixed 36-byte file read on first use; progress is a
+ * ProgressStore that loads in the background. Saves go through the shared
+ * writer thread. Paged in and out by ProfileManager.
+ *
+ * Settings layout (little-endian):
+ *   magic "PFLS", u16 version, u16 reserved, i32 voice template, i32 volume,
+ *   u8 background music, 3 reserved, f32 game speed, i32 difficulty,
+ *   i32 correct answers, i32 total answers
+ */
+public final class LearnerProfile {
+    private static final String TAG = "PhonicsProfile";
+
+    public static final int MAGIC = 0x534C4650; // "PFLS"
+    public static final int VERSION = 1;
+    static final int SETTINGS_BYTES = 36;
+
+    private final String id;
+    private final File settingsFile;
+    private final Executor writer;
+    private final ProgressStore progress;
+    private ReviewScheduler reviews;
+
+    private boolean settingsLoaded;
+    private int voiceTemplate = 0;
+    private int audioVolume = 80;
+    private boolean backgroundMusic = true;
+    private float gameSpeed = 1.0f;
+    private int difficulty = 1;
+    private int correctAnswers;
+    private int totalAnswers;
+
+    LearnerProfile(String id, File settingsFile, File progressFile, Executor writer) {
+        this.id = id;
+        this.settingsFile = settingsFile;
+        this.writer = writer;
+        this.progress = new ProgressStore(progressFile, writer);
+    }
+
+    public String getId() { return id; }
+    public ProgressStore getProgress() { return progress; }
+
+    /**
+     * Word review order for this learner, created on first use
+     */
+    public synchronized ReviewScheduler getReviewScheduler() {
+        if (reviews == null) {
+            reviews = new ReviewScheduler(progress);
+        }
+        return reviews;
+    }
+
+    /**
+     * Index into the voice template list shown in settings
+     */
+    public synchronized int getVoiceTemplate() { ensureLoaded(); return voiceTemplate; }
+    public synchronized void setVoiceTemplate(int voiceTemplate) { ensureLoaded(); this.voiceTemplate = voiceTemplate; }
+
+    /**
+     * Volume in percent
+     */
+    public synchronized int getAudioVolume() { ensureLoaded(); return audioVolume; }
+    public synchronized void setAudioVolume(int audioVolume) { ensureLoaded(); this.audioVolume = audioVolume; }
+
+    public synchronized boolean isBackgroundMusic() { ensureLoaded(); return backgroundMusic; }
+    public synchronized void setBackgroundMusic(boolean backgroundMusic) { ensureLoaded(); this.backgroundMusic = backgroundMusic; }
+
+    public synchronized float getGameSpeed() { ensureLoaded(); return gameSpeed; }
+    public synchronized void setGameSpeed(float gameSpeed) { ensureLoaded(); this.gameSpeed = gameSpeed; }
+
+    public synchronized int getDifficulty() { ensureLoaded(); return difficulty; }
+    public synchronized void setDifficulty(int difficulty) { ensureLoaded(); this.difficulty = difficulty; }
+
+    public synchronized int getCorrectAnswers() { ensureLoaded(); return correctAnswers; }
+    public synchronized int getTotalAnswers() { ensureLoaded(); return totalAnswers; }
+
+    /**
+     * Answer counts behind the adaptive difficulty
+     */
+    public synchronized void setAnswerCounts(int correctAnswers, int totalAnswers) {
+        ensureLoaded();
+        this.correctAnswers = correctAnswers;
+        this.totalAnswers = totalAnswers;
+    }
+
+    /**
+     * Clear letter progress and answer counts; settings are kept. Goes
+     * through ProfileManager.resetProgress so listeners reload the learner.
+     */
+    synchronized void resetProgress() {
+        progress.reset();
+        reviews = null;
+        setAnswerCounts(0, 0);
+        save();
+    }
+
+    /**
+     * Queue the current settings for writing
+     */
+    public synchronized void save() {
+        ensureLoaded();
+        final byte[] bytes = encode();
+        writer.execute(new Runnable() {
+            @Override
+            public void run() {
+                write(bytes);
+            }
+        });
+    }
+
+    /**
+     * Release the progress log; queued writes still complete
+     */
+    void close() {
+        progress.close();
+    }
+
+    /**
+     * Remove this learner's files
+     */
+    void delete(final File progressFile, final File snapshotFile) {
+        progress.close();
+        writer.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (settingsFile.exists() && !settingsFile.delete()) Log.w(TAG, "Could not delete " + settingsFile);
+                if (progressFile.exists() && !progressFile.delete()) Log.w(TAG, "Could not delete " + progressFile);
+                if (snapshotFile.exists() && !snapshotFile.delete()) Log.w(TAG, "Could not delete " + snapshotFile);
+            }
+        });
+    }
+
+    private void ensureLoaded() {
+        if (settingsLoaded) return;
+        settingsLoaded = true;
+        if (!settingsFile.exists()) return;
+        byte[] bytes = new byte[SETTINGS_BYTES];
+        try (InputStream in = new FileInputStream(settingsFile)) {
+            int offset = 0;
+            int read;
+            while (offset < bytes.length && (read = in.read(bytes, offset, bytes.length - offset)) != -1) {
+                offset += read;
+            }
+            if (offset < bytes.length) throw new IOException("Truncated settings");
+        } catch (IOException e) {
+            Log.e(TAG, "Could not read settings for " + id + ": " + e.getMessage());
+            return;
+        }
+        decode(bytes);
+    }
+
+    private void decode(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getInt() != MAGIC || (buffer.getShort() & 0xFFFF) != VERSION) {
+            Log.e(TAG, "Unrecognized settings file for " + id + "; using defaults");
+            return;
+        }
+        buffer.getShort();
+        voiceTemplate = buffer.getInt();
+        audioVolume = buffer.getInt();
+        backgroundMusic = buffer.get() != 0;
+        buffer.position(buffer.position() + 3);
+        gameSpeed = buffer.getFloat();
+        difficulty = buffer.getInt();
+        correctAnswers = buffer.getInt();
+        totalAnswers = buffer.getInt();
+    }
+
+    private byte[] encode() {
+        return ByteBuffer.allocate(SETTINGS_BYTES).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(MAGIC).putShort((short) VERSION).putShort((short) 0)
+                .putInt(voiceTemplate)
+                .putInt(audioVolume)
+                .put((byte) (backgroundMusic ? 1 : 0)).put((byte) 0).putShort((short) 0)
+                .putFloat(gameSpeed)
+                .putInt(difficulty)
+                .putInt(correctAnswers)
+                .putInt(totalAnswers)
+                .array();
+    }
+
+    private void write(byte[] bytes) {
+        File parent = settingsFile.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            Log.e(TAG, "Could not create " + parent);
+            return;
+        }
+        File temp = new File(settingsFile.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            out.write(bytes);
+        } catch (IOException e) {
+            Log.e(TAG, "Could not save settings for " + id + ": " + e.getMessage());
+            return;
+        }
+        if (!temp.renameTo(settingsFile)) {
+            Log.e(TAG, "Could not replace settings for " + id);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.phonicsfun.core;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * LeaseTracker - Counts who still holds a cached object after it is evicted
+ * An evicted object may only be reused once every holder has released it.
+ * Entries are weak, so an object a caller never releases is simply collected
+ * instead of being kept alive here. Has no Android dependencies.
+ */
+final class LeaseTracker<T> {
+
+    private static final class Lease {
+        int holders;
+        boolean retired;
+    }
+
+    private final Map<T, Lease> leases = new WeakHashMap<>();
+
+    /**
+     * A caller starts holding the object
+     */
+    synchronized void acquire(T item) {
+        Lease lease = leases.get(item);
+        if (lease == null) {
+            lease = new Lease();
+            leases.put(item, lease);
+        }
+        lease.holders++;
+        lease.retired = false;
+    }
+
+    /**
+     * A caller stops holding the object.
+     *
+     * @return true if the object was retired and this was the last holder, so it may be reused now
+     */
+    synchronized boolean release(T item) {
+        Lease lease = leases.get(item);
+        if (lease == null || lease.holders == 0) return false;
+        lease.holders--;
+        if (lease.holders > 0) return false;
+        leases.remove(item);
+        return lease.retired;
+    }
+
+    /**
+     * The owner has dropped the object.
+     *
+     * @return true if nobody holds it, so it may be reused now; otherwise the
+     *         last {@link #release} reports it
+     */
+    synchronized boolean retire(T item) {
+        Lease lease = leases.get(item);
+        if (lease == null || lease.holders == 0) {
+            leases.remove(item);
+            return true;
+        }
+        lease.retired = true;
+        return false;
+    }
+
+    synchronized int getHolders(T item) {
+        Lease lease = leases.get(item);
+        return lease != null ? lease.holders : 0;
+    }
+}
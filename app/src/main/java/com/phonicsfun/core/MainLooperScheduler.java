@@ -0,0 +1,47 @@
+package com.phonicsfun.core;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.view.Choreographer;
+
+/**
+ * MainLooperScheduler - StartupOrchestrator's hooks into the main thread
+ * "After the frame" is a Choreographer callback that posts to the main
+ * handler, so the work lands once the frame has been drawn. Idle work is a
+ * MessageQueue.IdleHandler. Create and use on the main thread.
+ */
+final class MainLooperScheduler implements StartupOrchestrator.Scheduler {
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private Choreographer.FrameCallback frameCallback;
+    private MessageQueue.IdleHandler idleHandler;
+
+    @Override
+    public void afterNextFrame(final Runnable work) {
+        frameCallback = new Choreographer.FrameCallback() {
+            @Override
+            public void doFrame(long frameTimeNanos) {
+                // This callback runs before the frame is drawn; the post lands after it
+                handler.post(work);
+            }
+        };
+        Choreographer.getInstance().postFrameCallback(frameCallback);
+    }
+
+    @Override
+    public void whenIdle(final StartupOrchestrator.IdleWork work) {
+        idleHandler = new MessageQueue.IdleHandler() {
+            @Override
+            public boolean queueIdle() {
+                return work.runWhileIdle();
+            }
+        };
+        Looper.myQueue().addIdleHandler(idleHandler);
+    }
+
+    @Override
+    public void cancel() {
+        if (frameCallback != null) Choreographer.getInstance().removeFrameCallback(frameCallback);
+        if (idleHandler != null) Looper.myQueue().removeIdleHandler(idleHandler);
+    }
+}
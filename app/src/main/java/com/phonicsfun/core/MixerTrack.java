@@ -0,0 +1,155 @@
+package com.phonicsfun.core;
+
+import android.media.AudioAttributes;
+import android.media.AudioFormat;
+import android.media.AudioTrack;
+import android.os.Build;
+import android.os.Process;
+import android.util.Log;
+
+/**
+ * MixerTrack - Streams a PcmMixer into a single low-latency AudioTrack
+ * Runs its own audio-priority thread and sleeps while no voice is playing
+ */
+public class MixerTrack implements Runnable {
+    private static final String TAG = "PhonicsMixerTrack";
+    private static final long IDLE_WAIT_MS = 250;
+
+    private final PcmMixer mixer;
+    private AudioTrack audioTrack;
+    private Thread thread;
+    private short[] buffer;
+    private volatile boolean running = false;
+
+    public MixerTrack(PcmMixer mixer) {
+        this.mixer = mixer;
+    }
+
+    /**
+     * Output rate of the device's primary mixer. Tracks at this rate are
+     * eligible for the platform's fast (low-latency) mixer path.
+     */
+    public static int getNativeSampleRate() {
+        int rate = AudioTrack.getNativeOutputSampleRate(android.media.AudioManager.STREAM_MUSIC);
+        return rate > 0 ? rate : 44100;
+    }
+
+    public synchronized void start() {
+        if (running) return;
+
+        int minBufferBytes = AudioTrack.getMinBufferSize(mixer.getSampleRate(),
+                AudioFormat.CHANNEL_OUT_MONO, AudioFormat.ENCODING_PCM_16BIT);
+        if (minBufferBytes <= 0) {
+            Log.e(TAG, "Unsupported mixer output rate: " + mixer.getSampleRate());
+            return;
+        }
+
+        audioTrack = createAudioTrack(minBufferBytes);
+        if (audioTrack == null || audioTrack.getState() != AudioTrack.STATE_INITIALIZED) {
+            Log.e(TAG, "Could not initialize AudioTrack for software mixer");
+            releaseTrack();
+            return;
+        }
+
+        // Write in half-buffer blocks so one block is always queued behind the one playing
+        buffer = new short[Math.max(64, minBufferBytes / 4)];
+        running = true;
+        audioTrack.play();
+        thread = new Thread(this, "PhonicsMixer");
+        thread.start();
+        Log.d(TAG, "Mixer track started at " + mixer.getSampleRate() + " Hz, block " + buffer.length + " frames");
+    }
+
+    private AudioTrack createAudioTrack(int minBufferBytes) {
+        try {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+                AudioTrack.Builder builder = new AudioTrack.Builder()
+                        .setAudioAttributes(new AudioAttributes.Builder()
+                                .setUsage(AudioAttributes.USAGE_GAME)
+                                .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
+                                .build())
+                        .setAudioFormat(new AudioFormat.Builder()
+                                .setEncoding(AudioFormat.ENCODING_PCM_16BIT)
+                                .setSampleRate(mixer.getSampleRate())
+                                .setChannelMask(AudioFormat.CHANNEL_OUT_MONO)
+                                .build())
+                        .setBufferSizeInBytes(minBufferBytes)
+                        .setTransferMode(AudioTrack.MODE_STREAM);
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+                    builder.setPerformanceMode(AudioTrack.PERFORMANCE_MODE_LOW_LATENCY);
+                }
+                return builder.build();
+            }
+            return createLegacyAudioTrack(minBufferBytes);
+        } catch (IllegalArgumentException | UnsupportedOperationException e) {
+            Log.e(TAG, "Error creating AudioTrack: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Before API 23 there is no Builder; the stream-type constructor is the only way
+     */
+    @SuppressWarnings("deprecation")
+    private AudioTrack createLegacyAudioTrack(int minBufferBytes) {
+        return new AudioTrack(android.media.AudioManager.STREAM_MUSIC, mixer.getSampleRate(),
+                AudioFormat.CHANNEL_OUT_MONO, AudioFormat.ENCODING_PCM_16BIT,
+                minBufferBytes, AudioTrack.MODE_STREAM);
+    }
+
+    @Override
+    public void run() {
+        Process.setThreadPriority(Process.THREAD_PRIORITY_URGENT_AUDIO);
+        try {
+            while (running) {
+                if (!mixer.awaitActiveVoices(IDLE_WAIT_MS)) {
+                    continue;
+                }
+                mixer.mix(buffer, 0, buffer.length);
+                if (audioTrack.write(buffer, 0, buffer.length) < 0) {
+                    Log.e(TAG, "AudioTrack write failed, stopping mixer");
+                    break;
+                }
+                mixer.reportStarted(System.nanoTime());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IllegalStateException e) {
+            Log.e(TAG, "Mixer track stopped: " + e.getMessage());
+        } finally {
+            // Owners poll isRunning() and fall back to SoundPool once this is false
+            running = false;
+        }
+    }
+
+    public synchronized void release() {
+        running = false;
+        mixer.wakeUp();
+        if (thread != null) {
+            try {
+                thread.join(IDLE_WAIT_MS * 2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+        releaseTrack();
+    }
+
+    private void releaseTrack() {
+        if (audioTrack != null) {
+            try {
+                audioTrack.stop();
+            } catch (IllegalStateException e) {
+                Log.w(TAG, "AudioTrack was not playing: " + e.getMessage());
+            }
+            audioTrack.release();
+            audioTrack = null;
+        }
+    }
+
+    /**
+     * False before start, after release, and once the output has failed
+     */
+    public boolean isRunning() { return running; }
+}
@@ -0,0 +1,124 @@
+package com.phonicsfun.core;
+
+/**
+ * ParticleSystem - Fixed-capacity pool of short-lived sprites
+ * State lives in parallel primitive arrays; live particles are kept packed
+ * at the front so update and draw are one linear pass. Nothing is allocated
+ * after construction.
+ */
+public class ParticleSystem {
+    // How alpha evolves over a particle's life
+    public static final int ALPHA_CONSTANT = 0;
+    public static final int ALPHA_FADE_IN_OUT = 1;
+
+    private final int capacity;
+    private int count;
+
+    private final float[] x;
+    private final float[] y;
+    private final float[] velocityX;
+    private final float[] velocityY;
+    private final float[] size;
+    private final float[] age;
+    private final float[] lifetime;
+    private final float[] peakAlpha;
+    private final float[] alpha;
+    private final int[] sprite;
+    private final int[] alphaMode;
+
+    private int droppedCount;
+
+    public ParticleSystem(int capacity) {
+        this.capacity = capacity;
+        x = new float[capacity];
+        y = new float[capacity];
+        velocityX = new float[capacity];
+        velocityY = new float[capacity];
+        size = new float[capacity];
+        age = new float[capacity];
+        lifetime = new float[capacity];
+        peakAlpha = new float[capacity];
+        alpha = new float[capacity];
+        sprite = new int[capacity];
+        alphaMode = new int[capacity];
+    }
+
+    /**
+     * Start a particle; returns false (and drops it) when the pool is full
+     *
+     * @param lifetimeSeconds seconds until the particle is recycled
+     */
+    public boolean spawn(int spriteId, float startX, float startY, float vx, float vy,
+                         float particleSize, float lifetimeSeconds, float maxAlpha, int mode) {
+        if (count == capacity || lifetimeSeconds <= 0) {
+            droppedCount++;
+            return false;
+        }
+        int i = count++;
+        sprite[i] = spriteId;
+        x[i] = startX;
+        y[i] = startY;
+        velocityX[i] = vx;
+        velocityY[i] = vy;
+        size[i] = particleSize;
+        age[i] = 0f;
+        lifetime[i] = lifetimeSeconds;
+        peakAlpha[i] = maxAlpha;
+        alphaMode[i] = mode;
+        alpha[i] = mode == ALPHA_FADE_IN_OUT ? 0f : maxAlpha;
+        return true;
+    }
+
+    /**
+     * Advance every particle and recycle expired ones
+     */
+    public void update(float deltaSeconds) {
+        int i = 0;
+        while (i < count) {
+            float newAge = age[i] + deltaSeconds;
+            if (newAge >= lifetime[i]) {
+                moveLastInto(i);
+                continue;
+            }
+            age[i] = newAge;
+            x[i] += velocityX[i] * deltaSeconds;
+            y[i] += velocityY[i] * deltaSeconds;
+            if (alphaMode[i] == ALPHA_FADE_IN_OUT) {
+                // Triangle: 0 -> peak at half life -> 0
+                float t = newAge / lifetime[i];
+                alpha[i] = peakAlpha[i] * (1f - Math.abs(2f * t - 1f));
+            }
+            i++;
+        }
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    public int getCount() { return count; }
+    public int getCapacity() { return capacity; }
+    public int getDroppedCount() { return droppedCount; }
+
+    public float getX(int i) { return x[i]; }
+    public float getY(int i) { return y[i]; }
+    public float getSize(int i) { return size[i]; }
+    public float getAlpha(int i) { return alpha[i]; }
+    public int getSprite(int i) { return sprite[i]; }
+
+    private void moveLastInto(int i) {
+        int last = --count;
+        if (i == last) return;
+        x[i] = x[last];
+        y[i] = y[last];
+        velocityX[i] = velocityX[last];
+        velocityY[i] = velocityY[last];
+        size[i] = size[last];
+        age[i] = age[last];
+        lifetime[i] = lifetime[last];
+        peakAlpha[i] = peakAlpha[last];
+        alpha[i] = alpha[last];
+        sprite[i] = sprite[last];
+        alphaMode[i] = alphaMode[last];
+    }
+}
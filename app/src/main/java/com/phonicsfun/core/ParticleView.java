@@ -0,0 +1,128 @@
+package com.phonicsfun.core;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.drawable.Drawable;
+import android.os.SystemClock;
+import android.view.View;
+import com.phonicsfun.R;
+import java.util.Random;
+
+/**
+ * ParticleView - Draws a ParticleSystem of twinkling stars and drifting planets
+ * One view and one onDraw replace a stream of short-lived ImageViews and
+ * animators; emitters run from the frame clock, so nothing is allocated per frame.
+ */
+public class ParticleView extends View {
+    private static final int SPRITE_STAR = 0;
+    private static final int SPRITE_PLANET = 1;
+
+    private static final int CAPACITY = 64;
+
+    // Matches the old welcome screen: 3 stars every 500 ms living 1 s,
+    // and a 30% chance of an 8 s planet crossing every 2 s
+    private static final float STAR_INTERVAL = 0.5f;
+    private static final int STARS_PER_BURST = 3;
+    private static final float STAR_LIFETIME = 1.0f;
+    private static final float PLANET_INTERVAL = 2.0f;
+    private static final float PLANET_CHANCE = 0.3f;
+    private static final float PLANET_LIFETIME = 8.0f;
+    private static final float PLANET_ALPHA = 0.6f;
+
+    // Longest frame step simulated, so a stall does not teleport particles
+    private static final float MAX_STEP = 0.1f;
+
+    private final ParticleSystem particles = new ParticleSystem(CAPACITY);
+    private final Drawable[] sprites = new Drawable[2];
+    private final Random random = new Random();
+    private final float density;
+
+    private boolean running;
+    private long lastFrameMillis;
+    private float starTimer;
+    private float planetTimer;
+
+    public ParticleView(Context context) {
+        super(context);
+        density = context.getResources().getDisplayMetrics().density;
+        // Mutated so per-particle alpha does not leak into other users of the drawables
+        sprites[SPRITE_STAR] = context.getDrawable(R.drawable.star).mutate();
+        sprites[SPRITE_PLANET] = context.getDrawable(R.drawable.planet_small).mutate();
+    }
+
+    public void start() {
+        if (running) return;
+        running = true;
+        lastFrameMillis = SystemClock.uptimeMillis();
+        postInvalidateOnAnimation();
+    }
+
+    /**
+     * Stop animating; live particles are dropped
+     */
+    public void stop() {
+        running = false;
+        particles.clear();
+        starTimer = 0f;
+        planetTimer = 0f;
+        invalidate();
+    }
+
+    public ParticleSystem getParticleSystem() {
+        return particles;
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        if (running) {
+            long now = SystemClock.uptimeMillis();
+            float step = Math.min(MAX_STEP, (now - lastFrameMillis) / 1000f);
+            lastFrameMillis = now;
+            emit(step);
+            particles.update(step);
+        }
+
+        for (int i = 0; i < particles.getCount(); i++) {
+            Drawable sprite = sprites[particles.getSprite(i)];
+            int half = (int) (particles.getSize(i) / 2f);
+            int cx = (int) particles.getX(i);
+            int cy = (int) particles.getY(i);
+            sprite.setBounds(cx - half, cy - half, cx + half, cy + half);
+            sprite.setAlpha((int) (particles.getAlpha(i) * 255f));
+            sprite.draw(canvas);
+        }
+
+        if (running) {
+            postInvalidateOnAnimation();
+        }
+    }
+
+    private void emit(float step) {
+        int width = getWidth();
+        int height = getHeight();
+        if (width == 0 || height == 0) return;
+
+        starTimer += step;
+        while (starTimer >= STAR_INTERVAL) {
+            starTimer -= STAR_INTERVAL;
+            for (int i = 0; i < STARS_PER_BURST; i++) {
+                particles.spawn(SPRITE_STAR, random.nextFloat() * width, random.nextFloat() * height,
+                        0f, 0f, 24f * density, STAR_LIFETIME, 1f, ParticleSystem.ALPHA_FADE_IN_OUT);
+            }
+        }
+
+        planetTimer += step;
+        while (planetTimer >= PLANET_INTERVAL) {
+            planetTimer -= PLANET_INTERVAL;
+            if (random.nextFloat() < PLANET_CHANCE) {
+                float size = 48f * density;
+                // Enter off the left edge and leave off the right over its lifetime
+                float startX = -size;
+                float speed = (width + 2f * size) / PLANET_LIFETIME;
+                particles.spawn(SPRITE_PLANET, startX, random.nextFloat() * height, speed, 0f,
+                        size, PLANET_LIFETIME, PLANET_ALPHA, ParticleSystem.ALPHA_CONSTANT);
+            }
+        }
+    }
+}
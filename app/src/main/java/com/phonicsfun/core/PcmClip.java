@@ -0,0 +1,44 @@
+package com.phonicsfun.core;
+
+import java.nio.ShortBuffer;
+
+/**
+ * PcmClip - Decoded mono 16-bit PCM ready for the software mixer
+ * Pure Java so clips can be built from synthetic buffers in JVM tests
+ */
+public final class PcmClip {
+    private final ShortBuffer samples;
+    private final int sampleRate;
+
+    public PcmClip(short[] samples, int sampleRate) {
+        this(ShortBuffer.wrap(samples), sampleRate);
+    }
+
+    /**
+     * Wrap an existing buffer without copying. Frame 0 is the buffer's
+     * current position; the clip ends at its limit.
+     */
+    public PcmClip(ShortBuffer samples, int sampleRate) {
+        if (sampleRate <= 0) {
+            throw new IllegalArgumentException("Sample rate must be positive: " + sampleRate);
+        }
+        this.samples = samples.slice();
+        this.sampleRate = sampleRate;
+    }
+
+    public short getSample(int frame) {
+        return samples.get(frame);
+    }
+
+    public int getFrameCount() {
+        return samples.limit();
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public long getDurationMillis() {
+        return (getFrameCount() * 1000L) / sampleRate;
+    }
+}
@@ -0,0 +1,355 @@
+package com.phonicsfun.core;
+
+/**
+ * PcmMixer - Pure Java software mixer for short sound effects
+ * Sums any number of mono PcmClips into one 16-bit stream with per-voice gain,
+ * so rapid collision effects are mixed instead of fighting over SoundPool streams.
+ * Clips at other rates are resampled while mixing, so buffers can be played
+ * straight from a mapped AudioPack without a converted copy.
+ * Has no Android dependencies; MixerTrack feeds its output to an AudioTrack.
+ */
+public class PcmMixer {
+    private static final int DEFAULT_BLOCK_FRAMES = 1024;
+
+    /**
+     * What to do when every voice is busy
+     */
+    public enum StealPolicy {
+        /** Replace the voice that started first */
+        OLDEST,
+        /** Replace the voice with the lowest gain */
+        QUIETEST,
+        /** Drop the new request */
+        NONE
+    }
+
+    /**
+     * What to do when a key is retriggered while its previous play is still young
+     */
+    public enum DedupPolicy {
+        /** Always start a new voice */
+        NONE,
+        /** Keep the existing voice and drop the new request */
+        IGNORE,
+        /** Rewind the existing voice to the start */
+        RESTART
+    }
+
+    /**
+     * Told when a voice's first frames have been written to the output
+     */
+    public interface StartListener {
+        void onVoiceStarted(String key, long requestNanos, long writtenNanos);
+    }
+
+    private final int sampleRate;
+    private final int maxVoices;
+
+    // Voice table, one slot per voice; a null clip marks a free slot
+    private final PcmClip[] clips;
+    private final String[] keys;
+    private final int[] positions;
+    private final float[] fractions;
+    private final float[] steps;
+    private final float[] gains;
+    private final int[] priorities;
+    private final long[] startOrder;
+    private final int[] handles;
+    // Request time of voices not yet mixed, or -1 when the start is not reported
+    private final long[] requestNanos;
+
+    // Voices whose first frames went into the last mixed block
+    private final String[] startedKeys;
+    private final long[] startedRequestNanos;
+    private int startedCount;
+    private StartListener startListener;
+
+    private float[] accumulator;
+    private long startCounter;
+    private int nextHandle = 1;
+    private int activeVoices;
+
+    private float masterGain = 1.0f;
+    private StealPolicy stealPolicy = StealPolicy.OLDEST;
+    private DedupPolicy dedupPolicy = DedupPolicy.RESTART;
+    // Measured in mixer frames, whatever rate the clip was recorded at
+    private int dedupWindowFrames;
+
+    public PcmMixer(int sampleRate, int maxVoices) {
+        if (sampleRate <= 0 || maxVoices <= 0) {
+            throw new IllegalArgumentException("Invalid mixer config: " + sampleRate + " Hz, " + maxVoices + " voices");
+        }
+        this.sampleRate = sampleRate;
+        this.maxVoices = maxVoices;
+        this.clips = new PcmClip[maxVoices];
+        this.keys = new String[maxVoices];
+        this.positions = new int[maxVoices];
+        this.fractions = new float[maxVoices];
+        this.steps = new float[maxVoices];
+        this.gains = new float[maxVoices];
+        this.priorities = new int[maxVoices];
+        this.startOrder = new long[maxVoices];
+        this.handles = new int[maxVoices];
+        this.requestNanos = new long[maxVoices];
+        this.startedKeys = new String[maxVoices];
+        this.startedRequestNanos = new long[maxVoices];
+        this.accumulator = new float[DEFAULT_BLOCK_FRAMES];
+        this.dedupWindowFrames = sampleRate / 20; // 50 ms
+    }
+
+    /**
+     * Start a clip.
+     *
+     * @param key identifies the sound for de-duplication, may be null
+     * @param gain linear gain, clamped to 0..1
+     * @param priority higher values may steal voices from lower or equal ones
+     * @return a handle for {@link #stop(int)}, or 0 if the request was dropped
+     */
+    public synchronized int play(PcmClip clip, String key, float gain, int priority) {
+        return play(clip, key, gain, priority, -1);
+    }
+
+    /**
+     * Start a clip and report to the {@link StartListener} once its first
+     * frames have been written.
+     *
+     * @param requestNanos when the sound was requested, System.nanoTime() based
+     */
+    public synchronized int play(PcmClip clip, String key, float gain, int priority, long requestNanos) {
+        if (clip == null || clip.getFrameCount() == 0) return 0;
+        float clampedGain = Math.max(0.0f, Math.min(1.0f, gain));
+
+        if (key != null && dedupPolicy != DedupPolicy.NONE) {
+            int duplicate = findRecentDuplicate(key);
+            if (duplicate >= 0) {
+                gains[duplicate] = Math.max(gains[duplicate], clampedGain);
+                if (dedupPolicy == DedupPolicy.RESTART) {
+                    positions[duplicate] = 0;
+                    fractions[duplicate] = 0f;
+                    this.requestNanos[duplicate] = requestNanos;
+                }
+                return handles[duplicate];
+            }
+        }
+
+        int slot = findFreeSlot();
+        if (slot < 0) {
+            slot = findVictim(priority);
+            if (slot < 0) return 0;
+            releaseSlot(slot);
+        }
+
+        clips[slot] = clip;
+        keys[slot] = key;
+        positions[slot] = 0;
+        fractions[slot] = 0f;
+        steps[slot] = (float) clip.getSampleRate() / sampleRate;
+        gains[slot] = clampedGain;
+        priorities[slot] = priority;
+        startOrder[slot] = startCounter++;
+        handles[slot] = nextHandle++;
+        this.requestNanos[slot] = requestNanos;
+        if (nextHandle <= 0) nextHandle = 1;
+        activeVoices++;
+        notifyAll();
+        return handles[slot];
+    }
+
+    /**
+     * Stop a voice started by {@link #play}. Unknown or finished handles are ignored.
+     */
+    public synchronized void stop(int handle) {
+        for (int i = 0; i < maxVoices; i++) {
+            if (clips[i] != null && handles[i] == handle) {
+                releaseSlot(i);
+                return;
+            }
+        }
+    }
+
+    public synchronized void stopAll() {
+        for (int i = 0; i < maxVoices; i++) {
+            if (clips[i] != null) {
+                releaseSlot(i);
+            }
+        }
+    }
+
+    /**
+     * Mix the next block of frames into {@code out}. Always fills exactly
+     * {@code frames} samples, writing silence when no voice is active.
+     */
+    public synchronized void mix(short[] out, int offset, int frames) {
+        if (accumulator.length < frames) {
+            accumulator = new float[frames];
+        }
+        float[] acc = accumulator;
+        for (int i = 0; i < frames; i++) {
+            acc[i] = 0f;
+        }
+        clearStarted();
+
+        if (activeVoices > 0) {
+            for (int v = 0; v < maxVoices; v++) {
+                PcmClip clip = clips[v];
+                if (clip == null) continue;
+                if (requestNanos[v] >= 0) {
+                    startedKeys[startedCount] = keys[v];
+                    startedRequestNanos[startedCount++] = requestNanos[v];
+                    requestNanos[v] = -1;
+                }
+                boolean finished = steps[v] == 1.0f
+                        ? mixDirect(v, clip, acc, frames)
+                        : mixResampled(v, clip, acc, frames);
+                if (finished) {
+                    releaseSlot(v);
+                }
+            }
+        }
+
+        float master = masterGain;
+        for (int i = 0; i < frames; i++) {
+            float sample = acc[i] * master;
+            if (sample > Short.MAX_VALUE) {
+                sample = Short.MAX_VALUE;
+            } else if (sample < Short.MIN_VALUE) {
+                sample = Short.MIN_VALUE;
+            }
+            out[offset + i] = (short) sample;
+        }
+    }
+
+    private boolean mixDirect(int v, PcmClip clip, float[] acc, int frames) {
+        int position = positions[v];
+        int count = Math.min(frames, clip.getFrameCount() - position);
+        float gain = gains[v];
+        for (int i = 0; i < count; i++) {
+            acc[i] += clip.getSample(position + i) * gain;
+        }
+        positions[v] = position + count;
+        return positions[v] >= clip.getFrameCount();
+    }
+
+    private boolean mixResampled(int v, PcmClip clip, float[] acc, int frames) {
+        int position = positions[v];
+        float fraction = fractions[v];
+        float step = steps[v];
+        float gain = gains[v];
+        int last = clip.getFrameCount() - 1;
+        for (int i = 0; i < frames && position < last; i++) {
+            int current = clip.getSample(position);
+            int next = clip.getSample(position + 1);
+            acc[i] += (current + (next - current) * fraction) * gain;
+            fraction += step;
+            int whole = (int) fraction;
+            position += whole;
+            fraction -= whole;
+        }
+        positions[v] = position;
+        fractions[v] = fraction;
+        return position >= last;
+    }
+
+    /**
+     * Report the voices whose first frames were in the last mixed block.
+     * The output thread calls this once that block has been written.
+     */
+    public synchronized void reportStarted(long writtenNanos) {
+        if (startListener != null) {
+            for (int i = 0; i < startedCount; i++) {
+                startListener.onVoiceStarted(startedKeys[i], startedRequestNanos[i], writtenNanos);
+            }
+        }
+        clearStarted();
+    }
+
+    private void clearStarted() {
+        for (int i = 0; i < startedCount; i++) {
+            startedKeys[i] = null;
+        }
+        startedCount = 0;
+    }
+
+    /**
+     * Block until at least one voice is playing or the timeout passes.
+     * Lets the output thread sleep instead of streaming silence.
+     */
+    public synchronized boolean awaitActiveVoices(long timeoutMs) throws InterruptedException {
+        if (activeVoices == 0 && timeoutMs > 0) {
+            wait(timeoutMs);
+        }
+        return activeVoices > 0;
+    }
+
+    /**
+     * Wake any thread blocked in {@link #awaitActiveVoices}
+     */
+    public synchronized void wakeUp() {
+        notifyAll();
+    }
+
+    private int findRecentDuplicate(String key) {
+        for (int i = 0; i < maxVoices; i++) {
+            if (clips[i] != null && key.equals(keys[i]) && mixedFrames(i) < dedupWindowFrames) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Output frames a voice has played so far; its position counts clip frames
+     */
+    private float mixedFrames(int slot) {
+        return (positions[slot] + fractions[slot]) / steps[slot];
+    }
+
+    private int findFreeSlot() {
+        if (activeVoices >= maxVoices) return -1;
+        for (int i = 0; i < maxVoices; i++) {
+            if (clips[i] == null) return i;
+        }
+        return -1;
+    }
+
+    private int findVictim(int priority) {
+        if (stealPolicy == StealPolicy.NONE) return -1;
+        int victim = -1;
+        for (int i = 0; i < maxVoices; i++) {
+            if (priorities[i] > priority) continue;
+            if (victim < 0) {
+                victim = i;
+            } else if (stealPolicy == StealPolicy.OLDEST ? startOrder[i] < startOrder[victim] : gains[i] < gains[victim]) {
+                victim = i;
+            }
+        }
+        return victim;
+    }
+
+    private void releaseSlot(int slot) {
+        clips[slot] = null;
+        keys[slot] = null;
+        activeVoices--;
+    }
+
+    public synchronized int getActiveVoiceCount() { return activeVoices; }
+    public int getSampleRate() { return sampleRate; }
+    public int getMaxVoices() { return maxVoices; }
+
+    public synchronized float getMasterGain() { return masterGain; }
+    public synchronized void setMasterGain(float gain) {
+        this.masterGain = Math.max(0.0f, Math.min(1.0f, gain));
+    }
+
+    public synchronized StealPolicy getStealPolicy() { return stealPolicy; }
+    public synchronized void setStealPolicy(StealPolicy policy) { this.stealPolicy = policy; }
+
+    public synchronized void setStartListener(StartListener listener) { this.startListener = listener; }
+
+    public synchronized DedupPolicy getDedupPolicy() { return dedupPolicy; }
+    public synchronized void setDedupPolicy(DedupPolicy policy) { this.dedupPolicy = policy; }
+
+    public synchronized void setDedupWindowMillis(int millis) {
+        this.dedupWindowFrames = (int) ((long) Math.max(0, millis) * sampleRate / 1000);
+    }
+}
@@ -0,0 +1,398 @@
+package com.phonicsfun.core;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * ProfileManager - Learners sharing one device, and which one is playing
+ * Only the small profile index is read up front. A learner's settings and
+ * progress are paged in when they become active and paged out again once
+ * MAX_RESIDENT more recent learners have been used, so switching never
+ * re-reads every child's data.
+ *
+ * Files under filesDir: profiles/index.json (ids, names, active id),
+ * profiles/<id>.settings, progress/<id>.log and state/<id>.snapshot, the
+ * learner's saved game written by GameState.
+ */
+public final class ProfileManager {
+    private static final String TAG = "PhonicsProfiles";
+    public static final String DEFAULT_PROFILE = "default";
+    static final int MAX_RESIDENT = 3;
+
+    private static final String LEGACY_PREFS = "PhonicsGamePrefs";
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static ProfileManager instance;
+
+    private final File root;
+    private final Executor writer;
+
+    // Index, in creation order: id -> display name
+    private final Map<String, String> names = new LinkedHashMap<>();
+    private String activeId;
+    private int nextNumber = 1;
+
+    private final LinkedHashMap<String, LearnerProfile> resident =
+            new LinkedHashMap<String, LearnerProfile>(MAX_RESIDENT + 1, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, LearnerProfile> eldest) {
+                    if (size() <= MAX_RESIDENT) return false;
+                    eldest.getValue().close();
+                    return true;
+                }
+            };
+
+    private final List<ProfileListener> listeners = new ArrayList<>();
+
+    public interface ProfileListener {
+        /**
+         * Called after another learner becomes active, or after the active
+         * learner's progress is reset
+         */
+        void onProfileChanged(LearnerProfile profile);
+    }
+
+    /**
+     * @param root directory holding the profiles/ and progress/ folders
+     */
+    public ProfileManager(File root, Executor writer) {
+        this.root = root;
+        this.writer = writer;
+        readIndex();
+    }
+
+    /**
+     * Shared manager for the app; the first run imports the pre-profile
+     * preferences into the default learner
+     */
+    public static synchronized ProfileManager getInstance(Context context) {
+        if (instance == null) {
+            Context appContext = context.getApplicationContext();
+            ProfileManager manager = new ProfileManager(appContext.getFilesDir(), newWriter());
+            if (manager.isNew()) {
+                manager.importLegacy(appContext.getSharedPreferences(LEGACY_PREFS, Context.MODE_PRIVATE));
+            }
+            instance = manager;
+        }
+        return instance;
+    }
+
+    /**
+     * Background thread shared by every profile and game-state save
+     */
+    Executor getWriter() {
+        return writer;
+    }
+
+    private static Executor newWriter() {
+        return Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "PhonicsProfileWriter");
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            }
+        });
+    }
+
+    public synchronized LearnerProfile getActiveProfile() {
+        return page(activeId);
+    }
+
+    public synchronized String getActiveProfileId() {
+        return activeId;
+    }
+
+    /**
+     * Make a learner the active one; their data is paged in if needed
+     */
+    public void setActiveProfile(String id) {
+        LearnerProfile profile;
+        List<ProfileListener> toNotify;
+        synchronized (this) {
+            if (!names.containsKey(id)) throw new IllegalArgumentException("No such profile: " + id);
+            if (id.equals(activeId)) return;
+            activeId = id;
+            profile = page(id);
+            saveIndex();
+            toNotify = new ArrayList<>(listeners);
+        }
+        Log.d(TAG, "Active learner: " + names.get(id));
+        for (ProfileListener listener : toNotify) {
+            listener.onProfileChanged(profile);
+        }
+    }
+
+    /**
+     * Clear a learner's letter progress and answer counts. When it is the
+     * active learner, listeners are told so they reload what they hold.
+     */
+    public void resetProgress(String id) {
+        LearnerProfile profile;
+        List<ProfileListener> toNotify;
+        synchronized (this) {
+            if (!names.containsKey(id)) throw new IllegalArgumentException("No such profile: " + id);
+            profile = page(id);
+            profile.resetProgress();
+            if (!id.equals(activeId)) return;
+            toNotify = new ArrayList<>(listeners);
+        }
+        Log.d(TAG, "Progress reset: " + names.get(id));
+        for (ProfileListener listener : toNotify) {
+            listener.onProfileChanged(profile);
+        }
+    }
+
+    /**
+     * Add a learner.
+     *
+     * @return the new profile's id
+     */
+    public synchronized String createProfile(String name) {
+        String id = "learner" + nextNumber++;
+        while (names.containsKey(id)) {
+            id = "learner" + nextNumber++;
+        }
+        names.put(id, name);
+        saveIndex();
+        return id;
+    }
+
+    public synchronized void renameProfile(String id, String name) {
+        if (!names.containsKey(id)) throw new IllegalArgumentException("No such profile: " + id);
+        names.put(id, name);
+        saveIndex();
+    }
+
+    /**
+     * Remove a learner and their files. The active learner cannot be removed.
+     */
+    public synchronized void deleteProfile(String id) {
+        if (id.equals(activeId)) throw new IllegalStateException("Cannot delete the active profile");
+        if (names.remove(id) == null) return;
+        LearnerProfile profile = resident.remove(id);
+        if (profile == null) profile = load(id);
+        profile.delete(progressFile(id), snapshotFile(id));
+        saveIndex();
+    }
+
+    /**
+     * Profile ids in creation order
+     */
+    public synchronized List<String> getProfileIds() {
+        return Collections.unmodifiableList(new ArrayList<>(names.keySet()));
+    }
+
+    public synchronized String getProfileName(String id) {
+        return names.get(id);
+    }
+
+    /**
+     * Number of learners whose data is currently in memory
+     */
+    public synchronized int getResidentCount() {
+        return resident.size();
+    }
+
+    public synchronized void addProfileListener(ProfileListener listener) {
+        if (!listeners.contains(listener)) listeners.add(listener);
+    }
+
+    public synchronized void removeProfileListener(ProfileListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Page out the other learners in response to ComponentCallbacks2.onTrimMemory
+     */
+    public void trimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            trimMemory();
+        }
+    }
+
+    /**
+     * Page out every learner except the active one
+     */
+    public synchronized void trimMemory() {
+        Iterator<Map.Entry<String, LearnerProfile>> iterator = resident.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, LearnerProfile> entry = iterator.next();
+            if (!entry.getKey().equals(activeId)) {
+                entry.getValue().close();
+                iterator.remove();
+            }
+        }
+    }
+
+    private LearnerProfile page(String id) {
+        LearnerProfile profile = resident.get(id);
+        if (profile == null) {
+            profile = load(id);
+            resident.put(id, profile);
+        }
+        return profile;
+    }
+
+    private LearnerProfile load(String id) {
+        return new LearnerProfile(id, new File(new File(root, "profiles"), id + ".settings"), progressFile(id), writer);
+    }
+
+    private File progressFile(String id) {
+        return new File(new File(root, "progress"), id + ".log");
+    }
+
+    /**
+     * Where GameState keeps a learner's saved game
+     */
+    File snapshotFile(String id) {
+        return new File(new File(root, "state"), id + ".snapshot");
+    }
+
+    private boolean isNew() {
+        return !indexFile().exists();
+    }
+
+    /**
+     * Copy settings and completed letters from the single-learner preferences
+     */
+    void importLegacy(SharedPreferences prefs) {
+        LearnerProfile profile = getActiveProfile();
+        profile.setVoiceTemplate(prefs.getInt("voice_template", profile.getVoiceTemplate()));
+        profile.setAudioVolume(prefs.getInt("audio_volume", profile.getAudioVolume()));
+        profile.setBackgroundMusic(prefs.getBoolean("background_music", profile.isBackgroundMusic()));
+        profile.setGameSpeed(prefs.getFloat("game_speed", profile.getGameSpeed()));
+        profile.setDifficulty(prefs.getInt("difficulty", profile.getDifficulty()));
+        profile.save();
+
+        String completed = prefs.getString("completed_letters", null);
+        if (completed != null) {
+            profile.getProgress().importCompletedLetters(completed);
+            prefs.edit().remove("completed_letters").apply();
+            Log.d(TAG, "Migrated " + completed.length() + " completed letters");
+        }
+        saveIndex();
+    }
+
+    private File indexFile() {
+        return new File(new File(root, "profiles"), "index.json");
+    }
+
+    private void readIndex() {
+        File file = indexFile();
+        if (file.exists()) {
+            try {
+                parseIndex(readAll(file));
+            } catch (IOException e) {
+                Log.e(TAG, "Could not read profile index: " + e.getMessage());
+            } catch (IllegalArgumentException | ClassCastException e) {
+                Log.e(TAG, "Malformed profile index: " + e.getMessage());
+                names.clear();
+            }
+        }
+        if (names.isEmpty()) {
+            names.put(DEFAULT_PROFILE, "Learner 1");
+        }
+        if (activeId == null || !names.containsKey(activeId)) {
+            activeId = names.keySet().iterator().next();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void parseIndex(String json) {
+        Map<String, Object> index = (Map<String, Object>) new JsonScanner(json).readValue();
+        List<Object> profiles = (List<Object>) index.get("profiles");
+        if (profiles != null) {
+            for (Object item : profiles) {
+                Map<String, Object> profile = (Map<String, Object>) item;
+                names.put((String) profile.get("id"), (String) profile.get("name"));
+            }
+        }
+        if (index.get("next") instanceof Double) {
+            nextNumber = ((Double) index.get("next")).intValue();
+        }
+        activeId = (String) index.get("active");
+    }
+
+    private void saveIndex() {
+        StringBuilder json = new StringBuilder("{\"version\": 1, \"active\": ");
+        quote(json, activeId).append(", \"next\": ").append(nextNumber).append(", \"profiles\": [");
+        boolean first = true;
+        for (Map.Entry<String, String> entry : names.entrySet()) {
+            if (!first) json.append(", ");
+            first = false;
+            json.append("{\"id\": ");
+            quote(json, entry.getKey()).append(", \"name\": ");
+            quote(json, entry.getValue()).append('}');
+        }
+        json.append("]}\n");
+
+        final byte[] bytes = json.toString().getBytes(UTF_8);
+        final File file = indexFile();
+        writer.execute(new Runnable() {
+            @Override
+            public void run() {
+                File parent = file.getParentFile();
+                if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+                    Log.e(TAG, "Could not create " + parent);
+                    return;
+                }
+                File temp = new File(file.getPath() + ".tmp");
+                try (FileOutputStream out = new FileOutputStream(temp)) {
+                    out.write(bytes);
+                } catch (IOException e) {
+                    Log.e(TAG, "Could not save profile index: " + e.getMessage());
+                    return;
+                }
+                if (!temp.renameTo(file)) {
+                    Log.e(TAG, "Could not replace profile index");
+                }
+            }
+        });
+    }
+
+    private static StringBuilder quote(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append(String.format("\\u%04x", (int) c));
+            } else {
+                out.append(c);
+            }
+        }
+        return out.append('"');
+    }
+
+    private static String readAll(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), UTF_8);
+        }
+    }
+}
@@ -0,0 +1,570 @@
+package com.phonicsfun.core;
+
+import android.util.Log;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+
+/**
+ * ProgressStore - One learner's per-letter attempts, accuracy and completion
+ * Held in memory as a completion bitset and counter arrays, so reads are O(1).
+ * Also keeps each word's spaced-repetition box for ReviewScheduler and each
+ * letter's DifficultyEstimator state. Each change
+ * is appended to a binary log on a background thread; the log is rewritten as
+ * one summary per letter and word once it grows past a few records per item.
+ *
+ * Layout (little-endian):
+ *   header   magic "PFPL", u16 version, u16 reserved
+ *   records  20 bytes each: u64 time millis, u16 letter, u8 kind, u8 reserved,
+ *            u32 attempts, u32 correct (review records: u32 word id, u32 box;
+ *            skill records: u64 answers << 32 | timed answers, f32 accuracy,
+ *            f32 reaction millis)
+ */
+public final class ProgressStore {
+    private static final String TAG = "PhonicsProgress";
+
+    public static final int MAGIC = 0x4C504650; // "PFPL"
+    public static final int VERSION = 1;
+
+    static final int HEADER_BYTES = 8;
+    static final int RECORD_BYTES = 20;
+    // An attempt: attempts = 1, correct = 0 or 1
+    static final int KIND_ATTEMPT = 1;
+    // Letter completed at the record's time
+    static final int KIND_COMPLETED = 2;
+    // Absolute counters written by compaction; time = last played
+    static final int KIND_SUMMARY = 3;
+    // A word's review box; time = when it is next due
+    static final int KIND_REVIEW = 4;
+    // A letter's difficulty estimate; replaces the previous one
+    static final int KIND_SKILL = 5;
+
+    static final int MIN_COMPACT_RECORDS = 256;
+    static final int RECORDS_PER_LETTER = 8;
+
+    private final File file;
+    private final Executor writer;
+    private final CountDownLatch loaded = new CountDownLatch(1);
+
+    // Letter -> slot in the arrays below
+    private final CharTable<Integer> slots = new CharTable<>();
+    private char[] letters = new char[32];
+    private int[] attempts = new int[32];
+    private int[] correct = new int[32];
+    private long[] lastPlayed = new long[32];
+    private long[] completedAt = new long[32];
+    private float[] skillAccuracy = new float[32];
+    private float[] skillReactionMillis = new float[32];
+    private int[] skillAnswers = new int[32];
+    private int[] skillTimedAnswers = new int[32];
+    private final BitSet completed = new BitSet();
+    private int slotCount;
+    private int completedCount;
+
+    // (letter, word id) -> slot in the review arrays
+    private final Map<Long, Integer> reviewSlots = new HashMap<>();
+    private char[] reviewLetters = new char[64];
+    private int[] reviewWords = new int[64];
+    private int[] reviewBoxes = new int[64];
+    private long[] reviewDue = new long[64];
+    private int reviewCount;
+
+    // Records in the log file, including ones still queued
+    private int logRecords;
+
+    // Only touched on the writer thread
+    private OutputStream out;
+
+    public ProgressStore(File file, Executor writer) {
+        this.file = file;
+        this.writer = writer;
+        writer.execute(new Runnable() {
+            @Override
+            public void run() {
+                load();
+            }
+        });
+    }
+
+    public void recordAttempt(char letter, boolean isCorrect) {
+        recordAttempt(letter, isCorrect, System.currentTimeMillis());
+    }
+
+    synchronized void recordAttempt(char letter, boolean isCorrect, long timeMillis) {
+        awaitLoaded();
+        int slot = slotFor(letter);
+        attempts[slot]++;
+        if (isCorrect) correct[slot]++;
+        lastPlayed[slot] = Math.max(lastPlayed[slot], timeMillis);
+        append(record(timeMillis, letter, KIND_ATTEMPT, 1, isCorrect ? 1 : 0));
+    }
+
+    /**
+     * Mark a letter completed; repeats are ignored
+     */
+    public void markCompleted(char letter) {
+        markCompleted(letter, System.currentTimeMillis());
+    }
+
+    synchronized void markCompleted(char letter, long timeMillis) {
+        awaitLoaded();
+        int slot = slotFor(letter);
+        if (completed.get(slot)) return;
+        applyCompleted(slot, timeMillis);
+        append(record(timeMillis, letter, KIND_COMPLETED, 0, 0));
+    }
+
+    /**
+     * Bring in the old SharedPreferences "completed_letters" string
+     */
+    public synchronized void importCompletedLetters(String letters) {
+        if (letters == null) return;
+        for (int i = 0; i < letters.length(); i++) {
+            markCompleted(letters.charAt(i), 0L);
+        }
+    }
+
+    public synchronized boolean isCompleted(char letter) {
+        awaitLoaded();
+        Integer slot = slots.get(letter);
+        return slot != null && completed.get(slot);
+    }
+
+    public synchronized int getCompletedCount() {
+        awaitLoaded();
+        return completedCount;
+    }
+
+    public synchronized int getAttempts(char letter) {
+        awaitLoaded();
+        Integer slot = slots.get(letter);
+        return slot != null ? attempts[slot] : 0;
+    }
+
+    public synchronized int getCorrect(char letter) {
+        awaitLoaded();
+        Integer slot = slots.get(letter);
+        return slot != null ? correct[slot] : 0;
+    }
+
+    /**
+     * Fraction of attempts that were correct; 0 before the first attempt
+     */
+    public synchronized float getAccuracy(char letter) {
+        awaitLoaded();
+        Integer slot = slots.get(letter);
+        if (slot == null || attempts[slot] == 0) return 0f;
+        return (float) correct[slot] / attempts[slot];
+    }
+
+    /**
+     * Time of the latest attempt, or 0 if never played
+     */
+    public synchronized long getLastPlayed(char letter) {
+        awaitLoaded();
+        Integer slot = slots.get(letter);
+        return slot != null ? lastPlayed[slot] : 0L;
+    }
+
+    /**
+     * Time the letter was first completed, or 0 if it has not been (or was
+     * migrated without a time)
+     */
+    public synchronized long getCompletedAt(char letter) {
+        awaitLoaded();
+        Integer slot = slots.get(letter);
+        return slot != null ? completedAt[slot] : 0L;
+    }
+
+    /**
+     * Save the estimator's current state for a letter
+     */
+    public synchronized void saveSkill(char letter, DifficultyEstimator estimator) {
+        awaitLoaded();
+        int slot = slotFor(letter);
+        skillAccuracy[slot] = estimator.getAccuracy(letter);
+        skillReactionMillis[slot] = estimator.getReactionMillis(letter);
+        skillAnswers[slot] = estimator.getAnswerCount(letter);
+        skillTimedAnswers[slot] = estimator.getTimedAnswerCount(letter);
+        append(skillRecord(slot));
+    }
+
+    /**
+     * Load every saved letter into the estimator
+     */
+    public synchronized void restoreSkills(DifficultyEstimator estimator) {
+        awaitLoaded();
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (skillAnswers[slot] > 0) {
+                estimator.restore(letters[slot], skillAccuracy[slot], skillReactionMillis[slot],
+                        skillAnswers[slot], skillTimedAnswers[slot]);
+            }
+        }
+    }
+
+    /**
+     * Save a word's review box and next due time
+     */
+    public synchronized void recordReview(char letter, int wordId, int box, long dueMillis) {
+        awaitLoaded();
+        setReview(letter, wordId, box, dueMillis);
+        append(record(dueMillis, letter, KIND_REVIEW, wordId, box));
+    }
+
+    /**
+     * A word's review box, or -1 if it has never been reviewed
+     */
+    public synchronized int getReviewBox(char letter, int wordId) {
+        awaitLoaded();
+        Integer slot = reviewSlots.get(reviewKey(letter, wordId));
+        return slot != null ? reviewBoxes[slot] : -1;
+    }
+
+    /**
+     * When a word is next due, or 0 if it has never been reviewed
+     */
+    public synchronized long getReviewDue(char letter, int wordId) {
+        awaitLoaded();
+        Integer slot = reviewSlots.get(reviewKey(letter, wordId));
+        return slot != null ? reviewDue[slot] : 0L;
+    }
+
+    public synchronized int getReviewCount() {
+        awaitLoaded();
+        return reviewCount;
+    }
+
+    /**
+     * Forget everything for this learner and delete the log
+     */
+    public synchronized void reset() {
+        awaitLoaded();
+        slots.clear();
+        completed.clear();
+        reviewSlots.clear();
+        reviewCount = 0;
+        slotCount = 0;
+        completedCount = 0;
+        logRecords = 0;
+        writer.execute(new Runnable() {
+            @Override
+            public void run() {
+                closeLog();
+                if (file.exists() && !file.delete()) {
+                    Log.w(TAG, "Could not delete " + file);
+                }
+            }
+        });
+    }
+
+    /**
+     * Close the log once queued writes are done; a later write reopens it
+     */
+    public void close() {
+        writer.execute(new Runnable() {
+            @Override
+            public void run() {
+                closeLog();
+            }
+        });
+    }
+
+    /**
+     * Records in the log file, for compaction checks
+     */
+    synchronized int getLogRecords() {
+        return logRecords;
+    }
+
+    private int slotFor(char letter) {
+        Integer slot = slots.get(letter);
+        if (slot != null) return slot;
+        if (slotCount == letters.length) {
+            int capacity = slotCount * 2;
+            letters = Arrays.copyOf(letters, capacity);
+            attempts = Arrays.copyOf(attempts, capacity);
+            correct = Arrays.copyOf(correct, capacity);
+            lastPlayed = Arrays.copyOf(lastPlayed, capacity);
+            completedAt = Arrays.copyOf(completedAt, capacity);
+            skillAccuracy = Arrays.copyOf(skillAccuracy, capacity);
+            skillReactionMillis = Arrays.copyOf(skillReactionMillis, capacity);
+            skillAnswers = Arrays.copyOf(skillAnswers, capacity);
+            skillTimedAnswers = Arrays.copyOf(skillTimedAnswers, capacity);
+        }
+        int index = slotCount++;
+        letters[index] = letter;
+        attempts[index] = 0;
+        correct[index] = 0;
+        lastPlayed[index] = 0L;
+        completedAt[index] = 0L;
+        skillAnswers[index] = 0;
+        skillTimedAnswers[index] = 0;
+        slots.put(letter, index);
+        return index;
+    }
+
+    private void setReview(char letter, int wordId, int box, long dueMillis) {
+        Long key = reviewKey(letter, wordId);
+        Integer slot = reviewSlots.get(key);
+        if (slot == null) {
+            if (reviewCount == reviewBoxes.length) {
+                int capacity = reviewCount * 2;
+                reviewLetters = Arrays.copyOf(reviewLetters, capacity);
+                reviewWords = Arrays.copyOf(reviewWords, capacity);
+                reviewBoxes = Arrays.copyOf(reviewBoxes, capacity);
+                reviewDue = Arrays.copyOf(reviewDue, capacity);
+            }
+            slot = reviewCount++;
+            reviewLetters[slot] = letter;
+            reviewWords[slot] = wordId;
+            reviewSlots.put(key, slot);
+        }
+        reviewBoxes[slot] = box;
+        reviewDue[slot] = dueMillis;
+    }
+
+    private static long reviewKey(char letter, int wordId) {
+        return ((long) letter << 32) | (wordId & 0xFFFFFFFFL);
+    }
+
+    private void applyCompleted(int slot, long timeMillis) {
+        if (!completed.get(slot)) {
+            completed.set(slot);
+            completedCount++;
+            completedAt[slot] = timeMillis;
+        }
+    }
+
+    private void apply(ByteBuffer record) {
+        long time = record.getLong();
+        char letter = record.getChar();
+        int kind = record.get() & 0xFF;
+        record.get();
+        int recordAttempts = record.getInt();
+        int recordCorrect = record.getInt();
+        if (kind == KIND_REVIEW) {
+            setReview(letter, recordAttempts, recordCorrect, time);
+            return;
+        }
+        int slot = slotFor(letter);
+        switch (kind) {
+            case KIND_ATTEMPT:
+                attempts[slot] += recordAttempts;
+                correct[slot] += recordCorrect;
+                lastPlayed[slot] = Math.max(lastPlayed[slot], time);
+                break;
+            case KIND_COMPLETED:
+                applyCompleted(slot, time);
+                break;
+            case KIND_SUMMARY:
+                attempts[slot] = recordAttempts;
+                correct[slot] = recordCorrect;
+                lastPlayed[slot] = time;
+                break;
+            case KIND_SKILL:
+                skillAnswers[slot] = (int) (time >>> 32);
+                skillTimedAnswers[slot] = (int) time;
+                skillAccuracy[slot] = Float.intBitsToFloat(recordAttempts);
+                skillReactionMillis[slot] = Float.intBitsToFloat(recordCorrect);
+                break;
+            default:
+                Log.w(TAG, "Skipping unknown progress record kind " + kind);
+        }
+    }
+
+    private static byte[] record(long time, char letter, int kind, int recordAttempts, int recordCorrect) {
+        return ByteBuffer.allocate(RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN)
+                .putLong(time)
+                .putChar(letter)
+                .put((byte) kind)
+                .put((byte) 0)
+                .putInt(recordAttempts)
+                .putInt(recordCorrect)
+                .array();
+    }
+
+    private byte[] skillRecord(int slot) {
+        long counts = ((long) skillAnswers[slot] << 32) | (skillTimedAnswers[slot] & 0xFFFFFFFFL);
+        return record(counts, letters[slot], KIND_SKILL,
+                Float.floatToIntBits(skillAccuracy[slot]), Float.floatToIntBits(skillReactionMillis[slot]));
+    }
+
+    private static byte[] header() {
+        return ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(MAGIC).putShort((short) VERSION).putShort((short) 0).array();
+    }
+
+    /**
+     * Queue a record, and a compaction when the log has grown well past
+     * one summary per letter
+     */
+    private void append(final byte[] record) {
+        logRecords++;
+        writer.execute(new Runnable() {
+            @Override
+            public void run() {
+                writeRecord(record);
+            }
+        });
+        if (logRecords > Math.max(MIN_COMPACT_RECORDS, (slotCount + reviewCount) * RECORDS_PER_LETTER)) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        final byte[] snapshot = snapshot();
+        logRecords = (snapshot.length - HEADER_BYTES) / RECORD_BYTES;
+        writer.execute(new Runnable() {
+            @Override
+            public void run() {
+                rewrite(snapshot);
+            }
+        });
+    }
+
+    private byte[] snapshot() {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + (slotCount * 3 + reviewCount) * RECORD_BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(header());
+        for (int slot = 0; slot < slotCount; slot++) {
+            buffer.put(record(lastPlayed[slot], letters[slot], KIND_SUMMARY, attempts[slot], correct[slot]));
+            if (completed.get(slot)) {
+                buffer.put(record(completedAt[slot], letters[slot], KIND_COMPLETED, 0, 0));
+            }
+            if (skillAnswers[slot] > 0) {
+                buffer.put(skillRecord(slot));
+            }
+        }
+        for (int slot = 0; slot < reviewCount; slot++) {
+            buffer.put(record(reviewDue[slot], reviewLetters[slot], KIND_REVIEW, reviewWords[slot], reviewBoxes[slot]));
+        }
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    private void awaitLoaded() {
+        try {
+            loaded.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Writer thread from here on
+
+    /**
+     * Runs before any caller touches the state: every public method waits on
+     * the latch first, which also publishes what was read
+     */
+    private void load() {
+        try {
+            readLog();
+        } finally {
+            loaded.countDown();
+        }
+    }
+
+    private void readLog() {
+        if (!file.exists()) return;
+        byte[] bytes;
+        try {
+            bytes = readAll(file);
+        } catch (IOException e) {
+            Log.e(TAG, "Could not read progress log: " + e.getMessage());
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        if (bytes.length < HEADER_BYTES || buffer.getInt(0) != MAGIC
+                || (buffer.getShort(4) & 0xFFFF) != VERSION) {
+            Log.e(TAG, "Unrecognized progress log " + file + "; starting over");
+            if (!file.delete()) Log.w(TAG, "Could not delete " + file);
+            return;
+        }
+        int records = (bytes.length - HEADER_BYTES) / RECORD_BYTES;
+        buffer.position(HEADER_BYTES);
+        for (int i = 0; i < records; i++) {
+            apply(buffer);
+        }
+        logRecords = records;
+
+        int whole = HEADER_BYTES + records * RECORD_BYTES;
+        if (whole != bytes.length) {
+            // A write was cut short; drop the partial record so appends stay aligned
+            Log.w(TAG, "Truncating partial progress record in " + file);
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(whole);
+            } catch (IOException e) {
+                Log.e(TAG, "Could not truncate progress log: " + e.getMessage());
+            }
+        }
+    }
+
+    private void writeRecord(byte[] record) {
+        try {
+            if (out == null) {
+                File parent = file.getParentFile();
+                if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+                    throw new IOException("Could not create " + parent);
+                }
+                boolean fresh = !file.exists() || file.length() == 0;
+                out = new FileOutputStream(file, true);
+                if (fresh) out.write(header());
+            }
+            out.write(record);
+        } catch (IOException e) {
+            Log.e(TAG, "Could not append progress record: " + e.getMessage());
+            closeLog();
+        }
+    }
+
+    /**
+     * Write the compacted log beside the old one and swap it in
+     */
+    private void rewrite(byte[] snapshot) {
+        closeLog();
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream tempOut = new FileOutputStream(temp)) {
+            tempOut.write(snapshot);
+            tempOut.getFD().sync();
+        } catch (IOException e) {
+            Log.e(TAG, "Could not compact progress log: " + e.getMessage());
+            return;
+        }
+        if (!temp.renameTo(file)) {
+            Log.e(TAG, "Could not replace progress log with compacted copy");
+        }
+    }
+
+    private void closeLog() {
+        if (out == null) return;
+        try {
+            out.close();
+        } catch (IOException e) {
+            Log.w(TAG, "Error closing progress log: " + e.getMessage());
+        }
+        out = null;
+    }
+
+    private static byte[] readAll(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            byte[] bytes = new byte[(int) file.length()];
+            int offset = 0;
+            int read;
+            while (offset < bytes.length && (read = in.read(bytes, offset, bytes.length - offset)) != -1) {
+                offset += read;
+            }
+            return offset == bytes.length ? bytes : Arrays.copyOf(bytes, offset);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.phonicsfun.core;
+
+/**
+ * QualityController - Picks a rendering tier from measured draw times
+ * Steps down one tier when too many frames in a rolling window miss the
+ * budget, and back up only after a sustained run of fast frames. Every
+ * upgrade that has to be undone doubles the wait before the next one.
+ * Feed it from one thread (normally the render thread).
+ */
+public final class QualityController {
+    /**
+     * Rendering tiers, most expensive first
+     */
+    public enum Tier {
+        FULL,           // background, antialiased text, glow ring
+        NO_GLOW,        // glow ring skipped
+        NO_ANTIALIAS,   // no glow, aliased circles and text
+        ATLAS_ONLY      // no glow or antialiasing, every symbol blitted from the glyph atlas
+    }
+
+    /**
+     * Told on the feeding thread whenever the tier changes
+     */
+    public interface TierListener {
+        void onTierChanged(Tier tier);
+    }
+
+    // Leaves room in a 60 Hz frame for lock/post and the rest of the render thread
+    public static final long DEFAULT_BUDGET_NANOS = 12_000_000L;
+
+    static final int WINDOW = 30;
+    // Step down once more than this share of the window is over budget
+    private static final float SLOW_FRACTION = 0.2f;
+    // Step up only when every frame in the window is under this share of the budget
+    private static final float HEADROOM = 0.5f;
+    // Frames to wait after a change before stepping up, doubled on each flap
+    static final int BASE_UPGRADE_DELAY = 4 * WINDOW;
+    static final int MAX_UPGRADE_DELAY = 32 * BASE_UPGRADE_DELAY;
+
+    private static final Tier[] TIERS = Tier.values();
+
+    private final long budgetNanos;
+    private final long headroomNanos;
+    private final boolean[] slow = new boolean[WINDOW];
+    private final boolean[] roomy = new boolean[WINDOW];
+    private int filled;
+    private int next;
+    private int slowCount;
+    private int roomyCount;
+
+    private volatile Tier tier = Tier.FULL;
+    private Tier lowestTier = Tier.ATLAS_ONLY;
+    private int framesSinceChange;
+    private int upgradeDelay = BASE_UPGRADE_DELAY;
+    private boolean lastChangeWasUpgrade;
+    private TierListener listener;
+
+    public QualityController(long budgetNanos) {
+        this.budgetNanos = budgetNanos;
+        this.headroomNanos = (long) (budgetNanos * HEADROOM);
+    }
+
+    public void setTierListener(TierListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Never step below this tier (e.g. ATLAS_ONLY where no atlas can be used)
+     */
+    public void setLowestTier(Tier lowest) {
+        this.lowestTier = lowest;
+        if (tier.ordinal() > lowest.ordinal()) {
+            changeTier(lowest);
+        }
+    }
+
+    public Tier getTier() {
+        return tier;
+    }
+
+    public int getUpgradeDelay() {
+        return upgradeDelay;
+    }
+
+    /**
+     * Record one frame's draw time; returns the tier to draw the next frame with
+     */
+    public Tier onFrame(long drawNanos) {
+        if (filled == WINDOW) {
+            if (slow[next]) slowCount--;
+            if (roomy[next]) roomyCount--;
+        } else {
+            filled++;
+        }
+        slow[next] = drawNanos > budgetNanos;
+        roomy[next] = drawNanos < headroomNanos;
+        if (slow[next]) slowCount++;
+        if (roomy[next]) roomyCount++;
+        next = (next + 1) % WINDOW;
+        framesSinceChange++;
+
+        if (filled < WINDOW) return tier;
+
+        int current = tier.ordinal();
+        if (slowCount > WINDOW * SLOW_FRACTION && current < lowestTier.ordinal()) {
+            if (lastChangeWasUpgrade && framesSinceChange <= upgradeDelay) {
+                // The last upgrade did not hold; wait longer before trying again
+                upgradeDelay = Math.min(MAX_UPGRADE_DELAY, upgradeDelay * 2);
+            }
+            lastChangeWasUpgrade = false;
+            changeTier(TIERS[current + 1]);
+        } else if (roomyCount == WINDOW && current > 0 && framesSinceChange >= upgradeDelay) {
+            lastChangeWasUpgrade = true;
+            changeTier(TIERS[current - 1]);
+        }
+        return tier;
+    }
+
+    /**
+     * Back to FULL with an empty window and the initial upgrade delay
+     */
+    public void reset() {
+        upgradeDelay = BASE_UPGRADE_DELAY;
+        lastChangeWasUpgrade = false;
+        changeTier(Tier.FULL);
+    }
+
+    private void changeTier(Tier newTier) {
+        // Measure the new tier from scratch
+        filled = 0;
+        next = 0;
+        slowCount = 0;
+        roomyCount = 0;
+        framesSinceChange = 0;
+        if (newTier == tier) return;
+        tier = newTier;
+        if (listener != null) {
+            listener.onTierChanged(newTier);
+        }
+    }
+}
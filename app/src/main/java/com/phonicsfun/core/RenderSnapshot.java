@@ -0,0 +1,69 @@
+package com.phonicsfun.core;
+
+/**
+ * RenderSnapshot - Everything the render thread needs to draw one frame
+ * Symbols are stored as parallel arrays so they feed straight into
+ * SymbolRenderer.renderSymbols. Instances are recycled through a SnapshotBuffer.
+ */
+public class RenderSnapshot {
+    public int backgroundColor;
+    public long simulationTimeNanos;
+
+    public char[] symbols;
+    public float[] centerX;
+    public float[] centerY;
+    public float[] radii;
+    public int[] levels;
+    public int count;
+
+    public RenderSnapshot() {
+        this(16);
+    }
+
+    public RenderSnapshot(int capacity) {
+        symbols = new char[capacity];
+        centerX = new float[capacity];
+        centerY = new float[capacity];
+        radii = new float[capacity];
+        levels = new int[capacity];
+    }
+
+    /**
+     * Reset for reuse; array storage is kept
+     */
+    public void clear() {
+        count = 0;
+        backgroundColor = 0;
+        simulationTimeNanos = 0;
+    }
+
+    public void addSymbol(char symbol, float x, float y, float radius, int level) {
+        if (count == symbols.length) {
+            grow(Math.max(16, count * 2));
+        }
+        symbols[count] = symbol;
+        centerX[count] = x;
+        centerY[count] = y;
+        radii[count] = radius;
+        levels[count] = level;
+        count++;
+    }
+
+    private void grow(int capacity) {
+        char[] newSymbols = new char[capacity];
+        float[] newX = new float[capacity];
+        float[] newY = new float[capacity];
+        float[] newRadii = new float[capacity];
+        int[] newLevels = new int[capacity];
+        System.arraycopy(symbols, 0, newSymbols, 0, count);
+        System.arraycopy(centerX, 0, newX, 0, count);
+        System.arraycopy(centerY, 0, newY, 0, count);
+        System.arraycopy(radii, 0, newRadii, 0, count);
+        System.arraycopy(levels, 0, newLevels, 0, count);
+        symbols = newSymbols;
+        centerX = newX;
+        centerY = newY;
+        radii = newRadii;
+        levels = newLevels;
+    }
+}
@@ -0,0 +1,217 @@
+package com.phonicsfun.core;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ReviewScheduler - Leitner-box spaced repetition for choosing the next word
+ * A right answer moves a word up a box and pushes it further out; a wrong one
+ * sends it back to box 0. Each letter's words sit in a min-heap ordered by due
+ * time, so picking the next word is O(1) and rescheduling is O(log n). Boxes
+ * and due times are saved in the learner's ProgressStore.
+ */
+public final class ReviewScheduler {
+    // Wait before a word in each box comes round again
+    static final long[] INTERVALS_MILLIS = {
+            0L,
+            60_000L,
+            10 * 60_000L,
+            24 * 60 * 60_000L,
+            3 * 24 * 60 * 60_000L,
+            7 * 24 * 60 * 60_000L
+    };
+    static final int MAX_BOX = INTERVALS_MILLIS.length - 1;
+
+    private final ProgressStore store;
+
+    // Letter -> word -> slot; the same word can sit under several letters
+    private final CharTable<Map<String, Integer>> slots = new CharTable<>();
+    private String[] words = new String[32];
+    private char[] letters = new char[32];
+    private int[] ids = new int[32];
+    private int[] boxes = new int[32];
+    private long[] due = new long[32];
+    // Tie-break for equal due times: order added or last reviewed
+    private long[] order = new long[32];
+    // Position of each slot within its letter's heap
+    private int[] heapIndex = new int[32];
+    private int slotCount;
+    private long nextOrder;
+
+    private final CharTable<DueQueue> queues = new CharTable<>();
+
+    public ReviewScheduler(ProgressStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Start tracking a word; its saved box and due time are picked up. New
+     * words are due at once, in the order added.
+     */
+    public synchronized void add(char letter, String word) {
+        Map<String, Integer> letterSlots = slots.get(letter);
+        if (letterSlots == null) {
+            letterSlots = new HashMap<>();
+            slots.put(letter, letterSlots);
+        } else if (letterSlots.containsKey(word)) {
+            return;
+        }
+        int slot = newSlot(word);
+        letterSlots.put(word, slot);
+        letters[slot] = letter;
+        ids[slot] = wordId(word);
+        int savedBox = store.getReviewBox(letter, ids[slot]);
+        boxes[slot] = Math.max(savedBox, 0);
+        due[slot] = savedBox >= 0 ? store.getReviewDue(letter, ids[slot]) : 0L;
+        order[slot] = nextOrder++;
+
+        DueQueue queue = queues.get(letter);
+        if (queue == null) {
+            queue = new DueQueue();
+            queues.put(letter, queue);
+        }
+        queue.push(slot);
+    }
+
+    /**
+     * The letter's word due soonest, skipping {@code avoid} when another word
+     * exists so a missed word is not repeated back to back. Null when the
+     * letter has no words.
+     */
+    public synchronized String next(char letter, String avoid) {
+        DueQueue queue = queues.get(letter);
+        if (queue == null || queue.size == 0) return null;
+        int top = queue.items[0];
+        if (queue.size == 1 || !words[top].equals(avoid)) return words[top];
+        // The runner-up is one of the root's children
+        int best = queue.items[1];
+        if (queue.size > 2 && before(queue.items[2], best)) best = queue.items[2];
+        return words[best];
+    }
+
+    /**
+     * Record an answer and reschedule the letter's word
+     */
+    public synchronized void review(char letter, String word, boolean isCorrect, long nowMillis) {
+        Integer slot = slotOf(letter, word);
+        if (slot == null) return;
+        boxes[slot] = isCorrect ? Math.min(boxes[slot] + 1, MAX_BOX) : 0;
+        due[slot] = nowMillis + INTERVALS_MILLIS[boxes[slot]];
+        order[slot] = nextOrder++;
+        queues.get(letters[slot]).update(slot);
+        store.recordReview(letters[slot], ids[slot], boxes[slot], due[slot]);
+    }
+
+    public synchronized int getBox(char letter, String word) {
+        Integer slot = slotOf(letter, word);
+        return slot != null ? boxes[slot] : -1;
+    }
+
+    public synchronized long getDue(char letter, String word) {
+        Integer slot = slotOf(letter, word);
+        return slot != null ? due[slot] : 0L;
+    }
+
+    /**
+     * Words of a letter that are due by the given time
+     */
+    public synchronized int getDueCount(char letter, long nowMillis) {
+        DueQueue queue = queues.get(letter);
+        return queue != null ? queue.countDue(0, nowMillis) : 0;
+    }
+
+    /**
+     * 32-bit FNV-1a of a word, used as its id in the progress log
+     */
+    static int wordId(String word) {
+        int hash = 0x811c9dc5;
+        for (int i = 0; i < word.length(); i++) {
+            hash = (hash ^ word.charAt(i)) * 0x01000193;
+        }
+        return hash;
+    }
+
+    private int newSlot(String word) {
+        if (slotCount == words.length) {
+            int capacity = slotCount * 2;
+            words = Arrays.copyOf(words, capacity);
+            letters = Arrays.copyOf(letters, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            boxes = Arrays.copyOf(boxes, capacity);
+            due = Arrays.copyOf(due, capacity);
+            order = Arrays.copyOf(order, capacity);
+            heapIndex = Arrays.copyOf(heapIndex, capacity);
+        }
+        int slot = slotCount++;
+        words[slot] = word;
+        return slot;
+    }
+
+    private Integer slotOf(char letter, String word) {
+        Map<String, Integer> letterSlots = slots.get(letter);
+        return letterSlots != null ? letterSlots.get(word) : null;
+    }
+
+    private boolean before(int a, int b) {
+        return due[a] != due[b] ? due[a] < due[b] : order[a] < order[b];
+    }
+
+    /**
+     * Binary min-heap of slots for one letter
+     */
+    private final class DueQueue {
+        int[] items = new int[8];
+        int size;
+
+        void push(int slot) {
+            if (size == items.length) items = Arrays.copyOf(items, size * 2);
+            items[size] = slot;
+            heapIndex[slot] = size;
+            siftUp(size++);
+        }
+
+        void update(int slot) {
+            int index = heapIndex[slot];
+            siftUp(index);
+            siftDown(heapIndex[slot]);
+        }
+
+        /**
+         * Due items in the subtree at index; stops at the first not-due node
+         */
+        int countDue(int index, long nowMillis) {
+            if (index >= size || due[items[index]] > nowMillis) return 0;
+            return 1 + countDue(2 * index + 1, nowMillis) + countDue(2 * index + 2, nowMillis);
+        }
+
+        private void siftUp(int index) {
+            int slot = items[index];
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (!before(slot, items[parent])) break;
+                place(items[parent], index);
+                index = parent;
+            }
+            place(slot, index);
+        }
+
+        private void siftDown(int index) {
+            int slot = items[index];
+            while (true) {
+                int child = 2 * index + 1;
+                if (child >= size) break;
+                if (child + 1 < size && before(items[child + 1], items[child])) child++;
+                if (!before(items[child], slot)) break;
+                place(items[child], index);
+                index = child;
+            }
+            place(slot, index);
+        }
+
+        private void place(int slot, int index) {
+            items[index] = slot;
+            heapIndex[slot] = index;
+        }
+    }
+}
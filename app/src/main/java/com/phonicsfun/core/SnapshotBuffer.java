@@ -0,0 +1,58 @@
+package com.phonicsfun.core;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SnapshotBuffer - Lock-free hand-off of frame state from one writer to one reader
+ * The writer fills a back buffer and publishes it; the reader always takes the
+ * newest published buffer. A third slot sits between them so neither side
+ * ever waits for, or writes into, the buffer the other is using.
+ */
+public class SnapshotBuffer<T> {
+    private static final int INDEX_MASK = 0x3;
+    private static final int FRESH = 0x4;
+
+    private final Object[] slots;
+    // Index of the published (middle) slot, plus FRESH if the reader has not taken it
+    private final AtomicInteger published = new AtomicInteger(1);
+    private int writeIndex = 0;     // writer thread only
+    private int readIndex = 2;      // reader thread only
+
+    public SnapshotBuffer(T first, T second, T third) {
+        slots = new Object[]{first, second, third};
+    }
+
+    /**
+     * Writer: the buffer to fill for the next publish
+     */
+    @SuppressWarnings("unchecked")
+    public T getWriteBuffer() {
+        return (T) slots[writeIndex];
+    }
+
+    /**
+     * Writer: make the write buffer the newest snapshot and take a free one back
+     */
+    public void publish() {
+        writeIndex = published.getAndSet(writeIndex | FRESH) & INDEX_MASK;
+    }
+
+    /**
+     * Reader: true if a snapshot was published since the last acquire
+     */
+    public boolean hasFresh() {
+        return (published.get() & FRESH) != 0;
+    }
+
+    /**
+     * Reader: the newest snapshot. It stays valid and unchanged until the
+     * next acquire, however many times the writer publishes meanwhile.
+     */
+    @SuppressWarnings("unchecked")
+    public T acquire() {
+        if ((published.get() & FRESH) != 0) {
+            readIndex = published.getAndSet(readIndex) & INDEX_MASK;
+        }
+        return (T) slots[readIndex];
+    }
+}
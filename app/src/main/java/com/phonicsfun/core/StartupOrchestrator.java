@@ -0,0 +1,282 @@
+package com.phonicsfun.core;
+
+import android.util.Log;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * StartupOrchestrator - Staged, dependency-ordered start-up work
+ * CRITICAL tasks run at once and should be only what the first frame needs.
+ * AFTER_FIRST_FRAME tasks run right after the first frame is drawn, and IDLE
+ * tasks run one at a time whenever the main looper has nothing else to do.
+ * Every task and stage is timed and logged, so start-up cost stays visible.
+ * When the later stages run is up to a Scheduler; MainLooperScheduler is the
+ * real one, and tests pass their own.
+ *
+ * Not thread-safe; use from the main thread.
+ */
+public final class StartupOrchestrator {
+    private static final String TAG = "PhonicsStartup";
+
+    public enum Stage {
+        CRITICAL, AFTER_FIRST_FRAME, IDLE
+    }
+
+    /**
+     * Gives the later stages their turn
+     */
+    interface Scheduler {
+        /**
+         * Run once, just after the next frame is drawn
+         */
+        void afterNextFrame(Runnable work);
+
+        /**
+         * Call whenever nothing else is waiting, until it returns false
+         */
+        void whenIdle(IdleWork work);
+
+        /**
+         * Drop anything not yet run
+         */
+        void cancel();
+    }
+
+    interface IdleWork {
+        /**
+         * @return true to be called again at the next idle moment
+         */
+        boolean runWhileIdle();
+    }
+
+    private static final class Task {
+        final String name;
+        final Stage stage;
+        final Runnable work;
+        final String[] dependencies;
+        long nanos = -1;
+
+        Task(String name, Stage stage, Runnable work, String[] dependencies) {
+            this.name = name;
+            this.stage = stage;
+            this.work = work;
+            this.dependencies = dependencies;
+        }
+    }
+
+    // Registration order, used to break ties between independent tasks
+    private final Map<String, Task> tasks = new LinkedHashMap<>();
+    private final List<Task> completed = new ArrayList<>();
+    private final Map<Stage, Long> stageNanos = new EnumMap<>(Stage.class);
+    private final long createdNanos = System.nanoTime();
+    private long firstFrameNanos = -1;
+
+    // Idle tasks still to run, in dependency order; null until the idle stage begins
+    private List<Task> idleQueue;
+    private int idleNext;
+    private long idleStartNanos;
+
+    private Scheduler scheduler;
+    private boolean cancelled;
+
+    public StartupOrchestrator() {
+    }
+
+    StartupOrchestrator(Scheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Register a task. Dependencies are task names from the same or an
+     * earlier stage; they always run first.
+     */
+    public StartupOrchestrator add(Stage stage, String name, Runnable work, String... dependencies) {
+        if (tasks.containsKey(name)) throw new IllegalArgumentException("Duplicate start-up task: " + name);
+        if (stageNanos.containsKey(stage) || (stage == Stage.IDLE && idleQueue != null)) {
+            throw new IllegalStateException("Stage " + stage + " has already started");
+        }
+        tasks.put(name, new Task(name, stage, work, dependencies));
+        return this;
+    }
+
+    /**
+     * Run every task of a stage now, after any earlier stage that has not run
+     */
+    public void runStage(Stage stage) {
+        for (Stage earlier : Stage.values()) {
+            if (earlier.ordinal() >= stage.ordinal()) break;
+            if (!isStageDone(earlier)) runStage(earlier);
+        }
+        if (stage == Stage.IDLE) {
+            while (runNextIdleTask()) {
+                // keep going
+            }
+            return;
+        }
+        if (stageNanos.containsKey(stage)) return;
+
+        long start = System.nanoTime();
+        for (Task task : order(stage)) {
+            runTask(task);
+        }
+        finishStage(stage, System.nanoTime() - start);
+    }
+
+    /**
+     * Run the next idle task, starting the idle stage if needed.
+     *
+     * @return true if tasks remain
+     */
+    public boolean runNextIdleTask() {
+        if (stageNanos.containsKey(Stage.IDLE)) return false;
+        if (idleQueue == null) {
+            if (!isStageDone(Stage.AFTER_FIRST_FRAME)) runStage(Stage.AFTER_FIRST_FRAME);
+            idleQueue = order(Stage.IDLE);
+            idleStartNanos = System.nanoTime();
+        }
+        if (idleNext < idleQueue.size()) {
+            runTask(idleQueue.get(idleNext++));
+        }
+        if (idleNext < idleQueue.size()) return true;
+
+        // Report the work done, not the gaps between idle calls
+        long total = 0;
+        for (Task task : idleQueue) {
+            total += task.nanos;
+        }
+        finishStage(Stage.IDLE, total);
+        Log.d(TAG, "Idle stage spread over " + millis(System.nanoTime() - idleStartNanos) + " ms");
+        return false;
+    }
+
+    /**
+     * Run CRITICAL now if it has not run, then queue the later stages behind
+     * the first frame. Call from the launch activity's onCreate.
+     */
+    public void start() {
+        runStage(Stage.CRITICAL);
+        if (scheduler == null) scheduler = new MainLooperScheduler();
+        scheduler.afterNextFrame(new Runnable() {
+            @Override
+            public void run() {
+                if (cancelled) return;
+                firstFrameNanos = System.nanoTime() - createdNanos;
+                Log.d(TAG, "First frame after " + millis(firstFrameNanos) + " ms");
+                runStage(Stage.AFTER_FIRST_FRAME);
+                scheduleIdle();
+            }
+        });
+    }
+
+    /**
+     * Drop whatever has not run yet, e.g. when the launch activity is destroyed early
+     */
+    public void cancel() {
+        cancelled = true;
+        if (scheduler != null) scheduler.cancel();
+    }
+
+    private void scheduleIdle() {
+        scheduler.whenIdle(new IdleWork() {
+            @Override
+            public boolean runWhileIdle() {
+                // One task per idle slot so input arriving meanwhile is not held up
+                return !cancelled && runNextIdleTask();
+            }
+        });
+    }
+
+    public boolean isStageDone(Stage stage) {
+        return stageNanos.containsKey(stage);
+    }
+
+    /**
+     * Time spent in a stage's tasks, or -1 if it has not finished
+     */
+    public float getStageMillis(Stage stage) {
+        Long nanos = stageNanos.get(stage);
+        return nanos != null ? millis(nanos) : -1f;
+    }
+
+    /**
+     * Time a task took, or -1 if it has not run
+     */
+    public float getTaskMillis(String name) {
+        Task task = tasks.get(name);
+        return task != null && task.nanos >= 0 ? millis(task.nanos) : -1f;
+    }
+
+    /**
+     * From construction to just after the first frame, or -1 before then
+     */
+    public float getFirstFrameMillis() {
+        return firstFrameNanos >= 0 ? millis(firstFrameNanos) : -1f;
+    }
+
+    /**
+     * Names of tasks that have run, in the order they ran
+     */
+    public List<String> getCompletedTasks() {
+        List<String> names = new ArrayList<>();
+        for (Task task : completed) {
+            names.add(task.name);
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    private void runTask(Task task) {
+        long start = System.nanoTime();
+        task.work.run();
+        task.nanos = System.nanoTime() - start;
+        completed.add(task);
+        Log.d(TAG, task.stage + " " + task.name + ": " + millis(task.nanos) + " ms");
+    }
+
+    private void finishStage(Stage stage, long nanos) {
+        stageNanos.put(stage, nanos);
+        Log.d(TAG, "Stage " + stage + " took " + millis(nanos) + " ms");
+    }
+
+    /**
+     * A stage's tasks with every dependency ahead of its dependents
+     */
+    private List<Task> order(Stage stage) {
+        List<Task> ordered = new ArrayList<>();
+        Map<String, Boolean> visiting = new HashMap<>();
+        for (Task task : tasks.values()) {
+            if (task.stage == stage) visit(task, stage, visiting, ordered);
+        }
+        return ordered;
+    }
+
+    private void visit(Task task, Stage stage, Map<String, Boolean> visiting, List<Task> ordered) {
+        Boolean state = visiting.get(task.name);
+        if (state != null) {
+            if (state) throw new IllegalStateException("Start-up dependency cycle at " + task.name);
+            return;
+        }
+        visiting.put(task.name, true);
+        for (String name : task.dependencies) {
+            Task dependency = tasks.get(name);
+            if (dependency == null) {
+                throw new IllegalStateException(task.name + " depends on unknown task " + name);
+            }
+            if (dependency.stage.ordinal() > stage.ordinal()) {
+                throw new IllegalStateException(task.name + " (" + stage + ") depends on later task "
+                        + name + " (" + dependency.stage + ")");
+            }
+            if (dependency.stage == stage) visit(dependency, stage, visiting, ordered);
+        }
+        visiting.put(task.name, false);
+        ordered.add(task);
+    }
+
+    private static float millis(long nanos) {
+        return nanos / 1_000_000f;
+    }
+}
@@ -0,0 +1,59 @@
+package com.phonicsfun.core;
+
+import java.util.Arrays;
+
+/**
+ * SymbolBatch - Draw order for SymbolRenderer.renderSymbols
+ * Packs (symbol, level, input index) into one long per item so a primitive
+ * sort groups items by symbol, then level, and keeps input order within a
+ * run. Scratch space grows on demand and is reused, so sorting allocates
+ * nothing once warm. Has no Android dependencies.
+ */
+final class SymbolBatch {
+    // Bit layout: 0 | symbol (16) | level (16) | index (31); the sign bit stays clear
+    private static final int LEVEL_SHIFT = 31;
+    private static final int SYMBOL_SHIFT = 47;
+
+    private long[] order = new long[0];
+    private int count;
+
+    /**
+     * Sort the first {@code count} items. Levels are taken as unsigned 16-bit values.
+     */
+    void sort(char[] symbols, int[] levels, int count) {
+        if (order.length < count) {
+            order = new long[Math.max(count, order.length * 2)];
+        }
+        for (int i = 0; i < count; i++) {
+            order[i] = key(symbols[i], levels[i], i);
+        }
+        Arrays.sort(order, 0, count);
+        this.count = count;
+    }
+
+    /**
+     * Input index of the n-th item to draw
+     */
+    int index(int n) {
+        return indexOf(order[n]);
+    }
+
+    int size() { return count; }
+    int capacity() { return order.length; }
+
+    static long key(char symbol, int level, int index) {
+        return ((long) symbol << SYMBOL_SHIFT) | ((long) (level & 0xFFFF) << LEVEL_SHIFT) | index;
+    }
+
+    static char symbolOf(long key) {
+        return (char) (key >>> SYMBOL_SHIFT);
+    }
+
+    static int levelOf(long key) {
+        return (int) (key >>> LEVEL_SHIFT) & 0xFFFF;
+    }
+
+    static int indexOf(long key) {
+        return (int) (key & Integer.MAX_VALUE);
+    }
+}
@@ -3,10 +3,10 @@ package com.phonicsfun.core;
 import android.content.Context;
 import android.graphics.Canvas;
 import android.graphics.Paint;
+import android.graphics.Rect;
 import android.graphics.RectF;
 import android.graphics.Typeface;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
 /**
  * SymbolRenderer - Reusable component for rendering any symbol
@@ -15,16 +15,48 @@ import java.util.Map;
 public class SymbolRenderer {
     private static final String TAG = "SymbolRenderer";
     
+    // Room around the circle for the glow ring (radius + 5, stroke 4)
+    private static final int GLOW_EXTENT = 8;
+    
     private Context context;
     private Paint paint;
     private Paint backgroundPaint;
-    private Map<Character, SymbolConfig> symbolConfigs;
+    private Paint glowPaint;
+    private CharTable<SymbolConfig> symbolConfigs;
+    private CharTable<SymbolConfig> defaultConfigs;
+    private final ContentCatalogue content;
+    
+    // Reused every frame so drawing allocates nothing
+    private final Paint.FontMetrics fontMetrics = new Paint.FontMetrics();
+    private final SymbolTextCache textCache = new SymbolTextCache();
+    // Measures with the text paint, whose text size the caller has already set
+    private final SymbolTextCache.FontMeasure fontMeasure = new SymbolTextCache.FontMeasure() {
+        @Override
+        public float measureBaselineOffset(float textSize) {
+            paint.getFontMetrics(fontMetrics);
+            return -(fontMetrics.ascent + fontMetrics.descent) / 2f;
+        }
+    };
+    
+    // Batch scratch space, grown on demand: draw order and resolved configs
+    private final SymbolBatch batch = new SymbolBatch();
+    private SymbolConfig[] batchConfigs = new SymbolConfig[0];
+    
+    // Optional pre-rasterized glyph cache
+    private GlyphAtlas glyphAtlas;
+    private final RectF atlasDst = new RectF();
+    private boolean atlasRequested;
+    
+    // Level of detail, see QualityController.Tier
+    private QualityController.Tier qualityTier = QualityController.Tier.FULL;
+    private boolean glowEnabled = true;
     
     public SymbolRenderer(Context context) {
         this.context = context;
-        this.symbolConfigs = new HashMap<>();
+        this.symbolConfigs = new CharTable<>();
+        this.defaultConfigs = new CharTable<>();
+        this.content = ContentCatalogue.getInstance(context);
         initializePaints();
-        loadDefaultConfigs();
     }
     
     /**
@@ -61,87 +93,206 @@ public class SymbolRenderer {
         
         backgroundPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
         backgroundPaint.setStyle(Paint.Style.FILL);
+        
+        glowPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        glowPaint.setStyle(Paint.Style.STROKE);
+        glowPaint.setStrokeWidth(4f);
     }
     
     /**
-     * Load default configurations for common symbols
+     * MAIN FUNCTION: Render any symbol dynamically
+     * This is what your frontend will call!
      */
-    private void loadDefaultConfigs() {
-        // Letter G configuration
-        symbolConfigs.put('G', new SymbolConfig(
-            0xFF4CAF50, // Green
-            0xFF2E7D32, // Dark green background
-            48f,
-            new String[]{"grape", "goat", "gold", "girl", "grandpa"},
-            new String[]{"voice-grape", "voice-goat", "voice-gold", "voice-girl", "voice-grandpa"}
-        ));
+    public void renderSymbol(Canvas canvas, char symbol, RectF bounds, int level) {
+        SymbolConfig config = resolveConfig(symbol);
         
-        // Letter A configuration
-        symbolConfigs.put('A', new SymbolConfig(
-            0xFFFF5722, // Orange
-            0xFFD84315, // Dark orange background
-            48f,
-            new String[]{"apple", "ant", "airplane", "alligator", "arrow"},
-            new String[]{"voice-apple", "voice-ant", "voice-airplane", "voice-alligator", "voice-arrow"}
-        ));
+        float centerX = bounds.centerX();
+        float centerY = bounds.centerY();
+        float radius = Math.min(bounds.width(), bounds.height()) / 2f;
         
-        // Letter B configuration
-        symbolConfigs.put('B', new SymbolConfig(
-            0xFF2196F3, // Blue
-            0xFF1565C0, // Dark blue background
-            48f,
-            new String[]{"ball", "bat", "bird", "boat", "bear"},
-            new String[]{"voice-ball", "voice-bat", "voice-bird", "voice-boat", "voice-bear"}
-        ));
+        if (glyphAtlas != null && renderFromAtlas(canvas, symbol, config, centerX, centerY, radius, level)) {
+            return;
+        }
+        drawSymbol(canvas, symbol, config, centerX, centerY, radius, level);
+    }
+    
+    /**
+     * Render many symbols in one call from parallel arrays (e.g. a field of planets).
+     * Items are sorted by symbol and level so paint state changes once per run,
+     * then drawn in three passes: backgrounds, glyphs, glows. Overlapping items
+     * therefore do not keep their input order.
+     */
+    public void renderSymbols(Canvas canvas, char[] symbols, float[] centerX, float[] centerY,
+                              float[] radii, int[] levels, int count) {
+        if (count <= 0) return;
+        batch.sort(symbols, levels, count);
+        if (batchConfigs.length < batch.capacity()) {
+            batchConfigs = new SymbolConfig[batch.capacity()];
+        }
         
-        // Special symbols
-        symbolConfigs.put('#', new SymbolConfig(
-            0xFF9C27B0, // Purple
-            0xFF6A1B9A, // Dark purple background
-            56f,
-            new String[]{"hashtag", "pound", "number"},
-            new String[]{"voice-hashtag", "voice-pound", "voice-number"}
-        ));
+        // Resolve each config once per run of equal symbols
+        char lastSymbol = 0;
+        SymbolConfig config = null;
+        for (int n = 0; n < count; n++) {
+            char symbol = symbols[batch.index(n)];
+            if (config == null || symbol != lastSymbol) {
+                config = resolveConfig(symbol);
+                lastSymbol = symbol;
+            }
+            batchConfigs[n] = config;
+        }
         
-        symbolConfigs.put('$', new SymbolConfig(
-            0xFFFFC107, // Amber
-            0xFFF57C00, // Dark amber background
-            56f,
-            new String[]{"dollar", "money", "cash"},
-            new String[]{"voice-dollar", "voice-money", "voice-cash"}
-        ));
+        if (glyphAtlas != null) {
+            // Every cell lives in one bitmap, so the blits share all state
+            for (int n = 0; n < count; n++) {
+                int i = batch.index(n);
+                if (!renderFromAtlas(canvas, symbols[i], batchConfigs[n], centerX[i], centerY[i], radii[i], levels[i])) {
+                    drawSymbol(canvas, symbols[i], batchConfigs[n], centerX[i], centerY[i], radii[i], levels[i]);
+                }
+            }
+        } else {
+            drawBatchBackgrounds(canvas, centerX, centerY, radii, count);
+            drawBatchGlyphs(canvas, symbols, centerX, centerY, levels, count);
+            if (glowEnabled) {
+                drawBatchGlows(canvas, centerX, centerY, radii, count);
+            }
+        }
+        Arrays.fill(batchConfigs, 0, count, null);
+    }
+    
+    private void drawBatchBackgrounds(Canvas canvas, float[] centerX, float[] centerY, float[] radii, int count) {
+        SymbolConfig last = null;
+        for (int n = 0; n < count; n++) {
+            SymbolConfig config = batchConfigs[n];
+            if (last == null || config.backgroundColor != last.backgroundColor) {
+                backgroundPaint.setColor(config.backgroundColor);
+            }
+            last = config;
+            int i = batch.index(n);
+            canvas.drawCircle(centerX[i], centerY[i], radii[i], backgroundPaint);
+        }
+    }
+    
+    private void drawBatchGlyphs(Canvas canvas, char[] symbols, float[] centerX, float[] centerY, int[] levels, int count) {
+        SymbolConfig last = null;
+        float lastTextSize = Float.NaN;
+        float baselineOffset = 0f;
+        for (int n = 0; n < count; n++) {
+            SymbolConfig config = batchConfigs[n];
+            int i = batch.index(n);
+            if (last == null || config.color != last.color) {
+                paint.setColor(config.color);
+            }
+            last = config;
+            float textSize = config.textSize * getScaleForLevel(levels[i]);
+            if (textSize != lastTextSize) {
+                paint.setTextSize(textSize);
+                baselineOffset = getBaselineOffset(textSize);
+                lastTextSize = textSize;
+            }
+            canvas.drawText(textCache.symbolString(symbols[i]), centerX[i], centerY[i] + baselineOffset, paint);
+        }
+    }
+    
+    private void drawBatchGlows(Canvas canvas, float[] centerX, float[] centerY, float[] radii, int count) {
+        int lastColor = 0;
+        boolean colorSet = false;
+        for (int n = 0; n < count; n++) {
+            SymbolConfig config = batchConfigs[n];
+            if (!config.hasAnimation) continue;
+            if (!colorSet || config.color != lastColor) {
+                glowPaint.setColor(config.color);
+                glowPaint.setAlpha(100);
+                lastColor = config.color;
+                colorSet = true;
+            }
+            int i = batch.index(n);
+            canvas.drawCircle(centerX[i], centerY[i], radii[i] + 5, glowPaint);
+        }
     }
     
     /**
-     * MAIN FUNCTION: Render any symbol dynamically
-     * This is what your frontend will call!
+     * Config for a symbol: custom, then from the content catalogue (built on
+     * first use), then a cached default for unknown symbols
      */
-    public void renderSymbol(Canvas canvas, char symbol, RectF bounds, int level) {
+    private SymbolConfig resolveConfig(char symbol) {
         SymbolConfig config = symbolConfigs.get(symbol);
         if (config == null) {
-            // Create default config for unknown symbols
-            config = createDefaultConfig(symbol);
+            ContentEntry entry = content.get(symbol);
+            if (entry != null) {
+                config = new SymbolConfig(entry.getColor(), entry.getBackgroundColor(), entry.getTextSize(),
+                        entry.copyWords(), entry.copySoundKeys());
+                symbolConfigs.put(symbol, config);
+                return config;
+            }
         }
+        if (config == null) {
+            // Default config for unknown symbols, created once per symbol
+            config = defaultConfigs.get(symbol);
+            if (config == null) {
+                config = createDefaultConfig(symbol);
+                defaultConfigs.put(symbol, config);
+            }
+        }
+        return config;
+    }
+    
+    /**
+     * Vertical-centering offset for the current paint text size
+     */
+    private float getBaselineOffset(float textSize) {
+        return textCache.baselineOffset(textSize, fontMeasure);
+    }
+    
+    /**
+     * Blit the symbol from the atlas, rasterizing it into a new cell on first use
+     */
+    private boolean renderFromAtlas(Canvas canvas, char symbol, SymbolConfig config,
+                                    float centerX, float centerY, float radius, int level) {
+        if (radius <= 0) return true;
+        
+        int bucket = GlyphAtlasLayout.bucketFor(radius * 2f);
+        float cellRadius = GlyphAtlasLayout.bucketDiameter(bucket) / 2f;
+        // Large text can overhang a small circle; keep it inside the cell
+        int cellSize = (int) Math.ceil(2f * Math.max(cellRadius + GLOW_EXTENT,
+                config.textSize * getScaleForLevel(level) * 0.75f));
+        float halfExtent = cellSize / 2f;
         
+        int cell = glyphAtlas.find(symbol, level, bucket);
+        if (cell < 0) {
+            cell = glyphAtlas.allocate(symbol, level, bucket, cellSize);
+            if (cell < 0) return false;
+            Rect cellBounds = glyphAtlas.getCellBounds(cell);
+            drawSymbol(glyphAtlas.getCanvas(), symbol, config,
+                    cellBounds.left + halfExtent, cellBounds.top + halfExtent, cellRadius, level);
+        }
+        
+        float dstHalf = halfExtent * (radius / cellRadius);
+        atlasDst.set(centerX - dstHalf, centerY - dstHalf, centerX + dstHalf, centerY + dstHalf);
+        glyphAtlas.draw(canvas, cell, atlasDst);
+        return true;
+    }
+    
+    /**
+     * Rasterize circle, symbol and glow directly
+     */
+    private void drawSymbol(Canvas canvas, char symbol, SymbolConfig config,
+                            float centerX, float centerY, float radius, int level) {
         // Draw background circle
         backgroundPaint.setColor(config.backgroundColor);
-        float centerX = bounds.centerX();
-        float centerY = bounds.centerY();
-        float radius = Math.min(bounds.width(), bounds.height()) / 2f;
         canvas.drawCircle(centerX, centerY, radius, backgroundPaint);
         
         // Draw symbol
+        float textSize = config.textSize * getScaleForLevel(level);
         paint.setColor(config.color);
-        paint.setTextSize(config.textSize * getScaleForLevel(level));
+        paint.setTextSize(textSize);
         
-        // Center the text vertically
-        Paint.FontMetrics fontMetrics = paint.getFontMetrics();
-        float textY = centerY - (fontMetrics.ascent + fontMetrics.descent) / 2f;
-        
-        canvas.drawText(String.valueOf(symbol), centerX, textY, paint);
+        // Center the text vertically; metrics only change with text size
+        float baselineOffset = getBaselineOffset(textSize);
+        canvas.drawText(textCache.symbolString(symbol), centerX, centerY + baselineOffset, paint);
         
         // Add glow effect if enabled
-        if (config.hasAnimation) {
+        if (config.hasAnimation && glowEnabled) {
             addGlowEffect(canvas, centerX, centerY, radius, config.color);
         }
     }
@@ -150,23 +301,79 @@ public class SymbolRenderer {
      * Get words associated with a symbol
      */
     public String[] getWordsForSymbol(char symbol) {
-        SymbolConfig config = symbolConfigs.get(symbol);
-        return config != null ? config.words : new String[]{String.valueOf(symbol)};
+        return resolveConfig(symbol).words;
     }
     
     /**
      * Get sound keys for a symbol
      */
     public String[] getSoundKeysForSymbol(char symbol) {
-        SymbolConfig config = symbolConfigs.get(symbol);
-        return config != null ? config.soundKeys : new String[]{"voice-" + symbol};
+        return resolveConfig(symbol).soundKeys;
     }
     
     /**
      * Add custom symbol configuration
+     * Also call this after changing fields of an existing config so cached glyphs are redrawn.
      */
     public void addSymbolConfig(char symbol, SymbolConfig config) {
         symbolConfigs.put(symbol, config);
+        defaultConfigs.remove(symbol);
+        if (glyphAtlas != null) {
+            glyphAtlas.invalidate(symbol);
+        }
+    }
+    
+    /**
+     * Draw symbols from a shared pre-rasterized atlas instead of rendering text every frame
+     */
+    public void setAtlasEnabled(boolean enabled) {
+        atlasRequested = enabled;
+        updateAtlas();
+    }
+    
+    /**
+     * Switch level of detail. Lower tiers drop the glow ring, then antialiasing,
+     * then force atlas blits; cached atlas cells are redrawn at the new quality.
+     */
+    public void setQualityTier(QualityController.Tier tier) {
+        if (tier == qualityTier) return;
+        qualityTier = tier;
+        glowEnabled = tier == QualityController.Tier.FULL;
+        boolean antiAlias = tier.ordinal() <= QualityController.Tier.NO_GLOW.ordinal();
+        paint.setAntiAlias(antiAlias);
+        backgroundPaint.setAntiAlias(antiAlias);
+        glowPaint.setAntiAlias(antiAlias);
+        if (glyphAtlas != null) {
+            glyphAtlas.clear();
+        }
+        updateAtlas();
+    }
+    
+    public QualityController.Tier getQualityTier() {
+        return qualityTier;
+    }
+    
+    private void updateAtlas() {
+        boolean enabled = atlasRequested || qualityTier == QualityController.Tier.ATLAS_ONLY;
+        if (enabled && glyphAtlas == null) {
+            glyphAtlas = new GlyphAtlas();
+        } else if (!enabled && glyphAtlas != null) {
+            glyphAtlas.release();
+            glyphAtlas = null;
+        }
+    }
+    
+    public boolean isAtlasEnabled() {
+        return glyphAtlas != null;
+    }
+    
+    /**
+     * Free the atlas bitmap; it is rebuilt on the next atlas draw
+     */
+    public void release() {
+        if (glyphAtlas != null) {
+            glyphAtlas.release();
+        }
     }
     
     /**
@@ -178,7 +385,7 @@ public class SymbolRenderer {
             0xFF424242, // Dark gray background
             48f,
             new String[]{String.valueOf(symbol)},
-            new String[]{"voice-" + symbol}
+            new String[]{"voice_" + symbol}
         );
     }
     
@@ -193,10 +400,8 @@ public class SymbolRenderer {
      * Add glow effect around symbol
      */
     private void addGlowEffect(Canvas canvas, float centerX, float centerY, float radius, int color) {
-        Paint glowPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        glowPaint.setStyle(Paint.Style.STROKE);
+        // setColor resets alpha, so apply the glow alpha after it
         glowPaint.setColor(color);
-        glowPaint.setStrokeWidth(4f);
         glowPaint.setAlpha(100);
         
         canvas.drawCircle(centerX, centerY, radius + 5, glowPaint);
@@ -206,13 +411,20 @@ public class SymbolRenderer {
      * Check if symbol is supported
      */
     public boolean isSymbolSupported(char symbol) {
-        return symbolConfigs.containsKey(symbol);
+        return symbolConfigs.containsKey(symbol) || content.contains(symbol);
     }
     
     /**
      * Get all supported symbols
      */
     public char[] getSupportedSymbols() {
-        return symbolConfigs.keySet().toString().toCharArray();
+        CharTable<Boolean> supported = new CharTable<>();
+        for (char symbol : content.getSymbols()) {
+            supported.put(symbol, Boolean.TRUE);
+        }
+        for (char symbol : symbolConfigs.keys()) {
+            supported.put(symbol, Boolean.TRUE);
+        }
+        return supported.keys();
     }
 }
@@ -0,0 +1,95 @@
+package com.phonicsfun.core;
+
+/**
+ * SymbolTextCache - Per-frame text lookups for SymbolRenderer without allocation
+ * Holds one-character strings for each symbol drawn and the vertical-centering
+ * offset (from font metrics) for each text size in use.
+ */
+final class SymbolTextCache {
+    /**
+     * Reads the baseline offset from font metrics on a cache miss
+     */
+    interface FontMeasure {
+        float measureBaselineOffset(float textSize);
+    }
+
+    private static final int DIRECT_CHARS = 256;
+    private static final int HASHED_SLOTS = 64;
+    private static final int OFFSET_SLOTS = 16;
+
+    // Latin-1 symbols index directly; anything else shares a small direct-mapped table
+    private final String[] directStrings = new String[DIRECT_CHARS];
+    private final char[] hashedChars = new char[HASHED_SLOTS];
+    private final String[] hashedStrings = new String[HASHED_SLOTS];
+
+    // Text size -> baseline offset, replaced round-robin once full
+    private final float[] offsetSizes = new float[OFFSET_SLOTS];
+    private final float[] offsets = new float[OFFSET_SLOTS];
+    private int offsetCount;
+    private int nextOffsetSlot;
+
+    /**
+     * Cached String.valueOf(symbol)
+     */
+    String symbolString(char symbol) {
+        if (symbol < DIRECT_CHARS) {
+            String s = directStrings[symbol];
+            if (s == null) {
+                s = String.valueOf(symbol);
+                directStrings[symbol] = s;
+            }
+            return s;
+        }
+        int slot = symbol & (HASHED_SLOTS - 1);
+        String s = hashedStrings[slot];
+        if (s == null || hashedChars[slot] != symbol) {
+            s = String.valueOf(symbol);
+            hashedChars[slot] = symbol;
+            hashedStrings[slot] = s;
+        }
+        return s;
+    }
+
+    /**
+     * Baseline offset recorded for a text size, or NaN if not cached
+     */
+    float getBaselineOffset(float textSize) {
+        for (int i = 0; i < offsetCount; i++) {
+            if (offsetSizes[i] == textSize) return offsets[i];
+        }
+        return Float.NaN;
+    }
+
+    /**
+     * Baseline offset for a text size, measured only the first time the size
+     * is seen. This is the lookup SymbolRenderer makes for every glyph drawn.
+     */
+    float baselineOffset(float textSize, FontMeasure measure) {
+        float offset = getBaselineOffset(textSize);
+        if (Float.isNaN(offset)) {
+            offset = measure.measureBaselineOffset(textSize);
+            putBaselineOffset(textSize, offset);
+        }
+        return offset;
+    }
+
+    void putBaselineOffset(float textSize, float offset) {
+        int slot;
+        if (offsetCount < OFFSET_SLOTS) {
+            slot = offsetCount++;
+        } else {
+            slot = nextOffsetSlot;
+            nextOffsetSlot = (nextOffsetSlot + 1) % OFFSET_SLOTS;
+        }
+        offsetSizes[slot] = textSize;
+        offsets[slot] = offset;
+    }
+
+    /**
+     * Forget cached offsets (e.g. after a typeface change)
+     */
+    void clearOffsets() {
+        offsetCount = 0;
+        nextOffsetSlot = 0;
+    }
+}
@@ -0,0 +1,157 @@
+package com.phonicsfun.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * WavDecoder - Decodes RIFF/WAVE data into mono PcmClips for the software mixer
+ * Handles 8/16/24-bit integer PCM and 32-bit float, downmixing and resampling
+ * to the mixer rate so playback never converts on the audio thread
+ */
+public final class WavDecoder {
+    private static final int FORMAT_PCM = 1;
+    private static final int FORMAT_FLOAT = 3;
+    private static final int FORMAT_EXTENSIBLE = 0xFFFE;
+
+    private WavDecoder() {}
+
+    /**
+     * Decode a whole WAV stream. The stream is read to the end but not closed.
+     *
+     * @param targetSampleRate rate of the returned clip, or 0 to keep the source rate
+     */
+    public static PcmClip decode(InputStream in, int targetSampleRate) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+        byte[] chunk = new byte[8192];
+        int read;
+        while ((read = in.read(chunk)) != -1) {
+            out.write(chunk, 0, read);
+        }
+        return decode(ByteBuffer.wrap(out.toByteArray()), targetSampleRate);
+    }
+
+    /**
+     * Decode WAV bytes from the buffer's position to its limit
+     */
+    public static PcmClip decode(ByteBuffer data, int targetSampleRate) throws IOException {
+        ByteBuffer buffer = data.slice().order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.remaining() < 12 || buffer.getInt(0) != 0x46464952 || buffer.getInt(8) != 0x45564157) {
+            throw new IOException("Not a RIFF/WAVE stream");
+        }
+
+        int formatTag = -1;
+        int channels = 0;
+        int sampleRate = 0;
+        int bitsPerSample = 0;
+        int dataOffset = -1;
+        int dataLength = 0;
+
+        int offset = 12;
+        while (offset + 8 <= buffer.limit()) {
+            int chunkId = buffer.getInt(offset);
+            int chunkSize = buffer.getInt(offset + 4);
+            int body = offset + 8;
+            if (chunkSize < 0 || body + chunkSize > buffer.limit()) {
+                // Truncated files are common in generated assets; use what is there
+                chunkSize = buffer.limit() - body;
+            }
+            if (chunkId == 0x20746d66) { // "fmt "
+                formatTag = buffer.getShort(body) & 0xFFFF;
+                channels = buffer.getShort(body + 2) & 0xFFFF;
+                sampleRate = buffer.getInt(body + 4);
+                bitsPerSample = buffer.getShort(body + 14) & 0xFFFF;
+                if (formatTag == FORMAT_EXTENSIBLE && chunkSize >= 26) {
+                    formatTag = buffer.getShort(body + 24) & 0xFFFF;
+                }
+            } else if (chunkId == 0x61746164) { // "data"
+                dataOffset = body;
+                dataLength = chunkSize;
+                break;
+            }
+            offset = body + chunkSize + (chunkSize & 1);
+        }
+
+        if (formatTag == -1 || dataOffset == -1) {
+            throw new IOException("WAV stream is missing fmt or data chunk");
+        }
+        if (channels <= 0 || sampleRate <= 0) {
+            throw new IOException("Invalid WAV header: " + channels + " channels at " + sampleRate + " Hz");
+        }
+
+        int bytesPerSample = bitsPerSample / 8;
+        boolean supported = (formatTag == FORMAT_PCM && bytesPerSample >= 1 && bytesPerSample <= 3)
+                || (formatTag == FORMAT_FLOAT && bytesPerSample == 4);
+        if (!supported) {
+            throw new IOException("Unsupported WAV encoding: format " + formatTag + ", " + bitsPerSample + " bits");
+        }
+
+        int frameBytes = bytesPerSample * channels;
+        int frames = dataLength / frameBytes;
+        short[] mono = new short[frames];
+        for (int frame = 0; frame < frames; frame++) {
+            int base = dataOffset + frame * frameBytes;
+            float sum = 0f;
+            for (int channel = 0; channel < channels; channel++) {
+                sum += readSample(buffer, base + channel * bytesPerSample, formatTag, bytesPerSample);
+            }
+            mono[frame] = toPcm16(sum / channels);
+        }
+
+        if (targetSampleRate > 0 && targetSampleRate != sampleRate) {
+            return new PcmClip(resample(mono, sampleRate, targetSampleRate), targetSampleRate);
+        }
+        return new PcmClip(mono, sampleRate);
+    }
+
+    /**
+     * Linear-interpolation resampler. Good enough for short effects and
+     * speech; offline tooling should prefer a proper filter.
+     */
+    public static short[] resample(short[] source, int sourceRate, int targetRate) {
+        if (sourceRate == targetRate || source.length == 0) {
+            return source;
+        }
+        int targetLength = (int) ((long) source.length * targetRate / sourceRate);
+        short[] result = new short[targetLength];
+        double step = (double) sourceRate / targetRate;
+        int last = source.length - 1;
+        for (int i = 0; i < targetLength; i++) {
+            double position = i * step;
+            int index = (int) position;
+            if (index >= last) {
+                result[i] = source[last];
+            } else {
+                double fraction = position - index;
+                result[i] = (short) Math.round(source[index] + (source[index + 1] - source[index]) * fraction);
+            }
+        }
+        return result;
+    }
+
+    private static float readSample(ByteBuffer buffer, int offset, int formatTag, int bytesPerSample) {
+        if (formatTag == FORMAT_FLOAT) {
+            return buffer.getFloat(offset);
+        }
+        switch (bytesPerSample) {
+            case 1:
+                return ((buffer.get(offset) & 0xFF) - 128) / 128f;
+            case 2:
+                return buffer.getShort(offset) / 32768f;
+            default:
+                int value = (buffer.get(offset) & 0xFF)
+                        | ((buffer.get(offset + 1) & 0xFF) << 8)
+                        | (buffer.get(offset + 2) << 16);
+                return value / 8388608f;
+        }
+    }
+
+    private static short toPcm16(float sample) {
+        float scaled = sample * 32768f;
+        if (scaled > Short.MAX_VALUE) return Short.MAX_VALUE;
+        if (scaled < Short.MIN_VALUE) return Short.MIN_VALUE;
+        return (short) scaled;
+    }
+}
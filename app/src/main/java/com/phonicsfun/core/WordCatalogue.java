@@ -0,0 +1,105 @@
+package com.phonicsfun.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * WordCatalogue - Immutable word list indexed by starting letter
+ * Each letter's words are bucketed once at construction, so lookups are an
+ * array index and return shared unmodifiable lists without allocating.
+ */
+public final class WordCatalogue {
+    private static final int LETTER_COUNT = 26;
+
+    // One frozen list per letter A-Z, by letter index
+    private final List<List<GameState.WordMessage>> letterBuckets;
+    // Letters outside A-Z (accented letters, symbols)
+    private final CharTable<List<GameState.WordMessage>> otherBuckets = new CharTable<>();
+    private final int size;
+
+    public WordCatalogue(Collection<GameState.WordMessage> words) {
+        List<List<GameState.WordMessage>> building =
+                new ArrayList<>(Collections.<List<GameState.WordMessage>>nCopies(LETTER_COUNT, null));
+        CharTable<List<GameState.WordMessage>> buildingOther = new CharTable<>();
+        for (GameState.WordMessage word : words) {
+            char letter = keyOf(word.getLetter());
+            int index = indexOf(letter);
+            List<GameState.WordMessage> bucket;
+            if (index >= 0) {
+                bucket = building.get(index);
+                if (bucket == null) {
+                    bucket = new ArrayList<>();
+                    building.set(index, bucket);
+                }
+            } else {
+                bucket = buildingOther.get(letter);
+                if (bucket == null) {
+                    bucket = new ArrayList<>();
+                    buildingOther.put(letter, bucket);
+                }
+            }
+            bucket.add(word);
+        }
+
+        List<List<GameState.WordMessage>> frozen = new ArrayList<>(LETTER_COUNT);
+        for (List<GameState.WordMessage> bucket : building) {
+            frozen.add(freeze(bucket));
+        }
+        letterBuckets = Collections.unmodifiableList(frozen);
+        for (char letter : buildingOther.keys()) {
+            otherBuckets.put(letter, freeze(buildingOther.get(letter)));
+        }
+        size = words.size();
+    }
+
+    /**
+     * Words for a letter in insertion order; empty (never null) when there are none
+     */
+    public List<GameState.WordMessage> getWords(char letter) {
+        char key = Character.toUpperCase(letter);
+        int index = indexOf(key);
+        if (index >= 0) {
+            return letterBuckets.get(index);
+        }
+        List<GameState.WordMessage> bucket = otherBuckets.get(key);
+        return bucket != null ? bucket : Collections.<GameState.WordMessage>emptyList();
+    }
+
+    public List<GameState.WordMessage> getWords(String letter) {
+        if (letter == null || letter.isEmpty()) return Collections.emptyList();
+        return getWords(letter.charAt(0));
+    }
+
+    /**
+     * Word at a position within a letter's list, or null past the end
+     */
+    public GameState.WordMessage getWord(char letter, int index) {
+        List<GameState.WordMessage> bucket = getWords(letter);
+        return index >= 0 && index < bucket.size() ? bucket.get(index) : null;
+    }
+
+    public int getWordCount(char letter) {
+        return getWords(letter).size();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static List<GameState.WordMessage> freeze(List<GameState.WordMessage> bucket) {
+        if (bucket == null) return Collections.emptyList();
+        GameState.WordMessage[] words = bucket.toArray(new GameState.WordMessage[0]);
+        return Collections.unmodifiableList(Arrays.asList(words));
+    }
+
+    private static char keyOf(String letter) {
+        return letter == null || letter.isEmpty() ? 0 : Character.toUpperCase(letter.charAt(0));
+    }
+
+    private static int indexOf(char upperLetter) {
+        return upperLetter >= 'A' && upperLetter <= 'Z' ? upperLetter - 'A' : -1;
+    }
+}
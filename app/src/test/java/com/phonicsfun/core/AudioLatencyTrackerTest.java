@@ -0,0 +1,78 @@
+package com.phonicsfun.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Unit tests for AudioLatencyTracker.
+ * Latencies are fed in as explicit nanosecond timestamps.
+ */
+public class AudioLatencyTrackerTest {
+    private static final long MS = 1000000L;
+
+    @Test
+    public void testSeparatesKeysAndPaths() {
+        AudioLatencyTracker tracker = new AudioLatencyTracker();
+        tracker.record("voice_girl", AudioLatencyTracker.Path.SOUNDPOOL, 0, 2 * MS);
+        tracker.record("voice_girl", AudioLatencyTracker.Path.NOT_LOADED, 0, MS);
+        tracker.record("explosion", AudioLatencyTracker.Path.SOUNDPOOL, 0, MS);
+
+        assertEquals(1, tracker.getHistogram("voice_girl", AudioLatencyTracker.Path.SOUNDPOOL).getCount());
+        assertEquals(1, tracker.getHistogram("voice_girl", AudioLatencyTracker.Path.NOT_LOADED).getCount());
+        assertNull(tracker.getHistogram("voice_girl", AudioLatencyTracker.Path.TTS));
+        assertEquals(3, tracker.getHistograms().size());
+        assertEquals("explosion", tracker.getHistograms().get(0).getKey());
+    }
+
+    @Test
+    public void testTtsLatencyIsMeasuredToOnStart() {
+        AudioLatencyTracker tracker = new AudioLatencyTracker();
+        tracker.beginUtterance("u1", "voice_goat", 100 * MS);
+        tracker.utteranceStarted("u1", 350 * MS);
+        tracker.utteranceStarted("u1", 900 * MS);
+
+        AudioLatencyTracker.Histogram tts = tracker.getHistogram("voice_goat", AudioLatencyTracker.Path.TTS);
+        assertEquals(1, tts.getCount());
+        assertEquals(250000, tts.getMaxMicros());
+    }
+
+    @Test
+    public void testAbandonedUtterancesAreNotRecorded() {
+        AudioLatencyTracker tracker = new AudioLatencyTracker();
+        tracker.beginUtterance("u1", "voice_goat", 0);
+        tracker.utteranceAbandoned("u1");
+        tracker.utteranceStarted("u1", 10 * MS);
+
+        assertNull(tracker.getHistogram("voice_goat", AudioLatencyTracker.Path.TTS));
+    }
+
+    @Test
+    public void testPercentilesBoundedByBuckets() {
+        AudioLatencyTracker tracker = new AudioLatencyTracker();
+        for (int i = 0; i < 99; i++) {
+            tracker.record("celebration", AudioLatencyTracker.Path.SOUNDPOOL, 0, MS);
+        }
+        tracker.record("celebration", AudioLatencyTracker.Path.SOUNDPOOL, 0, 400 * MS);
+
+        AudioLatencyTracker.Histogram h = tracker.getHistogram("celebration", AudioLatencyTracker.Path.SOUNDPOOL);
+        long p50 = h.getPercentileMicros(50);
+        assertTrue("p50 " + p50, p50 >= 1000 && p50 < 2048);
+        assertEquals(400000, h.getPercentileMicros(100));
+        assertEquals((99 * 1000 + 400000) / 100, h.getMeanMicros());
+    }
+
+    @Test
+    public void testExportHasHeaderAndRows() {
+        AudioLatencyTracker tracker = new AudioLatencyTracker();
+        tracker.record("explosion", AudioLatencyTracker.Path.MIXER, 0, MS);
+        tracker.record("explosion", AudioLatencyTracker.Path.SOUNDPOOL, 0, 2 * MS);
+        String[] lines = tracker.export().split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("key,path,measure,"));
+        // SoundPool gives no start callback, so its row is labelled as dispatch time
+        assertTrue(lines[1].startsWith("explosion,soundpool,dispatch,1,2000,"));
+        assertTrue(lines[2].startsWith("explosion,mixer,first_write,1,1000,"));
+    }
+}
@@ -0,0 +1,99 @@
+package com.phonicsfun.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.junit.Test;
+
+/**
+ * Unit tests for the AudioPack container.
+ * Round-trips synthetic voices through the writer and the mapped reader.
+ */
+public class AudioPackTest {
+
+    @Test
+    public void testPcmEntriesRoundTripExactly() throws IOException {
+        short[] girl = {0, 1000, -1000, Short.MAX_VALUE, Short.MIN_VALUE};
+        AudioPack pack = AudioPack.wrap(ByteBuffer.wrap(build(new AudioPack.Writer()
+                .add("girl", "british_female", girl, 22050, AudioPack.FORMAT_PCM16)
+                .add("goat", "british_female", new short[]{5, 6}, 22050, AudioPack.FORMAT_PCM16))));
+
+        int entry = pack.find("girl", "british_female");
+        assertTrue(entry >= 0);
+        assertEquals("girl/british_female", pack.getName(entry));
+
+        PcmClip clip = pack.getClip(entry);
+        assertEquals(22050, clip.getSampleRate());
+        assertEquals(girl.length, clip.getFrameCount());
+        for (int i = 0; i < girl.length; i++) {
+            assertEquals(girl[i], clip.getSample(i));
+        }
+        assertSame(clip, pack.getClip(entry));
+    }
+
+    @Test
+    public void testLookupMissesAreNegative() throws IOException {
+        AudioPack pack = AudioPack.wrap(ByteBuffer.wrap(build(new AudioPack.Writer()
+                .add("girl", "british_female", new short[]{1}, 22050, AudioPack.FORMAT_PCM16))));
+
+        assertEquals(-1, pack.find("girl", "american_male"));
+        assertEquals(-1, pack.find("goat", "british_female"));
+        assertFalse(pack.contains("gir", "british_female"));
+    }
+
+    @Test
+    public void testAdpcmEntriesDecodeCloseToSource() throws IOException {
+        short[] sine = new short[2000];
+        for (int i = 0; i < sine.length; i++) {
+            sine[i] = (short) (Math.sin(i * 2 * Math.PI * 440 / 22050) * 12000);
+        }
+        byte[] bytes = build(new AudioPack.Writer()
+                .add("ant", "american_male", sine, 22050, AudioPack.FORMAT_IMA_ADPCM));
+        AudioPack pack = AudioPack.wrap(ByteBuffer.wrap(bytes));
+
+        PcmClip clip = pack.getClip(pack.find("ant", "american_male"));
+        assertEquals(sine.length, clip.getFrameCount());
+        long errorSum = 0;
+        for (int i = 0; i < sine.length; i++) {
+            errorSum += Math.abs(sine[i] - clip.getSample(i));
+        }
+        assertTrue("mean ADPCM error too large: " + errorSum / sine.length, errorSum / sine.length < 300);
+        assertTrue("ADPCM should be about a quarter of PCM", bytes.length < sine.length);
+    }
+
+    @Test
+    public void testOpenMapsFileFromDisk() throws IOException {
+        File file = File.createTempFile("voices", ".pack");
+        try {
+            AudioPack.Writer writer = new AudioPack.Writer();
+            for (int i = 0; i < 50; i++) {
+                writer.add("word" + i, "british_male", new short[]{(short) i}, 16000, AudioPack.FORMAT_PCM16);
+            }
+            writer.writeTo(file);
+
+            AudioPack pack = AudioPack.open(file);
+            assertEquals(50, pack.getEntryCount());
+            for (int i = 0; i < 50; i++) {
+                assertEquals(i, pack.getClip(pack.find("word" + i, "british_male")).getSample(0));
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectsForeignData() throws IOException {
+        AudioPack.wrap(ByteBuffer.wrap(new byte[]{'R', 'I', 'F', 'F', 0, 0, 0, 0, 0, 0, 0, 0}));
+    }
+
+    private static byte[] build(AudioPack.Writer writer) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.writeTo(out);
+        return out.toByteArray();
+    }
+}
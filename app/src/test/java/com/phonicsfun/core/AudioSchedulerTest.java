@@ -0,0 +1,101 @@
+package com.phonicsfun.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for AudioScheduler.
+ * Uses plain JUnit 4 and an explicit clock.
+ */
+public class AudioSchedulerTest {
+    private AudioScheduler scheduler;
+    private List<Integer> preempted;
+
+    @Before
+    public void setUp() {
+        scheduler = new AudioScheduler();
+        preempted = new ArrayList<>();
+        scheduler.setPreemptionListener((streamId, priority) -> preempted.add(streamId));
+    }
+
+    @Test
+    public void testRetriggerIntervalDropsRapidRepeats() {
+        scheduler.setMinRetriggerInterval("explosion", 100);
+
+        assertTrue(scheduler.request("explosion", AudioScheduler.Priority.MEDIUM, 0) != AudioScheduler.REJECTED);
+        assertEquals(AudioScheduler.REJECTED, scheduler.request("explosion", AudioScheduler.Priority.MEDIUM, 50));
+        assertTrue(scheduler.request("explosion", AudioScheduler.Priority.MEDIUM, 100) != AudioScheduler.REJECTED);
+        assertEquals(1, scheduler.getDroppedCount());
+    }
+
+    @Test
+    public void testEffectBudgetDropsWhenFull() {
+        scheduler.configure(AudioScheduler.Priority.MEDIUM, 2, 0, 1000, false);
+
+        start("a", AudioScheduler.Priority.MEDIUM, 0, 11);
+        start("b", AudioScheduler.Priority.MEDIUM, 0, 12);
+
+        assertEquals(AudioScheduler.REJECTED, scheduler.request("c", AudioScheduler.Priority.MEDIUM, 10));
+        assertEquals(2, scheduler.getActiveCount(AudioScheduler.Priority.MEDIUM, 10));
+        assertTrue(preempted.isEmpty());
+    }
+
+    @Test
+    public void testFinishedPlaysFreeTheBudget() {
+        scheduler.configure(AudioScheduler.Priority.MEDIUM, 1, 0, 500, false);
+
+        start("a", AudioScheduler.Priority.MEDIUM, 0, 11);
+
+        assertEquals(AudioScheduler.REJECTED, scheduler.request("b", AudioScheduler.Priority.MEDIUM, 499));
+        assertTrue(scheduler.request("b", AudioScheduler.Priority.MEDIUM, 500) != AudioScheduler.REJECTED);
+    }
+
+    @Test
+    public void testStealingReplacesOldestInClass() {
+        scheduler.configure(AudioScheduler.Priority.HIGH, 2, 0, 5000, true);
+
+        start("one", AudioScheduler.Priority.HIGH, 0, 21);
+        start("two", AudioScheduler.Priority.HIGH, 10, 22);
+        start("three", AudioScheduler.Priority.HIGH, 20, 23);
+
+        assertEquals(1, preempted.size());
+        assertEquals(Integer.valueOf(21), preempted.get(0));
+        assertEquals(2, scheduler.getActiveCount(AudioScheduler.Priority.HIGH, 20));
+    }
+
+    @Test
+    public void testVoicePreemptsEffectsAndDucksNewOnes() {
+        scheduler.configure(AudioScheduler.Priority.MEDIUM, 4, 0, 1000, false);
+        scheduler.setDuckedEffectBudget(1);
+
+        start("a", AudioScheduler.Priority.MEDIUM, 0, 11);
+        start("b", AudioScheduler.Priority.MEDIUM, 0, 12);
+        start("voice_girl", AudioScheduler.Priority.HIGH, 5, 31);
+
+        assertEquals(2, preempted.size());
+        assertEquals(0, scheduler.getActiveCount(AudioScheduler.Priority.MEDIUM, 5));
+
+        start("c", AudioScheduler.Priority.MEDIUM, 6, 13);
+        assertEquals(AudioScheduler.REJECTED, scheduler.request("d", AudioScheduler.Priority.MEDIUM, 7));
+    }
+
+    @Test
+    public void testFailedStartReleasesSlot() {
+        scheduler.configure(AudioScheduler.Priority.MEDIUM, 1, 0, 1000, false);
+
+        int ticket = scheduler.request("a", AudioScheduler.Priority.MEDIUM, 0);
+        scheduler.attachStream(ticket, 0);
+
+        assertEquals(0, scheduler.getActiveCount(AudioScheduler.Priority.MEDIUM, 0));
+    }
+
+    private void start(String key, AudioScheduler.Priority priority, long now, int streamId) {
+        int ticket = scheduler.request(key, priority, now);
+        assertTrue("expected " + key + " to be admitted", ticket != AudioScheduler.REJECTED);
+        scheduler.attachStream(ticket, streamId);
+    }
+}
@@ -0,0 +1,41 @@
+package com.phonicsfun.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Unit tests for BitmapCache sizing and keys.
+ */
+public class BitmapCacheTest {
+
+    @Test
+    public void testSampleSizeKeepsTargetCovered() {
+        assertEquals(1, BitmapCache.calculateInSampleSize(512, 512, 512, 512));
+        assertEquals(1, BitmapCache.calculateInSampleSize(512, 512, 300, 300));
+        assertEquals(2, BitmapCache.calculateInSampleSize(512, 512, 256, 256));
+        assertEquals(8, BitmapCache.calculateInSampleSize(1024, 1024, 128, 128));
+        // The shorter side decides
+        assertEquals(2, BitmapCache.calculateInSampleSize(2048, 512, 128, 128 * 2));
+        // Never upsample
+        assertEquals(1, BitmapCache.calculateInSampleSize(64, 64, 256, 256));
+    }
+
+    @Test
+    public void testSizeBuckets() {
+        assertEquals(BitmapCache.MIN_BUCKET, BitmapCache.sizeBucket(0));
+        assertEquals(BitmapCache.MIN_BUCKET, BitmapCache.sizeBucket(20));
+        assertEquals(6, BitmapCache.sizeBucket(33));
+        assertEquals(6, BitmapCache.sizeBucket(64));
+        assertEquals(7, BitmapCache.sizeBucket(65));
+        assertEquals(BitmapCache.MAX_BUCKET, BitmapCache.sizeBucket(100000));
+    }
+
+    @Test
+    public void testKeysSeparateResourcesAndBuckets() {
+        int resId = 0x7f020005;
+        assertTrue(BitmapCache.key(resId, 6) != BitmapCache.key(resId, 7));
+        assertTrue(BitmapCache.key(resId, 6) != BitmapCache.key(resId + 1, 6));
+        assertEquals(BitmapCache.key(resId, 6), BitmapCache.key(resId, BitmapCache.sizeBucket(50)));
+    }
+}
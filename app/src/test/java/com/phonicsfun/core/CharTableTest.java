@@ -0,0 +1,82 @@
+package com.phonicsfun.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Unit tests for CharTable.
+ * Covers both the direct Latin-1 range and the hashed fallback.
+ */
+public class CharTableTest {
+
+    @Test
+    public void testDirectAndHashedKeys() {
+        CharTable<String> table = new CharTable<>();
+        table.put('G', "green");
+        table.put('\u00e9', "e-acute");
+        table.put('\u03a9', "omega");
+
+        assertEquals("green", table.get('G'));
+        assertEquals("e-acute", table.get('\u00e9'));
+        assertEquals("omega", table.get('\u03a9'));
+        assertNull(table.get('A'));
+        assertNull(table.get('\u03a8'));
+        assertEquals(3, table.size());
+    }
+
+    @Test
+    public void testKeysListsEveryEntryWithoutPunctuation() {
+        CharTable<String> table = new CharTable<>();
+        table.put('G', "g");
+        table.put('A', "a");
+        table.put('#', "hash");
+
+        assertArrayEquals(new char[]{'#', 'A', 'G'}, table.keys());
+    }
+
+    @Test
+    public void testPutNullAndRemove() {
+        CharTable<String> table = new CharTable<>();
+        table.put('A', "a");
+        table.put('\u4e00', "one");
+        table.put('A', null);
+        table.remove('\u4e00');
+        table.remove('\u4e01');
+
+        assertFalse(table.containsKey('A'));
+        assertFalse(table.containsKey('\u4e00'));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    public void testMatchesHashMapUnderRandomChurn() {
+        CharTable<Integer> table = new CharTable<>();
+        Map<Character, Integer> reference = new HashMap<>();
+        Random random = new Random(7);
+        for (int step = 0; step < 20000; step++) {
+            // Narrow range so removals hit probe chains often
+            char key = (char) (random.nextBoolean() ? random.nextInt(300) : 0x4e00 + random.nextInt(200));
+            if (random.nextInt(3) == 0) {
+                table.remove(key);
+                reference.remove(key);
+            } else {
+                table.put(key, step);
+                reference.put(key, step);
+            }
+        }
+        assertEquals(reference.size(), table.size());
+        for (char c = 0; c < 0x5000; c++) {
+            assertEquals(reference.get(c), table.get(c));
+        }
+        for (char key : table.keys()) {
+            assertTrue(reference.containsKey(key));
+        }
+    }
+}
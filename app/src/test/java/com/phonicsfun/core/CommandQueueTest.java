@@ -0,0 +1,102 @@
+package com.phonicsfun.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Test;
+
+/**
+ * Unit tests for CommandQueue ordering and concurrent producers.
+ */
+public class CommandQueueTest {
+
+    private static final class Numbered implements Runnable {
+        final int producer;
+        final int sequence;
+
+        Numbered(int producer, int sequence) {
+            this.producer = producer;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void run() {
+        }
+    }
+
+    @Test
+    public void testFifoOnOneThread() {
+        CommandQueue queue = new CommandQueue();
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+
+        Runnable first = new Numbered(0, 0);
+        Runnable second = new Numbered(0, 1);
+        queue.offer(first);
+        queue.offer(second);
+        assertSame(first, queue.poll());
+        assertSame(second, queue.poll());
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+
+        // Still usable after draining to empty
+        queue.offer(first);
+        assertSame(first, queue.poll());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testRejectsNull() {
+        new CommandQueue().offer(null);
+    }
+
+    @Test
+    public void testConcurrentProducersLoseNothingAndKeepOrder() throws InterruptedException {
+        final int producers = 4;
+        final int perProducer = 20000;
+        final CommandQueue queue = new CommandQueue();
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            final int id = p;
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < perProducer; i++) {
+                        queue.offer(new Numbered(id, i));
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+
+        int[] nextExpected = new int[producers];
+        int received = 0;
+        long deadline = System.currentTimeMillis() + 20000;
+        while (received < producers * perProducer && System.currentTimeMillis() < deadline) {
+            Numbered command = (Numbered) queue.poll();
+            if (command == null) {
+                Thread.yield();
+                continue;
+            }
+            assertEquals(nextExpected[command.producer], command.sequence);
+            nextExpected[command.producer]++;
+            received++;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(producers * perProducer, received);
+        assertNull(queue.poll());
+    }
+}
@@ -0,0 +1,137 @@
+package com.phonicsfun.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import android.content.ComponentCallbacks2;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+/**
+ * Unit tests for ContentCatalogue and its JSON scanner.
+ */
+public class ContentCatalogueTest {
+
+    private static ContentCatalogue fromString(final String json) {
+        return new ContentCatalogue(new ContentSource() {
+            @Override
+            public InputStream open() {
+                return new ByteArrayInputStream(json.getBytes(Charset.forName("UTF-8")));
+            }
+        });
+    }
+
+    private static final String SAMPLE = "{\"version\": 1, \"notes\": {\"x\": [1, \"}\"]},"
+            + " \"symbols\": {"
+            + "  \"G\": {\"color\": \"#4CAF50\", \"background\": \"#FF2E7D32\", \"textSize\": 48,"
+            + "         \"words\": [\"grape\", {\"word\": \"goat\", \"voice\": \"voice_billy\"}]},"
+            + "  \"A\": {\"color\": \"#FFFF5722\", \"words\": [\"apple\"]},"
+            + "  \"#\": {\"textSize\": 56, \"words\": [\"hash \\\"tag\\\"\"]}"
+            + "}}";
+
+    @Test
+    public void testEntriesParseOnFirstUse() {
+        ContentCatalogue catalogue = fromString(SAMPLE);
+        assertEquals(3, catalogue.getSymbols().length);
+        assertEquals(0, catalogue.getParsedCount());
+
+        ContentEntry g = catalogue.get('G');
+        assertEquals(1, catalogue.getParsedCount());
+        assertSame(g, catalogue.get('G'));
+        assertEquals(0xFF4CAF50, g.getColor());
+        assertEquals(0xFF2E7D32, g.getBackgroundColor());
+        assertEquals(48f, g.getTextSize(), 0f);
+        assertEquals(2, g.getWordCount());
+        assertEquals("voice_grape", g.getSoundKey(0));
+        assertEquals("goat", g.getWord(1));
+        assertEquals("voice_billy", g.getSoundKey(1));
+        assertEquals("G", g.getKey());
+        assertNull(g.getImage(0));
+    }
+
+    @Test
+    public void testDefaultsAndEscapes() {
+        ContentCatalogue catalogue = fromString(SAMPLE);
+        ContentEntry hash = catalogue.get('#');
+        assertEquals(0xFF757575, hash.getColor());
+        assertEquals(56f, hash.getTextSize(), 0f);
+        assertEquals("hash \"tag\"", hash.getWord(0));
+        assertNull(catalogue.get('Z'));
+        assertTrue(catalogue.contains('A'));
+    }
+
+    @Test
+    public void testDigraphKeysAndTrim() {
+        ContentCatalogue catalogue = fromString("{\"symbols\": {\"S\": {\"words\": [\"sun\"]},"
+                + " \"sh\": {\"words\": [{\"word\": \"ship\", \"image\": \"ship_clipart\"}]}}}");
+        assertEquals("ship", catalogue.get("sh").getWord(0));
+        assertEquals("ship_clipart", catalogue.get("sh").getImage(0));
+        assertEquals(2, catalogue.getKeys().size());
+        assertEquals(1, catalogue.getSymbols().length);
+
+        assertEquals(1, catalogue.getParsedCount());
+        catalogue.trimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE);
+        assertEquals(1, catalogue.getParsedCount());
+        catalogue.trimMemory(ComponentCallbacks2.TRIM_MEMORY_MODERATE);
+        assertEquals(0, catalogue.getParsedCount());
+        assertEquals("sun", catalogue.get('S').getWord(0));
+    }
+
+    @Test
+    public void testUnreadableSourceIsEmpty() {
+        ContentCatalogue catalogue = new ContentCatalogue(new ContentSource() {
+            @Override
+            public InputStream open() throws IOException {
+                throw new IOException("missing");
+            }
+        });
+        assertNull(catalogue.get('G'));
+        assertEquals(0, catalogue.getSymbols().length);
+        assertNull(fromString("{\"symbols\": {\"G\": ").get('G'));
+    }
+
+    @Test
+    public void testBadEntryDoesNotHideOthers() {
+        ContentCatalogue catalogue = fromString("{\"symbols\": {\"G\": [1], \"A\": {\"words\": [\"ant\"]}}}");
+        assertNull(catalogue.get('G'));
+        assertEquals("ant", catalogue.get('A').getWord(0));
+    }
+
+    @Test
+    public void testShippedCatalogueCoversGameLetters() throws IOException {
+        File asset = new File("app/src/main/assets/" + ContentCatalogue.ASSET_PATH);
+        if (!asset.exists()) {
+            asset = new File("src/main/assets/" + ContentCatalogue.ASSET_PATH);
+        }
+        final File file = asset;
+        ContentCatalogue catalogue = new ContentCatalogue(new ContentSource() {
+            @Override
+            public InputStream open() throws IOException {
+                return new FileInputStream(file);
+            }
+        });
+        for (char letter : new char[]{'G', 'A', 'B'}) {
+            assertTrue(catalogue.get(letter).getWordCount() > 0);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testScannerValues() {
+        Map<String, Object> value = (Map<String, Object>) new JsonScanner(
+                "{\"a\": [true, false, null, -1.5e2], \"b\": \"\\u0041\\n\"}").readValue();
+        assertEquals(Arrays.asList(Boolean.TRUE, Boolean.FALSE, null, -150.0), (List<Object>) value.get("a"));
+        assertEquals("A\n", value.get("b"));
+        assertEquals(0xFF112233, ContentEntry.parseColor("#112233", 0));
+        assertEquals(7, ContentEntry.parseColor("blue", 7));
+    }
+}
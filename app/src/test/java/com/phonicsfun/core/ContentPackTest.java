@@ -0,0 +1,99 @@
+package com.phonicsfun.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import org.junit.Test;
+
+/**
+ * Unit tests for ContentPack writing, lookup and lazy section decoding.
+ */
+public class ContentPackTest {
+
+    private static final String ENGLISH = "{\"language\": \"en\", \"symbols\": {"
+            + " \"G\": {\"color\": \"#4CAF50\", \"textSize\": 48, \"words\": [\"grape\","
+            + "        {\"word\": \"goat\", \"voice\": \"voice_billy\", \"image\": \"goat_clipart\"}]},"
+            + " \"sh\": {\"words\": [\"ship\", \"shoe\"]},"
+            + " \"#\": {\"textSize\": 56}}}";
+
+    private static final String SPANISH = "{\"language\": \"es\", \"symbols\": {"
+            + " \"G\": {\"words\": [\"gato\"]},"
+            + " \"\u00D1\": {\"words\": [\"\u00F1and\u00FA\"]}}}";
+
+    private static ContentPack build(String... catalogues) throws IOException {
+        ContentPack.Writer writer = new ContentPack.Writer();
+        for (String json : catalogues) {
+            writer.addJson(json);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.writeTo(out);
+        return ContentPack.wrap(ByteBuffer.wrap(out.toByteArray()));
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        ContentPack pack = build(ENGLISH);
+        assertEquals(3, pack.getSectionCount());
+
+        ContentEntry g = pack.read(pack.find("en", "G"));
+        assertEquals("G", g.getKey());
+        assertEquals(0xFF4CAF50, g.getColor());
+        assertEquals(ContentEntry.DEFAULT_BACKGROUND, g.getBackgroundColor());
+        assertEquals(48f, g.getTextSize(), 0f);
+        assertEquals(Arrays.asList("grape", "goat"), Arrays.asList(g.copyWords()));
+        assertEquals(Arrays.asList("voice_grape", "voice_billy"), Arrays.asList(g.copySoundKeys()));
+        assertNull(g.getImage(0));
+        assertEquals("goat_clipart", g.getImage(1));
+
+        ContentEntry hash = pack.read(pack.find("en", "#"));
+        assertEquals(0, hash.getWordCount());
+        assertEquals(56f, hash.getTextSize(), 0f);
+    }
+
+    @Test
+    public void testDigraphsAndLanguages() throws IOException {
+        ContentPack pack = build(ENGLISH, SPANISH);
+        assertEquals("shoe", pack.read(pack.find("en", "sh")).getWord(1));
+        assertEquals("gato", pack.read(pack.find("es", "G")).getWord(0));
+        assertEquals("\u00F1and\u00FA", pack.read(pack.find("es", "\u00D1")).getWord(0));
+        assertFalse(pack.contains("es", "sh"));
+        assertFalse(pack.contains("en", "s"));
+        assertFalse(pack.contains("fr", "G"));
+        assertEquals(new HashSet<>(Arrays.asList("G", "\u00D1")), new HashSet<>(pack.getKeys("es")));
+    }
+
+    @Test
+    public void testCatalogueOverPack() throws IOException {
+        ContentCatalogue catalogue = new ContentCatalogue(build(ENGLISH, SPANISH));
+        assertEquals(3, catalogue.getKeys().size());
+        assertEquals(2, catalogue.getSymbols().length);
+        assertEquals(0, catalogue.getParsedCount());
+
+        assertEquals("grape", catalogue.get('G').getWord(0));
+        assertNotNull(catalogue.get("sh"));
+        assertEquals(2, catalogue.getParsedCount());
+
+        catalogue.setLanguage("es");
+        assertEquals(0, catalogue.getParsedCount());
+        assertEquals("gato", catalogue.get('G').getWord(0));
+        assertNull(catalogue.get("sh"));
+        assertTrue(catalogue.contains('\u00D1'));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateKeyRejected() {
+        new ContentPack.Writer().addJson(ENGLISH).addJson(ENGLISH);
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectsForeignData() throws IOException {
+        ContentPack.wrap(ByteBuffer.wrap(new byte[]{'P', 'F', 'A', 'P', 1, 0, 0, 0, 0, 0, 0, 0}));
+    }
+}
@@ -0,0 +1,100 @@
+package com.phonicsfun.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Unit tests for DifficultyEstimator smoothing and difficulty mapping.
+ */
+public class DifficultyEstimatorTest {
+
+    @Test
+    public void testUnseenLetterUsesPrior() {
+        DifficultyEstimator estimator = new DifficultyEstimator();
+        assertEquals(DifficultyEstimator.PRIOR_ACCURACY, estimator.getAccuracy('G'), 0f);
+        assertEquals(0, estimator.getAnswerCount('G'));
+        float skill = estimator.getSkill('G');
+        assertTrue(skill > 0f && skill < 1f);
+    }
+
+    @Test
+    public void testEarlyMistakesFade() {
+        DifficultyEstimator estimator = new DifficultyEstimator();
+        for (int i = 0; i < 10; i++) {
+            estimator.record('G', false, -1);
+        }
+        assertEquals(DifficultyEstimator.MIN_PLANETS, estimator.getPlanetCount('G'));
+        assertEquals(DifficultyEstimator.MIN_SPEED, estimator.getSpeedMultiplier('G'), 1e-3f);
+
+        for (int i = 0; i < 30; i++) {
+            estimator.record('G', true, -1);
+        }
+        assertTrue(estimator.getAccuracy('G') > 0.99f);
+        assertEquals(DifficultyEstimator.MAX_PLANETS, estimator.getPlanetCount('G'));
+        assertEquals(DifficultyEstimator.MAX_SPEED, estimator.getSpeedMultiplier('G'), 1e-2f);
+    }
+
+    @Test
+    public void testLettersAreIndependent() {
+        DifficultyEstimator estimator = new DifficultyEstimator();
+        estimator.record('A', false, 500);
+        assertTrue(estimator.getAccuracy('A') < DifficultyEstimator.PRIOR_ACCURACY);
+        assertEquals(DifficultyEstimator.PRIOR_ACCURACY, estimator.getAccuracy('B'), 0f);
+        assertEquals(DifficultyEstimator.PRIOR_REACTION_MILLIS, estimator.getReactionMillis('B'), 0f);
+    }
+
+    @Test
+    public void testSlowReactionsLowerSkill() {
+        DifficultyEstimator fast = new DifficultyEstimator();
+        DifficultyEstimator slow = new DifficultyEstimator();
+        for (int i = 0; i < 20; i++) {
+            fast.record('G', true, 700);
+            slow.record('G', true, 5000);
+        }
+        assertEquals(700f, fast.getReactionMillis('G'), 20f);
+        assertTrue(fast.getSkill('G') > slow.getSkill('G'));
+        assertTrue(fast.getAsteroidDensity('G') > slow.getAsteroidDensity('G'));
+        assertEquals(1f - DifficultyEstimator.REACTION_WEIGHT, slow.getSkill('G'), 1e-3f);
+    }
+
+    @Test
+    public void testMappingIsSmooth() {
+        DifficultyEstimator estimator = new DifficultyEstimator();
+        float previous = estimator.getSpeedMultiplier('G');
+        for (int i = 0; i < 40; i++) {
+            estimator.record('G', i % 4 != 0, 1500);
+            float speed = estimator.getSpeedMultiplier('G');
+            assertTrue(Math.abs(speed - previous) < 0.2f);
+            previous = speed;
+        }
+    }
+
+    @Test
+    public void testRestoreContinuesWhereItLeftOff() {
+        DifficultyEstimator original = new DifficultyEstimator();
+        for (int i = 0; i < 6; i++) {
+            original.record('G', i != 2, 1200);
+        }
+        DifficultyEstimator restored = new DifficultyEstimator();
+        restored.restore('G', original.getAccuracy('G'), original.getReactionMillis('G'),
+                original.getAnswerCount('G'), original.getTimedAnswerCount('G'));
+
+        original.record('G', false, 3000);
+        restored.record('G', false, 3000);
+        assertEquals(original.getAccuracy('G'), restored.getAccuracy('G'), 0f);
+        assertEquals(original.getReactionMillis('G'), restored.getReactionMillis('G'), 0f);
+        assertEquals(7, restored.getTimedAnswerCount('G'));
+    }
+
+    @Test
+    public void testManyLettersAndReset() {
+        DifficultyEstimator estimator = new DifficultyEstimator();
+        for (char letter = 'A'; letter < 'A' + 60; letter++) {
+            estimator.record(letter, true, 1000);
+        }
+        assertEquals(1, estimator.getAnswerCount((char) ('A' + 59)));
+        estimator.reset();
+        assertEquals(0, estimator.getAnswerCount('A'));
+    }
+}
@@ -0,0 +1,97 @@
+package com.phonicsfun.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Unit tests for DirtyRegion merging and hand-off.
+ */
+public class DirtyRegionTest {
+
+    @Test
+    public void testOverlappingDamageMerges() {
+        DirtyRegion region = new DirtyRegion();
+        // An asteroid moving a few pixels: old and new bounds overlap
+        region.add(100, 100, 140, 140);
+        region.add(104, 102, 144, 142);
+
+        assertEquals(1, region.getCount());
+        assertEquals(100f, region.getLeft(0), 0f);
+        assertEquals(144f, region.getRight(0), 0f);
+    }
+
+    @Test
+    public void testDistantDamageStaysSeparate() {
+        DirtyRegion region = new DirtyRegion();
+        region.add(0, 0, 20, 20);
+        region.add(500, 500, 520, 520);
+
+        assertEquals(2, region.getCount());
+        assertFalse(region.intersects(200, 200, 300, 300));
+        assertTrue(region.intersects(510, 510, 600, 600));
+    }
+
+    @Test
+    public void testCountIsBoundedAndCoversEverything() {
+        DirtyRegion region = new DirtyRegion();
+        Random random = new Random(3);
+        float[][] added = new float[40][];
+        for (int i = 0; i < added.length; i++) {
+            float x = random.nextInt(1000);
+            float y = random.nextInt(1000);
+            added[i] = new float[]{x, y, x + 30, y + 30};
+            region.add(x, y, x + 30, y + 30);
+            assertTrue(region.getCount() <= DirtyRegion.MAX_RECTS);
+        }
+        for (float[] r : added) {
+            assertTrue(covered(region, r[0], r[1]) && covered(region, r[2] - 1, r[3] - 1));
+        }
+    }
+
+    @Test
+    public void testMarginAndEmptyRects() {
+        DirtyRegion region = new DirtyRegion();
+        region.setMargin(8);
+        region.add(10, 10, 10, 50);
+        assertTrue(region.isEmpty());
+        region.add(10, 10, 20, 20);
+        assertEquals(2f, region.getLeft(0), 0f);
+        assertEquals(28f, region.getBottom(0), 0f);
+    }
+
+    @Test
+    public void testMoveAndDrainHandOff() {
+        DirtyRegion writer = new DirtyRegion();
+        writer.setMargin(8);
+        DirtyRegion pending = new DirtyRegion();
+        DirtyRegion frame = new DirtyRegion();
+
+        writer.add(10, 10, 20, 20);
+        writer.moveTo(pending);
+        assertTrue(writer.isEmpty());
+        // Margin is applied once, on the writer side
+        assertEquals(2f, pending.getLeft(0), 0f);
+
+        pending.drainTo(frame);
+        assertTrue(pending.isEmpty());
+        assertEquals(1, frame.getCount());
+
+        writer.markAll();
+        writer.moveTo(pending);
+        assertTrue(pending.isFull());
+        pending.add(0, 0, 5, 5);
+        assertEquals(0, pending.getCount());
+    }
+
+    private static boolean covered(DirtyRegion region, float x, float y) {
+        for (int i = 0; i < region.getCount(); i++) {
+            if (x >= region.getLeft(i) && x <= region.getRight(i) && y >= region.getTop(i) && y <= region.getBottom(i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,85 @@
+package com.phonicsfun.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Unit tests for FrameStats and the FrameMetricsMonitor report format.
+ */
+public class FrameStatsTest {
+    private static final long MS = 1_000_000L;
+    private static final long JANK_60HZ = 25 * MS;
+
+    @Test
+    public void testSteadyFramesAreNotJanky() {
+        FrameStats stats = new FrameStats("WelcomeActivity");
+        for (int i = 0; i < 60; i++) {
+            stats.recordFrame(16_666_667L, JANK_60HZ);
+        }
+        assertEquals(60, stats.getFrameCount());
+        assertEquals(60, stats.getFps());
+        assertEquals(16.67f, stats.getAvgFrameTime(), 0.01f);
+        assertEquals(0, stats.getJankyFrames());
+        assertEquals(0, stats.getLongFrames());
+        assertEquals(100, stats.getCpuUtilization());
+        assertEquals(17f, stats.getPercentileFrameTime(99), 0.5f);
+    }
+
+    @Test
+    public void testThresholdsMatchWebDiagnostic() {
+        FrameStats stats = new FrameStats("GameplayActivity");
+        stats.recordFrame(33 * MS, JANK_60HZ);
+        stats.recordFrame(60 * MS, JANK_60HZ);
+        stats.recordFrame(150 * MS, JANK_60HZ);
+        stats.recordFrame(10 * MS, JANK_60HZ);
+        assertEquals(3, stats.getJankyFrames());
+        assertEquals(2, stats.getLongFrames());
+        assertEquals(1, stats.getGcPauses());
+        assertEquals(150f, stats.getMaxFrameTime(), 0f);
+        // 150 ms lands in the open-ended bucket
+        assertEquals(150f, stats.getPercentileFrameTime(100), 0f);
+    }
+
+    @Test
+    public void testRenderTimePrefersMeasuredValues() {
+        FrameStats stats = new FrameStats("GameplayActivity");
+        stats.recordFrame(20 * MS, JANK_60HZ);
+        assertFalse(stats.hasMeasuredRenderTime());
+        assertEquals(15f, stats.getRenderTime(), 0.001f);
+
+        stats.recordRender(4 * MS, 0);
+        stats.recordRender(6 * MS, 2);
+        assertTrue(stats.hasMeasuredRenderTime());
+        assertEquals(5f, stats.getRenderTime(), 0.001f);
+        assertEquals(2, stats.getDroppedReports());
+    }
+
+    @Test
+    public void testCopyAndReset() {
+        FrameStats stats = new FrameStats("WelcomeActivity");
+        stats.recordFrame(16 * MS, JANK_60HZ);
+        FrameStats copy = new FrameStats(stats);
+        stats.reset();
+        assertEquals(0, stats.getFrameCount());
+        assertEquals(0, stats.getHistogram()[16]);
+        assertEquals(1, copy.getFrameCount());
+        assertEquals(1, copy.getHistogram()[16]);
+    }
+
+    @Test
+    public void testReportUsesWebFieldNames() {
+        FrameStats stats = new FrameStats("WelcomeActivity");
+        stats.recordFrame(16 * MS, JANK_60HZ);
+        String json = FrameMetricsMonitor.formatReport(stats, 2048, 1024, 4096, 2.5f);
+        String[] fields = {"fps", "avgFrameTime", "gcPauses", "longFrames", "memoryUsage",
+                "totalJSHeapSize", "usedJSHeapSize", "jsHeapSizeLimit", "cpuUtilization",
+                "renderTime", "devicePixelRatio"};
+        for (String field : fields) {
+            assertTrue(field, json.contains("\"" + field + "\":"));
+        }
+        assertTrue(json.contains("\"usedJSHeapSize\":1024"));
+        assertTrue(json.contains("\"devicePixelRatio\":2.50"));
+    }
+}
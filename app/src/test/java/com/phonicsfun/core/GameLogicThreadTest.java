@@ -0,0 +1,157 @@
+package com.phonicsfun.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Unit tests for GameLogicThread command execution and batch publishing.
+ */
+public class GameLogicThreadTest {
+    private GameLogicThread logic;
+
+    @After
+    public void tearDown() throws InterruptedException {
+        if (logic != null) {
+            logic.quit();
+            logic.join(5000);
+        }
+    }
+
+    @Test
+    public void testCommandsRunInOrderOnTheLogicThread() throws InterruptedException {
+        logic = new GameLogicThread(null);
+        logic.start();
+        final List<Integer> order = new ArrayList<>();
+        final List<Boolean> onLogicThread = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            final int value = i;
+            logic.post(new Runnable() {
+                @Override
+                public void run() {
+                    order.add(value);
+                    onLogicThread.add(logic.isLogicThread());
+                }
+            });
+        }
+        assertTrue(logic.postAndWait(new Runnable() {
+            @Override
+            public void run() {
+            }
+        }, 5000));
+
+        assertEquals(100, order.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, (int) order.get(i));
+            assertTrue(onLogicThread.get(i));
+        }
+        assertFalse(logic.isLogicThread());
+    }
+
+    @Test
+    public void testSingleWriterNeedsNoLocks() throws InterruptedException {
+        logic = new GameLogicThread(null);
+        logic.start();
+        // Plain field, only ever touched on the logic thread
+        final int[] counter = new int[1];
+        final Runnable increment = new Runnable() {
+            @Override
+            public void run() {
+                counter[0]++;
+            }
+        };
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < 4; p++) {
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 5000; i++) {
+                        logic.post(increment);
+                    }
+                }
+            });
+            thread.start();
+            producers.add(thread);
+        }
+        for (Thread thread : producers) {
+            thread.join();
+        }
+        final int[] seen = new int[1];
+        assertTrue(logic.postAndWait(new Runnable() {
+            @Override
+            public void run() {
+                seen[0] = counter[0];
+            }
+        }, 5000));
+        assertEquals(20000, seen[0]);
+    }
+
+    @Test
+    public void testBatchListenerRunsAfterCommands() throws InterruptedException {
+        final AtomicInteger value = new AtomicInteger();
+        final AtomicInteger published = new AtomicInteger(-1);
+        logic = new GameLogicThread(new Runnable() {
+            @Override
+            public void run() {
+                published.set(value.get());
+            }
+        });
+        logic.start();
+        assertTrue(logic.postAndWait(new Runnable() {
+            @Override
+            public void run() {
+                value.set(7);
+            }
+        }, 5000));
+        // The wait ends inside the batch; the listener follows at its end
+        long deadline = System.currentTimeMillis() + 5000;
+        while (published.get() != 7 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(7, published.get());
+    }
+
+    @Test
+    public void testFailingCommandDoesNotStopTheThread() throws InterruptedException {
+        logic = new GameLogicThread(null);
+        logic.start();
+        logic.post(new Runnable() {
+            @Override
+            public void run() {
+                throw new IllegalStateException("boom");
+            }
+        });
+        final boolean[] ran = new boolean[1];
+        assertTrue(logic.postAndWait(new Runnable() {
+            @Override
+            public void run() {
+                ran[0] = true;
+            }
+        }, 5000));
+        assertTrue(ran[0]);
+    }
+
+    @Test
+    public void testQuitRunsPendingCommandsFirst() throws InterruptedException {
+        logic = new GameLogicThread(null);
+        final AtomicInteger ran = new AtomicInteger();
+        for (int i = 0; i < 10; i++) {
+            logic.post(new Runnable() {
+                @Override
+                public void run() {
+                    ran.incrementAndGet();
+                }
+            });
+        }
+        logic.start();
+        logic.quit();
+        logic.join(5000);
+        assertFalse(logic.isAlive());
+        assertEquals(10, ran.get());
+    }
+}
@@ -0,0 +1,203 @@
+package com.phonicsfun.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for GameSnapshot encoding, decoding and file round trips.
+ */
+public class GameSnapshotTest {
+    private File root;
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        root = TestFiles.newDirectory("game");
+        file = new File(root, "game.snapshot");
+    }
+
+    @After
+    public void tearDown() {
+        TestFiles.delete(root);
+    }
+
+    private static GameSnapshot sample() {
+        GameSnapshot snapshot = new GameSnapshot();
+        snapshot.savedAtMillis = 1234L;
+        snapshot.screen = GameState.Screen.GAMEPLAY;
+        snapshot.status = GameState.GameStatus.ACTIVE;
+        snapshot.muted = true;
+        snapshot.planetsCreated = true;
+        snapshot.currentLetter = "G";
+        snapshot.currentWord = "\u00E9toile";
+        snapshot.currentWordIndex = 2;
+        snapshot.correctHits = 3;
+        snapshot.totalHits = 5;
+        snapshot.correctAnswers = 17;
+        snapshot.totalAnswers = 21;
+        snapshot.speedMultiplier = 1.15f;
+        snapshot.planetCount = 4;
+        snapshot.asteroidDensity = 0.6f;
+        snapshot.musicVolume = 0.25f;
+        snapshot.effectsVolume = 0.75f;
+        return snapshot;
+    }
+
+    @Test
+    public void testStateRoundTrip() throws IOException {
+        GameSnapshot decoded = GameSnapshot.decode(sample().encode());
+
+        assertEquals(1234L, decoded.savedAtMillis);
+        assertEquals(GameState.Screen.GAMEPLAY, decoded.screen);
+        assertEquals(GameState.GameStatus.ACTIVE, decoded.status);
+        assertTrue(decoded.muted);
+        assertTrue(decoded.planetsCreated);
+        assertEquals("G", decoded.currentLetter);
+        assertEquals("\u00E9toile", decoded.currentWord);
+        assertEquals(2, decoded.currentWordIndex);
+        assertEquals(3, decoded.correctHits);
+        assertEquals(5, decoded.totalHits);
+        assertEquals(17, decoded.correctAnswers);
+        assertEquals(21, decoded.totalAnswers);
+        assertEquals(1.15f, decoded.speedMultiplier, 0f);
+        assertEquals(4, decoded.planetCount);
+        assertEquals(0.6f, decoded.asteroidDensity, 0f);
+        assertEquals(0.25f, decoded.musicVolume, 0f);
+        assertEquals(0.75f, decoded.effectsVolume, 0f);
+        assertTrue(decoded.objects.isEmpty());
+    }
+
+    @Test
+    public void testNullWordSurvives() throws IOException {
+        GameSnapshot snapshot = sample();
+        snapshot.currentWord = null;
+        assertNull(GameSnapshot.decode(snapshot.encode()).currentWord);
+    }
+
+    private static GameSnapshot.ObjectState object(int kind, String id, String type,
+            float left, float top, float right, float bottom) {
+        GameSnapshot.ObjectState object = new GameSnapshot.ObjectState();
+        object.kind = kind;
+        object.id = id;
+        object.type = type;
+        object.left = left;
+        object.top = top;
+        object.right = right;
+        object.bottom = bottom;
+        return object;
+    }
+
+    @Test
+    public void testCollisionObjectsRoundTrip() throws IOException {
+        GameSnapshot snapshot = sample();
+        GameSnapshot.ObjectState planet = object(GameSnapshot.KIND_PLANET, "p1", "planet", 60f, 160f, 140f, 240f);
+        planet.letter = "G";
+        planet.word = "goat";
+        planet.correct = true;
+        snapshot.objects.add(planet);
+        GameSnapshot.ObjectState asteroid = object(GameSnapshot.KIND_ASTEROID, "a1", "asteroid", 40f, 50f, 60f, 70f);
+        asteroid.letter = "B";
+        asteroid.active = false;
+        snapshot.objects.add(asteroid);
+        GameSnapshot.ObjectState projectile = object(GameSnapshot.KIND_PROJECTILE, "s1", "projectile", 5f, 6f, 9f, 18f);
+        projectile.velocityY = -9.5f;
+        projectile.createdMillis = 777L;
+        snapshot.objects.add(projectile);
+        snapshot.objects.add(object(GameSnapshot.KIND_OBJECT, "w1", "wall", 0f, 0f, 10f, 300f));
+
+        GameSnapshot decoded = GameSnapshot.decode(snapshot.encode());
+        assertEquals(4, decoded.objects.size());
+
+        GameSnapshot.ObjectState restoredPlanet = decoded.objects.get(0);
+        assertEquals(GameSnapshot.KIND_PLANET, restoredPlanet.kind);
+        assertEquals("p1", restoredPlanet.id);
+        assertEquals("planet", restoredPlanet.type);
+        assertEquals("G", restoredPlanet.letter);
+        assertEquals("goat", restoredPlanet.word);
+        assertTrue(restoredPlanet.correct);
+        assertTrue(restoredPlanet.active);
+        assertEquals(60f, restoredPlanet.left, 0f);
+        assertEquals(160f, restoredPlanet.top, 0f);
+        assertEquals(140f, restoredPlanet.right, 0f);
+        assertEquals(240f, restoredPlanet.bottom, 0f);
+
+        GameSnapshot.ObjectState restoredAsteroid = decoded.objects.get(1);
+        assertEquals("B", restoredAsteroid.letter);
+        assertNull(restoredAsteroid.word);
+        assertFalse(restoredAsteroid.correct);
+        assertFalse(restoredAsteroid.active);
+
+        GameSnapshot.ObjectState shot = decoded.objects.get(2);
+        assertEquals(GameSnapshot.KIND_PROJECTILE, shot.kind);
+        assertEquals(-9.5f, shot.velocityY, 0f);
+        assertEquals(777L, shot.createdMillis);
+        assertEquals(5f, shot.left, 0f);
+        assertEquals(18f, shot.bottom, 0f);
+
+        GameSnapshot.ObjectState wall = decoded.objects.get(3);
+        assertEquals(GameSnapshot.KIND_OBJECT, wall.kind);
+        assertEquals("wall", wall.type);
+        assertEquals(300f, wall.bottom - wall.top, 0f);
+    }
+
+    @Test
+    public void testUnknownObjectKindIsRejected() {
+        GameSnapshot snapshot = sample();
+        snapshot.objects.add(object(9, "x1", "mystery", 0f, 0f, 1f, 1f));
+        try {
+            GameSnapshot.decode(snapshot.encode());
+            fail("Unknown object kind accepted");
+        } catch (IOException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testSameStateIgnoresSaveTime() {
+        GameSnapshot snapshot = sample();
+        byte[] first = snapshot.encode();
+        snapshot.savedAtMillis = 99999L;
+        byte[] later = snapshot.encode();
+        assertFalse(Arrays.equals(first, later));
+        assertTrue(GameSnapshot.sameState(first, later));
+
+        snapshot.correctHits++;
+        assertFalse(GameSnapshot.sameState(first, snapshot.encode()));
+        assertFalse(GameSnapshot.sameState(first, null));
+    }
+
+    @Test
+    public void testFileRoundTrip() throws IOException {
+        byte[] bytes = sample().encode();
+        GameSnapshot.write(file, bytes);
+        assertTrue(Arrays.equals(bytes, GameSnapshot.readBytes(file)));
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+    }
+
+    @Test
+    public void testRejectsDamagedSnapshots() {
+        byte[] bytes = sample().encode();
+        try {
+            GameSnapshot.decode(Arrays.copyOf(bytes, bytes.length - 3));
+            fail("Truncated snapshot accepted");
+        } catch (IOException expected) {
+            // expected
+        }
+        bytes[0] = 'X';
+        try {
+            GameSnapshot.decode(bytes);
+            fail("Bad magic accepted");
+        } catch (IOException expected) {
+            // expected
+        }
+    }
+}
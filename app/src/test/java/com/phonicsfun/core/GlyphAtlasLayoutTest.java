@@ -0,0 +1,77 @@
+package com.phonicsfun.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Unit tests for GlyphAtlasLayout bucketing, packing and lookup.
+ * Drawing into the atlas bitmap is covered by the instrumented GlyphAtlasTest.
+ */
+public class GlyphAtlasLayoutTest {
+
+    @Test
+    public void testBucketDiameterCoversRequestedSize() {
+        for (float diameter = 2f; diameter < 2000f; diameter *= 1.03f) {
+            int rendered = GlyphAtlasLayout.bucketDiameter(GlyphAtlasLayout.bucketFor(diameter));
+            assertTrue(diameter + " -> " + rendered, rendered >= diameter);
+            assertTrue(diameter + " -> " + rendered, rendered <= diameter * 1.1f + 1);
+        }
+    }
+
+    @Test
+    public void testShelfPackerFillsRowsThenRejects() {
+        GlyphAtlasLayout.ShelfPacker packer = new GlyphAtlasLayout.ShelfPacker(100, 100);
+        assertEquals(0L, packer.insert(40, 40));
+        assertEquals(40L << 32, packer.insert(40, 30));
+        // Does not fit the first row; opens a shelf under the tallest cell
+        assertEquals(40L, packer.insert(40, 40));
+        assertEquals(-1L, packer.insert(40, 70));
+        packer.reset();
+        assertEquals(0L, packer.insert(100, 100));
+    }
+
+    @Test
+    public void testFindAfterAllocateAndInvalidate() {
+        GlyphAtlasLayout atlas = new GlyphAtlasLayout(256);
+        assertEquals(-1, atlas.find('G', 1, 40));
+        int g = atlas.allocate('G', 1, 40, 64);
+        int a = atlas.allocate('A', 1, 40, 64);
+        assertEquals(g, atlas.find('G', 1, 40));
+        assertEquals(a, atlas.find('A', 1, 40));
+        assertEquals(-1, atlas.find('G', 2, 40));
+
+        atlas.invalidate('G');
+        assertEquals(-1, atlas.find('G', 1, 40));
+        assertEquals(a, atlas.find('A', 1, 40));
+    }
+
+    @Test
+    public void testFullAtlasResetsInsteadOfFailing() {
+        GlyphAtlasLayout atlas = new GlyphAtlasLayout(256);
+        for (int i = 0; i < 16; i++) {
+            assertTrue(atlas.allocate((char) ('A' + i), 1, 40, 64) >= 0);
+        }
+        assertEquals(0, atlas.getResetCount());
+        assertTrue(atlas.allocate('Z', 1, 40, 64) >= 0);
+        assertEquals(1, atlas.getResetCount());
+        assertEquals(1, atlas.getCellCount());
+        assertEquals(-1, atlas.find('A', 1, 40));
+        assertEquals(-1, atlas.allocate('W', 1, 40, 200));
+    }
+
+    @Test
+    public void testKeyTableGrowsPastInitialCapacity() {
+        GlyphAtlasLayout.KeyTable table = new GlyphAtlasLayout.KeyTable();
+        for (int i = 0; i < 1000; i++) {
+            table.put(((long) i << 32) | i, i);
+        }
+        assertEquals(1000, table.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, table.get(((long) i << 32) | i));
+        }
+        table.removeSymbol((char) 7);
+        assertEquals(-1, table.get((7L << 32) | 7));
+        assertEquals(999, table.size());
+    }
+}
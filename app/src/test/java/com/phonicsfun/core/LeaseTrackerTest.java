@@ -0,0 +1,48 @@
+package com.phonicsfun.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Unit tests for LeaseTracker hold counting and reuse hand-off.
+ */
+public class LeaseTrackerTest {
+    private final LeaseTracker<Object> leases = new LeaseTracker<>();
+
+    @Test
+    public void testUnheldItemIsReusableOnceRetired() {
+        assertTrue(leases.retire(new Object()));
+
+        Object item = new Object();
+        leases.acquire(item);
+        assertFalse(leases.release(item));
+        assertTrue(leases.retire(item));
+    }
+
+    @Test
+    public void testHeldItemWaitsForItsLastRelease() {
+        Object item = new Object();
+        leases.acquire(item);
+        leases.acquire(item);
+        assertEquals(2, leases.getHolders(item));
+
+        assertFalse(leases.retire(item));
+        assertFalse(leases.release(item));
+        assertTrue(leases.release(item));
+        assertEquals(0, leases.getHolders(item));
+        // A stray release after that does not hand it out twice
+        assertFalse(leases.release(item));
+    }
+
+    @Test
+    public void testReacquiringCancelsRetirement() {
+        Object item = new Object();
+        leases.acquire(item);
+        assertFalse(leases.retire(item));
+        leases.acquire(item);
+        leases.release(item);
+        assertFalse(leases.release(item));
+    }
+}
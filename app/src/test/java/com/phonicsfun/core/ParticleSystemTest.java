@@ -0,0 +1,102 @@
+package com.phonicsfun.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import org.junit.Test;
+
+/**
+ * Unit tests for ParticleSystem.
+ */
+public class ParticleSystemTest {
+
+    @Test
+    public void testParticlesMoveAndExpire() {
+        ParticleSystem particles = new ParticleSystem(8);
+        assertTrue(particles.spawn(1, 10f, 20f, 100f, -50f, 24f, 1f, 0.6f, ParticleSystem.ALPHA_CONSTANT));
+        particles.update(0.5f);
+        assertEquals(1, particles.getCount());
+        assertEquals(60f, particles.getX(0), 1e-4f);
+        assertEquals(-5f, particles.getY(0), 1e-4f);
+        assertEquals(0.6f, particles.getAlpha(0), 0f);
+        assertEquals(1, particles.getSprite(0));
+
+        particles.update(0.5f);
+        assertEquals(0, particles.getCount());
+    }
+
+    @Test
+    public void testExpiredParticleIsReplacedByLast() {
+        ParticleSystem particles = new ParticleSystem(8);
+        particles.spawn(0, 1f, 0f, 0f, 0f, 1f, 0.1f, 1f, ParticleSystem.ALPHA_CONSTANT);
+        particles.spawn(0, 2f, 0f, 0f, 0f, 1f, 5f, 1f, ParticleSystem.ALPHA_CONSTANT);
+        particles.spawn(0, 3f, 0f, 0f, 0f, 1f, 0.1f, 1f, ParticleSystem.ALPHA_CONSTANT);
+        particles.spawn(0, 4f, 0f, 0f, 0f, 1f, 5f, 1f, ParticleSystem.ALPHA_CONSTANT);
+        particles.update(0.2f);
+        assertEquals(2, particles.getCount());
+        assertEquals(6f, particles.getX(0) + particles.getX(1), 0f);
+    }
+
+    @Test
+    public void testFadeInOutPeaksAtHalfLife() {
+        ParticleSystem particles = new ParticleSystem(4);
+        particles.spawn(0, 0f, 0f, 0f, 0f, 1f, 1f, 0.8f, ParticleSystem.ALPHA_FADE_IN_OUT);
+        assertEquals(0f, particles.getAlpha(0), 0f);
+        particles.update(0.25f);
+        assertEquals(0.4f, particles.getAlpha(0), 1e-4f);
+        particles.update(0.25f);
+        assertEquals(0.8f, particles.getAlpha(0), 1e-4f);
+        particles.update(0.25f);
+        assertEquals(0.4f, particles.getAlpha(0), 1e-4f);
+    }
+
+    @Test
+    public void testFullPoolDropsSpawns() {
+        ParticleSystem particles = new ParticleSystem(2);
+        assertTrue(particles.spawn(0, 0f, 0f, 0f, 0f, 1f, 1f, 1f, ParticleSystem.ALPHA_CONSTANT));
+        assertTrue(particles.spawn(0, 0f, 0f, 0f, 0f, 1f, 1f, 1f, ParticleSystem.ALPHA_CONSTANT));
+        assertFalse(particles.spawn(0, 0f, 0f, 0f, 0f, 1f, 1f, 1f, ParticleSystem.ALPHA_CONSTANT));
+        assertEquals(2, particles.getCount());
+        assertEquals(1, particles.getDroppedCount());
+
+        particles.clear();
+        assertEquals(0, particles.getCount());
+        assertTrue(particles.spawn(0, 0f, 0f, 0f, 0f, 1f, 1f, 1f, ParticleSystem.ALPHA_CONSTANT));
+    }
+
+    @Test
+    public void testSteadyStateDoesNotAllocate() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) return;
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        if (!allocations.isThreadAllocatedMemorySupported()) return;
+        allocations.setThreadAllocatedMemoryEnabled(true);
+
+        ParticleSystem particles = new ParticleSystem(64);
+        int checksum = runFrames(particles, 1000);
+
+        long threadId = Thread.currentThread().getId();
+        long before = allocations.getThreadAllocatedBytes(threadId);
+        checksum += runFrames(particles, 100000);
+        long allocated = allocations.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue(checksum != 0);
+        assertTrue("allocated " + allocated + " bytes", allocated < 4096);
+    }
+
+    private static int runFrames(ParticleSystem particles, int frames) {
+        int checksum = 0;
+        for (int frame = 0; frame < frames; frame++) {
+            if (frame % 30 == 0) {
+                for (int i = 0; i < 3; i++) {
+                    particles.spawn(0, i, frame % 100, 0f, 0f, 24f, 1f, 1f, ParticleSystem.ALPHA_FADE_IN_OUT);
+                }
+            }
+            particles.update(1f / 60f);
+            checksum += particles.getCount();
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,231 @@
+package com.phonicsfun.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for PcmMixer.
+ * Uses synthetic buffers so the mixing core runs on the plain JVM.
+ */
+public class PcmMixerTest {
+    private static final int RATE = 8000;
+
+    private PcmMixer mixer;
+
+    @Before
+    public void setUp() {
+        mixer = new PcmMixer(RATE, 2);
+        mixer.setDedupPolicy(PcmMixer.DedupPolicy.NONE);
+    }
+
+    @Test
+    public void testMixSumsVoicesWithGain() {
+        mixer.play(constant(1000, 4), "a", 1.0f, 1);
+        mixer.play(constant(2000, 4), "b", 0.5f, 1);
+
+        short[] out = new short[4];
+        mixer.mix(out, 0, 4);
+
+        assertArrayEquals(new short[]{2000, 2000, 2000, 2000}, out);
+        assertEquals(0, mixer.getActiveVoiceCount());
+    }
+
+    @Test
+    public void testMixClampsInsteadOfWrapping() {
+        mixer.play(constant(30000, 2), "a", 1.0f, 1);
+        mixer.play(constant(30000, 2), "b", 1.0f, 1);
+
+        short[] out = new short[2];
+        mixer.mix(out, 0, 2);
+
+        assertArrayEquals(new short[]{Short.MAX_VALUE, Short.MAX_VALUE}, out);
+    }
+
+    @Test
+    public void testMixPadsWithSilenceAndContinuesAcrossBlocks() {
+        mixer.play(constant(100, 3), "a", 1.0f, 1);
+
+        short[] out = new short[2];
+        mixer.mix(out, 0, 2);
+        assertArrayEquals(new short[]{100, 100}, out);
+        assertEquals(1, mixer.getActiveVoiceCount());
+
+        mixer.mix(out, 0, 2);
+        assertArrayEquals(new short[]{100, 0}, out);
+        assertEquals(0, mixer.getActiveVoiceCount());
+    }
+
+    @Test
+    public void testOldestVoiceIsStolen() {
+        int first = mixer.play(constant(1, 100), "a", 1.0f, 1);
+        mixer.play(constant(2, 100), "b", 1.0f, 1);
+        int third = mixer.play(constant(4, 100), "c", 1.0f, 1);
+
+        assertEquals(2, mixer.getActiveVoiceCount());
+        short[] out = new short[1];
+        mixer.mix(out, 0, 1);
+        assertEquals(6, out[0]);
+
+        mixer.stop(first); // already stolen, must be a no-op
+        assertEquals(2, mixer.getActiveVoiceCount());
+        mixer.stop(third);
+        assertEquals(1, mixer.getActiveVoiceCount());
+    }
+
+    @Test
+    public void testHigherPriorityVoicesAreNotStolen() {
+        mixer.play(constant(1, 100), "a", 1.0f, 5);
+        mixer.play(constant(2, 100), "b", 1.0f, 5);
+
+        assertEquals(0, mixer.play(constant(4, 100), "c", 1.0f, 1));
+    }
+
+    @Test
+    public void testQuietestVoiceIsStolen() {
+        mixer.setStealPolicy(PcmMixer.StealPolicy.QUIETEST);
+        mixer.play(constant(1000, 100), "a", 1.0f, 1);
+        mixer.play(constant(1000, 100), "b", 0.1f, 1);
+        mixer.play(constant(1000, 100), "c", 0.5f, 1);
+
+        short[] out = new short[1];
+        mixer.mix(out, 0, 1);
+        assertEquals(1500, out[0]);
+    }
+
+    @Test
+    public void testRestartDedupReusesVoice() {
+        mixer.setDedupPolicy(PcmMixer.DedupPolicy.RESTART);
+        PcmClip clip = ramp(100);
+
+        int first = mixer.play(clip, "boom", 0.5f, 1);
+        short[] out = new short[10];
+        mixer.mix(out, 0, 10);
+        int second = mixer.play(clip, "boom", 1.0f, 1);
+
+        assertEquals(first, second);
+        assertEquals(1, mixer.getActiveVoiceCount());
+        mixer.mix(out, 0, 1);
+        assertEquals(0, out[0]); // rewound to the first frame at the louder gain
+        mixer.mix(out, 0, 1);
+        assertEquals(1, out[0]);
+    }
+
+    @Test
+    public void testIgnoreDedupKeepsPosition() {
+        mixer.setDedupPolicy(PcmMixer.DedupPolicy.IGNORE);
+        PcmClip clip = ramp(100);
+
+        mixer.play(clip, "boom", 1.0f, 1);
+        short[] out = new short[10];
+        mixer.mix(out, 0, 10);
+        mixer.play(clip, "boom", 1.0f, 1);
+
+        mixer.mix(out, 0, 1);
+        assertEquals(10, out[0]);
+    }
+
+    @Test
+    public void testDedupWindowExpires() {
+        mixer.setDedupPolicy(PcmMixer.DedupPolicy.IGNORE);
+        mixer.setDedupWindowMillis(1); // 8 frames at 8 kHz
+        PcmClip clip = ramp(100);
+
+        int first = mixer.play(clip, "boom", 1.0f, 1);
+        short[] out = new short[10];
+        mixer.mix(out, 0, 10);
+
+        int second = mixer.play(clip, "boom", 1.0f, 1);
+        assertEquals(2, mixer.getActiveVoiceCount());
+        assertFalse(first == second);
+    }
+
+    @Test
+    public void testDedupWindowCountsMixerFramesForResampledClips() {
+        mixer.setDedupPolicy(PcmMixer.DedupPolicy.IGNORE);
+        mixer.setDedupWindowMillis(10); // 80 mixer frames
+        PcmClip clip = new PcmClip(new short[400], RATE * 2);
+
+        int first = mixer.play(clip, "boom", 1.0f, 1);
+        short[] out = new short[60];
+        mixer.mix(out, 0, 60);
+        // 120 clip frames in, but only 60 of 80 output frames
+        assertEquals(first, mixer.play(clip, "boom", 1.0f, 1));
+
+        mixer.mix(out, 0, 30);
+        assertFalse(first == mixer.play(clip, "boom", 1.0f, 1));
+        assertEquals(2, mixer.getActiveVoiceCount());
+    }
+
+    @Test
+    public void testResamplesClipAtDifferentRate() {
+        PcmClip doubleRate = new PcmClip(new short[]{0, 10, 20, 30, 40, 50, 60, 70, 80}, RATE * 2);
+        mixer.play(doubleRate, "a", 1.0f, 1);
+
+        short[] out = new short[5];
+        mixer.mix(out, 0, 5);
+
+        assertArrayEquals(new short[]{0, 20, 40, 60, 0}, out);
+        assertEquals(0, mixer.getActiveVoiceCount());
+    }
+
+    @Test
+    public void testInterpolatesWhenUpsampling() {
+        mixer.play(new PcmClip(new short[]{0, 100, 200}, RATE / 2), "a", 1.0f, 1);
+
+        short[] out = new short[4];
+        mixer.mix(out, 0, 4);
+
+        assertArrayEquals(new short[]{0, 50, 100, 150}, out);
+    }
+
+    @Test
+    public void testReportsStartOnceFirstFramesAreWritten() {
+        final List<String> started = new ArrayList<>();
+        mixer.setStartListener(new PcmMixer.StartListener() {
+            @Override
+            public void onVoiceStarted(String key, long requestNanos, long writtenNanos) {
+                started.add(key + "@" + requestNanos + "-" + writtenNanos);
+            }
+        });
+        short[] out = new short[2];
+        mixer.play(constant(1, 2), "short", 1.0f, 1, 10);
+        mixer.play(constant(1, 100), "long", 1.0f, 1, 20);
+        // Queued but not yet mixed: nothing has been heard
+        mixer.reportStarted(25);
+        assertEquals(0, started.size());
+
+        mixer.mix(out, 0, 2);
+        mixer.reportStarted(30);
+        // The short clip finished inside the block but was still heard
+        assertEquals(2, started.size());
+        assertEquals("short@10-30", started.get(0));
+        assertEquals("long@20-30", started.get(1));
+
+        // Later blocks of the same voice are not reported again, nor are untimed plays
+        mixer.play(constant(1, 100), "untimed", 1.0f, 1);
+        mixer.mix(out, 0, 2);
+        mixer.reportStarted(40);
+        assertEquals(2, started.size());
+    }
+
+    private static PcmClip constant(int value, int frames) {
+        short[] samples = new short[frames];
+        for (int i = 0; i < frames; i++) {
+            samples[i] = (short) value;
+        }
+        return new PcmClip(samples, RATE);
+    }
+
+    private static PcmClip ramp(int frames) {
+        short[] samples = new short[frames];
+        for (int i = 0; i < frames; i++) {
+            samples[i] = (short) i;
+        }
+        return new PcmClip(samples, RATE);
+    }
+}
@@ -0,0 +1,146 @@
+package com.phonicsfun.core;
+
+import static com.phonicsfun.core.TestFiles.DIRECT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for ProfileManager switching, paging and persistence.
+ */
+public class ProfileManagerTest {
+    private File root;
+
+    @Before
+    public void setUp() throws IOException {
+        root = TestFiles.newDirectory("profiles");
+    }
+
+    @After
+    public void tearDown() {
+        TestFiles.delete(root);
+    }
+
+    @Test
+    public void testStartsWithDefaultLearner() {
+        ProfileManager manager = new ProfileManager(root, DIRECT);
+        assertEquals(ProfileManager.DEFAULT_PROFILE, manager.getActiveProfileId());
+        assertEquals(1, manager.getProfileIds().size());
+        assertEquals(0, manager.getResidentCount());
+        assertEquals(80, manager.getActiveProfile().getAudioVolume());
+        assertEquals(1, manager.getResidentCount());
+    }
+
+    @Test
+    public void testSwitchingKeepsLearnersApart() {
+        ProfileManager manager = new ProfileManager(root, DIRECT);
+        String mia = manager.createProfile("Mia");
+        manager.getActiveProfile().getProgress().markCompleted('G');
+
+        final List<String> switched = new ArrayList<>();
+        manager.addProfileListener(new ProfileManager.ProfileListener() {
+            @Override
+            public void onProfileChanged(LearnerProfile profile) {
+                switched.add(profile.getId());
+            }
+        });
+        manager.setActiveProfile(mia);
+        manager.setActiveProfile(mia);
+        assertEquals(1, switched.size());
+        assertEquals(mia, switched.get(0));
+
+        LearnerProfile profile = manager.getActiveProfile();
+        assertFalse(profile.getProgress().isCompleted('G'));
+        profile.setAudioVolume(30);
+        profile.setAnswerCounts(4, 5);
+        profile.save();
+
+        ProfileManager reopened = new ProfileManager(root, DIRECT);
+        assertEquals(mia, reopened.getActiveProfileId());
+        assertEquals("Mia", reopened.getProfileName(mia));
+        assertEquals(30, reopened.getActiveProfile().getAudioVolume());
+        assertEquals(4, reopened.getActiveProfile().getCorrectAnswers());
+        reopened.setActiveProfile(ProfileManager.DEFAULT_PROFILE);
+        assertTrue(reopened.getActiveProfile().getProgress().isCompleted('G'));
+    }
+
+    @Test
+    public void testInactiveLearnersArePagedOut() {
+        ProfileManager manager = new ProfileManager(root, DIRECT);
+        LearnerProfile first = manager.getActiveProfile();
+        for (int i = 0; i < 30; i++) {
+            manager.setActiveProfile(manager.createProfile("Child " + i));
+            assertTrue(manager.getResidentCount() <= ProfileManager.MAX_RESIDENT);
+        }
+        manager.setActiveProfile(ProfileManager.DEFAULT_PROFILE);
+        assertNotSame(first, manager.getActiveProfile());
+
+        LearnerProfile active = manager.getActiveProfile();
+        manager.trimMemory();
+        assertEquals(1, manager.getResidentCount());
+        assertSame(active, manager.getActiveProfile());
+    }
+
+    @Test
+    public void testResetProgressNotifiesForActiveLearner() {
+        ProfileManager manager = new ProfileManager(root, DIRECT);
+        String mia = manager.createProfile("Mia");
+        LearnerProfile active = manager.getActiveProfile();
+        active.getProgress().markCompleted('G');
+        active.setAnswerCounts(3, 4);
+
+        final List<LearnerProfile> changed = new ArrayList<>();
+        manager.addProfileListener(new ProfileManager.ProfileListener() {
+            @Override
+            public void onProfileChanged(LearnerProfile profile) {
+                changed.add(profile);
+            }
+        });
+        manager.resetProgress(mia);
+        assertTrue(changed.isEmpty());
+
+        manager.resetProgress(ProfileManager.DEFAULT_PROFILE);
+        assertEquals(1, changed.size());
+        assertSame(active, changed.get(0));
+        assertFalse(active.getProgress().isCompleted('G'));
+        assertEquals(0, active.getTotalAnswers());
+    }
+
+    @Test
+    public void testDeleteRemovesFiles() throws IOException {
+        ProfileManager manager = new ProfileManager(root, DIRECT);
+        String id = manager.createProfile("Leo");
+        manager.setActiveProfile(id);
+        manager.getActiveProfile().getProgress().markCompleted('A');
+        manager.getActiveProfile().save();
+        GameSnapshot.write(manager.snapshotFile(id), new GameSnapshot().encode());
+        manager.setActiveProfile(ProfileManager.DEFAULT_PROFILE);
+
+        manager.deleteProfile(id);
+        assertFalse(new File(root, "progress/" + id + ".log").exists());
+        assertFalse(new File(root, "profiles/" + id + ".settings").exists());
+        assertFalse(manager.snapshotFile(id).exists());
+        assertEquals(1, new ProfileManager(root, DIRECT).getProfileIds().size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCannotDeleteActiveLearner() {
+        new ProfileManager(root, DIRECT).deleteProfile(ProfileManager.DEFAULT_PROFILE);
+    }
+
+    @Test
+    public void testNamesAreEscaped() {
+        ProfileManager manager = new ProfileManager(root, DIRECT);
+        String id = manager.createProfile("Zo\u00EB \"Z\" \\ 1");
+        assertEquals("Zo\u00EB \"Z\" \\ 1", new ProfileManager(root, DIRECT).getProfileName(id));
+    }
+}
@@ -0,0 +1,150 @@
+package com.phonicsfun.core;
+
+import static com.phonicsfun.core.TestFiles.DIRECT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for ProgressStore counters, log replay, compaction and migration.
+ */
+public class ProgressStoreTest {
+    private File root;
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        root = TestFiles.newDirectory("progress");
+        file = new File(root, "progress.log");
+    }
+
+    @After
+    public void tearDown() {
+        TestFiles.delete(root);
+    }
+
+    @Test
+    public void testCountersAndCompletion() {
+        ProgressStore store = new ProgressStore(file, DIRECT);
+        assertFalse(store.isCompleted('G'));
+        assertEquals(0f, store.getAccuracy('G'), 0f);
+
+        store.recordAttempt('G', true, 1000L);
+        store.recordAttempt('G', false, 2000L);
+        store.recordAttempt('G', true, 1500L);
+        store.markCompleted('G', 3000L);
+        store.markCompleted('G', 4000L);
+
+        assertEquals(3, store.getAttempts('G'));
+        assertEquals(2, store.getCorrect('G'));
+        assertEquals(2f / 3f, store.getAccuracy('G'), 1e-6f);
+        assertEquals(2000L, store.getLastPlayed('G'));
+        assertTrue(store.isCompleted('G'));
+        assertEquals(3000L, store.getCompletedAt('G'));
+        assertEquals(1, store.getCompletedCount());
+        assertEquals(4, store.getLogRecords());
+    }
+
+    @Test
+    public void testReplaysLog() {
+        ProgressStore store = new ProgressStore(file, DIRECT);
+        store.recordAttempt('A', true, 10L);
+        store.recordAttempt('\u00D1', false, 20L);
+        store.markCompleted('A', 30L);
+
+        ProgressStore reopened = new ProgressStore(file, DIRECT);
+        assertEquals(1, reopened.getAttempts('A'));
+        assertEquals(1, reopened.getAttempts('\u00D1'));
+        assertEquals(0, reopened.getCorrect('\u00D1'));
+        assertTrue(reopened.isCompleted('A'));
+        assertEquals(30L, reopened.getCompletedAt('A'));
+        assertEquals(1, reopened.getCompletedCount());
+    }
+
+    @Test
+    public void testCompactsLongLog() {
+        ProgressStore store = new ProgressStore(file, DIRECT);
+        int total = ProgressStore.MIN_COMPACT_RECORDS * 3;
+        for (int i = 0; i < total; i++) {
+            store.recordAttempt(i % 2 == 0 ? 'G' : 'B', i % 3 == 0, i);
+        }
+        store.markCompleted('B', 99L);
+        assertTrue(store.getLogRecords() < ProgressStore.MIN_COMPACT_RECORDS);
+        assertTrue(file.length() < ProgressStore.HEADER_BYTES
+                + (long) ProgressStore.RECORD_BYTES * ProgressStore.MIN_COMPACT_RECORDS);
+
+        ProgressStore reopened = new ProgressStore(file, DIRECT);
+        assertEquals(total / 2, reopened.getAttempts('G'));
+        assertEquals(store.getCorrect('B'), reopened.getCorrect('B'));
+        assertEquals(total - 1, reopened.getLastPlayed('B'));
+        assertTrue(reopened.isCompleted('B'));
+        assertEquals(99L, reopened.getCompletedAt('B'));
+    }
+
+    @Test
+    public void testSkillSurvivesReopenAndCompaction() {
+        DifficultyEstimator estimator = new DifficultyEstimator();
+        ProgressStore store = new ProgressStore(file, DIRECT);
+        for (int i = 0; i < ProgressStore.MIN_COMPACT_RECORDS; i++) {
+            estimator.record('G', i % 4 != 0, i % 2 == 0 ? 900 : -1);
+            store.recordAttempt('G', i % 4 != 0, i);
+            store.saveSkill('G', estimator);
+        }
+        assertTrue(store.getLogRecords() < ProgressStore.MIN_COMPACT_RECORDS);
+
+        DifficultyEstimator restored = new DifficultyEstimator();
+        new ProgressStore(file, DIRECT).restoreSkills(restored);
+        assertEquals(estimator.getAccuracy('G'), restored.getAccuracy('G'), 0f);
+        assertEquals(estimator.getReactionMillis('G'), restored.getReactionMillis('G'), 0f);
+        assertEquals(ProgressStore.MIN_COMPACT_RECORDS, restored.getAnswerCount('G'));
+        assertEquals(ProgressStore.MIN_COMPACT_RECORDS / 2, restored.getTimedAnswerCount('G'));
+        assertEquals(estimator.getSkill('G'), restored.getSkill('G'), 0f);
+        // Letters without a saved estimate keep the prior
+        assertEquals(0, restored.getAnswerCount('B'));
+    }
+
+    @Test
+    public void testDropsTornRecord() throws IOException {
+        ProgressStore store = new ProgressStore(file, DIRECT);
+        store.recordAttempt('G', true, 1L);
+        store.recordAttempt('G', true, 2L);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 5);
+        }
+
+        ProgressStore reopened = new ProgressStore(file, DIRECT);
+        assertEquals(1, reopened.getAttempts('G'));
+        reopened.recordAttempt('G', false, 3L);
+        assertEquals(2, new ProgressStore(file, DIRECT).getAttempts('G'));
+    }
+
+    @Test
+    public void testImportAndReset() {
+        ProgressStore store = new ProgressStore(file, DIRECT);
+        store.importCompletedLetters("GAG");
+        assertEquals(2, store.getCompletedCount());
+        assertTrue(store.isCompleted('A'));
+
+        store.reset();
+        assertEquals(0, store.getCompletedCount());
+        assertFalse(file.exists());
+        assertFalse(new ProgressStore(file, DIRECT).isCompleted('G'));
+    }
+
+    @Test
+    public void testIgnoresForeignFile() throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.write("GAB".getBytes("UTF-8"));
+        }
+        ProgressStore store = new ProgressStore(file, DIRECT);
+        assertEquals(0, store.getCompletedCount());
+        store.markCompleted('G', 5L);
+        assertTrue(new ProgressStore(file, DIRECT).isCompleted('G'));
+    }
+}
@@ -0,0 +1,109 @@
+package com.phonicsfun.core;
+
+import static org.junit.Assert.assertEquals;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Unit tests for QualityController tier stepping and hysteresis.
+ */
+public class QualityControllerTest {
+    private static final long BUDGET = 12_000_000L;
+    private static final long SLOW = 20_000_000L;
+    private static final long MIDDLE = 8_000_000L;
+    private static final long FAST = 2_000_000L;
+
+    private static void feed(QualityController controller, long drawNanos, int frames) {
+        for (int i = 0; i < frames; i++) {
+            controller.onFrame(drawNanos);
+        }
+    }
+
+    @Test
+    public void testStepsDownOneTierPerWindow() {
+        QualityController controller = new QualityController(BUDGET);
+        final List<QualityController.Tier> changes = new ArrayList<>();
+        controller.setTierListener(new QualityController.TierListener() {
+            @Override
+            public void onTierChanged(QualityController.Tier tier) {
+                changes.add(tier);
+            }
+        });
+
+        feed(controller, SLOW, QualityController.WINDOW - 1);
+        assertEquals(QualityController.Tier.FULL, controller.getTier());
+        feed(controller, SLOW, 1);
+        assertEquals(QualityController.Tier.NO_GLOW, controller.getTier());
+        feed(controller, SLOW, QualityController.WINDOW * 10);
+        assertEquals(QualityController.Tier.ATLAS_ONLY, controller.getTier());
+        assertEquals(3, changes.size());
+        assertEquals(QualityController.Tier.NO_ANTIALIAS, changes.get(1));
+    }
+
+    @Test
+    public void testOccasionalSlowFramesAreTolerated() {
+        QualityController controller = new QualityController(BUDGET);
+        for (int i = 0; i < 1000; i++) {
+            controller.onFrame(i % 10 == 0 ? SLOW : FAST);
+        }
+        assertEquals(QualityController.Tier.FULL, controller.getTier());
+    }
+
+    @Test
+    public void testStepsUpOnlyAfterSustainedHeadroom() {
+        QualityController controller = new QualityController(BUDGET);
+        feed(controller, SLOW, QualityController.WINDOW);
+        assertEquals(QualityController.Tier.NO_GLOW, controller.getTier());
+
+        // Under budget but without headroom: stay put
+        feed(controller, MIDDLE, QualityController.BASE_UPGRADE_DELAY * 4);
+        assertEquals(QualityController.Tier.NO_GLOW, controller.getTier());
+
+        // The delay has passed, so a full window of fast frames is enough
+        feed(controller, FAST, QualityController.WINDOW - 1);
+        assertEquals(QualityController.Tier.NO_GLOW, controller.getTier());
+        feed(controller, FAST, 1);
+        assertEquals(QualityController.Tier.FULL, controller.getTier());
+    }
+
+    @Test
+    public void testWaitsOutUpgradeDelay() {
+        QualityController controller = new QualityController(BUDGET);
+        feed(controller, SLOW, QualityController.WINDOW);
+        feed(controller, FAST, QualityController.BASE_UPGRADE_DELAY - 1);
+        assertEquals(QualityController.Tier.NO_GLOW, controller.getTier());
+        feed(controller, FAST, 1);
+        assertEquals(QualityController.Tier.FULL, controller.getTier());
+    }
+
+    @Test
+    public void testFlappingBacksOff() {
+        QualityController controller = new QualityController(BUDGET);
+        feed(controller, SLOW, QualityController.WINDOW);
+        feed(controller, FAST, QualityController.BASE_UPGRADE_DELAY);
+        assertEquals(QualityController.Tier.FULL, controller.getTier());
+
+        // The upgrade did not hold
+        feed(controller, SLOW, QualityController.WINDOW);
+        assertEquals(QualityController.Tier.NO_GLOW, controller.getTier());
+        assertEquals(QualityController.BASE_UPGRADE_DELAY * 2, controller.getUpgradeDelay());
+
+        feed(controller, FAST, QualityController.BASE_UPGRADE_DELAY);
+        assertEquals(QualityController.Tier.NO_GLOW, controller.getTier());
+        feed(controller, FAST, QualityController.BASE_UPGRADE_DELAY);
+        assertEquals(QualityController.Tier.FULL, controller.getTier());
+    }
+
+    @Test
+    public void testLowestTierAndReset() {
+        QualityController controller = new QualityController(BUDGET);
+        controller.setLowestTier(QualityController.Tier.NO_ANTIALIAS);
+        feed(controller, SLOW, QualityController.WINDOW * 10);
+        assertEquals(QualityController.Tier.NO_ANTIALIAS, controller.getTier());
+
+        controller.reset();
+        assertEquals(QualityController.Tier.FULL, controller.getTier());
+        assertEquals(QualityController.BASE_UPGRADE_DELAY, controller.getUpgradeDelay());
+    }
+}
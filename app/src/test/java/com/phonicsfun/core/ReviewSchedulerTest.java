@@ -0,0 +1,128 @@
+package com.phonicsfun.core;
+
+import static com.phonicsfun.core.TestFiles.DIRECT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import java.io.File;
+import java.io.IOException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for ReviewScheduler box movement, ordering and persistence.
+ */
+public class ReviewSchedulerTest {
+    private File root;
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        root = TestFiles.newDirectory("reviews");
+        file = new File(root, "reviews.log");
+    }
+
+    @After
+    public void tearDown() {
+        TestFiles.delete(root);
+    }
+
+    private ReviewScheduler scheduler() {
+        ReviewScheduler reviews = new ReviewScheduler(new ProgressStore(file, DIRECT));
+        for (String word : new String[]{"grape", "goat", "gold"}) {
+            reviews.add('G', word);
+        }
+        return reviews;
+    }
+
+    @Test
+    public void testNewWordsComeInOrder() {
+        ReviewScheduler reviews = scheduler();
+        assertEquals("grape", reviews.next('G', null));
+        assertEquals(3, reviews.getDueCount('G', 0L));
+        assertNull(reviews.next('A', null));
+    }
+
+    @Test
+    public void testBoxesMoveWithAnswers() {
+        ReviewScheduler reviews = scheduler();
+        reviews.review('G', "grape", true, 1000L);
+        assertEquals(1, reviews.getBox('G', "grape"));
+        assertEquals(1000L + ReviewScheduler.INTERVALS_MILLIS[1], reviews.getDue('G', "grape"));
+        assertEquals("goat", reviews.next('G', null));
+
+        for (int i = 0; i < 10; i++) {
+            reviews.review('G', "grape", true, 2000L);
+        }
+        assertEquals(ReviewScheduler.MAX_BOX, reviews.getBox('G', "grape"));
+        reviews.review('G', "grape", false, 3000L);
+        assertEquals(0, reviews.getBox('G', "grape"));
+        assertEquals(3000L, reviews.getDue('G', "grape"));
+    }
+
+    @Test
+    public void testMissedWordReturnsButNotBackToBack() {
+        ReviewScheduler reviews = scheduler();
+        reviews.review('G', "grape", true, 1000L);
+        reviews.review('G', "goat", true, 1000L);
+        reviews.review('G', "gold", false, 1000L);
+        assertEquals("gold", reviews.next('G', null));
+        assertEquals("grape", reviews.next('G', "gold"));
+        assertEquals(1, reviews.getDueCount('G', 1000L));
+    }
+
+    @Test
+    public void testStatePersistsInProgressStore() {
+        ReviewScheduler reviews = scheduler();
+        reviews.review('G', "grape", true, 1000L);
+        reviews.review('G', "grape", true, 2000L);
+        reviews.review('G', "goat", false, 1500L);
+
+        ReviewScheduler reopened = scheduler();
+        assertEquals(2, reopened.getBox('G', "grape"));
+        assertEquals(2000L + ReviewScheduler.INTERVALS_MILLIS[2], reopened.getDue('G', "grape"));
+        assertEquals(0, reopened.getBox('G', "goat"));
+        assertEquals("gold", reopened.next('G', null));
+    }
+
+    @Test
+    public void testSameWordUnderTwoLettersIsTrackedSeparately() {
+        ReviewScheduler reviews = scheduler();
+        reviews.add('A', "goat");
+        reviews.review('G', "goat", true, 1000L);
+        assertEquals(1, reviews.getBox('G', "goat"));
+        assertEquals(0, reviews.getBox('A', "goat"));
+        assertEquals("goat", reviews.next('A', null));
+        assertEquals(-1, reviews.getBox('B', "goat"));
+
+        reviews.review('A', "goat", false, 2000L);
+        ReviewScheduler reopened = scheduler();
+        reopened.add('A', "goat");
+        assertEquals(1, reopened.getBox('G', "goat"));
+        assertEquals(2000L, reopened.getDue('A', "goat"));
+    }
+
+    @Test
+    public void testLargeHistoryStaysOrdered() {
+        ProgressStore store = new ProgressStore(file, DIRECT);
+        ReviewScheduler reviews = new ReviewScheduler(store);
+        int words = 2000;
+        for (int i = 0; i < words; i++) {
+            reviews.add('W', "word" + i);
+        }
+        // Answer every word; every third one is missed
+        for (int i = 0; i < words; i++) {
+            reviews.review('W', "word" + i, i % 3 != 0, 10_000L + i);
+        }
+        assertEquals("word0", reviews.next('W', null));
+        assertEquals("word3", reviews.next('W', "word0"));
+        assertEquals((words + 2) / 3, reviews.getDueCount('W', 20_000L));
+        assertEquals(words, store.getReviewCount());
+        assertTrue(store.getLogRecords() <= words * ProgressStore.RECORDS_PER_LETTER);
+
+        ReviewScheduler reopened = new ReviewScheduler(new ProgressStore(file, DIRECT));
+        reopened.add('W', "word1");
+        assertEquals(1, reopened.getBox('W', "word1"));
+    }
+}
@@ -0,0 +1,80 @@
+package com.phonicsfun.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Test;
+
+/**
+ * Unit tests for SnapshotBuffer hand-off between a writer and a reader.
+ */
+public class SnapshotBufferTest {
+
+    @Test
+    public void testReaderSeesNewestPublish() {
+        SnapshotBuffer<RenderSnapshot> buffer = newBuffer();
+        assertFalse(buffer.hasFresh());
+
+        buffer.getWriteBuffer().simulationTimeNanos = 1;
+        buffer.publish();
+        buffer.getWriteBuffer().simulationTimeNanos = 2;
+        buffer.publish();
+
+        assertTrue(buffer.hasFresh());
+        assertEquals(2, buffer.acquire().simulationTimeNanos);
+        assertFalse(buffer.hasFresh());
+    }
+
+    @Test
+    public void testAcquiredSnapshotIsNeverHandedToWriter() {
+        SnapshotBuffer<RenderSnapshot> buffer = newBuffer();
+        buffer.publish();
+        RenderSnapshot reading = buffer.acquire();
+        for (int i = 0; i < 10; i++) {
+            assertNotSame(reading, buffer.getWriteBuffer());
+            buffer.publish();
+        }
+        assertNotSame(reading, buffer.acquire());
+    }
+
+    @Test
+    public void testConcurrentSnapshotsAreNeverTorn() throws InterruptedException {
+        final SnapshotBuffer<RenderSnapshot> buffer = newBuffer();
+        final AtomicBoolean done = new AtomicBoolean();
+        Thread writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (int frame = 1; frame <= 200000; frame++) {
+                    RenderSnapshot snapshot = buffer.getWriteBuffer();
+                    snapshot.clear();
+                    snapshot.simulationTimeNanos = frame;
+                    for (int i = 0; i < 4; i++) {
+                        snapshot.addSymbol('G', frame, frame, frame, i);
+                    }
+                    buffer.publish();
+                }
+                done.set(true);
+            }
+        });
+        writer.start();
+
+        long lastSeen = 0;
+        while (!done.get()) {
+            RenderSnapshot snapshot = buffer.acquire();
+            long frame = snapshot.simulationTimeNanos;
+            assertTrue("went backwards", frame >= lastSeen);
+            lastSeen = frame;
+            for (int i = 0; i < snapshot.count; i++) {
+                assertEquals((float) frame, snapshot.centerX[i], 0f);
+            }
+        }
+        writer.join();
+        assertEquals(200000, buffer.acquire().simulationTimeNanos);
+    }
+
+    private static SnapshotBuffer<RenderSnapshot> newBuffer() {
+        return new SnapshotBuffer<>(new RenderSnapshot(), new RenderSnapshot(), new RenderSnapshot());
+    }
+}
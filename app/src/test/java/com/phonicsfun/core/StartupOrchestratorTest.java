@@ -0,0 +1,225 @@
+package com.phonicsfun.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import com.phonicsfun.core.StartupOrchestrator.Stage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Unit tests for StartupOrchestrator stage order, dependencies and timing.
+ */
+public class StartupOrchestratorTest {
+    private final List<String> ran = new ArrayList<>();
+
+    private Runnable record(final String name) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                ran.add(name);
+            }
+        };
+    }
+
+    @Test
+    public void testDependenciesRunFirstWithinAStage() {
+        StartupOrchestrator startup = new StartupOrchestrator()
+                .add(Stage.CRITICAL, "views", record("views"), "state")
+                .add(Stage.CRITICAL, "state", record("state"), "profiles")
+                .add(Stage.CRITICAL, "profiles", record("profiles"))
+                .add(Stage.CRITICAL, "fonts", record("fonts"));
+        startup.runStage(Stage.CRITICAL);
+
+        assertEquals(Arrays.asList("profiles", "state", "views", "fonts"), ran);
+        assertEquals(ran, startup.getCompletedTasks());
+        assertTrue(startup.isStageDone(Stage.CRITICAL));
+        assertFalse(startup.isStageDone(Stage.AFTER_FIRST_FRAME));
+    }
+
+    @Test
+    public void testLaterStageRunsEarlierStagesFirst() {
+        StartupOrchestrator startup = new StartupOrchestrator()
+                .add(Stage.AFTER_FIRST_FRAME, "effects", record("effects"), "state")
+                .add(Stage.CRITICAL, "state", record("state"));
+        startup.runStage(Stage.AFTER_FIRST_FRAME);
+        assertEquals(Arrays.asList("state", "effects"), ran);
+
+        // Running a finished stage again does nothing
+        startup.runStage(Stage.CRITICAL);
+        startup.runStage(Stage.AFTER_FIRST_FRAME);
+        assertEquals(2, ran.size());
+    }
+
+    @Test
+    public void testIdleTasksRunOneAtATime() {
+        StartupOrchestrator startup = new StartupOrchestrator()
+                .add(Stage.CRITICAL, "state", record("state"))
+                .add(Stage.IDLE, "speech", record("speech"), "music")
+                .add(Stage.IDLE, "music", record("music"), "state");
+
+        assertTrue(startup.runNextIdleTask());
+        assertEquals(Arrays.asList("state", "music"), ran);
+        assertFalse(startup.isStageDone(Stage.IDLE));
+
+        assertFalse(startup.runNextIdleTask());
+        assertEquals(Arrays.asList("state", "music", "speech"), ran);
+        assertTrue(startup.isStageDone(Stage.IDLE));
+        assertFalse(startup.runNextIdleTask());
+        assertEquals(3, ran.size());
+    }
+
+    @Test
+    public void testEmptyIdleStageFinishes() {
+        StartupOrchestrator startup = new StartupOrchestrator();
+        assertFalse(startup.runNextIdleTask());
+        assertTrue(startup.isStageDone(Stage.IDLE));
+        assertEquals(0f, startup.getStageMillis(Stage.IDLE), 0f);
+    }
+
+    @Test
+    public void testTimingIsReported() {
+        StartupOrchestrator startup = new StartupOrchestrator()
+                .add(Stage.CRITICAL, "slow", new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            Thread.sleep(20);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                });
+        assertEquals(-1f, startup.getTaskMillis("slow"), 0f);
+        assertEquals(-1f, startup.getStageMillis(Stage.CRITICAL), 0f);
+
+        startup.runStage(Stage.CRITICAL);
+        assertTrue(startup.getTaskMillis("slow") >= 15f);
+        assertTrue(startup.getStageMillis(Stage.CRITICAL) >= startup.getTaskMillis("slow"));
+        assertEquals(-1f, startup.getTaskMillis("missing"), 0f);
+        assertEquals(-1f, startup.getFirstFrameMillis(), 0f);
+    }
+
+    @Test
+    public void testRejectsBadGraphs() {
+        assertStageFails(new StartupOrchestrator()
+                .add(Stage.CRITICAL, "a", record("a"), "b")
+                .add(Stage.CRITICAL, "b", record("b"), "a"), Stage.CRITICAL);
+        assertStageFails(new StartupOrchestrator()
+                .add(Stage.CRITICAL, "a", record("a"), "nowhere"), Stage.CRITICAL);
+        assertStageFails(new StartupOrchestrator()
+                .add(Stage.CRITICAL, "state", record("state"), "music")
+                .add(Stage.IDLE, "music", record("music")), Stage.CRITICAL);
+        assertTrue(ran.isEmpty());
+    }
+
+    @Test
+    public void testRejectsDuplicatesAndLateRegistration() {
+        StartupOrchestrator startup = new StartupOrchestrator().add(Stage.CRITICAL, "state", record("state"));
+        try {
+            startup.add(Stage.IDLE, "state", record("again"));
+            fail("Duplicate task accepted");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+        startup.runStage(Stage.CRITICAL);
+        try {
+            startup.add(Stage.CRITICAL, "late", record("late"));
+            fail("Task added to a finished stage");
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+        // Later stages still accept work
+        startup.add(Stage.IDLE, "music", record("music"));
+    }
+
+    /**
+     * Runs nothing until the test says a frame was drawn or the looper went idle
+     */
+    private static final class FakeScheduler implements StartupOrchestrator.Scheduler {
+        Runnable frameWork;
+        StartupOrchestrator.IdleWork idleWork;
+        boolean cancelled;
+
+        @Override
+        public void afterNextFrame(Runnable work) {
+            frameWork = work;
+        }
+
+        @Override
+        public void whenIdle(StartupOrchestrator.IdleWork work) {
+            idleWork = work;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        void drawFrame() {
+            Runnable work = frameWork;
+            frameWork = null;
+            work.run();
+        }
+
+        boolean goIdle() {
+            boolean again = idleWork.runWhileIdle();
+            if (!again) idleWork = null;
+            return again;
+        }
+    }
+
+    @Test
+    public void testStartRunsLaterStagesAfterTheFrameAndWhenIdle() {
+        FakeScheduler scheduler = new FakeScheduler();
+        StartupOrchestrator startup = new StartupOrchestrator(scheduler)
+                .add(Stage.CRITICAL, "state", record("state"))
+                .add(Stage.AFTER_FIRST_FRAME, "effects", record("effects"), "state")
+                .add(Stage.IDLE, "music", record("music"))
+                .add(Stage.IDLE, "speech", record("speech"));
+        startup.start();
+        assertEquals(Arrays.asList("state"), ran);
+        assertEquals(-1f, startup.getFirstFrameMillis(), 0f);
+        assertTrue(scheduler.idleWork == null);
+
+        scheduler.drawFrame();
+        assertEquals(Arrays.asList("state", "effects"), ran);
+        assertTrue(startup.getFirstFrameMillis() >= 0f);
+        assertTrue(startup.isStageDone(Stage.AFTER_FIRST_FRAME));
+
+        assertTrue(scheduler.goIdle());
+        assertEquals(Arrays.asList("state", "effects", "music"), ran);
+        assertFalse(scheduler.goIdle());
+        assertEquals(Arrays.asList("state", "effects", "music", "speech"), ran);
+        assertTrue(startup.isStageDone(Stage.IDLE));
+    }
+
+    @Test
+    public void testCancelStopsPendingStages() {
+        FakeScheduler scheduler = new FakeScheduler();
+        StartupOrchestrator startup = new StartupOrchestrator(scheduler)
+                .add(Stage.AFTER_FIRST_FRAME, "effects", record("effects"))
+                .add(Stage.IDLE, "music", record("music"));
+        startup.start();
+        startup.cancel();
+        assertTrue(scheduler.cancelled);
+
+        // A frame callback already in flight finds the start-up cancelled
+        scheduler.drawFrame();
+        assertTrue(ran.isEmpty());
+        assertFalse(startup.isStageDone(Stage.AFTER_FIRST_FRAME));
+        assertTrue(scheduler.idleWork == null);
+    }
+
+    private static void assertStageFails(StartupOrchestrator startup, Stage stage) {
+        try {
+            startup.runStage(stage);
+            fail("Bad start-up graph accepted");
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.phonicsfun.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Unit tests for SymbolBatch key packing and draw order.
+ */
+public class SymbolBatchTest {
+
+    @Test
+    public void testKeyRoundTrips() {
+        char[] symbols = {'G', '#', '\u00e9', '\u03a9', '\uffff', 0};
+        int[] levels = {0, 1, 7, 255, 0xFFFF};
+        int[] indices = {0, 1, 1000, Integer.MAX_VALUE};
+        for (char symbol : symbols) {
+            for (int level : levels) {
+                for (int index : indices) {
+                    long key = SymbolBatch.key(symbol, level, index);
+                    assertTrue("sign bit set for " + (int) symbol, key >= 0);
+                    assertEquals(symbol, SymbolBatch.symbolOf(key));
+                    assertEquals(level, SymbolBatch.levelOf(key));
+                    assertEquals(index, SymbolBatch.indexOf(key));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSortsBySymbolThenLevelThenInputOrder() {
+        SymbolBatch batch = new SymbolBatch();
+        char[] symbols = {'G', 'A', '\u03a9', 'G', 'A', 'G'};
+        int[] levels = {2, 1, 0, 1, 1, 2};
+        batch.sort(symbols, levels, symbols.length);
+
+        int[] expected = {1, 4, 3, 0, 5, 2};
+        assertEquals(expected.length, batch.size());
+        for (int n = 0; n < expected.length; n++) {
+            assertEquals("position " + n, expected[n], batch.index(n));
+        }
+    }
+
+    @Test
+    public void testRunsStayGroupedForRandomInput() {
+        Random random = new Random(7);
+        SymbolBatch batch = new SymbolBatch();
+        int count = 500;
+        char[] symbols = new char[count];
+        int[] levels = new int[count];
+        for (int i = 0; i < count; i++) {
+            // Include symbols above 0x7FFF, which would sort first if they reached the sign bit
+            symbols[i] = random.nextBoolean() ? (char) ('A' + random.nextInt(5)) : (char) (0xFF00 + random.nextInt(3));
+            levels[i] = random.nextInt(4);
+        }
+        batch.sort(symbols, levels, count);
+
+        for (int n = 1; n < count; n++) {
+            int previous = batch.index(n - 1);
+            int current = batch.index(n);
+            long a = SymbolBatch.key(symbols[previous], levels[previous], previous);
+            long b = SymbolBatch.key(symbols[current], levels[current], current);
+            assertTrue(symbols[previous] <= symbols[current]);
+            assertTrue(a < b);
+        }
+    }
+
+    @Test
+    public void testGrowsPastCapacityAndReusesScratch() {
+        SymbolBatch batch = new SymbolBatch();
+        batch.sort(new char[]{'B', 'A'}, new int[]{0, 0}, 2);
+        assertEquals(2, batch.capacity());
+        assertEquals(1, batch.index(0));
+
+        char[] symbols = new char[5];
+        int[] levels = new int[5];
+        for (int i = 0; i < 5; i++) {
+            symbols[i] = (char) ('E' - i);
+        }
+        batch.sort(symbols, levels, 5);
+        assertEquals(5, batch.capacity());
+        for (int n = 0; n < 5; n++) {
+            assertEquals(4 - n, batch.index(n));
+        }
+
+        // A smaller batch reuses the array and ignores stale entries past count
+        batch.sort(new char[]{'Z', 'Y', 'X'}, new int[3], 2);
+        assertEquals(5, batch.capacity());
+        assertEquals(2, batch.size());
+        assertEquals(1, batch.index(0));
+        assertEquals(0, batch.index(1));
+
+        // Growth doubles when that is larger than the request
+        batch.sort(new char[6], new int[6], 6);
+        assertEquals(10, batch.capacity());
+    }
+}
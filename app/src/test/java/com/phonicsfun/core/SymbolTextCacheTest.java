@@ -0,0 +1,144 @@
+package com.phonicsfun.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import org.junit.Test;
+
+/**
+ * Unit tests for SymbolTextCache.
+ * Steady-state lookups must not allocate; measured with the JVM's
+ * per-thread allocation counter.
+ */
+public class SymbolTextCacheTest {
+
+    @Test
+    public void testSymbolStringsAreCached() {
+        SymbolTextCache cache = new SymbolTextCache();
+        assertEquals("G", cache.symbolString('G'));
+        assertSame(cache.symbolString('G'), cache.symbolString('G'));
+        assertSame(cache.symbolString('\u00e9'), cache.symbolString('\u00e9'));
+        assertSame(cache.symbolString('\u03a9'), cache.symbolString('\u03a9'));
+        // Colliding non-Latin-1 symbols still return the right string
+        assertEquals("\u0400", cache.symbolString('\u0400'));
+        assertEquals("\u0440", cache.symbolString('\u0440'));
+        assertEquals("\u0400", cache.symbolString('\u0400'));
+    }
+
+    @Test
+    public void testBaselineOffsetsPerTextSize() {
+        SymbolTextCache cache = new SymbolTextCache();
+        assertTrue(Float.isNaN(cache.getBaselineOffset(52.8f)));
+        cache.putBaselineOffset(52.8f, 19f);
+        cache.putBaselineOffset(61.6f, 22f);
+        assertEquals(19f, cache.getBaselineOffset(52.8f), 0f);
+        assertEquals(22f, cache.getBaselineOffset(61.6f), 0f);
+
+        for (int i = 0; i < 32; i++) {
+            cache.putBaselineOffset(100f + i, i);
+        }
+        assertEquals(31f, cache.getBaselineOffset(131f), 0f);
+        assertTrue(Float.isNaN(cache.getBaselineOffset(52.8f)));
+    }
+
+    @Test
+    public void testSteadyStateLookupsDoNotAllocate() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) return;
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        if (!allocations.isThreadAllocatedMemorySupported()) return;
+        allocations.setThreadAllocatedMemoryEnabled(true);
+
+        SymbolTextCache cache = new SymbolTextCache();
+        char[] symbols = {'G', 'A', 'B', '#', '$', '%', '\u03a9'};
+        float[] sizes = {52.8f, 57.6f, 61.6f};
+        for (float size : sizes) {
+            cache.putBaselineOffset(size, size / 3f);
+        }
+        int checksum = runFrames(cache, symbols, sizes, 1000);
+
+        long threadId = Thread.currentThread().getId();
+        long before = allocations.getThreadAllocatedBytes(threadId);
+        checksum += runFrames(cache, symbols, sizes, 100000);
+        long allocated = allocations.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue(checksum != 0);
+        // A single allocation per lookup would be several megabytes
+        assertTrue("allocated " + allocated + " bytes", allocated < 4096);
+    }
+
+    @Test
+    public void testRenderLookupMeasuresOncePerTextSize() {
+        SymbolTextCache cache = new SymbolTextCache();
+        CountingMeasure measure = new CountingMeasure();
+        assertEquals(-17.6f, cache.baselineOffset(52.8f, measure), 1e-4f);
+        assertEquals(-17.6f, cache.baselineOffset(52.8f, measure), 1e-4f);
+        assertEquals(-20f, cache.baselineOffset(60f, measure), 1e-4f);
+        assertEquals(2, measure.calls);
+    }
+
+    @Test
+    public void testRenderLookupPathDoesNotAllocate() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) return;
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        if (!allocations.isThreadAllocatedMemorySupported()) return;
+        allocations.setThreadAllocatedMemoryEnabled(true);
+
+        // The same calls SymbolRenderer.drawSymbol makes per glyph, cold cache included
+        SymbolTextCache cache = new SymbolTextCache();
+        CountingMeasure measure = new CountingMeasure();
+        char[] symbols = {'G', 'A', 'B', '#', '$', '%', '\u03a9'};
+        int[] levels = {0, 1, 2};
+        int checksum = renderFrames(cache, measure, symbols, levels, 1000);
+
+        long threadId = Thread.currentThread().getId();
+        long before = allocations.getThreadAllocatedBytes(threadId);
+        checksum += renderFrames(cache, measure, symbols, levels, 100000);
+        long allocated = allocations.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue(checksum != 0);
+        assertEquals(levels.length, measure.calls);
+        assertTrue("allocated " + allocated + " bytes", allocated < 4096);
+    }
+
+    private static int renderFrames(SymbolTextCache cache, SymbolTextCache.FontMeasure measure,
+                                    char[] symbols, int[] levels, int frames) {
+        int checksum = 0;
+        for (int frame = 0; frame < frames; frame++) {
+            for (int i = 0; i < symbols.length; i++) {
+                // Text size as SymbolRenderer scales it for the level
+                float textSize = 48f * (1.0f + levels[i % levels.length] * 0.1f);
+                checksum += cache.symbolString(symbols[i]).length();
+                checksum += (int) cache.baselineOffset(textSize, measure);
+            }
+        }
+        return checksum;
+    }
+
+    /**
+     * Stands in for the paint's font metrics: offset is a third of the size, upwards
+     */
+    private static final class CountingMeasure implements SymbolTextCache.FontMeasure {
+        int calls;
+
+        @Override
+        public float measureBaselineOffset(float textSize) {
+            calls++;
+            return -textSize / 3f;
+        }
+    }
+
+    private static int runFrames(SymbolTextCache cache, char[] symbols, float[] sizes, int frames) {
+        int checksum = 0;
+        for (int frame = 0; frame < frames; frame++) {
+            for (int i = 0; i < symbols.length; i++) {
+                checksum += cache.symbolString(symbols[i]).length();
+                checksum += (int) cache.getBaselineOffset(sizes[i % sizes.length]);
+            }
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,45 @@
+package com.phonicsfun.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.Executor;
+
+/**
+ * TestFiles - Scratch directories and a same-thread writer for persistence tests
+ */
+final class TestFiles {
+    /**
+     * Runs queued writes on the calling thread, so a test can read them straight back
+     */
+    static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private TestFiles() {
+    }
+
+    /**
+     * New empty directory under the system temp folder
+     */
+    static File newDirectory(String prefix) throws IOException {
+        File directory = File.createTempFile(prefix, "");
+        if (!directory.delete() || !directory.mkdir()) {
+            throw new IOException("Could not create " + directory);
+        }
+        return directory;
+    }
+
+    /**
+     * Remove a file, or a directory and everything under it
+     */
+    static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) delete(child);
+        }
+        file.delete();
+    }
+}
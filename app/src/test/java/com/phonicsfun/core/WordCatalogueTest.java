@@ -0,0 +1,62 @@
+package com.phonicsfun.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Unit tests for WordCatalogue.
+ */
+public class WordCatalogueTest {
+
+    private static WordCatalogue sample() {
+        return new WordCatalogue(Arrays.asList(
+                new GameState.WordMessage("G", "grape", "voice_grape"),
+                new GameState.WordMessage("A", "apple", "voice_apple"),
+                new GameState.WordMessage("G", "goat", "voice_goat"),
+                new GameState.WordMessage("b", "ball", "voice_ball"),
+                new GameState.WordMessage("\u00c9", "\u00e9toile", "voice_etoile")));
+    }
+
+    @Test
+    public void testBucketsKeepInsertionOrder() {
+        WordCatalogue catalogue = sample();
+        assertEquals(5, catalogue.size());
+        List<GameState.WordMessage> g = catalogue.getWords('G');
+        assertEquals(2, g.size());
+        assertEquals("grape", g.get(0).getWord());
+        assertEquals("goat", g.get(1).getWord());
+        assertEquals("goat", catalogue.getWord('G', 1).getWord());
+        assertNull(catalogue.getWord('G', 2));
+    }
+
+    @Test
+    public void testLookupsAreCaseInsensitiveAndShared() {
+        WordCatalogue catalogue = sample();
+        assertSame(catalogue.getWords('g'), catalogue.getWords("G"));
+        assertEquals("ball", catalogue.getWords('B').get(0).getWord());
+        assertEquals(1, catalogue.getWordCount('\u00e9'));
+        assertEquals(0, catalogue.getWordCount('Z'));
+        assertTrue(catalogue.getWords((String) null).isEmpty());
+        assertTrue(catalogue.getWords("").isEmpty());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testBucketsAreUnmodifiable() {
+        sample().getWords('A').add(new GameState.WordMessage("A", "ant", "voice_ant"));
+    }
+
+    @Test
+    public void testLaterChangesToSourceDoNotLeakIn() {
+        List<GameState.WordMessage> source = new ArrayList<>();
+        source.add(new GameState.WordMessage("A", "apple", "voice_apple"));
+        WordCatalogue catalogue = new WordCatalogue(source);
+        source.add(new GameState.WordMessage("A", "ant", "voice_ant"));
+        assertEquals(1, catalogue.getWordCount('A'));
+    }
+}
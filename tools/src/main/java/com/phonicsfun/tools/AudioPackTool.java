@@ -0,0 +1,127 @@
+package com.phonicsfun.tools;
+
+import com.phonicsfun.core.AudioPack;
+import com.phonicsfun.core.PcmClip;
+import com.phonicsfun.core.WavDecoder;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * AudioPackTool - Build-time packer for voice audio
+ * Scans voice directories laid out as {@code <root>/<template>/voice-<word>.wav}
+ * and writes a single AudioPack that the app memory-maps at runtime.
+ *
+ * PCM16 entries (the default) play as zero-copy slices of the mapping; ADPCM
+ * is a quarter of the size but is decoded on first play.
+ *
+ * Usage: AudioPackTool --out voices.pack [--rate 22050] [--format pcm|adpcm] dir...
+ */
+public final class AudioPackTool {
+
+    private AudioPackTool() {}
+
+    public static void main(String[] args) throws IOException {
+        File out = null;
+        int sampleRate = 22050;
+        int format = AudioPack.FORMAT_PCM16;
+        List<File> roots = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--out":
+                    out = new File(args[++i]);
+                    break;
+                case "--rate":
+                    sampleRate = Integer.parseInt(args[++i]);
+                    break;
+                case "--format":
+                    format = parseFormat(args[++i]);
+                    break;
+                default:
+                    roots.add(new File(args[i]));
+            }
+        }
+        if (out == null || roots.isEmpty()) {
+            System.err.println("Usage: AudioPackTool --out <file> [--rate hz] [--format pcm|adpcm] <voice dir>...");
+            System.exit(2);
+        }
+
+        AudioPack.Writer writer = new AudioPack.Writer();
+        Set<String> seen = new HashSet<>();
+        int skipped = 0;
+        for (File root : roots) {
+            File[] templateDirs = root.listFiles(File::isDirectory);
+            if (templateDirs == null) {
+                System.err.println("warning: not a directory, skipping " + root);
+                continue;
+            }
+            Arrays.sort(templateDirs);
+            for (File templateDir : templateDirs) {
+                String template = templateDir.getName().toLowerCase(Locale.US).replace('-', '_');
+                File[] files = templateDir.listFiles();
+                if (files == null) continue;
+                Arrays.sort(files);
+                for (File file : files) {
+                    String word = wordFromFileName(file.getName());
+                    if (word == null) continue;
+                    if (!seen.add(word + "/" + template)) {
+                        System.err.println("warning: duplicate voice " + word + "/" + template + ", keeping first: skipping " + file);
+                        continue;
+                    }
+                    try (InputStream in = new FileInputStream(file)) {
+                        PcmClip clip = WavDecoder.decode(in, sampleRate);
+                        short[] samples = new short[clip.getFrameCount()];
+                        for (int i = 0; i < samples.length; i++) {
+                            samples[i] = clip.getSample(i);
+                        }
+                        writer.add(word, template, samples, sampleRate, format);
+                    } catch (IOException e) {
+                        System.err.println("warning: skipping " + file + ": " + e.getMessage());
+                        skipped++;
+                    }
+                }
+            }
+        }
+
+        File parent = out.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Could not create " + parent);
+        }
+        writer.writeTo(out);
+        System.out.println("Packed " + writer.size() + " voices into " + out + " (" + out.length() + " bytes, "
+                + skipped + " skipped)");
+    }
+
+    /**
+     * "voice-girl.wav" / "voice_girl.wav" -> "girl"; anything else -> null
+     */
+    static String wordFromFileName(String name) {
+        String lower = name.toLowerCase(Locale.US);
+        if (!lower.endsWith(".wav") || !(lower.startsWith("voice-") || lower.startsWith("voice_"))) {
+            return null;
+        }
+        String word = lower.substring("voice-".length(), lower.length() - ".wav".length());
+        return word.isEmpty() ? null : word;
+    }
+
+    private static int parseFormat(String value) {
+        switch (value.toLowerCase(Locale.US)) {
+            case "pcm":
+            case "pcm16":
+                return AudioPack.FORMAT_PCM16;
+            case "adpcm":
+            case "ima":
+                return AudioPack.FORMAT_IMA_ADPCM;
+            default:
+                throw new IllegalArgumentException("Unknown format: " + value);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.phonicsfun.tools;
+
+import com.phonicsfun.core.ContentPack;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ContentPackTool - Build-time packer for letter content
+ * Reads catalogue JSON documents (one per language) and writes a single
+ * ContentPack that the app memory-maps at runtime.
+ *
+ * Usage: ContentPackTool --out content.pack catalogue.json...
+ */
+public final class ContentPackTool {
+
+    private ContentPackTool() {}
+
+    public static void main(String[] args) throws IOException {
+        File out = null;
+        List<File> inputs = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--out")) {
+                out = new File(args[++i]);
+            } else {
+                inputs.add(new File(args[i]));
+            }
+        }
+        if (out == null || inputs.isEmpty()) {
+            System.err.println("Usage: ContentPackTool --out <file> <catalogue json>...");
+            System.exit(2);
+        }
+
+        ContentPack.Writer writer = new ContentPack.Writer();
+        for (File input : inputs) {
+            String json = new String(Files.readAllBytes(input.toPath()), Charset.forName("UTF-8"));
+            try {
+                writer.addJson(json);
+            } catch (IllegalArgumentException | ClassCastException e) {
+                throw new IOException("Bad catalogue " + input + ": " + e.getMessage(), e);
+            }
+        }
+
+        File parent = out.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Could not create " + parent);
+        }
+        writer.writeTo(out);
+        System.out.println("Packed " + writer.size() + " sections from " + inputs.size() + " catalogues into "
+                + out + " (" + out.length() + " bytes)");
+    }
+}
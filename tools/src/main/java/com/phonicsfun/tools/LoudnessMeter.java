@@ -0,0 +1,109 @@
+package com.phonicsfun.tools;
+
+/**
+ * LoudnessMeter - Integrated loudness of mono audio per ITU-R BS.1770
+ * K-weighting filter, 400 ms blocks with 75% overlap, absolute gate at
+ * -70 LUFS and relative gate 10 LU below the ungated level.
+ */
+final class LoudnessMeter {
+    static final double SILENCE = Double.NEGATIVE_INFINITY;
+
+    private static final double ABSOLUTE_GATE = -70.0;
+    private static final double RELATIVE_GATE = -10.0;
+
+    private LoudnessMeter() {}
+
+    /**
+     * @param samples mono samples in -1..1
+     * @return loudness in LUFS, or {@link #SILENCE} when every block is gated
+     */
+    static double integratedLoudness(float[] samples, int sampleRate) {
+        if (samples.length == 0) return SILENCE;
+        double[] weighted = kWeight(samples, sampleRate);
+
+        int blockSize = (int) (sampleRate * 0.4);
+        int hop = blockSize / 4;
+        if (samples.length < blockSize) {
+            // Short clips (single words) are measured as one block
+            blockSize = samples.length;
+            hop = samples.length;
+        }
+
+        int blockCount = (samples.length - blockSize) / hop + 1;
+        double[] blockPower = new double[blockCount];
+        for (int b = 0; b < blockCount; b++) {
+            double sum = 0;
+            int start = b * hop;
+            for (int i = start; i < start + blockSize; i++) {
+                sum += weighted[i] * weighted[i];
+            }
+            blockPower[b] = sum / blockSize;
+        }
+
+        double absoluteMean = gatedMean(blockPower, ABSOLUTE_GATE);
+        if (absoluteMean <= 0) return SILENCE;
+        double relativeGate = toLoudness(absoluteMean) + RELATIVE_GATE;
+        double gatedMean = gatedMean(blockPower, Math.max(ABSOLUTE_GATE, relativeGate));
+        return gatedMean > 0 ? toLoudness(gatedMean) : SILENCE;
+    }
+
+    private static double gatedMean(double[] blockPower, double gate) {
+        double sum = 0;
+        int count = 0;
+        for (double power : blockPower) {
+            if (power > 0 && toLoudness(power) > gate) {
+                sum += power;
+                count++;
+            }
+        }
+        return count > 0 ? sum / count : 0;
+    }
+
+    private static double toLoudness(double meanSquare) {
+        return -0.691 + 10.0 * Math.log10(meanSquare);
+    }
+
+    /**
+     * Two-stage K-weighting (high shelf then high pass), with coefficients
+     * derived for any sample rate rather than the tabulated 48 kHz values
+     */
+    private static double[] kWeight(float[] samples, int sampleRate) {
+        double f0 = 1681.974450955533;
+        double gain = 3.999843853973347;
+        double q = 0.7071752369554196;
+        double k = Math.tan(Math.PI * f0 / sampleRate);
+        double vh = Math.pow(10.0, gain / 20.0);
+        double vb = Math.pow(vh, 0.4996667741545416);
+        double a0 = 1.0 + k / q + k * k;
+        double[] shelfB = {(vh + vb * k / q + k * k) / a0, 2.0 * (k * k - vh) / a0, (vh - vb * k / q + k * k) / a0};
+        double[] shelfA = {2.0 * (k * k - 1.0) / a0, (1.0 - k / q + k * k) / a0};
+
+        f0 = 38.13547087602444;
+        q = 0.5003270373238773;
+        k = Math.tan(Math.PI * f0 / sampleRate);
+        a0 = 1.0 + k / q + k * k;
+        double[] passB = {1.0, -2.0, 1.0};
+        double[] passA = {2.0 * (k * k - 1.0) / a0, (1.0 - k / q + k * k) / a0};
+
+        double[] out = new double[samples.length];
+        for (int i = 0; i < samples.length; i++) {
+            out[i] = samples[i];
+        }
+        biquad(out, shelfB, shelfA);
+        biquad(out, passB, passA);
+        return out;
+    }
+
+    private static void biquad(double[] data, double[] b, double[] a) {
+        double x1 = 0, x2 = 0, y1 = 0, y2 = 0;
+        for (int i = 0; i < data.length; i++) {
+            double x = data[i];
+            double y = b[0] * x + b[1] * x1 + b[2] * x2 - a[0] * y1 - a[1] * y2;
+            x2 = x1;
+            x1 = x;
+            y2 = y1;
+            y1 = y;
+            data[i] = y;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.phonicsfun.tools;
+
+/**
+ * Resampler - Band-limited (windowed sinc) sample rate conversion
+ * Slow but clean; meant for offline asset processing, not the audio thread.
+ */
+final class Resampler {
+    private static final int ZERO_CROSSINGS = 16;
+
+    private Resampler() {}
+
+    static float[] resample(float[] source, int sourceRate, int targetRate) {
+        if (sourceRate == targetRate || source.length == 0) {
+            return source;
+        }
+        double ratio = (double) targetRate / sourceRate;
+        // Low-pass at the lower Nyquist so downsampling does not alias
+        double cutoff = Math.min(1.0, ratio);
+        double halfWidth = ZERO_CROSSINGS / cutoff;
+
+        int targetLength = (int) Math.round(source.length * ratio);
+        float[] result = new float[targetLength];
+        for (int i = 0; i < targetLength; i++) {
+            double center = i / ratio;
+            int first = (int) Math.ceil(center - halfWidth);
+            int last = (int) Math.floor(center + halfWidth);
+            double sum = 0;
+            double weightSum = 0;
+            for (int j = Math.max(0, first); j <= Math.min(source.length - 1, last); j++) {
+                double distance = j - center;
+                double weight = cutoff * sinc(cutoff * distance) * blackman(distance / halfWidth);
+                sum += source[j] * weight;
+                weightSum += weight;
+            }
+            // Normalizing by the kernel sum keeps DC gain at 1 near the edges
+            result[i] = (float) (weightSum != 0 ? sum / weightSum : 0);
+        }
+        return result;
+    }
+
+    private static double sinc(double x) {
+        if (x == 0) return 1.0;
+        double px = Math.PI * x;
+        return Math.sin(px) / px;
+    }
+
+    /**
+     * Blackman window over -1..1
+     */
+    private static double blackman(double x) {
+        if (x <= -1 || x >= 1) return 0;
+        double phase = Math.PI * (x + 1);
+        return 0.42 - 0.5 * Math.cos(phase) + 0.08 * Math.cos(2 * phase);
+    }
+}
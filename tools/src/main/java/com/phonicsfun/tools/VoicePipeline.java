@@ -0,0 +1,365 @@
+package com.phonicsfun.tools;
+
+import com.phonicsfun.core.PcmClip;
+import com.phonicsfun.core.WavDecoder;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * VoicePipeline - Offline batch processing of sound assets
+ * Validates every WAV under a source tree, resamples to one rate, trims
+ * leading/trailing silence and normalizes integrated loudness, writing
+ * uniform mono 16-bit files to a mirror tree. Files are processed in parallel
+ * on a fork-join pool; unchanged inputs (by content hash) are skipped, and
+ * outputs whose source is gone or no longer valid are deleted so they are
+ * not packed.
+ *
+ * Usage: VoicePipeline --in dir --out dir [--rate 22050] [--lufs -16]
+ *        [--peak -1] [--silence -50] [--strict]
+ */
+public final class VoicePipeline {
+    private static final String CACHE_FILE = ".pipeline-cache";
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    enum Status { PROCESSED, UP_TO_DATE, INVALID, REMOVED }
+
+    static final class Settings {
+        int sampleRate = 22050;
+        double targetLufs = -16.0;
+        double peakDbfs = -1.0;
+        double silenceDbfs = -50.0;
+        int paddingMs = 30;
+
+        /** Part of every cache key so changing a setting reprocesses everything */
+        String fingerprint() {
+            return sampleRate + "/" + targetLufs + "/" + peakDbfs + "/" + silenceDbfs + "/" + paddingMs;
+        }
+    }
+
+    static final class Result {
+        final String path;
+        final Status status;
+        final String detail;
+        final String hash;
+
+        Result(String path, Status status, String detail, String hash) {
+            this.path = path;
+            this.status = status;
+            this.detail = detail;
+            this.hash = hash;
+        }
+    }
+
+    private final File inputRoot;
+    private final File outputRoot;
+    private final Settings settings;
+    private final Map<String, String> previousHashes;
+
+    VoicePipeline(File inputRoot, File outputRoot, Settings settings) throws IOException {
+        this.inputRoot = inputRoot;
+        this.outputRoot = outputRoot;
+        this.settings = settings;
+        this.previousHashes = readCache(new File(outputRoot, CACHE_FILE));
+    }
+
+    public static void main(String[] args) throws IOException {
+        File in = null;
+        File out = null;
+        boolean strict = false;
+        Settings settings = new Settings();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--in": in = new File(args[++i]); break;
+                case "--out": out = new File(args[++i]); break;
+                case "--rate": settings.sampleRate = Integer.parseInt(args[++i]); break;
+                case "--lufs": settings.targetLufs = Double.parseDouble(args[++i]); break;
+                case "--peak": settings.peakDbfs = Double.parseDouble(args[++i]); break;
+                case "--silence": settings.silenceDbfs = Double.parseDouble(args[++i]); break;
+                case "--strict": strict = true; break;
+                default: throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+        if (in == null || out == null || !in.isDirectory()) {
+            System.err.println("Usage: VoicePipeline --in <dir> --out <dir> [--rate hz] [--lufs target] [--peak dbfs] [--silence dbfs] [--strict]");
+            System.exit(2);
+        }
+
+        List<Result> results = new VoicePipeline(in, out, settings).run();
+        int[] counts = new int[Status.values().length];
+        for (Result result : results) {
+            counts[result.status.ordinal()]++;
+            if (result.status != Status.UP_TO_DATE) {
+                System.out.println(result.status + " " + result.path + (result.detail != null ? ": " + result.detail : ""));
+            }
+        }
+        System.out.println("Processed " + counts[Status.PROCESSED.ordinal()] + ", up to date "
+                + counts[Status.UP_TO_DATE.ordinal()] + ", invalid " + counts[Status.INVALID.ordinal()]
+                + ", removed " + counts[Status.REMOVED.ordinal()]);
+        if (strict && counts[Status.INVALID.ordinal()] > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Process every audio file under the input root
+     */
+    List<Result> run() throws IOException {
+        List<File> files = new ArrayList<>();
+        collectAudioFiles(inputRoot, files);
+        Collections.sort(files);
+
+        Result[] results = new Result[files.size()];
+        ForkJoinPool.commonPool().invoke(new BatchTask(files, results, 0, files.size()));
+
+        Map<String, String> cache = new TreeMap<>();
+        List<Result> list = new ArrayList<>(results.length);
+        for (Result result : results) {
+            list.add(result);
+            if (result.status != Status.INVALID) {
+                cache.put(result.path, result.hash);
+            }
+        }
+        removeStaleOutputs(outputRoot, cache, list);
+        writeCache(new File(outputRoot, CACHE_FILE), cache);
+        return list;
+    }
+
+    /**
+     * Delete outputs that no valid source produced this run, e.g. after the
+     * source WAV was deleted or renamed
+     */
+    private void removeStaleOutputs(File dir, Map<String, String> current, List<Result> results) throws IOException {
+        File[] children = dir.listFiles();
+        if (children == null) return;
+        for (File child : children) {
+            if (child.isDirectory()) {
+                removeStaleOutputs(child, current, results);
+                continue;
+            }
+            if (!child.getName().toLowerCase(Locale.US).endsWith(".wav")) continue;
+            String path = outputRoot.toPath().relativize(child.toPath()).toString().replace(File.separatorChar, '/');
+            if (current.containsKey(path)) continue;
+            if (!child.delete()) throw new IOException("Could not delete stale output " + path);
+            results.add(new Result(path, Status.REMOVED, "source is gone or invalid", ""));
+        }
+    }
+
+    /**
+     * Splits the file list until each task handles one file
+     */
+    private final class BatchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<File> files;
+        private final Result[] results;
+        private final int from;
+        private final int to;
+
+        BatchTask(List<File> files, Result[] results, int from, int to) {
+            this.files = files;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                for (int i = from; i < to; i++) {
+                    results[i] = processFile(files.get(i));
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new BatchTask(files, results, from, mid), new BatchTask(files, results, mid, to));
+        }
+    }
+
+    Result processFile(File file) {
+        String path = inputRoot.toPath().relativize(file.toPath()).toString().replace(File.separatorChar, '/');
+        try {
+            byte[] bytes = Files.readAllBytes(file.toPath());
+            String hash = sha256(bytes, settings.fingerprint());
+            File output = new File(outputRoot, path);
+
+            String container = detectContainer(bytes);
+            boolean namedWav = path.toLowerCase(Locale.US).endsWith(".wav");
+            if (!"wav".equals(container)) {
+                String detail = namedWav
+                        ? "mislabelled: file is " + container + " data, not WAV"
+                        : container + " input is not supported; convert to WAV first";
+                return new Result(path, Status.INVALID, detail, hash);
+            }
+            if (!namedWav) {
+                return new Result(path, Status.INVALID, "mislabelled: WAV data with a non-.wav name", hash);
+            }
+
+            if (hash.equals(previousHashes.get(path)) && output.isFile()) {
+                return new Result(path, Status.UP_TO_DATE, null, hash);
+            }
+
+            PcmClip clip = WavDecoder.decode(ByteBuffer.wrap(bytes), 0);
+            float[] samples = new float[clip.getFrameCount()];
+            for (int i = 0; i < samples.length; i++) {
+                samples[i] = clip.getSample(i) / 32768f;
+            }
+
+            samples = Resampler.resample(samples, clip.getSampleRate(), settings.sampleRate);
+            samples = trimSilence(samples, settings.sampleRate);
+            if (samples.length == 0) {
+                return new Result(path, Status.INVALID, "file is silent", hash);
+            }
+
+            double loudness = LoudnessMeter.integratedLoudness(samples, settings.sampleRate);
+            if (loudness == LoudnessMeter.SILENCE) {
+                return new Result(path, Status.INVALID, "file is below the loudness gate", hash);
+            }
+            double gainDb = settings.targetLufs - loudness;
+            double peak = peak(samples);
+            double maxGainDb = settings.peakDbfs - 20 * Math.log10(peak);
+            String detail = String.format(Locale.US, "%.1f LUFS, gain %+.1f dB", loudness, Math.min(gainDb, maxGainDb));
+            if (gainDb > maxGainDb) {
+                detail += " (peak-limited from " + String.format(Locale.US, "%+.1f", gainDb) + ")";
+                gainDb = maxGainDb;
+            }
+            float gain = (float) Math.pow(10, gainDb / 20);
+            for (int i = 0; i < samples.length; i++) {
+                samples[i] *= gain;
+            }
+
+            WavWriter.write(output, samples, settings.sampleRate);
+            return new Result(path, Status.PROCESSED, detail, hash);
+        } catch (IOException e) {
+            return new Result(path, Status.INVALID, e.getMessage(), "");
+        }
+    }
+
+    /**
+     * Identify the container from magic bytes, ignoring the file name
+     */
+    static String detectContainer(byte[] bytes) {
+        if (bytes.length >= 12 && bytes[0] == 'R' && bytes[1] == 'I' && bytes[2] == 'F' && bytes[3] == 'F'
+                && bytes[8] == 'W' && bytes[9] == 'A' && bytes[10] == 'V' && bytes[11] == 'E') {
+            return "wav";
+        }
+        if (bytes.length >= 3 && bytes[0] == 'I' && bytes[1] == 'D' && bytes[2] == '3') {
+            return "mp3";
+        }
+        if (bytes.length >= 2 && (bytes[0] & 0xFF) == 0xFF && (bytes[1] & 0xE0) == 0xE0) {
+            return "mp3";
+        }
+        if (bytes.length >= 4 && bytes[0] == 'O' && bytes[1] == 'g' && bytes[2] == 'g' && bytes[3] == 'S') {
+            return "ogg";
+        }
+        return "unknown";
+    }
+
+    /**
+     * Cut leading and trailing audio below the silence threshold, keeping a
+     * little padding so word onsets are not clipped
+     */
+    float[] trimSilence(float[] samples, int sampleRate) {
+        float threshold = (float) Math.pow(10, settings.silenceDbfs / 20);
+        int start = 0;
+        while (start < samples.length && Math.abs(samples[start]) < threshold) start++;
+        if (start == samples.length) return new float[0];
+        int end = samples.length - 1;
+        while (end > start && Math.abs(samples[end]) < threshold) end--;
+
+        int padding = sampleRate * settings.paddingMs / 1000;
+        start = Math.max(0, start - padding);
+        end = Math.min(samples.length - 1, end + padding);
+        float[] trimmed = new float[end - start + 1];
+        System.arraycopy(samples, start, trimmed, 0, trimmed.length);
+        return trimmed;
+    }
+
+    private static double peak(float[] samples) {
+        double peak = 1e-9;
+        for (float sample : samples) {
+            peak = Math.max(peak, Math.abs(sample));
+        }
+        return peak;
+    }
+
+    private static void collectAudioFiles(File dir, List<File> out) {
+        File[] children = dir.listFiles();
+        if (children == null) return;
+        for (File child : children) {
+            if (child.isDirectory()) {
+                collectAudioFiles(child, out);
+            } else {
+                String name = child.getName().toLowerCase(Locale.US);
+                if (name.endsWith(".wav") || name.endsWith(".mp3") || name.endsWith(".ogg")) {
+                    out.add(child);
+                }
+            }
+        }
+    }
+
+    private static String sha256(byte[] bytes, String salt) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(salt.getBytes(UTF_8));
+            digest.update(bytes);
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format(Locale.US, "%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    private static Map<String, String> readCache(File file) throws IOException {
+        Map<String, String> cache = new ConcurrentHashMap<>();
+        if (!file.isFile()) return cache;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int tab = line.indexOf('\t');
+                if (tab > 0) {
+                    cache.put(line.substring(0, tab), line.substring(tab + 1));
+                }
+            }
+        }
+        return cache;
+    }
+
+    private static void writeCache(File file, Map<String, String> cache) throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Could not create " + parent);
+        }
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), UTF_8);
+             PrintWriter out = new PrintWriter(writer)) {
+            for (Map.Entry<String, String> entry : cache.entrySet()) {
+                out.print(entry.getKey());
+                out.print('\t');
+                out.println(entry.getValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.phonicsfun.tools;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * WavWriter - Writes mono 16-bit PCM WAV files
+ */
+final class WavWriter {
+
+    private WavWriter() {}
+
+    static void write(File file, float[] samples, int sampleRate) throws IOException {
+        int dataBytes = samples.length * 2;
+        ByteBuffer wav = ByteBuffer.allocate(44 + dataBytes).order(ByteOrder.LITTLE_ENDIAN);
+        wav.putInt(0x46464952).putInt(36 + dataBytes).putInt(0x45564157);    // RIFF, size, WAVE
+        wav.putInt(0x20746d66).putInt(16)                                     // "fmt "
+                .putShort((short) 1).putShort((short) 1)                     // PCM, mono
+                .putInt(sampleRate).putInt(sampleRate * 2)                    // rate, byte rate
+                .putShort((short) 2).putShort((short) 16);                   // block align, bits
+        wav.putInt(0x61746164).putInt(dataBytes);                            // "data"
+        for (float sample : samples) {
+            float scaled = Math.round(sample * 32767f);
+            wav.putShort((short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, scaled)));
+        }
+
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Could not create " + parent);
+        }
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(wav.array());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.phonicsfun.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Unit tests for the offline loudness meter and resampler.
+ */
+public class LoudnessMeterTest {
+
+    @Test
+    public void testReferenceSineMeasuresMinus23() {
+        // BS.1770 reference: 997 Hz sine at -20 dBFS peak reads about -23 LUFS
+        assertEquals(-23.0, LoudnessMeter.integratedLoudness(sine(997, 0.1f, 48000, 48000), 48000), 0.5);
+        assertEquals(-23.0, LoudnessMeter.integratedLoudness(sine(997, 0.1f, 22050, 22050), 22050), 0.5);
+    }
+
+    @Test
+    public void testSilenceIsGated() {
+        assertEquals(LoudnessMeter.SILENCE, LoudnessMeter.integratedLoudness(new float[22050], 22050), 0);
+    }
+
+    @Test
+    public void testResamplePreservesToneLevel() {
+        float[] source = sine(440, 0.5f, 44100, 44100);
+        float[] resampled = Resampler.resample(source, 44100, 22050);
+        assertEquals(22050, resampled.length);
+        float peak = 0;
+        for (int i = 1000; i < resampled.length - 1000; i++) {
+            peak = Math.max(peak, Math.abs(resampled[i]));
+        }
+        assertEquals(0.5f, peak, 0.01f);
+    }
+
+    @Test
+    public void testResampleRemovesContentAboveNewNyquist() {
+        float[] resampled = Resampler.resample(sine(15000, 0.5f, 44100, 44100), 44100, 22050);
+        for (int i = 1000; i < resampled.length - 1000; i++) {
+            assertTrue(Math.abs(resampled[i]) < 0.02f);
+        }
+    }
+
+    private static float[] sine(double frequency, float amplitude, int sampleRate, int length) {
+        float[] samples = new float[length];
+        for (int i = 0; i < length; i++) {
+            samples[i] = (float) (amplitude * Math.sin(2 * Math.PI * frequency * i / sampleRate));
+        }
+        return samples;
+    }
+}
@@ -0,0 +1,195 @@
+package com.phonicsfun.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import com.phonicsfun.core.PcmClip;
+import com.phonicsfun.core.WavDecoder;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for VoicePipeline container checks, trimming and the incremental cache.
+ */
+public class VoicePipelineTest {
+    private File inputRoot;
+    private File outputRoot;
+
+    @Before
+    public void setUp() throws IOException {
+        inputRoot = Files.createTempDirectory("voices-in").toFile();
+        outputRoot = Files.createTempDirectory("voices-out").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        deleteTree(inputRoot);
+        deleteTree(outputRoot);
+    }
+
+    @Test
+    public void testDetectsContainerFromMagicBytes() {
+        assertEquals("wav", VoicePipeline.detectContainer(bytes("RIFF\0\0\0\0WAVEfmt ")));
+        assertEquals("mp3", VoicePipeline.detectContainer(bytes("ID3\u0004")));
+        assertEquals("mp3", VoicePipeline.detectContainer(new byte[]{(byte) 0xFF, (byte) 0xFB, 0x10}));
+        assertEquals("ogg", VoicePipeline.detectContainer(bytes("OggS\0")));
+        assertEquals("unknown", VoicePipeline.detectContainer(bytes("RIFF\0\0\0\0AVI ")));
+        assertEquals("unknown", VoicePipeline.detectContainer(new byte[0]));
+    }
+
+    @Test
+    public void testRejectsMislabelledFiles() throws IOException {
+        write(new File(inputRoot, "voices/goat.wav"), bytes("ID3\u0004 not really a wave"));
+        tone(new File(inputRoot, "voices/gold.mp3"), 22050);
+        tone(new File(outputRoot, "voices/goat.wav"), 22050);
+
+        Map<String, VoicePipeline.Result> results = run();
+        VoicePipeline.Result goat = results.get("voices/goat.wav");
+        assertEquals(VoicePipeline.Status.INVALID, goat.status);
+        assertTrue(goat.detail, goat.detail.contains("mislabelled: file is mp3"));
+        VoicePipeline.Result gold = results.get("voices/gold.mp3");
+        assertEquals(VoicePipeline.Status.INVALID, gold.status);
+        assertTrue(gold.detail, gold.detail.contains("non-.wav name"));
+        // An output left from when goat.wav was valid must not be packed
+        assertFalse(new File(outputRoot, "voices/goat.wav").exists());
+    }
+
+    @Test
+    public void testTrimKeepsPaddingAroundSound() throws IOException {
+        VoicePipeline.Settings settings = new VoicePipeline.Settings();
+        settings.paddingMs = 10;
+        VoicePipeline pipeline = new VoicePipeline(inputRoot, outputRoot, settings);
+
+        // 1000 Hz: 100 silent frames, 50 loud, 200 silent; padding is 10 frames
+        float[] samples = new float[350];
+        for (int i = 100; i < 150; i++) {
+            samples[i] = 0.5f;
+        }
+        float[] trimmed = pipeline.trimSilence(samples, 1000);
+        assertEquals(70, trimmed.length);
+        assertEquals(0f, trimmed[9], 0f);
+        assertEquals(0.5f, trimmed[10], 0f);
+        assertEquals(0.5f, trimmed[59], 0f);
+        assertEquals(0f, trimmed[60], 0f);
+
+        assertEquals(0, pipeline.trimSilence(new float[500], 1000).length);
+        // Sound at the very edges cannot be padded past the buffer
+        assertEquals(3, pipeline.trimSilence(new float[]{0.5f, 0.5f, 0.5f}, 1000).length);
+    }
+
+    @Test
+    public void testResamplesToTheTargetRate() throws IOException {
+        tone(new File(inputRoot, "voices/grape.wav"), 44100);
+
+        assertEquals(VoicePipeline.Status.PROCESSED, run().get("voices/grape.wav").status);
+        PcmClip output = WavDecoder.decode(ByteBuffer.wrap(
+                Files.readAllBytes(new File(outputRoot, "voices/grape.wav").toPath())), 0);
+        assertEquals(22050, output.getSampleRate());
+        // One second of tone, give or take the trimmed edges
+        assertEquals(22050, output.getFrameCount(), 2000);
+    }
+
+    @Test
+    public void testCacheSkipsUnchangedAndReprocessesChanged() throws IOException {
+        File source = new File(inputRoot, "voices/grape.wav");
+        tone(source, 22050);
+        assertEquals(VoicePipeline.Status.PROCESSED, run().get("voices/grape.wav").status);
+        assertEquals(VoicePipeline.Status.UP_TO_DATE, run().get("voices/grape.wav").status);
+
+        // Changed content is a miss
+        tone(source, 16000);
+        assertEquals(VoicePipeline.Status.PROCESSED, run().get("voices/grape.wav").status);
+
+        // So is a missing output, even with a matching hash
+        assertTrue(new File(outputRoot, "voices/grape.wav").delete());
+        assertEquals(VoicePipeline.Status.PROCESSED, run().get("voices/grape.wav").status);
+
+        // And so is a change of settings
+        VoicePipeline.Settings louder = new VoicePipeline.Settings();
+        louder.targetLufs = -14.0;
+        assertEquals(VoicePipeline.Status.PROCESSED,
+                index(new VoicePipeline(inputRoot, outputRoot, louder).run()).get("voices/grape.wav").status);
+    }
+
+    @Test
+    public void testDeletedSourceRemovesItsOutput() throws IOException {
+        File grape = new File(inputRoot, "voices/grape.wav");
+        tone(grape, 22050);
+        tone(new File(inputRoot, "voices/goat.wav"), 22050);
+        run();
+        assertTrue(new File(outputRoot, "voices/grape.wav").isFile());
+
+        assertTrue(grape.delete());
+        Map<String, VoicePipeline.Result> results = run();
+        assertEquals(VoicePipeline.Status.REMOVED, results.get("voices/grape.wav").status);
+        assertEquals(VoicePipeline.Status.UP_TO_DATE, results.get("voices/goat.wav").status);
+        assertFalse(new File(outputRoot, "voices/grape.wav").exists());
+
+        // Once gone it is not reported again, and putting it back reprocesses it
+        assertFalse(run().containsKey("voices/grape.wav"));
+        tone(grape, 22050);
+        assertEquals(VoicePipeline.Status.PROCESSED, run().get("voices/grape.wav").status);
+    }
+
+    private Map<String, VoicePipeline.Result> run() throws IOException {
+        return index(new VoicePipeline(inputRoot, outputRoot, new VoicePipeline.Settings()).run());
+    }
+
+    /**
+     * Results by path; a source's own result wins over the removal of its old output
+     */
+    private static Map<String, VoicePipeline.Result> index(List<VoicePipeline.Result> results) {
+        Map<String, VoicePipeline.Result> byPath = new HashMap<>();
+        for (VoicePipeline.Result result : results) {
+            if (!byPath.containsKey(result.path)) byPath.put(result.path, result);
+        }
+        return byPath;
+    }
+
+    /**
+     * One second of 440 Hz at half scale, between short silences
+     */
+    private static void tone(File file, int sampleRate) throws IOException {
+        int silence = sampleRate / 10;
+        float[] samples = new float[sampleRate + 2 * silence];
+        for (int i = 0; i < sampleRate; i++) {
+            samples[silence + i] = 0.5f * (float) Math.sin(2 * Math.PI * 440 * i / sampleRate);
+        }
+        WavWriter.write(file, samples, sampleRate);
+    }
+
+    private static void write(File file, byte[] bytes) throws IOException {
+        File parent = file.getParentFile();
+        assertTrue(parent.isDirectory() || parent.mkdirs());
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(bytes);
+        }
+    }
+
+    private static byte[] bytes(String text) {
+        byte[] bytes = new byte[text.length()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) text.charAt(i);
+        }
+        return bytes;
+    }
+
+    private static void deleteTree(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteTree(child);
+            }
+        }
+        file.delete();
+    }
+}